@@ -0,0 +1,71 @@
+#!/bin/bash
+
+# Startup time of a service, started from the extracted jar in target/cds
+# Build first with: mvn -Pcds package (plain jar and CDS) or mvn -Paot,cds package (AOT and CDS)
+#
+# Usage: ./measure-startup.sh [processor|ingest] [runs]
+# Prints, per mode, the median JVM start to application ready time, and for the processor
+# the time to the first consumed record when Kafka has records to consume (FIRST_RECORD=true).
+
+SERVICE=${1:-processor}
+RUNS=${2:-5}
+FIRST_RECORD=${FIRST_RECORD:-false}
+TIMEOUT=${TIMEOUT:-60}
+
+DIR="tracehub-$SERVICE/target/cds"
+JAR=$(ls "$DIR"/tracehub-"$SERVICE"-*.jar 2>/dev/null | head -1)
+if [ -z "$JAR" ]; then
+  echo "No extracted jar in $DIR, build with: mvn -pl tracehub-$SERVICE -am -Pcds package"
+  exit 1
+fi
+ARCHIVE="${JAR%.jar}.jsa"
+AOT=false
+if unzip -l "$JAR" | grep -q "__ApplicationContextInitializer.class"; then
+  AOT=true
+fi
+
+# Time until the line matching $1 is logged, in ms from JVM start
+measure() {
+  local pattern=$1; shift
+  local log
+  log=$(mktemp)
+  java "$@" -Dspring.aot.enabled=$AOT -jar "$JAR" > "$log" 2>&1 &
+  local pid=$!
+  local waited=0
+  while ! grep -q "$pattern" "$log" && [ $waited -lt $((TIMEOUT * 10)) ] && kill -0 $pid 2>/dev/null; do
+    sleep 0.1
+    waited=$((waited + 1))
+  done
+  kill $pid 2>/dev/null
+  wait $pid 2>/dev/null
+  if [ "$pattern" = "process running for" ]; then
+    # "Started ... in 1.2 seconds (process running for 1.4)"
+    grep -o 'process running for [0-9.]*' "$log" | head -1 | awk '{ printf "%d\n", $4 * 1000 }'
+  else
+    grep -o 'First record consumed [0-9]*' "$log" | head -1 | awk '{ print $4 }'
+  fi
+  rm -f "$log"
+}
+
+median() {
+  sort -n | awk '{ a[NR] = $1 } END { if (NR == 0) print "-"; else print a[int((NR + 1) / 2)] }'
+}
+
+run() {
+  local name=$1; shift
+  local ready first
+  ready=$(for i in $(seq "$RUNS"); do measure "process running for" "$@"; done | median)
+  if [ "$FIRST_RECORD" = "true" ] && [ "$SERVICE" = "processor" ]; then
+    first=$(for i in $(seq "$RUNS"); do measure "First record consumed" "$@"; done | median)
+  else
+    first="-"
+  fi
+  printf "%-10s %10s %18s\n" "$name" "$ready" "$first"
+}
+
+echo "⏱️  tracehub-$SERVICE startup, median of $RUNS runs (AOT: $AOT)"
+printf "%-10s %10s %18s\n" "mode" "ready ms" "first record ms"
+run "jar" -Xshare:auto
+if [ -f "$ARCHIVE" ]; then
+  run "cds" -XX:SharedArchiveFile="$ARCHIVE"
+fi
@@ -0,0 +1,32 @@
+package com.haiphamcoder.tracehub.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmark suite with the settings the regression gate expects:
+ * GC profiler enabled (for gc.alloc.rate.norm) and JSON results.
+ *
+ * Usage: java -cp benchmarks.jar com.haiphamcoder.tracehub.benchmarks.BenchmarkRunner [include-regex] [result.json]
+ */
+public class BenchmarkRunner {
+    
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*Benchmark";
+        String resultFile = args.length > 1 ? args[1] : "target/jmh-result.json";
+        
+        Options options = new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile)
+            .build();
+        
+        new Runner(options).run();
+        System.out.println("Results written to " + resultFile);
+    }
+}
@@ -0,0 +1,44 @@
+package com.haiphamcoder.tracehub.benchmarks;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.util.IdempotencyUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Idempotency key / document ID generation, run once per indexed event
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class IdempotencyUtilBenchmark {
+    
+    private static final int POOL_SIZE = 1024; // power of two
+    
+    private LogEvent[] events;
+    private long seq;
+    
+    @Setup
+    public void setUp() {
+        events = LogEventGenerator.withDefaults(42).pool(POOL_SIZE);
+    }
+    
+    @Benchmark
+    public String generateDocumentId() {
+        long current = seq++;
+        return IdempotencyUtil.generateDocumentId(events[(int) current & (POOL_SIZE - 1)], "processor-1", current);
+    }
+}
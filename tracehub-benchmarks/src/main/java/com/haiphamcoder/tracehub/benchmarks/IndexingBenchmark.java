@@ -0,0 +1,51 @@
+package com.haiphamcoder.tracehub.benchmarks;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.opensearch.OpenSearchLogStore;
+import com.haiphamcoder.tracehub.processor.service.LogProcessorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event work in the processor before the OpenSearch request:
+ * index name resolution and document conversion
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class IndexingBenchmark {
+    
+    private static final int POOL_SIZE = 1024; // power of two
+    
+    private LogEvent[] events;
+    private int index;
+    
+    @Setup
+    public void setUp() {
+        events = LogEventGenerator.withDefaults(42).pool(POOL_SIZE);
+    }
+    
+    @Benchmark
+    public String getIndexName() {
+        return LogProcessorService.getIndexName(events[index++ & (POOL_SIZE - 1)].getTimestamp());
+    }
+    
+    @Benchmark
+    public Map<String, Object> convertToMap() {
+        return OpenSearchLogStore.convertToMap(events[index++ & (POOL_SIZE - 1)]);
+    }
+}
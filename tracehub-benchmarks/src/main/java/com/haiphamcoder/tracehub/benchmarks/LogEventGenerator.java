@@ -0,0 +1,144 @@
+package com.haiphamcoder.tracehub.benchmarks;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of realistic log events.
+ * Tenants follow a Zipf distribution (a few tenants produce most traffic),
+ * message lengths are log-normal with a long tail, and a share of events
+ * carries metadata of varying size. The same seed always yields the same events.
+ */
+public class LogEventGenerator {
+    
+    private static final String[] ACTIONS = {"LOGIN", "LOGOUT", "CREATE", "UPDATE", "DELETE", "EXPORT", "GRANT", "REVOKE"};
+    private static final String[] STATUSES = {"SUCCESS", "SUCCESS", "SUCCESS", "SUCCESS", "FAILURE", "WARN", "INFO", "ERROR"};
+    private static final String[] METADATA_KEYS = {"sessionId", "resourceId", "userAgent", "region", "requestId", "traceId"};
+    private static final String WORDS = "user resource request denied granted session token expired updated created "
+            + "deleted exported permission role policy access audit record failed succeeded from via api console ";
+    
+    private final SplittableRandom random;
+    private final double[] tenantCdf;
+    private final int users;
+    private final double metadataRatio;
+    
+    /**
+     * @param seed random seed
+     * @param tenants number of distinct tenants
+     * @param zipfExponent skew of the tenant distribution (0 = uniform, ~1.1 = realistic)
+     * @param users number of distinct users per tenant
+     * @param metadataRatio share of events that carry metadata
+     */
+    public LogEventGenerator(long seed, int tenants, double zipfExponent, int users, double metadataRatio) {
+        this.random = new SplittableRandom(seed);
+        this.users = users;
+        this.metadataRatio = metadataRatio;
+        this.tenantCdf = new double[tenants];
+        double sum = 0;
+        for (int i = 0; i < tenants; i++) {
+            sum += 1.0 / Math.pow(i + 1, zipfExponent);
+            tenantCdf[i] = sum;
+        }
+        for (int i = 0; i < tenants; i++) {
+            tenantCdf[i] /= sum;
+        }
+    }
+    
+    /**
+     * Generator with the defaults used across the benchmarks
+     *
+     * @param seed random seed
+     * @return generator for 1000 Zipf-distributed tenants
+     */
+    public static LogEventGenerator withDefaults(long seed) {
+        return new LogEventGenerator(seed, 1000, 1.1, 10_000, 0.3);
+    }
+    
+    /**
+     * Generate the next event
+     *
+     * @param timestamp timestamp to assign
+     * @return a new log event
+     */
+    public LogEvent next(Instant timestamp) {
+        LogEvent event = new LogEvent(
+            timestamp,
+            "tenant-" + nextTenant(),
+            "user-" + random.nextInt(users),
+            ACTIONS[random.nextInt(ACTIONS.length)],
+            STATUSES[random.nextInt(STATUSES.length)],
+            "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256),
+            nextMessage()
+        );
+        if (random.nextDouble() < metadataRatio) {
+            event.setMetadata(nextMetadata());
+        }
+        return event;
+    }
+    
+    /**
+     * Generate a fixed pool of events, for benchmarks that cycle over inputs
+     *
+     * @param size number of events
+     * @return the events
+     */
+    public LogEvent[] pool(int size) {
+        LogEvent[] events = new LogEvent[size];
+        long baseSecond = 1_700_000_000L;
+        for (int i = 0; i < size; i++) {
+            events[i] = next(Instant.ofEpochSecond(baseSecond + random.nextInt(30 * 86_400)));
+        }
+        return events;
+    }
+    
+    private int nextTenant() {
+        double u = random.nextDouble();
+        int low = 0;
+        int high = tenantCdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tenantCdf[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Log-normal message length: median ~80 characters, occasionally several KB
+     */
+    private String nextMessage() {
+        double gaussian = nextGaussian();
+        int length = (int) Math.min(10_000, Math.max(8, Math.exp(4.4 + 1.0 * gaussian)));
+        StringBuilder message = new StringBuilder(length);
+        while (message.length() < length) {
+            int start = random.nextInt(WORDS.length() - 12);
+            message.append(WORDS, start, start + 12);
+        }
+        message.setLength(length);
+        return message.toString();
+    }
+    
+    private Map<String, Object> nextMetadata() {
+        int entries = 1 + random.nextInt(METADATA_KEYS.length);
+        Map<String, Object> metadata = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            String key = METADATA_KEYS[random.nextInt(METADATA_KEYS.length)];
+            metadata.put(key, Long.toHexString(random.nextLong()));
+        }
+        return metadata;
+    }
+    
+    private double nextGaussian() {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+}
@@ -0,0 +1,59 @@
+package com.haiphamcoder.tracehub.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LogEvent JSON (de)serialization, as done by the Kafka producer in ingest
+ * and the Kafka consumers in processor and notifier
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class LogEventJsonBenchmark {
+    
+    private static final int POOL_SIZE = 1024; // power of two
+    
+    private ObjectMapper objectMapper;
+    private LogEvent[] events;
+    private byte[][] serialized;
+    private int index;
+    
+    @Setup
+    public void setUp() throws IOException {
+        // Same mapper setup as Spring Kafka's JsonSerializer/JsonDeserializer
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        events = LogEventGenerator.withDefaults(42).pool(POOL_SIZE);
+        serialized = new byte[POOL_SIZE][];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            serialized[i] = objectMapper.writeValueAsBytes(events[i]);
+        }
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(events[index++ & (POOL_SIZE - 1)]);
+    }
+    
+    @Benchmark
+    public LogEvent deserialize() throws IOException {
+        return objectMapper.readValue(serialized[index++ & (POOL_SIZE - 1)], LogEvent.class);
+    }
+}
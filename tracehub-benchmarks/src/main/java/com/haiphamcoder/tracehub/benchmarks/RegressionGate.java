@@ -0,0 +1,168 @@
+package com.haiphamcoder.tracehub.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares JMH JSON results against a stored baseline and fails on regressions.
+ * A benchmark regresses when its primary score is worse than the baseline by more
+ * than the score tolerance (and by more than the combined error margins), or when
+ * it allocates more bytes per operation than the allocation tolerance allows. A baseline
+ * benchmark missing from the results also fails, so a renamed or crashed benchmark is not
+ * silently dropped from the gate.
+ * Allocation is checked by default since it is stable across machines; timing
+ * is only meaningful against a baseline recorded on the same hardware.
+ *
+ * Usage: java -cp benchmarks.jar com.haiphamcoder.tracehub.benchmarks.RegressionGate
+ *            baseline.json result.json [score-tolerance] [alloc-tolerance]
+ * Exit code 1 if any benchmark regressed or is missing.
+ */
+public class RegressionGate {
+    
+    static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+    private static final double ALLOC_NOISE_BYTES = 8; // ignore sub-word differences
+    
+    /**
+     * Outcome of comparing one benchmark
+     */
+    public static class Finding {
+        private final String benchmark;
+        private final String metric;
+        private final double baseline;
+        private final double current;
+        private final boolean regression;
+        
+        Finding(String benchmark, String metric, double baseline, double current, boolean regression) {
+            this.benchmark = benchmark;
+            this.metric = metric;
+            this.baseline = baseline;
+            this.current = current;
+            this.regression = regression;
+        }
+        
+        public String getBenchmark() { return benchmark; }
+        public String getMetric() { return metric; }
+        public double getBaseline() { return baseline; }
+        public double getCurrent() { return current; }
+        public boolean isRegression() { return regression; }
+        
+        @Override
+        public String toString() {
+            if (Double.isNaN(current)) {
+                return String.format("%-6s %-70s %-22s %14.2f -> %14s", "FAIL", benchmark, metric, baseline, "missing");
+            }
+            double change = baseline == 0 ? 0 : (current - baseline) / baseline * 100;
+            return String.format("%-6s %-70s %-22s %14.2f -> %14.2f (%+.1f%%)",
+                    regression ? "FAIL" : "ok", benchmark, metric, baseline, current, change);
+        }
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: RegressionGate <baseline.json> <result.json> [score-tolerance] [alloc-tolerance]");
+            System.exit(2);
+        }
+        double scoreTolerance = args.length > 2 ? Double.parseDouble(args[2]) : Double.POSITIVE_INFINITY;
+        double allocTolerance = args.length > 3 ? Double.parseDouble(args[3]) : 0.05;
+        
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode baseline = objectMapper.readTree(new File(args[0]));
+        JsonNode current = objectMapper.readTree(new File(args[1]));
+        
+        List<Finding> findings = compare(baseline, current, scoreTolerance, allocTolerance);
+        findings.forEach(System.out::println);
+        
+        long regressions = findings.stream().filter(Finding::isRegression).count();
+        if (regressions > 0) {
+            System.out.println(regressions + " regression(s) against " + args[0]);
+            System.exit(1);
+        }
+        System.out.println("No regressions against " + args[0]);
+    }
+    
+    /**
+     * Compare two JMH JSON result arrays
+     *
+     * @param baseline stored baseline results
+     * @param current results of the current run
+     * @param scoreTolerance allowed relative slowdown of the primary score (infinity disables the check)
+     * @param allocTolerance allowed relative increase of bytes allocated per operation
+     * @return one finding per compared metric, and a failing one per baseline benchmark
+     *         missing from the current results
+     */
+    public static List<Finding> compare(JsonNode baseline, JsonNode current,
+                                        double scoreTolerance, double allocTolerance) {
+        Map<String, JsonNode> baselineByKey = byKey(baseline);
+        Map<String, JsonNode> currentByKey = byKey(current);
+        List<Finding> findings = new ArrayList<>();
+        
+        for (Map.Entry<String, JsonNode> entry : currentByKey.entrySet()) {
+            JsonNode base = baselineByKey.get(entry.getKey());
+            if (base == null) {
+                continue; // new benchmark, nothing to compare against
+            }
+            JsonNode run = entry.getValue();
+            
+            JsonNode basePrimary = base.path("primaryMetric");
+            JsonNode runPrimary = run.path("primaryMetric");
+            double baseScore = basePrimary.path("score").asDouble();
+            double runScore = runPrimary.path("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(run.path("mode").asText());
+            double worseBy = higherIsBetter ? baseScore - runScore : runScore - baseScore;
+            double margin = errorOf(basePrimary) + errorOf(runPrimary);
+            boolean slower = worseBy > Math.abs(baseScore) * scoreTolerance && worseBy > margin;
+            findings.add(new Finding(entry.getKey(), runPrimary.path("scoreUnit").asText(), baseScore, runScore, slower));
+            
+            JsonNode baseAlloc = base.path("secondaryMetrics").path(ALLOC_METRIC);
+            JsonNode runAlloc = run.path("secondaryMetrics").path(ALLOC_METRIC);
+            if (!baseAlloc.isMissingNode() && !runAlloc.isMissingNode()) {
+                double baseBytes = baseAlloc.path("score").asDouble();
+                double runBytes = runAlloc.path("score").asDouble();
+                boolean allocates = runBytes > baseBytes * (1 + allocTolerance) + ALLOC_NOISE_BYTES;
+                findings.add(new Finding(entry.getKey(), ALLOC_METRIC, baseBytes, runBytes, allocates));
+            }
+        }
+        
+        for (Map.Entry<String, JsonNode> entry : baselineByKey.entrySet()) {
+            if (!currentByKey.containsKey(entry.getKey())) {
+                JsonNode basePrimary = entry.getValue().path("primaryMetric");
+                findings.add(new Finding(entry.getKey(), basePrimary.path("scoreUnit").asText(),
+                                         basePrimary.path("score").asDouble(), Double.NaN, true));
+            }
+        }
+        return findings;
+    }
+    
+    /**
+     * Index results by benchmark name plus sorted parameters
+     */
+    private static Map<String, JsonNode> byKey(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            JsonNode params = result.path("params");
+            if (params.isObject()) {
+                Map<String, String> sorted = new TreeMap<>();
+                for (Map.Entry<String, JsonNode> field : params.properties()) {
+                    sorted.put(field.getKey(), field.getValue().asText());
+                }
+                sorted.forEach((name, value) -> key.append(':').append(name).append('=').append(value));
+            }
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+    
+    private static double errorOf(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isFinite(error) ? error : 0;
+    }
+}
@@ -0,0 +1,289 @@
+package com.haiphamcoder.tracehub.benchmarks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.haiphamcoder.tracehub.benchmarks.LogEventGenerator;
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.ingest.TracehubIngestApplication;
+import com.haiphamcoder.tracehub.processor.TracehubProcessorApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load harness: HTTP ingest -> Kafka -> processor -> index sink.
+ * Starts an embedded Kafka broker, the real ingest and processor applications
+ * in this JVM (the processor indexing into a {@link StubIndexSink}), then drives
+ * LogIngestController at a fixed rate with generated events.
+ *
+ * The generator is open-loop: each event has an intended send time, and both
+ * HTTP latency and end-to-end lag are measured from that time, so a stalled
+ * pipeline shows up as latency instead of silently lowering the offered load.
+ *
+ * Usage: java -cp benchmarks.jar com.haiphamcoder.tracehub.benchmarks.load.LoadHarness
+ *            [--rate=2000] [--duration=30] [--warmup=5] [--partitions=6]
+ *            [--max-in-flight=256] [--sink-latency-micros=0] [--seed=42]
+ */
+public class LoadHarness {
+    
+    /**
+     * Load parameters
+     */
+    public static class Options {
+        int rate = 2000; // events per second
+        int durationSeconds = 30;
+        int warmupSeconds = 5;
+        int partitions = 6;
+        int maxInFlight = 256;
+        long sinkLatencyMicros = 0;
+        long seed = 42;
+        
+        public static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                String[] parts = arg.replaceFirst("^--", "").split("=", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Expected --name=value: " + arg);
+                }
+                switch (parts[0]) {
+                    case "rate" -> options.rate = Integer.parseInt(parts[1]);
+                    case "duration" -> options.durationSeconds = Integer.parseInt(parts[1]);
+                    case "warmup" -> options.warmupSeconds = Integer.parseInt(parts[1]);
+                    case "partitions" -> options.partitions = Integer.parseInt(parts[1]);
+                    case "max-in-flight" -> options.maxInFlight = Integer.parseInt(parts[1]);
+                    case "sink-latency-micros" -> options.sinkLatencyMicros = Long.parseLong(parts[1]);
+                    case "seed" -> options.seed = Long.parseLong(parts[1]);
+                    default -> throw new IllegalArgumentException("Unknown option: " + parts[0]);
+                }
+            }
+            return options;
+        }
+    }
+    
+    /**
+     * Results of a run, covering the measurement window only
+     */
+    public static class Report {
+        long offered;
+        long accepted;
+        long rejected;
+        long errors;
+        long indexed;
+        double measureSeconds;
+        Histogram ingestLatencyMicros;
+        Histogram endToEndLagMicros;
+        
+        public long getAccepted() { return accepted; }
+        public long getIndexed() { return indexed; }
+        public long getErrors() { return errors + rejected; }
+        public Histogram getEndToEndLagMicros() { return endToEndLagMicros; }
+        
+        @Override
+        public String toString() {
+            return String.format("""
+                    offered   %,d events (%,.0f/s)
+                    accepted  %,d   rejected %,d   errors %,d
+                    indexed   %,d events (%,.0f/s)   not indexed %,d
+                    %-22s %10s %10s %10s %10s
+                    %-22s %10.2f %10.2f %10.2f %10.2f
+                    %-22s %10.2f %10.2f %10.2f %10.2f
+                    """,
+                offered, offered / measureSeconds,
+                accepted, rejected, errors,
+                indexed, indexed / measureSeconds, accepted - indexed,
+                "latency (ms)", "p50", "p99", "p99.9", "max",
+                "ingest HTTP", ms(ingestLatencyMicros, 50), ms(ingestLatencyMicros, 99),
+                ms(ingestLatencyMicros, 99.9), ingestLatencyMicros.getMaxValue() / 1000.0,
+                "end-to-end to index", ms(endToEndLagMicros, 50), ms(endToEndLagMicros, 99),
+                ms(endToEndLagMicros, 99.9), endToEndLagMicros.getMaxValue() / 1000.0);
+        }
+        
+        private static double ms(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        System.out.printf("Driving %,d events/s for %ds (+%ds warm-up) over %d partitions%n",
+                          options.rate, options.durationSeconds, options.warmupSeconds, options.partitions);
+        Report report = run(options);
+        System.out.println();
+        System.out.print(report);
+        System.exit(0);
+    }
+    
+    /**
+     * Start the stack, run the load and tear everything down
+     *
+     * @param options load parameters
+     * @return the measured results
+     */
+    public static Report run(Options options) throws Exception {
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, options.partitions,
+                                                                       TracehubConstants.AUDIT_LOGS_TOPIC);
+        broker.afterPropertiesSet();
+        ConfigurableApplicationContext processor = null;
+        ConfigurableApplicationContext ingest = null;
+        try {
+            String bootstrap = broker.getBrokersAsString();
+            processor = startProcessor(bootstrap, options);
+            ingest = startIngest(bootstrap);
+            int port = ((ServletWebServerApplicationContext) ingest).getWebServer().getPort();
+            StubIndexSink sink = processor.getBean(StubIndexSink.class);
+            return drive(URI.create("http://localhost:" + port + "/api/v1/logs"), sink, options);
+        } finally {
+            if (ingest != null) {
+                ingest.close();
+            }
+            if (processor != null) {
+                processor.close();
+            }
+            broker.destroy();
+        }
+    }
+    
+    private static ConfigurableApplicationContext startProcessor(String bootstrap, Options options) {
+        // Both applications ship an application.properties, so everything that matters is passed explicitly
+        return new SpringApplicationBuilder(TracehubProcessorApplication.class, StubSinkConfiguration.class)
+            .run("--spring.application.name=loadgen-processor",
+                 "--server.port=0",
+                 "--spring.main.allow-bean-definition-overriding=true",
+                 "--spring.kafka.bootstrap-servers=" + bootstrap,
+                 "--spring.kafka.consumer.group-id=loadgen-processor",
+                 "--spring.kafka.consumer.auto-offset-reset=earliest",
+                 "--spring.kafka.consumer.key-deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                 "--spring.kafka.consumer.value-deserializer=org.springframework.kafka.support.serializer.JsonDeserializer",
+                 "--spring.kafka.consumer.properties.spring.json.type.mapping=com.haiphamcoder.tracehub.common.dto.LogEvent:com.haiphamcoder.tracehub.common.dto.LogEvent",
+                 "--spring.kafka.consumer.properties.spring.json.trusted.packages=com.haiphamcoder.tracehub.common.dto",
+                 "--spring.kafka.listener.concurrency=" + options.partitions,
+                 "--loadgen.sink.latency-micros=" + options.sinkLatencyMicros,
+                 "--logging.level.com.haiphamcoder.tracehub=WARN",
+                 "--logging.level.org.apache.kafka=WARN");
+    }
+    
+    private static ConfigurableApplicationContext startIngest(String bootstrap) {
+        return new SpringApplicationBuilder(TracehubIngestApplication.class)
+            .run("--spring.application.name=loadgen-ingest",
+                 "--server.port=0",
+                 "--spring.kafka.bootstrap-servers=" + bootstrap,
+                 "--spring.kafka.producer.key-serializer=org.apache.kafka.common.serialization.StringSerializer",
+                 "--spring.kafka.producer.value-serializer=org.springframework.kafka.support.serializer.JsonSerializer",
+                 "--spring.kafka.producer.properties.spring.json.type.mapping=com.haiphamcoder.tracehub.common.dto.LogEvent:com.haiphamcoder.tracehub.common.dto.LogEvent",
+                 "--logging.level.com.haiphamcoder.tracehub=WARN",
+                 "--logging.level.org.apache.kafka=WARN");
+    }
+    
+    /**
+     * Offer events at the configured rate, then wait for the pipeline to drain
+     */
+    private static Report drive(URI endpoint, StubIndexSink sink, Options options) throws InterruptedException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        LogEventGenerator generator = LogEventGenerator.withDefaults(options.seed);
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        Recorder ingestLatency = new Recorder(3);
+        LongAdder accepted = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder errors = new LongAdder();
+        
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        long totalEvents = (long) options.rate * (options.warmupSeconds + options.durationSeconds);
+        long warmupEvents = (long) options.rate * options.warmupSeconds;
+        long start = System.nanoTime();
+        long measureFrom = start + warmupEvents * intervalNanos;
+        sink.startMeasuring(measureFrom);
+        
+        long nextReport = start + TimeUnit.SECONDS.toNanos(1);
+        long lastIndexed = 0;
+        for (long i = 0; i < totalEvents; i++) {
+            long intended = start + i * intervalNanos;
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(Math.min(intended - now, 100_000));
+            }
+            if (now >= nextReport) {
+                long indexedNow = sink.getIndexedCount();
+                System.out.printf("t=%3ds offered=%,d indexed/s=%,d in-flight=%d%n",
+                                  TimeUnit.NANOSECONDS.toSeconds(now - start), i,
+                                  indexedNow - lastIndexed, options.maxInFlight - inFlight.availablePermits());
+                lastIndexed = indexedNow;
+                nextReport += TimeUnit.SECONDS.toNanos(1);
+            }
+            
+            LogEvent event = generator.next(Instant.now());
+            Map<String, Object> metadata = event.getMetadata() != null ? event.getMetadata() : new HashMap<>();
+            metadata.put(StubIndexSink.SENT_NANOS_KEY, intended);
+            event.setMetadata(metadata);
+            byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(event);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to serialize generated event", e);
+            }
+            HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+            
+            // Blocks when the ingest side cannot keep up; the delay is charged to latency via `intended`
+            inFlight.acquire();
+            boolean measured = intended >= measureFrom;
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (measured) {
+                        ingestLatency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended));
+                        if (error != null) {
+                            errors.increment();
+                        } else if (response.statusCode() == 202) {
+                            accepted.increment();
+                        } else {
+                            rejected.increment();
+                        }
+                    }
+                    // Released last, so acquiring every permit means all outcomes are counted
+                    inFlight.release();
+                });
+        }
+        
+        // Wait for outstanding requests, then for the sink to catch up
+        inFlight.acquire(options.maxInFlight);
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (sink.getIndexedCount() < accepted.sum() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        
+        Report report = new Report();
+        report.offered = totalEvents - warmupEvents;
+        report.accepted = accepted.sum();
+        report.rejected = rejected.sum();
+        report.errors = errors.sum();
+        report.indexed = sink.getIndexedCount();
+        report.measureSeconds = options.durationSeconds;
+        report.ingestLatencyMicros = ingestLatency.getIntervalHistogram();
+        report.endToEndLagMicros = sink.getLagRecorder().getIntervalHistogram();
+        return report;
+    }
+}
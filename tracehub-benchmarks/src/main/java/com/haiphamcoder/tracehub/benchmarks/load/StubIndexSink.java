@@ -0,0 +1,98 @@
+package com.haiphamcoder.tracehub.benchmarks.load;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.store.LogDocument;
+import com.haiphamcoder.tracehub.common.store.LogHits;
+import com.haiphamcoder.tracehub.common.store.LogQuery;
+import com.haiphamcoder.tracehub.common.store.LogStore;
+import org.HdrHistogram.Recorder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Stand-in for the log store on the processor side.
+ * Accepts every document, optionally after a simulated bulk request delay, and
+ * records the end-to-end lag from the moment the load generator scheduled
+ * the event (carried in its metadata) to the moment it reached the sink.
+ */
+public class StubIndexSink implements LogStore {
+    
+    /** Metadata key carrying the System.nanoTime() at which the event was scheduled */
+    public static final String SENT_NANOS_KEY = "_loadgen.sentNanos";
+    
+    private final long latencyNanos;
+    private final Recorder lagRecorder = new Recorder(3);
+    private final LongAdder indexed = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+    private volatile long measureFromNanos = Long.MAX_VALUE;
+    
+    /**
+     * @param latencyMicros simulated latency per bulk request
+     */
+    public StubIndexSink(long latencyMicros) {
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+    }
+    
+    @Override
+    public Map<String, Integer> write(List<LogDocument> documents) {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        long now = System.nanoTime();
+        for (LogDocument document : documents) {
+            record(document.getEvent(), now);
+        }
+        return Map.of();
+    }
+    
+    @Override
+    public LogHits search(LogQuery query) {
+        return new LogHits(List.of(), 0);
+    }
+    
+    @Override
+    public Map<String, Long> aggregate(LogQuery query, String field, int size) {
+        return Map.of();
+    }
+    
+    private void record(LogEvent event, long now) {
+        Map<String, Object> metadata = event.getMetadata();
+        Object sent = metadata != null ? metadata.get(SENT_NANOS_KEY) : null;
+        if (!(sent instanceof Number)) {
+            untracked.increment();
+            return;
+        }
+        long sentNanos = ((Number) sent).longValue();
+        if (sentNanos >= measureFromNanos) {
+            lagRecorder.recordValue(TimeUnit.NANOSECONDS.toMicros(Math.max(0, now - sentNanos)));
+            indexed.increment();
+        }
+    }
+    
+    /**
+     * Start recording events scheduled at or after the given time, discarding earlier ones
+     *
+     * @param fromNanos System.nanoTime() of the start of the measurement window
+     */
+    public void startMeasuring(long fromNanos) {
+        lagRecorder.reset();
+        indexed.reset();
+        measureFromNanos = fromNanos;
+    }
+    
+    public Recorder getLagRecorder() {
+        return lagRecorder;
+    }
+    
+    public long getIndexedCount() {
+        return indexed.sum();
+    }
+    
+    public long getUntrackedCount() {
+        return untracked.sum();
+    }
+}
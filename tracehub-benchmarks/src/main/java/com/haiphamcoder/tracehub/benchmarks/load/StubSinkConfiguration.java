@@ -0,0 +1,19 @@
+package com.haiphamcoder.tracehub.benchmarks.load;
+
+import com.haiphamcoder.tracehub.common.store.LogStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the processor's LogStore with a {@link StubIndexSink}.
+ * Requires spring.main.allow-bean-definition-overriding=true.
+ */
+@Configuration
+public class StubSinkConfiguration {
+    
+    @Bean
+    public LogStore logStore(@Value("${loadgen.sink.latency-micros:0}") long latencyMicros) {
+        return new StubIndexSink(latencyMicros);
+    }
+}
@@ -0,0 +1,66 @@
+package com.haiphamcoder.tracehub.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class RegressionGateTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void flagsSlowerScoreAndHigherAllocation() throws Exception {
+		JsonNode baseline = results(100.0, 1.0, 240.0);
+		JsonNode faster = results(95.0, 1.0, 240.0);
+		JsonNode slower = results(130.0, 1.0, 240.0);
+		JsonNode allocating = results(100.0, 1.0, 320.0);
+
+		assertFalse(hasRegression(RegressionGate.compare(baseline, faster, 0.10, 0.05)));
+		assertTrue(hasRegression(RegressionGate.compare(baseline, slower, 0.10, 0.05)));
+		assertFalse(hasRegression(RegressionGate.compare(baseline, slower, Double.POSITIVE_INFINITY, 0.05)));
+		assertTrue(hasRegression(RegressionGate.compare(baseline, allocating, Double.POSITIVE_INFINITY, 0.05)));
+	}
+
+	@Test
+	void differenceWithinErrorMarginIsNotARegression() throws Exception {
+		List<RegressionGate.Finding> findings = RegressionGate.compare(
+				results(100.0, 20.0, 240.0), results(125.0, 20.0, 240.0), 0.10, 0.05);
+		assertEquals(2, findings.size());
+		assertFalse(hasRegression(findings));
+	}
+
+	@Test
+	void baselineBenchmarkMissingFromResultsFails() throws Exception {
+		JsonNode current = objectMapper.readTree("[]");
+
+		List<RegressionGate.Finding> findings = RegressionGate.compare(
+				results(100.0, 1.0, 240.0), current, Double.POSITIVE_INFINITY, 0.05);
+
+		assertEquals(1, findings.size());
+		assertTrue(findings.get(0).isRegression());
+		assertTrue(findings.get(0).toString().contains("missing"));
+	}
+
+	private static boolean hasRegression(List<RegressionGate.Finding> findings) {
+		return findings.stream().anyMatch(RegressionGate.Finding::isRegression);
+	}
+
+	private JsonNode results(double score, double error, double allocBytes) throws Exception {
+		return objectMapper.readTree("""
+				[{
+				  "benchmark": "com.haiphamcoder.tracehub.benchmarks.IndexingBenchmark.convertToMap",
+				  "mode": "avgt",
+				  "params": {},
+				  "primaryMetric": {"score": %s, "scoreError": %s, "scoreUnit": "ns/op"},
+				  "secondaryMetrics": {"gc.alloc.rate.norm": {"score": %s, "scoreError": 0.0, "scoreUnit": "B/op"}}
+				}]
+				""".formatted(score, error, allocBytes));
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.haiphamcoder.tracehub.benchmarks.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LoadHarnessTests {
+
+	@Test
+	void everyAcceptedEventReachesTheSink() throws Exception {
+		LoadHarness.Report report = LoadHarness.run(LoadHarness.Options.parse(new String[] {
+				"--rate=200", "--duration=3", "--warmup=1", "--partitions=2"}));
+
+		assertEquals(0, report.getErrors());
+		assertEquals(600, report.getAccepted());
+		assertEquals(report.getAccepted(), report.getIndexed());
+		assertTrue(report.getEndToEndLagMicros().getTotalCount() > 0);
+	}
+
+}
@@ -0,0 +1,427 @@
+package com.haiphamcoder.tracehub.common.archive;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Read-only archive segment: log events sorted by timestamp, stored column by column,
+ * memory-mapped from a local file. Each column is compressed on its own, so a reader
+ * decompresses only the columns it needs, and the footer carries the time range and a
+ * Bloom filter of tenants so whole segments can be skipped without touching the columns.
+ *
+ * <pre>
+ * "THARCH01"
+ * columns  one Deflate stream per column
+ * footer   int rows | long minMillis | long maxMillis
+ *          int bloomHashes | int bloomWords | long[bloomWords]
+ *          int columnCount | (UTF name | long offset | int compressedLength | int length)*
+ * trailer  long footerOffset | "THARCH01"
+ * </pre>
+ * Timestamps are epoch millis, the first absolute and the rest as varint deltas.
+ * String fields are dictionary-encoded (a dictionary, then one varint ID per row);
+ * message and metadata (JSON) are varint-length-prefixed bytes per row.
+ */
+public final class ArchiveSegment {
+    
+    /**
+     * File name suffix of segments; the segments of an index are named {@code <index>.<seq>.thseg}
+     */
+    public static final String SUFFIX = ".thseg";
+    
+    static final byte[] MAGIC = "THARCH01".getBytes(StandardCharsets.US_ASCII);
+    public static final String TIMESTAMP = "timestamp";
+    public static final String TENANT_ID = "tenantId";
+    public static final String USER_ID = "userId";
+    public static final String ACTION = "action";
+    public static final String STATUS = "status";
+    public static final String ACTOR_IP = "actorIp";
+    public static final String MESSAGE = "message";
+    public static final String METADATA = "metadata";
+    static final List<String> COLUMNS = List.of(TIMESTAMP, TENANT_ID, USER_ID, ACTION, STATUS, ACTOR_IP, MESSAGE, METADATA);
+    
+    private static final int TRAILER_BYTES = 8 + 8;
+    private static final double BLOOM_FPP = 0.01;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {};
+    
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int rowCount;
+    private final long minTimestamp;
+    private final long maxTimestamp;
+    private final int bloomHashes;
+    private final long[] bloom;
+    private final Map<String, int[]> columns = new HashMap<>(); // name -> offset, compressed length, length
+    
+    private ArchiveSegment(Path path, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        int size = buffer.capacity();
+        if (size < MAGIC.length + TRAILER_BYTES || !hasMagic(0) || !hasMagic(size - MAGIC.length)) {
+            throw new IOException("Not an archive segment: " + path);
+        }
+        ByteBuffer footer = buffer.duplicate().position((int) buffer.getLong(size - TRAILER_BYTES));
+        this.rowCount = footer.getInt();
+        this.minTimestamp = footer.getLong();
+        this.maxTimestamp = footer.getLong();
+        this.bloomHashes = footer.getInt();
+        this.bloom = new long[footer.getInt()];
+        for (int i = 0; i < bloom.length; i++) {
+            bloom[i] = footer.getLong();
+        }
+        int columnCount = footer.getInt();
+        for (int i = 0; i < columnCount; i++) {
+            byte[] name = new byte[footer.getShort() & 0xFFFF];
+            footer.get(name);
+            long offset = footer.getLong();
+            columns.put(new String(name, StandardCharsets.UTF_8), new int[] {(int) offset, footer.getInt(), footer.getInt()});
+        }
+    }
+    
+    /**
+     * Map a segment file; only the footer is read
+     *
+     * @param path the segment file
+     * @return the segment
+     * @throws IOException if the file cannot be mapped or is not a segment
+     */
+    public static ArchiveSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ArchiveSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+    
+    /**
+     * Name of the n-th segment exported from an index.
+     * Sequences increase in timestamp order within one export; an index recreated by late
+     * events after it was archived is exported to the sequences after the existing ones.
+     * 
+     * @param indexName the index
+     * @param sequence the segment's sequence number in the index
+     * @return the segment name
+     */
+    public static String name(String indexName, int sequence) {
+        return String.format("%s.%05d%s", indexName, sequence, SUFFIX);
+    }
+    
+    /**
+     * Index a segment was exported from
+     * 
+     * @param segmentName the segment name
+     * @return the index name, or null if the name is not a segment name
+     */
+    public static String indexOf(String segmentName) {
+        if (!segmentName.endsWith(SUFFIX)) {
+            return null;
+        }
+        String base = segmentName.substring(0, segmentName.length() - SUFFIX.length());
+        int dot = base.lastIndexOf('.');
+        return dot > 0 ? base.substring(0, dot) : null;
+    }
+    
+    /**
+     * Sequence number of a segment, the inverse of {@link #name}
+     * 
+     * @param segmentName the segment name
+     * @return the sequence, or -1 if the name is not a segment name
+     */
+    public static int sequenceOf(String segmentName) {
+        if (indexOf(segmentName) == null) {
+            return -1;
+        }
+        String base = segmentName.substring(0, segmentName.length() - SUFFIX.length());
+        try {
+            return Integer.parseInt(base.substring(base.lastIndexOf('.') + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    public Path getPath() {
+        return path;
+    }
+    
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    public Instant getMinTimestamp() {
+        return Instant.ofEpochMilli(minTimestamp);
+    }
+    
+    public Instant getMaxTimestamp() {
+        return Instant.ofEpochMilli(maxTimestamp);
+    }
+    
+    /**
+     * Whether the segment overlaps a time range
+     *
+     * @param from inclusive start, or null for unbounded
+     * @param to inclusive end, or null for unbounded
+     * @return false if no event of the segment can be in the range
+     */
+    public boolean overlaps(Instant from, Instant to) {
+        return (from == null || maxTimestamp >= from.toEpochMilli())
+            && (to == null || minTimestamp <= to.toEpochMilli());
+    }
+    
+    /**
+     * Whether the segment may hold events of a tenant
+     *
+     * @param tenantId the tenant
+     * @return false if the segment has no event of the tenant; true if it probably has
+     */
+    public boolean mightContainTenant(String tenantId) {
+        long hash1 = hash(tenantId);
+        long hash2 = mix(hash1);
+        long bits = (long) bloom.length << 6;
+        for (int i = 0; i < bloomHashes; i++) {
+            long index = ((hash1 + i * hash2) & Long.MAX_VALUE) % bits;
+            if ((bloom[(int) (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Decode the timestamp column
+     *
+     * @return epoch millis per row, ascending
+     * @throws IOException if the column is corrupt
+     */
+    public long[] readTimestamps() throws IOException {
+        ByteBuffer column = inflate(TIMESTAMP);
+        long[] timestamps = new long[rowCount];
+        long previous = 0;
+        for (int i = 0; i < rowCount; i++) {
+            previous += readVarLong(column);
+            timestamps[i] = previous;
+        }
+        return timestamps;
+    }
+    
+    /**
+     * Decode a dictionary-encoded column (tenantId, userId, action, status, actorIp)
+     *
+     * @param name the column name
+     * @return the value per row; rows with the same value share the instance
+     * @throws IOException if the column is corrupt
+     */
+    public String[] readStrings(String name) throws IOException {
+        ByteBuffer column = inflate(name);
+        String[] dictionary = new String[(int) readVarLong(column) + 1];
+        for (int i = 1; i < dictionary.length; i++) {
+            dictionary[i] = readString(column);
+        }
+        String[] values = new String[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            values[i] = dictionary[(int) readVarLong(column)];
+        }
+        return values;
+    }
+    
+    /**
+     * Decode the message column
+     * 
+     * @return the message per row
+     * @throws IOException if the column is corrupt
+     */
+    public String[] readMessages() throws IOException {
+        ByteBuffer column = inflate(MESSAGE);
+        String[] messages = new String[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            messages[i] = readString(column);
+        }
+        return messages;
+    }
+    
+    /**
+     * Decode the metadata column, leaving each row's metadata as JSON text
+     *
+     * @return the metadata JSON per row, or null for rows without metadata
+     * @throws IOException if the column is corrupt
+     */
+    public String[] readMetadata() throws IOException {
+        ByteBuffer column = inflate(METADATA);
+        String[] metadata = new String[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            metadata[i] = readString(column);
+        }
+        return metadata;
+    }
+    
+    /**
+     * Materialize selected rows as events
+     *
+     * @param rows the rows to read, or null for all of them
+     * @return the events, in timestamp order
+     * @throws IOException if a column is corrupt
+     */
+    public List<LogEvent> readEvents(BitSet rows) throws IOException {
+        long[] timestamps = readTimestamps();
+        String[] tenants = readStrings(TENANT_ID);
+        String[] users = readStrings(USER_ID);
+        String[] actions = readStrings(ACTION);
+        String[] statuses = readStrings(STATUS);
+        String[] actorIps = readStrings(ACTOR_IP);
+        ByteBuffer messages = inflate(MESSAGE);
+        ByteBuffer metadata = inflate(METADATA);
+        
+        List<LogEvent> events = new ArrayList<>(rows != null ? rows.cardinality() : rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            boolean selected = rows == null || rows.get(i);
+            String message = selected ? readString(messages) : skip(messages);
+            String json = selected ? readString(metadata) : skip(metadata);
+            if (!selected) {
+                continue;
+            }
+            LogEvent event = new LogEvent(Instant.ofEpochMilli(timestamps[i]), tenants[i], users[i],
+                                          actions[i], statuses[i], actorIps[i], message);
+            if (json != null) {
+                event.setMetadata(MAPPER.readValue(json, METADATA_TYPE));
+            }
+            events.add(event);
+        }
+        return events;
+    }
+    
+    /**
+     * Read every event of the segment
+     *
+     * @return the events, in timestamp order
+     * @throws IOException if a column is corrupt
+     */
+    public List<LogEvent> readAll() throws IOException {
+        return readEvents(null);
+    }
+    
+    private ByteBuffer inflate(String name) throws IOException {
+        int[] entry = columns.get(name);
+        if (entry == null) {
+            throw new IOException("Missing column " + name + " in " + path);
+        }
+        ByteBuffer compressed = buffer.slice(entry[0], entry[1]);
+        ByteBuffer raw = ByteBuffer.allocate(entry[2]);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            while (raw.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(raw) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column " + name + " in " + path, e);
+        } finally {
+            inflater.end();
+        }
+        if (raw.hasRemaining()) {
+            throw new IOException("Truncated column " + name + " in " + path);
+        }
+        return raw.flip();
+    }
+    
+    private boolean hasMagic(int offset) {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(offset + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static String readString(ByteBuffer column) {
+        int length = (int) readVarLong(column) - 1;
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(column.array(), column.arrayOffset() + column.position(), length, StandardCharsets.UTF_8);
+        column.position(column.position() + length);
+        return value;
+    }
+    
+    private static String skip(ByteBuffer column) {
+        int length = (int) readVarLong(column) - 1;
+        if (length > 0) {
+            column.position(column.position() + length);
+        }
+        return null;
+    }
+    
+    private static long readVarLong(ByteBuffer column) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = column.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+    
+    // Tenant Bloom filter, shared with the writer
+    
+    static long[] newBloom(int tenants) {
+        long bits = (long) Math.ceil(-Math.max(1, tenants) * Math.log(BLOOM_FPP) / (Math.log(2) * Math.log(2)));
+        return new long[(int) Math.max(1, (bits + 63) >>> 6)];
+    }
+    
+    static int bloomHashes(long[] bloom, int tenants) {
+        return Math.max(1, (int) Math.round((double) (bloom.length << 6) / Math.max(1, tenants) * Math.log(2)));
+    }
+    
+    static void bloomPut(long[] bloom, int hashes, String tenantId) {
+        long hash1 = hash(tenantId);
+        long hash2 = mix(hash1);
+        long bits = (long) bloom.length << 6;
+        for (int i = 0; i < hashes; i++) {
+            long index = ((hash1 + i * hash2) & Long.MAX_VALUE) % bits;
+            bloom[(int) (index >>> 6)] |= 1L << index;
+        }
+    }
+    
+    /**
+     * FNV-1a over the UTF-16 code units, stable across JVMs
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+    
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+    
+    @Override
+    public String toString() {
+        return "ArchiveSegment{" + path + ", rows=" + rowCount
+            + ", range=" + getMinTimestamp() + ".." + getMaxTimestamp() + '}';
+    }
+}
@@ -0,0 +1,239 @@
+package com.haiphamcoder.tracehub.common.archive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+
+/**
+ * Writes log events to an archive segment file, sorted by timestamp.
+ * See {@link ArchiveSegment} for the file layout.
+ */
+public final class ArchiveSegmentWriter {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    private ArchiveSegmentWriter() {
+        // Utility class
+    }
+    
+    /**
+     * Write events to a new segment file
+     *
+     * @param events the events, in any order; must not be empty
+     * @param file the target file, replaced if it exists
+     * @return the number of bytes written
+     * @throws IOException if the file cannot be written
+     */
+    public static long write(List<LogEvent> events, Path file) throws IOException {
+        if (events.isEmpty()) {
+            throw new IllegalArgumentException("A segment needs at least one event");
+        }
+        List<LogEvent> sorted = new ArrayList<>(events);
+        sorted.sort(Comparator.comparing(LogEvent::getTimestamp));
+        
+        Map<String, byte[]> columns = new HashMap<>();
+        columns.put(ArchiveSegment.TIMESTAMP, timestampColumn(sorted));
+        columns.put(ArchiveSegment.TENANT_ID, dictionaryColumn(sorted, LogEvent::getTenantId));
+        columns.put(ArchiveSegment.USER_ID, dictionaryColumn(sorted, LogEvent::getUserId));
+        columns.put(ArchiveSegment.ACTION, dictionaryColumn(sorted, LogEvent::getAction));
+        columns.put(ArchiveSegment.STATUS, dictionaryColumn(sorted, LogEvent::getStatus));
+        columns.put(ArchiveSegment.ACTOR_IP, dictionaryColumn(sorted, LogEvent::getActorIp));
+        columns.put(ArchiveSegment.MESSAGE, bytesColumn(sorted, event -> utf8(event.getMessage())));
+        columns.put(ArchiveSegment.METADATA, bytesColumn(sorted, event -> json(event.getMetadata())));
+        
+        Set<String> tenants = new HashSet<>();
+        sorted.forEach(event -> tenants.add(event.getTenantId()));
+        long[] bloom = ArchiveSegment.newBloom(tenants.size());
+        int bloomHashes = ArchiveSegment.bloomHashes(bloom, tenants.size());
+        tenants.forEach(tenant -> ArchiveSegment.bloomPut(bloom, bloomHashes, tenant));
+        
+        CountingOutputStream counting =
+            new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+        try (DataOutputStream out = new DataOutputStream(counting)) {
+            out.write(ArchiveSegment.MAGIC);
+            Map<String, long[]> directory = new HashMap<>();
+            for (String name : ArchiveSegment.COLUMNS) {
+                byte[] raw = columns.get(name);
+                byte[] compressed = deflate(raw);
+                directory.put(name, new long[] {counting.count, compressed.length, raw.length});
+                out.write(compressed);
+            }
+            
+            long footerOffset = counting.count;
+            out.writeInt(sorted.size());
+            out.writeLong(sorted.get(0).getTimestamp().toEpochMilli());
+            out.writeLong(sorted.get(sorted.size() - 1).getTimestamp().toEpochMilli());
+            out.writeInt(bloomHashes);
+            out.writeInt(bloom.length);
+            for (long word : bloom) {
+                out.writeLong(word);
+            }
+            out.writeInt(ArchiveSegment.COLUMNS.size());
+            for (String name : ArchiveSegment.COLUMNS) {
+                long[] entry = directory.get(name);
+                out.writeUTF(name);
+                out.writeLong(entry[0]);
+                out.writeInt((int) entry[1]);
+                out.writeInt((int) entry[2]);
+            }
+            out.writeLong(footerOffset);
+            out.write(ArchiveSegment.MAGIC);
+            out.flush();
+            return counting.count;
+        }
+    }
+    
+    /**
+     * First timestamp in epoch millis, then the delta to the previous one as a varint
+     */
+    private static byte[] timestampColumn(List<LogEvent> events) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(events.size() * 2);
+        long previous = events.get(0).getTimestamp().toEpochMilli();
+        writeVarLong(out, previous);
+        for (int i = 1; i < events.size(); i++) {
+            long timestamp = events.get(i).getTimestamp().toEpochMilli();
+            writeVarLong(out, timestamp - previous);
+            previous = timestamp;
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * Dictionary of distinct values, then one dictionary ID per row (0 for null, values from 1)
+     */
+    private static byte[] dictionaryColumn(List<LogEvent> events, Function<LogEvent, String> field) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] rows = new int[events.size()];
+        for (int i = 0; i < rows.length; i++) {
+            String value = field.apply(events.get(i));
+            if (value != null) {
+                rows[i] = ids.computeIfAbsent(value, key -> {
+                    dictionary.add(key);
+                    return dictionary.size();
+                });
+            }
+        }
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream(rows.length * 2);
+        writeVarLong(out, dictionary.size());
+        for (String value : dictionary) {
+            writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+        }
+        for (int id : rows) {
+            writeVarLong(out, id);
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * Per row, length + 1 as a varint (0 for null) followed by the bytes
+     */
+    private static byte[] bytesColumn(List<LogEvent> events, Function<LogEvent, byte[]> field) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(events.size() * 64);
+        for (LogEvent event : events) {
+            byte[] value = field.apply(event);
+            if (value == null) {
+                writeVarLong(out, 0);
+            } else {
+                writeBytes(out, value);
+            }
+        }
+        return out.toByteArray();
+    }
+    
+    private static void writeBytes(ByteArrayOutputStream out, byte[] value) {
+        writeVarLong(out, value.length + 1L);
+        out.write(value, 0, value.length);
+    }
+    
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+    
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+    
+    private static byte[] json(Map<String, Object> metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsBytes(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Metadata is not serializable", e);
+        }
+    }
+    
+    private static final class CountingOutputStream extends OutputStream {
+        
+        private final OutputStream delegate;
+        private long count;
+        
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.haiphamcoder.tracehub.common.archive;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Where archive segments are kept once their index has left OpenSearch.
+ * Segments are immutable and addressed by name. Implementations backed by an object
+ * store upload on {@link #put} and download to a local cache on {@link #fetch}, so
+ * readers can always memory-map a local file.
+ */
+public interface ArchiveStorage {
+    
+    /**
+     * Store a segment file under a name, replacing any segment of the same name
+     *
+     * @param name the segment name
+     * @param file the local segment file; the caller may delete it afterwards
+     * @throws IOException if the segment cannot be stored
+     */
+    void put(String name, Path file) throws IOException;
+    
+    /**
+     * Names of the stored segments
+     *
+     * @param prefix only names starting with this prefix; empty for all
+     * @return the names, sorted
+     * @throws IOException if the storage cannot be listed
+     */
+    List<String> list(String prefix) throws IOException;
+    
+    /**
+     * Local file of a stored segment
+     *
+     * @param name the segment name
+     * @return a path that can be memory-mapped
+     * @throws IOException if the segment does not exist or cannot be fetched
+     */
+    Path fetch(String name) throws IOException;
+    
+    /**
+     * Delete a stored segment, if present
+     *
+     * @param name the segment name
+     * @throws IOException if the segment cannot be deleted
+     */
+    void delete(String name) throws IOException;
+}
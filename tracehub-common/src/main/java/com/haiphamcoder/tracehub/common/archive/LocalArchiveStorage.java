@@ -0,0 +1,70 @@
+package com.haiphamcoder.tracehub.common.archive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Archive storage in a local (or network-mounted) directory.
+ * Segments are copied to a temporary name and moved into place, so a reader never
+ * sees a partially written segment.
+ */
+public class LocalArchiveStorage implements ArchiveStorage {
+    
+    private static final String TEMP_SUFFIX = ".tmp";
+    
+    private final Path directory;
+    
+    public LocalArchiveStorage(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+    
+    @Override
+    public void put(String name, Path file) throws IOException {
+        Path target = resolve(name);
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    @Override
+    public List<String> list(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                .filter(name -> name.startsWith(prefix) && !name.endsWith(TEMP_SUFFIX))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+    
+    @Override
+    public Path fetch(String name) throws IOException {
+        Path file = resolve(name);
+        if (!Files.isRegularFile(file)) {
+            throw new NoSuchFileException(file.toString());
+        }
+        return file;
+    }
+    
+    @Override
+    public void delete(String name) throws IOException {
+        Files.deleteIfExists(resolve(name));
+    }
+    
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    private Path resolve(String name) {
+        Path file = directory.resolve(name).normalize();
+        if (!file.getParent().equals(directory.normalize())) {
+            throw new IllegalArgumentException("Invalid segment name: " + name);
+        }
+        return file;
+    }
+}
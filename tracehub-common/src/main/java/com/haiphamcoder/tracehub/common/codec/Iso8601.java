@@ -0,0 +1,204 @@
+package com.haiphamcoder.tracehub.common.codec;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * ISO-8601 timestamps without {@link DateTimeFormatter}.
+ * The common UTC and offset forms ({@code 2025-01-24T10:00:00Z},
+ * {@code 2025-01-24T10:00:00.123456+07:00}) are parsed straight from characters, with up
+ * to nanosecond precision; anything else falls back to the formatter.
+ */
+public final class Iso8601 {
+    
+    /**
+     * Longest formatted value: {@code yyyy-MM-ddTHH:mm:ss.nnnnnnnnnZ}
+     */
+    public static final int MAX_LENGTH = 30;
+    
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final int[] POWERS_OF_TEN = {
+        1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000};
+    
+    private Iso8601() {
+        // Utility class
+    }
+    
+    /**
+     * Parse a timestamp
+     *
+     * @param chars the buffer
+     * @param offset start of the value
+     * @param length length of the value
+     * @return the instant
+     * @throws DateTimeParseException if the value is not an ISO-8601 date-time with offset
+     */
+    public static Instant parse(char[] chars, int offset, int length) {
+        Instant instant = parseFast(chars, offset, length);
+        if (instant != null) {
+            return instant;
+        }
+        String text = new String(chars, offset, length);
+        return OffsetDateTime.parse(text, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant();
+    }
+    
+    public static Instant parse(String text) {
+        return parse(text.toCharArray(), 0, text.length());
+    }
+    
+    private static Instant parseFast(char[] c, int off, int len) {
+        // yyyy-MM-ddTHH:mm:ss then optional fraction, then Z or +HH:MM
+        if (len < 20 || c[off + 4] != '-' || c[off + 7] != '-' || (c[off + 10] != 'T' && c[off + 10] != 't')
+                || c[off + 13] != ':' || c[off + 16] != ':') {
+            return null;
+        }
+        int year = digits(c, off, 4);
+        int month = digits(c, off + 5, 2);
+        int day = digits(c, off + 8, 2);
+        int hour = digits(c, off + 11, 2);
+        int minute = digits(c, off + 14, 2);
+        int second = digits(c, off + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        
+        int pos = off + 19;
+        int end = off + len;
+        int nanos = 0;
+        if (c[pos] == '.') {
+            int start = ++pos;
+            while (pos < end && c[pos] >= '0' && c[pos] <= '9') {
+                pos++;
+            }
+            int fractionDigits = pos - start;
+            if (fractionDigits < 1 || fractionDigits > 9) {
+                return null;
+            }
+            nanos = digits(c, start, fractionDigits) * POWERS_OF_TEN[9 - fractionDigits];
+        }
+        
+        int offsetSeconds;
+        if (pos == end - 1 && (c[pos] == 'Z' || c[pos] == 'z')) {
+            offsetSeconds = 0;
+        } else if (pos == end - 6 && (c[pos] == '+' || c[pos] == '-') && c[pos + 3] == ':') {
+            int offsetHours = digits(c, pos + 1, 2);
+            int offsetMinutes = digits(c, pos + 4, 2);
+            if (offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59) {
+                return null;
+            }
+            offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (c[pos] == '-' ? -1 : 1);
+        } else {
+            return null;
+        }
+        
+        long epochSecond = epochDay(year, month, day) * SECONDS_PER_DAY
+            + hour * 3600L + minute * 60L + second - offsetSeconds;
+        return Instant.ofEpochSecond(epochSecond, nanos);
+    }
+    
+    /**
+     * Format an instant in UTC the way {@link Instant#toString()} does: the fraction is
+     * left out, or written with 3, 6 or 9 digits as its precision needs
+     *
+     * @param instant the instant
+     * @param buffer output of at least {@link #MAX_LENGTH} characters
+     * @return number of characters written
+     */
+    public static int format(Instant instant, char[] buffer) {
+        long epochSecond = instant.getEpochSecond();
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        
+        // Civil date from epoch day, after Howard Hinnant's days_from_civil inverse
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            String text = instant.toString();
+            text.getChars(0, text.length(), buffer, 0);
+            return text.length();
+        }
+        
+        writeDigits(buffer, 0, (int) year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, month, 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, day, 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, secondOfDay / 3600, 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, secondOfDay / 60 % 60, 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, secondOfDay % 60, 2);
+        int pos = 19;
+        int nanos = instant.getNano();
+        if (nanos > 0) {
+            buffer[pos++] = '.';
+            if (nanos % 1_000_000 == 0) {
+                writeDigits(buffer, pos, nanos / 1_000_000, 3);
+                pos += 3;
+            } else if (nanos % 1_000 == 0) {
+                writeDigits(buffer, pos, nanos / 1_000, 6);
+                pos += 6;
+            } else {
+                writeDigits(buffer, pos, nanos, 9);
+                pos += 9;
+            }
+        }
+        buffer[pos++] = 'Z';
+        return pos;
+    }
+    
+    public static String format(Instant instant) {
+        char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, format(instant, buffer));
+    }
+    
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+    
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+    
+    /**
+     * Decimal value of a run of digits, or -1 if any is not a digit
+     */
+    private static int digits(char[] c, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = c[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+    
+    private static void writeDigits(char[] buffer, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.haiphamcoder.tracehub.common.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Event metadata kept as its JSON text until first read.
+ * Most events pass through ingest and the processor without their metadata being looked
+ * at, so it is copied through as text instead of being built into maps and boxed values.
+ * Any map operation parses it; serializing an unparsed instance writes the text back as is.
+ * Not thread-safe, like the event that holds it.
+ */
+@JsonSerialize(using = LazyMetadata.Serializer.class)
+public final class LazyMetadata extends AbstractMap<String, Object> {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<LinkedHashMap<String, Object>> MAP_TYPE = new TypeReference<>() {};
+    
+    private String json;
+    private Map<String, Object> values;
+    
+    /**
+     * @param json a JSON object
+     */
+    public LazyMetadata(String json) {
+        this.json = json;
+    }
+    
+    /**
+     * Whether the metadata has been parsed into a map
+     */
+    public boolean isParsed() {
+        return values != null;
+    }
+    
+    /**
+     * The JSON text, or null once parsed
+     */
+    public String getJson() {
+        return json;
+    }
+    
+    private Map<String, Object> parsed() {
+        if (values == null) {
+            try {
+                values = MAPPER.readValue(json, MAP_TYPE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Invalid metadata JSON", e);
+            }
+            json = null;
+        }
+        return values;
+    }
+    
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return parsed().entrySet();
+    }
+    
+    @Override
+    public Object get(Object key) {
+        return parsed().get(key);
+    }
+    
+    @Override
+    public boolean containsKey(Object key) {
+        return parsed().containsKey(key);
+    }
+    
+    @Override
+    public Object put(String key, Object value) {
+        return parsed().put(key, value);
+    }
+    
+    @Override
+    public Object remove(Object key) {
+        return parsed().remove(key);
+    }
+    
+    @Override
+    public int size() {
+        return parsed().size();
+    }
+    
+    public static final class Serializer extends StdSerializer<LazyMetadata> {
+        
+        public Serializer() {
+            super(LazyMetadata.class);
+        }
+        
+        @Override
+        public void serialize(LazyMetadata metadata, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            if (metadata.isParsed()) {
+                provider.defaultSerializeValue(metadata.values, generator);
+            } else {
+                generator.writeRawValue(metadata.json);
+            }
+        }
+    }
+}
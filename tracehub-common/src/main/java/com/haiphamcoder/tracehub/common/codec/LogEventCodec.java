@@ -0,0 +1,277 @@
+package com.haiphamcoder.tracehub.common.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+
+/**
+ * Streaming JSON codec for {@link LogEvent}, used by every {@code ObjectMapper} through the
+ * annotations on the class (Spring MVC in ingest, the Kafka (de)serializers, async search
+ * results).
+ * <ul>
+ *   <li>Fields are read and written token by token, without bean introspection.</li>
+ *   <li>{@code timestamp} is ISO-8601 with up to nanosecond precision, parsed and formatted
+ *       by {@link Iso8601}. Whole seconds are still written without a fraction.</li>
+ *   <li>{@code tenantId}, {@code action} and {@code status} come from small vocabularies
+ *       and are canonicalized through a {@link StringInterner}, so repeated values share
+ *       one instance instead of allocating a string per event.</li>
+ *   <li>{@code metadata} is kept as JSON text in a {@link LazyMetadata} until first read.</li>
+ * </ul>
+ * Unknown fields are skipped (or rejected, if the mapper fails on unknown properties).
+ */
+public final class LogEventCodec {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory FACTORY = MAPPER.getFactory();
+    private static final StringInterner INTERNER = new StringInterner(4096, 100);
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    private static final String TIMESTAMP = "timestamp";
+    private static final String TENANT_ID = "tenantId";
+    private static final String USER_ID = "userId";
+    private static final String ACTION = "action";
+    private static final String STATUS = "status";
+    private static final String ACTOR_IP = "actorIp";
+    private static final String MESSAGE = "message";
+    private static final String METADATA = "metadata";
+    
+    private LogEventCodec() {
+        // Utility class
+    }
+    
+    /**
+     * Encode an event as UTF-8 JSON
+     *
+     * @param event the event
+     * @return the JSON bytes
+     * @throws IOException if the metadata cannot be serialized
+     */
+    public static byte[] encode(LogEvent event) throws IOException {
+        try (ByteArrayBuilder bytes = new ByteArrayBuilder(new BufferRecycler(), 512);
+             JsonGenerator generator = FACTORY.createGenerator(bytes)) {
+            write(event, generator);
+            generator.flush();
+            return bytes.toByteArray();
+        }
+    }
+    
+    /**
+     * Decode an event from UTF-8 JSON
+     *
+     * @param json the JSON bytes
+     * @return the event
+     * @throws IOException if the JSON is malformed or not a log event
+     */
+    public static LogEvent decode(byte[] json) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            parser.nextToken();
+            return read(parser, null);
+        }
+    }
+    
+    /**
+     * Write an event as a JSON object
+     *
+     * @param event the event
+     * @param generator generator with an object codec, for the metadata
+     * @throws IOException if writing fails
+     */
+    public static void write(LogEvent event, JsonGenerator generator) throws IOException {
+        write(event, generator, null);
+    }
+    
+    private static void write(LogEvent event, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(TIMESTAMP);
+        if (event.getTimestamp() != null) {
+            char[] buffer = new char[Iso8601.MAX_LENGTH];
+            generator.writeString(buffer, 0, Iso8601.format(event.getTimestamp(), buffer));
+        } else {
+            generator.writeNull();
+        }
+        generator.writeStringField(TENANT_ID, event.getTenantId());
+        generator.writeStringField(USER_ID, event.getUserId());
+        generator.writeStringField(ACTION, event.getAction());
+        generator.writeStringField(STATUS, event.getStatus());
+        generator.writeStringField(ACTOR_IP, event.getActorIp());
+        generator.writeStringField(MESSAGE, event.getMessage());
+        generator.writeFieldName(METADATA);
+        if (event.getMetadata() == null) {
+            generator.writeNull();
+        } else if (provider != null) {
+            provider.defaultSerializeValue(event.getMetadata(), generator);
+        } else {
+            generator.writeObject(event.getMetadata());
+        }
+        generator.writeEndObject();
+    }
+    
+    /**
+     * Read an event, with the parser on its {@code START_OBJECT} token
+     *
+     * @param parser the parser
+     * @param context deserialization context, or null outside databind
+     * @return the event; the parser is left on its {@code END_OBJECT} token
+     * @throws IOException if the JSON is not a log event
+     */
+    public static LogEvent read(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a log event object");
+        }
+        LogEvent event = new LogEvent();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case TIMESTAMP -> event.setTimestamp(readTimestamp(parser));
+                case TENANT_ID -> event.setTenantId(readInterned(parser));
+                case USER_ID -> event.setUserId(readString(parser));
+                case ACTION -> event.setAction(readInterned(parser));
+                case STATUS -> event.setStatus(readInterned(parser));
+                case ACTOR_IP -> event.setActorIp(readString(parser));
+                case MESSAGE -> event.setMessage(readString(parser));
+                case METADATA -> event.setMetadata(readMetadata(parser));
+                default -> {
+                    if (context != null) {
+                        context.handleUnknownProperty(parser, null, LogEvent.class, field);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return event;
+    }
+    
+    private static Instant readTimestamp(JsonParser parser) throws IOException {
+        expectString(parser);
+        try {
+            return Iso8601.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        } catch (DateTimeException e) {
+            throw new JsonParseException(parser, "Invalid ISO-8601 timestamp: " + parser.getText(), e);
+        }
+    }
+    
+    private static String readInterned(JsonParser parser) throws IOException {
+        expectString(parser);
+        return INTERNER.intern(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+    
+    private static String readString(JsonParser parser) throws IOException {
+        expectString(parser);
+        return parser.getText();
+    }
+    
+    /**
+     * Copy the metadata object as compact JSON text. Numbers and literals are copied as
+     * written; strings and names are re-escaped.
+     */
+    private static LazyMetadata readMetadata(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "metadata must be an object");
+        }
+        StringBuilder json = new StringBuilder(128);
+        int depth = 0;
+        JsonToken token = parser.currentToken();
+        do {
+            switch (token) {
+                case START_OBJECT -> {
+                    separate(json).append('{');
+                    depth++;
+                }
+                case START_ARRAY -> {
+                    separate(json).append('[');
+                    depth++;
+                }
+                case END_OBJECT -> {
+                    json.append('}');
+                    depth--;
+                }
+                case END_ARRAY -> {
+                    json.append(']');
+                    depth--;
+                }
+                case FIELD_NAME -> appendQuoted(separate(json), parser).append(':');
+                case VALUE_STRING -> appendQuoted(separate(json), parser);
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT, VALUE_TRUE, VALUE_FALSE, VALUE_NULL ->
+                    separate(json).append(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                default -> throw new JsonParseException(parser, "Unsupported metadata token " + token);
+            }
+        } while (depth > 0 && (token = parser.nextToken()) != null);
+        return new LazyMetadata(json.toString());
+    }
+    
+    private static StringBuilder separate(StringBuilder json) {
+        if (!json.isEmpty()) {
+            char last = json.charAt(json.length() - 1);
+            if (last != '{' && last != '[' && last != ':') {
+                json.append(',');
+            }
+        }
+        return json;
+    }
+    
+    private static StringBuilder appendQuoted(StringBuilder json, JsonParser parser) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int end = parser.getTextOffset() + parser.getTextLength();
+        json.append('"');
+        for (int i = parser.getTextOffset(); i < end; i++) {
+            char c = chars[i];
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+    
+    private static void expectString(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            throw new JsonParseException(parser, parser.currentName() + " must be a string");
+        }
+    }
+    
+    public static final class Serializer extends StdSerializer<LogEvent> {
+        
+        public Serializer() {
+            super(LogEvent.class);
+        }
+        
+        @Override
+        public void serialize(LogEvent event, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            write(event, generator, provider);
+        }
+    }
+    
+    public static final class Deserializer extends StdDeserializer<LogEvent> {
+        
+        public Deserializer() {
+            super(LogEvent.class);
+        }
+        
+        @Override
+        public LogEvent deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return read(parser, context);
+        }
+    }
+}
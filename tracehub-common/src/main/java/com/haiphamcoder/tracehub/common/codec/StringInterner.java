@@ -0,0 +1,68 @@
+package com.haiphamcoder.tracehub.common.codec;
+
+/**
+ * Bounded canonicalizing cache for low-cardinality strings such as tenant IDs and actions.
+ * <ul>
+ *   <li>A lookup compares characters straight from the parser's buffer, so a hit
+ *       allocates nothing and returns the one shared instance.</li>
+ *   <li>The table is direct-mapped with a fixed number of slots: a miss replaces the slot's
+ *       entry, so memory stays bounded however many distinct values are seen.</li>
+ *   <li>Slots are read and written without locking. A racing thread at worst misses and
+ *       allocates its own copy, which is still a correct value.</li>
+ * </ul>
+ */
+public final class StringInterner {
+    
+    private final String[] table;
+    private final int mask;
+    private final int maxLength;
+    
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     * @param maxLength longest value cached; longer values are unlikely to repeat
+     */
+    public StringInterner(int capacity, int maxLength) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.table = new String[size];
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+    
+    /**
+     * Canonical string for a range of characters
+     *
+     * @param chars the buffer
+     * @param offset start of the value
+     * @param length length of the value
+     * @return a cached instance with these characters, or a new one
+     */
+    public String intern(char[] chars, int offset, int length) {
+        if (length > maxLength) {
+            return new String(chars, offset, length);
+        }
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String cached = table[slot];
+        if (cached != null && matches(cached, chars, offset, length)) {
+            return cached;
+        }
+        String value = new String(chars, offset, length);
+        table[slot] = value;
+        return value;
+    }
+    
+    private static boolean matches(String cached, char[] chars, int offset, int length) {
+        if (cached.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cached.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -12,16 +12,22 @@ public final class TracehubConstants {
     // Kafka Topics
     public static final String AUDIT_LOGS_TOPIC = "audit-logs";
     public static final String AUDIT_LOGS_DLQ_TOPIC = "audit-logs-dlq";
+    public static final String ALERT_STATE_TOPIC = "tracehub-alert-state"; // compacted
+    
+    // Kafka Record Headers (epoch millis as decimal ASCII)
+    public static final String INGEST_TIME_HEADER = "tracehub-ingest-time";
     
     // OpenSearch Index
     public static final String INDEX_PREFIX = "logs-tracehub";
     public static final String INDEX_ALIAS = "logs-tracehub-*";
     public static final String INDEX_PATTERN = "logs-tracehub-yyyy.MM.dd";
+    public static final String ACTOR_IP_TOKEN_FIELD = "actorIpToken"; // keyword; actorIp is mapped as ip
     
     // API Endpoints
     public static final String API_V1_BASE = "/api/v1";
     public static final String LOGS_ENDPOINT = API_V1_BASE + "/logs";
     public static final String SEARCH_ENDPOINT = API_V1_BASE + "/search";
+    public static final String ASYNC_SEARCH_ENDPOINT = SEARCH_ENDPOINT + "/async";
     public static final String AGGREGATIONS_ENDPOINT = API_V1_BASE + "/aggs";
     
     // Security
@@ -0,0 +1,88 @@
+package com.haiphamcoder.tracehub.common.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response DTO for asynchronous (long-running) searches
+ */
+public class AsyncSearchResponse {
+    
+    /**
+     * Lifecycle state of an asynchronous search
+     */
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+    
+    private String id;
+    private State state;
+    private boolean partial; // true while hits are still being collected
+    private Instant startTime;
+    private Instant completionTime;
+    private Instant expirationTime;
+    private List<LogEvent> hits;
+    private long total; // number of hits collected so far
+    private int offset; // offset of the returned hits within the collected hits
+    private String error;
+    
+    // Default constructor
+    public AsyncSearchResponse() {}
+    
+    // Constructor with required fields
+    public AsyncSearchResponse(String id, State state, boolean partial) {
+        this.id = id;
+        this.state = state;
+        this.partial = partial;
+    }
+    
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    
+    public State getState() { return state; }
+    public void setState(State state) { this.state = state; }
+    
+    public boolean isPartial() { return partial; }
+    public void setPartial(boolean partial) { this.partial = partial; }
+    
+    public Instant getStartTime() { return startTime; }
+    public void setStartTime(Instant startTime) { this.startTime = startTime; }
+    
+    public Instant getCompletionTime() { return completionTime; }
+    public void setCompletionTime(Instant completionTime) { this.completionTime = completionTime; }
+    
+    public Instant getExpirationTime() { return expirationTime; }
+    public void setExpirationTime(Instant expirationTime) { this.expirationTime = expirationTime; }
+    
+    public List<LogEvent> getHits() { return hits; }
+    public void setHits(List<LogEvent> hits) { this.hits = hits; }
+    
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    
+    public int getOffset() { return offset; }
+    public void setOffset(int offset) { this.offset = offset; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    
+    @Override
+    public String toString() {
+        return "AsyncSearchResponse{" +
+                "id='" + id + '\'' +
+                ", state=" + state +
+                ", partial=" + partial +
+                ", startTime=" + startTime +
+                ", completionTime=" + completionTime +
+                ", expirationTime=" + expirationTime +
+                ", total=" + total +
+                ", offset=" + offset +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
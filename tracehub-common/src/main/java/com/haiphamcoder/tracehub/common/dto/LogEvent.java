@@ -1,7 +1,8 @@
 package com.haiphamcoder.tracehub.common.dto;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.haiphamcoder.tracehub.common.codec.LogEventCodec;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -11,12 +12,13 @@ import java.time.Instant;
 import java.util.Map;
 
 /**
- * Core audit log event DTO
+ * Core audit log event DTO, (de)serialized by {@link LogEventCodec}
  */
+@JsonSerialize(using = LogEventCodec.Serializer.class)
+@JsonDeserialize(using = LogEventCodec.Deserializer.class)
 public class LogEvent {
     
     @NotNull(message = "timestamp is required")
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
     private Instant timestamp;
     
     @NotBlank(message = "tenantId is required")
@@ -45,7 +47,6 @@ public class LogEvent {
     @Size(max = 10000, message = "message must not exceed 10000 characters")
     private String message;
     
-    @JsonProperty("metadata")
     private Map<String, Object> metadata;
     
     // Default constructor
@@ -0,0 +1,112 @@
+package com.haiphamcoder.tracehub.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filter on one metadata key: an exact value, a range ({@code gte} and/or {@code lte}), or both.
+ * <p>
+ * Metadata keys a tenant has promoted are compared as their configured type. Other keys
+ * compare as strings in OpenSearch (so {@code "10" < "9"}). When the archive tier evaluates
+ * a filter on the stored values, numbers compare numerically and everything else as strings.
+ */
+public class MetadataFilter {
+    
+    @NotBlank(message = "metadata filter key is required")
+    @Pattern(regexp = "^[a-zA-Z0-9_.-]{1,100}$", message = "metadata filter key must be 1-100 alphanumeric characters, dots, hyphens or underscores")
+    private String key;
+    
+    private String value;
+    private String gte;
+    private String lte;
+    
+    public MetadataFilter() {}
+    
+    public MetadataFilter(String key, String value, String gte, String lte) {
+        this.key = key;
+        this.value = value;
+        this.gte = gte;
+        this.lte = lte;
+    }
+    
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+    
+    public String getGte() { return gte; }
+    public void setGte(String gte) { this.gte = gte; }
+    
+    public String getLte() { return lte; }
+    public void setLte(String lte) { this.lte = lte; }
+    
+    @JsonIgnore
+    @AssertTrue(message = "metadata filter needs a value, gte or lte")
+    public boolean isConstrained() {
+        return value != null || gte != null || lte != null;
+    }
+    
+    /**
+     * Whether a metadata value passes this filter, as evaluated outside OpenSearch
+     *
+     * @param actual the event's value for the key, or null if absent
+     * @return true if the value matches
+     */
+    public boolean matches(Object actual) {
+        if (actual == null || actual instanceof Map || actual instanceof List) {
+            return false;
+        }
+        String text = actual.toString();
+        if (value != null && !value.equals(text)) {
+            return false;
+        }
+        return (gte == null || compare(actual, gte) >= 0) && (lte == null || compare(actual, lte) <= 0);
+    }
+    
+    /**
+     * Value of a metadata key; a dotted key also reaches into nested objects, as in OpenSearch
+     *
+     * @param metadata the metadata, or null
+     * @param key the key
+     * @return the value, or null if absent
+     */
+    public static Object valueOf(Map<String, Object> metadata, String key) {
+        if (metadata == null) {
+            return null;
+        }
+        Object value = metadata.get(key);
+        if (value != null || key.indexOf('.') < 0) {
+            return value;
+        }
+        Object current = metadata;
+        for (String part : key.split("\\.")) {
+            if (!(current instanceof Map<?, ?> map)) {
+                return null;
+            }
+            current = map.get(part);
+        }
+        return current;
+    }
+    
+    private static int compare(Object actual, String bound) {
+        if (actual instanceof Number number) {
+            try {
+                return Double.compare(number.doubleValue(), Double.parseDouble(bound));
+            } catch (NumberFormatException e) {
+                // Not a numeric bound: compare as strings
+            }
+        }
+        return actual.toString().compareTo(bound);
+    }
+    
+    @Override
+    public String toString() {
+        return "MetadataFilter{key='" + key + "', value='" + value + "', gte='" + gte + "', lte='" + lte + "'}";
+    }
+}
@@ -1,12 +1,14 @@
 package com.haiphamcoder.tracehub.common.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 
 import java.time.Instant;
+import java.util.List;
 
 /**
  * Search request DTO for audit logs
@@ -32,6 +34,10 @@ public class SearchRequest {
     @Size(max = 1000, message = "query text must not exceed 1000 characters")
     private String q; // full-text search
     
+    @Valid
+    @Size(max = 10, message = "at most 10 metadata filters are allowed")
+    private List<MetadataFilter> metadataFilters;
+    
     @Positive(message = "size must be positive")
     private Integer size = 100; // default size
     
@@ -65,6 +71,9 @@ public class SearchRequest {
     public String getQ() { return q; }
     public void setQ(String q) { this.q = q; }
     
+    public List<MetadataFilter> getMetadataFilters() { return metadataFilters; }
+    public void setMetadataFilters(List<MetadataFilter> metadataFilters) { this.metadataFilters = metadataFilters; }
+    
     public Integer getSize() { return size; }
     public void setSize(Integer size) { this.size = size; }
     
@@ -82,6 +91,7 @@ public class SearchRequest {
                 ", userId='" + userId + '\'' +
                 ", actorIp='" + actorIp + '\'' +
                 ", q='" + q + '\'' +
+                ", metadataFilters=" + metadataFilters +
                 ", size=" + size +
                 ", searchAfter='" + searchAfter + '\'' +
                 '}';
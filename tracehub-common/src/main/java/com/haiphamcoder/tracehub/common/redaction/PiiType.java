@@ -0,0 +1,22 @@
+package com.haiphamcoder.tracehub.common.redaction;
+
+import java.util.Locale;
+
+/**
+ * Kinds of personal or secret data the redaction engine detects
+ */
+public enum PiiType {
+    EMAIL,
+    PHONE,
+    CARD,
+    TOKEN;
+    
+    private final String placeholder = "[REDACTED:" + name().toLowerCase(Locale.ROOT) + "]";
+    
+    /**
+     * @return the text that replaces a detected value
+     */
+    public String getPlaceholder() {
+        return placeholder;
+    }
+}
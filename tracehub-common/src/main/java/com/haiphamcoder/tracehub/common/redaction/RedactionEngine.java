@@ -0,0 +1,527 @@
+package com.haiphamcoder.tracehub.common.redaction;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Single-pass PII scanner.
+ * Every character is visited once by the main loop. Three cheap triggers decide
+ * where a validator runs:
+ * <ul>
+ *   <li>'@' starts an email check that expands left over the local part and right over the domain</li>
+ *   <li>a digit, '+' or '(' at a word boundary starts a number scan, classified as a card
+ *       number (13-19 digits starting with 2-6 and passing the Luhn check) or a phone number
+ *       ('+' and 8-15 digits, or the 3-3-4 grouping with an optional leading 1)</li>
+ *   <li>an Aho-Corasick automaton over all token prefixes (case-insensitive, ASCII) reports
+ *       "Bearer ", "eyJ", "AKIA", "password=" and the like; a token body of at least
+ *       {@value #MIN_TOKEN_BODY} characters must follow. For prefixes ending in ' ', '=' or ':'
+ *       the prefix itself is kept.</li>
+ * </ul>
+ * Input without a match is returned as the same instance, so clean text costs no allocation.
+ * Engines are immutable and thread-safe.
+ */
+public final class RedactionEngine {
+    
+    public static final List<String> DEFAULT_TOKEN_PREFIXES = List.of(
+        "bearer ", "eyj", "akia", "asia", "ghp_", "gho_", "ghs_", "github_pat_", "glpat-",
+        "xoxb-", "xoxp-", "sk_live_", "sk_test_", "rk_live_",
+        "password=", "password:", "passwd=", "pwd=", "secret=", "token=", "api_key=", "apikey=", "access_token="
+    );
+    static final int MIN_TOKEN_BODY = 8;
+    
+    private static final int ALPHABET = 128;
+    private static final int MAX_EMAIL_LOCAL = 64;
+    private static final int MAX_EMAIL_DOMAIN = 255;
+    
+    // Character classes for ASCII
+    private static final byte DIGIT = 1;
+    private static final byte LETTER = 2;
+    private static final byte EMAIL_LOCAL = 4;
+    private static final byte EMAIL_DOMAIN = 8;
+    private static final byte TOKEN_BODY = 16;
+    private static final byte[] CLASSES = new byte[ALPHABET];
+    
+    static {
+        for (int c = 0; c < ALPHABET; c++) {
+            byte classes = 0;
+            boolean digit = c >= '0' && c <= '9';
+            boolean letter = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+            if (digit) {
+                classes |= DIGIT;
+            }
+            if (letter) {
+                classes |= LETTER;
+            }
+            if (digit || letter || "._%+-".indexOf(c) >= 0) {
+                classes |= EMAIL_LOCAL;
+            }
+            if (digit || letter || ".-".indexOf(c) >= 0) {
+                classes |= EMAIL_DOMAIN;
+            }
+            if (digit || letter || "_-.=/+~".indexOf(c) >= 0) {
+                classes |= TOKEN_BODY;
+            }
+            CLASSES[c] = classes;
+        }
+    }
+    
+    private final boolean emails;
+    private final boolean phones;
+    private final boolean cards;
+    
+    // Token prefix automaton as a dense DFA: next state = transitions[state * ALPHABET + c]
+    private final int[] transitions;
+    // Per state: length of the longest prefix ending here (0 if none), and whether it is kept
+    private final int[] matchLength;
+    private final boolean[] keepPrefix;
+    
+    private RedactionEngine(Set<PiiType> types, Collection<String> tokenPrefixes) {
+        this.emails = types.contains(PiiType.EMAIL);
+        this.phones = types.contains(PiiType.PHONE);
+        this.cards = types.contains(PiiType.CARD);
+        if (types.contains(PiiType.TOKEN) && !tokenPrefixes.isEmpty()) {
+            Automaton automaton = new Automaton(tokenPrefixes);
+            this.transitions = automaton.transitions;
+            this.matchLength = automaton.matchLength;
+            this.keepPrefix = automaton.keepPrefix;
+        } else {
+            this.transitions = null;
+            this.matchLength = null;
+            this.keepPrefix = null;
+        }
+    }
+    
+    /**
+     * Compile an engine
+     *
+     * @param types the kinds of data to redact
+     * @param tokenPrefixes prefixes that introduce a secret, matched case-insensitively;
+     *                      used when types contains TOKEN
+     * @return the engine
+     */
+    public static RedactionEngine of(Set<PiiType> types, Collection<String> tokenPrefixes) {
+        return new RedactionEngine(types.isEmpty() ? EnumSet.noneOf(PiiType.class) : EnumSet.copyOf(types),
+                                   tokenPrefixes);
+    }
+    
+    /**
+     * @return an engine for every type with the default token prefixes
+     */
+    public static RedactionEngine withDefaults() {
+        return of(EnumSet.allOf(PiiType.class), DEFAULT_TOKEN_PREFIXES);
+    }
+    
+    /**
+     * Redact a string
+     *
+     * @param text the input, may be null
+     * @return the input with every detected value replaced by its placeholder,
+     *         or the input itself if nothing was found
+     */
+    public String redact(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        int length = text.length();
+        StringBuilder out = null;
+        int copied = 0;
+        int state = 0;
+        int i = 0;
+        
+        while (i < length) {
+            char c = text.charAt(i);
+            int start = -1;
+            int end = -1;
+            PiiType type = null;
+            int next = i + 1;
+            
+            if (transitions != null) {
+                state = c < ALPHABET ? transitions[state * ALPHABET + lower(c)] : 0;
+                int prefixLength = matchLength[state];
+                if (prefixLength > 0) {
+                    int prefixStart = i - prefixLength + 1;
+                    int bodyEnd = scanTokenBody(text, i + 1);
+                    boolean keep = keepPrefix[state];
+                    if (prefixStart >= copied && bodyEnd - (i + 1) >= MIN_TOKEN_BODY
+                            && (keep || isWordBoundary(text, prefixStart))) {
+                        start = keep ? i + 1 : prefixStart;
+                        end = bodyEnd;
+                        type = PiiType.TOKEN;
+                    }
+                }
+            }
+            
+            if (type == null && c == '@' && emails) {
+                start = emailStart(text, i, copied);
+                end = start >= 0 ? emailEnd(text, i) : -1;
+                if (end > 0) {
+                    type = PiiType.EMAIL;
+                }
+            } else if (type == null && (phones || cards) && startsNumber(text, i)) {
+                long scan = scanNumber(text, i);
+                int scanEnd = (int) (scan >>> 8);
+                int kind = (int) (scan & 0xFF);
+                if (kind != 0) {
+                    start = i;
+                    end = scanEnd;
+                    type = kind == 1 ? PiiType.CARD : PiiType.PHONE;
+                } else {
+                    // Skip the whole run; token prefixes never start inside a number
+                    next = Math.max(next, scanEnd);
+                    state = 0;
+                }
+            }
+            
+            if (type != null) {
+                if (out == null) {
+                    out = new StringBuilder(length + 16);
+                }
+                out.append(text, copied, start).append(type.getPlaceholder());
+                copied = end;
+                i = end;
+                state = 0;
+            } else {
+                i = next;
+            }
+        }
+        
+        if (out == null) {
+            return text;
+        }
+        return out.append(text, copied, length).toString();
+    }
+    
+    /**
+     * Redact string values of a metadata map in place, recursing into nested maps and lists.
+     * Keys are left untouched. The maps and lists must be mutable, as deserialized by Jackson.
+     *
+     * @param metadata the metadata, may be null
+     * @return true if any value was replaced
+     */
+    @SuppressWarnings("unchecked")
+    public boolean redactValues(Map<String, Object> metadata) {
+        if (metadata == null) {
+            return false;
+        }
+        boolean changed = false;
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof String string) {
+                String redacted = redact(string);
+                if (redacted != string) {
+                    entry.setValue(redacted);
+                    changed = true;
+                }
+            } else if (value instanceof Map<?, ?> map) {
+                changed |= redactValues((Map<String, Object>) map);
+            } else if (value instanceof List<?> list) {
+                changed |= redactList((List<Object>) list);
+            }
+        }
+        return changed;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private boolean redactList(List<Object> list) {
+        boolean changed = false;
+        for (ListIterator<Object> iterator = list.listIterator(); iterator.hasNext(); ) {
+            Object value = iterator.next();
+            if (value instanceof String string) {
+                String redacted = redact(string);
+                if (redacted != string) {
+                    iterator.set(redacted);
+                    changed = true;
+                }
+            } else if (value instanceof Map<?, ?> map) {
+                changed |= redactValues((Map<String, Object>) map);
+            } else if (value instanceof List<?> nested) {
+                changed |= redactList((List<Object>) nested);
+            }
+        }
+        return changed;
+    }
+    
+    private static boolean is(char c, byte charClass) {
+        return c < ALPHABET && (CLASSES[c] & charClass) != 0;
+    }
+    
+    private static int lower(char c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+    
+    private static boolean isWordBoundary(String text, int index) {
+        return index == 0 || !is(text.charAt(index - 1), (byte) (DIGIT | LETTER));
+    }
+    
+    private static int scanTokenBody(String text, int from) {
+        int end = from;
+        while (end < text.length() && is(text.charAt(end), TOKEN_BODY)) {
+            end++;
+        }
+        return end;
+    }
+    
+    /**
+     * @return start of the local part before '@' at index at, or -1
+     */
+    private static int emailStart(String text, int at, int floor) {
+        int start = at;
+        int limit = Math.max(floor, at - MAX_EMAIL_LOCAL);
+        while (start > limit && is(text.charAt(start - 1), EMAIL_LOCAL)) {
+            start--;
+        }
+        while (start < at && text.charAt(start) == '.') {
+            start++;
+        }
+        return start < at ? start : -1;
+    }
+    
+    /**
+     * @return end of the domain after '@' at index at, or -1 if it is not a plausible domain
+     */
+    private static int emailEnd(String text, int at) {
+        int end = at + 1;
+        int limit = Math.min(text.length(), at + 1 + MAX_EMAIL_DOMAIN);
+        while (end < limit && is(text.charAt(end), EMAIL_DOMAIN)) {
+            end++;
+        }
+        // Trailing punctuation belongs to the sentence, not the address
+        while (end > at + 1 && (text.charAt(end - 1) == '.' || text.charAt(end - 1) == '-')) {
+            end--;
+        }
+        int lastDot = text.lastIndexOf('.', end - 1);
+        if (lastDot <= at + 1 || end - lastDot - 1 < 2) {
+            return -1;
+        }
+        for (int k = lastDot + 1; k < end; k++) {
+            if (!is(text.charAt(k), LETTER)) {
+                return -1;
+            }
+        }
+        return end;
+    }
+    
+    private static boolean startsNumber(String text, int i) {
+        char c = text.charAt(i);
+        if (c == '+' || c == '(') {
+            if (i + 1 >= text.length() || !is(text.charAt(i + 1), DIGIT)) {
+                return false;
+            }
+        } else if (!is(c, DIGIT)) {
+            return false;
+        }
+        if (i == 0) {
+            return true;
+        }
+        char previous = text.charAt(i - 1);
+        // Not inside a word, a decimal number or a dotted address
+        return !is(previous, (byte) (DIGIT | LETTER)) && previous != '.' && previous != '_';
+    }
+    
+    /**
+     * Scan a run of digits and separators starting at a number boundary
+     *
+     * @return (end of the run << 8) | kind, kind being 0 for no match, 1 for card, 2 for phone
+     */
+    private long scanNumber(String text, int start) {
+        int length = text.length();
+        int i = start;
+        boolean plus = false;
+        boolean paren = false;
+        if (text.charAt(i) == '+') {
+            plus = true;
+            i++;
+        } else if (text.charAt(i) == '(') {
+            paren = true;
+            i++;
+        }
+        
+        int digits = 0;
+        int groups = 0;
+        int groupLength = 0;
+        long groupLengths = 0; // 4 bits per group, first group in the lowest bits
+        boolean parenClosed = false;
+        int lastDigitEnd = i;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (is(c, DIGIT)) {
+                digits++;
+                groupLength++;
+                i++;
+                lastDigitEnd = i;
+                continue;
+            }
+            if (groupLength == 0) {
+                break;
+            }
+            int separatorEnd;
+            if (c == ')' && paren && !parenClosed && groups == 0) {
+                parenClosed = true;
+                separatorEnd = i + 1 < length && text.charAt(i + 1) == ' ' ? i + 2 : i + 1;
+            } else if (c == ' ' || c == '-') {
+                separatorEnd = i + 1;
+            } else {
+                break;
+            }
+            if (separatorEnd >= length || !is(text.charAt(separatorEnd), DIGIT)) {
+                break;
+            }
+            if (groups < 16) {
+                groupLengths |= (long) Math.min(groupLength, 15) << (4 * groups);
+            }
+            groups++;
+            groupLength = 0;
+            i = separatorEnd;
+        }
+        if (groupLength > 0 && groups < 16) {
+            groupLengths |= (long) Math.min(groupLength, 15) << (4 * groups);
+        }
+        if (groupLength > 0) {
+            groups++;
+        }
+        int end = lastDigitEnd;
+        long run = (long) Math.max(end, start + 1) << 8;
+        
+        // The run must end at a boundary too
+        if (end < length) {
+            char after = text.charAt(end);
+            if (is(after, (byte) (DIGIT | LETTER)) || after == '_' || after == '@'
+                    || (after == '.' && end + 1 < length && is(text.charAt(end + 1), DIGIT))) {
+                return run;
+            }
+        }
+        if (paren && !parenClosed) {
+            return run;
+        }
+        
+        // Card networks use major industry identifiers 2-6; this also keeps epoch millis out
+        char first = text.charAt(start);
+        if (cards && !plus && !paren && digits >= 13 && digits <= 19 && first >= '2' && first <= '6'
+                && luhn(text, start, end)) {
+            return run | 1;
+        }
+        if (phones) {
+            if (plus && digits >= 8 && digits <= 15) {
+                return run | 2;
+            }
+            if (!plus && isNorthAmerican(groups, groupLengths, paren)) {
+                return run | 2;
+            }
+        }
+        return run;
+    }
+    
+    /**
+     * 3-3-4 grouping, optionally preceded by a 1 group: 555-123-4567, (555) 123-4567, 1 555 123 4567
+     */
+    private static boolean isNorthAmerican(int groups, long groupLengths, boolean paren) {
+        if (groups == 3) {
+            return groupLengths == (3L | 3L << 4 | 4L << 8);
+        }
+        return groups == 4 && !paren && groupLengths == (1L | 3L << 4 | 3L << 8 | 4L << 12);
+    }
+    
+    private static boolean luhn(String text, int start, int end) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = end - 1; i >= start; i--) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            }
+            int digit = c - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+    
+    /**
+     * Aho-Corasick automaton over lower-cased ASCII prefixes, compiled to a dense DFA
+     */
+    private static final class Automaton {
+        
+        private final int[] transitions;
+        private final int[] matchLength;
+        private final boolean[] keepPrefix;
+        
+        private Automaton(Collection<String> prefixes) {
+            // Trie with at most one state per prefix character
+            int maxStates = 1 + prefixes.stream().mapToInt(String::length).sum();
+            int[] trie = new int[maxStates * ALPHABET];
+            Arrays.fill(trie, -1);
+            int[] length = new int[maxStates];
+            boolean[] keep = new boolean[maxStates];
+            int states = 1;
+            for (String prefix : prefixes) {
+                String normalized = prefix.toLowerCase(Locale.ROOT);
+                if (normalized.isEmpty() || !normalized.chars().allMatch(ch -> ch < ALPHABET)) {
+                    throw new IllegalArgumentException("Token prefixes must be non-empty ASCII: " + prefix);
+                }
+                if (!is(normalized.charAt(0), LETTER)) {
+                    throw new IllegalArgumentException("Token prefixes must start with a letter: " + prefix);
+                }
+                int state = 0;
+                for (int k = 0; k < normalized.length(); k++) {
+                    int slot = state * ALPHABET + normalized.charAt(k);
+                    if (trie[slot] < 0) {
+                        trie[slot] = states++;
+                    }
+                    state = trie[slot];
+                }
+                length[state] = normalized.length();
+                char last = normalized.charAt(normalized.length() - 1);
+                keep[state] = last == ' ' || last == '=' || last == ':';
+            }
+            
+            // Breadth-first failure links, folded into the transition table
+            int[] fail = new int[states];
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = trie[c];
+                if (child < 0) {
+                    trie[c] = 0;
+                } else {
+                    fail[child] = 0;
+                    queue.add(child);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                // Longest match: own prefix, or the longest one reachable through the failure link
+                if (length[state] == 0 && length[fail[state]] > 0) {
+                    length[state] = length[fail[state]];
+                    keep[state] = keep[fail[state]];
+                }
+                for (int c = 0; c < ALPHABET; c++) {
+                    int slot = state * ALPHABET + c;
+                    int child = trie[slot];
+                    if (child < 0) {
+                        trie[slot] = trie[fail[state] * ALPHABET + c];
+                    } else {
+                        fail[child] = trie[fail[state] * ALPHABET + c];
+                        queue.add(child);
+                    }
+                }
+            }
+            
+            this.transitions = Arrays.copyOf(trie, states * ALPHABET);
+            this.matchLength = Arrays.copyOf(length, states);
+            this.keepPrefix = Arrays.copyOf(keep, states);
+        }
+    }
+}
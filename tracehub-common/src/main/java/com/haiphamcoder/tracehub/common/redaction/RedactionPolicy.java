@@ -0,0 +1,112 @@
+package com.haiphamcoder.tracehub.common.redaction;
+
+import com.haiphamcoder.tracehub.common.codec.LazyMetadata;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-tenant redaction policies.
+ * A policy is the set of {@link PiiType}s to redact, written as a comma-separated list or
+ * {@code NONE}; tenants without their own policy use the default one. One
+ * {@link RedactionEngine} is compiled per distinct policy. Policies are immutable and
+ * thread-safe.
+ */
+public final class RedactionPolicy {
+    
+    private final RedactionEngine defaultEngine;
+    private final Map<String, RedactionEngine> tenantEngines = new HashMap<>();
+    private final Set<PiiType> defaultTypes;
+    
+    private RedactionPolicy(String defaultTypes, Map<String, String> tenantTypes, List<String> tokenPrefixes) {
+        Map<Set<PiiType>, RedactionEngine> engines = new HashMap<>();
+        this.defaultTypes = parseTypes(defaultTypes);
+        this.defaultEngine = this.defaultTypes.isEmpty() ? null
+            : engines.computeIfAbsent(this.defaultTypes, types -> RedactionEngine.of(types, tokenPrefixes));
+        tenantTypes.forEach((tenantId, types) -> {
+            Set<PiiType> policy = parseTypes(types);
+            tenantEngines.put(tenantId, policy.isEmpty() ? null
+                : engines.computeIfAbsent(policy, key -> RedactionEngine.of(key, tokenPrefixes)));
+        });
+    }
+    
+    /**
+     * Compile the policies
+     *
+     * @param defaultTypes the default policy, e.g. {@code EMAIL,PHONE,CARD,TOKEN} or {@code NONE}
+     * @param tenantTypes the policy per tenant ID
+     * @param extraTokenPrefixes token prefixes added to {@link RedactionEngine#DEFAULT_TOKEN_PREFIXES}
+     * @return the policies
+     * @throws IllegalArgumentException if a type or token prefix is invalid
+     */
+    public static RedactionPolicy of(String defaultTypes, Map<String, String> tenantTypes,
+                                     List<String> extraTokenPrefixes) {
+        List<String> tokenPrefixes = new ArrayList<>(RedactionEngine.DEFAULT_TOKEN_PREFIXES);
+        extraTokenPrefixes.stream().filter(prefix -> !prefix.isEmpty()).forEach(tokenPrefixes::add);
+        return new RedactionPolicy(defaultTypes, tenantTypes, tokenPrefixes);
+    }
+    
+    public Set<PiiType> getDefaultTypes() {
+        return defaultTypes;
+    }
+    
+    public int getTenantPolicyCount() {
+        return tenantEngines.size();
+    }
+    
+    /**
+     * Redact the message and metadata values of an event in place, with its tenant's policy
+     *
+     * @param event the event
+     * @return true if anything was redacted
+     */
+    public boolean redact(LogEvent event) {
+        RedactionEngine engine = tenantEngines.containsKey(event.getTenantId())
+            ? tenantEngines.get(event.getTenantId()) : defaultEngine;
+        if (engine == null) {
+            return false;
+        }
+        
+        boolean changed = false;
+        String message = event.getMessage();
+        String redacted = engine.redact(message);
+        if (redacted != message) {
+            event.setMessage(redacted);
+            changed = true;
+        }
+        changed |= redactMetadata(engine, event.getMetadata());
+        return changed;
+    }
+    
+    private static Set<PiiType> parseTypes(String types) {
+        Set<PiiType> policy = EnumSet.noneOf(PiiType.class);
+        for (String type : types.split(",")) {
+            String name = type.trim().toUpperCase(Locale.ROOT);
+            if (!name.isEmpty() && !name.equals("NONE")) {
+                policy.add(PiiType.valueOf(name));
+            }
+        }
+        return policy;
+    }
+    
+    /**
+     * Redact metadata values. Metadata still held as JSON text is only parsed if the text
+     * contains a match: without escapes, every string value appears verbatim in the text,
+     * between quotes that also end a match.
+     */
+    private static boolean redactMetadata(RedactionEngine engine, Map<String, Object> metadata) {
+        if (metadata instanceof LazyMetadata lazy && !lazy.isParsed()) {
+            String json = lazy.getJson();
+            if (json.indexOf('\\') < 0 && engine.redact(json) == json) {
+                return false;
+            }
+        }
+        return engine.redactValues(metadata);
+    }
+}
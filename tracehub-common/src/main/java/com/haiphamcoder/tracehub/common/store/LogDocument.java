@@ -0,0 +1,34 @@
+package com.haiphamcoder.tracehub.common.store;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+
+/**
+ * A log event with its daily partition and document ID
+ */
+public final class LogDocument {
+    
+    private final String partition;
+    private final String documentId;
+    private final LogEvent event;
+    
+    public LogDocument(String partition, String documentId, LogEvent event) {
+        this.partition = partition;
+        this.documentId = documentId;
+        this.event = event;
+    }
+    
+    /**
+     * Daily partition, {@code logs-tracehub-yyyy.MM.dd}
+     */
+    public String getPartition() {
+        return partition;
+    }
+    
+    public String getDocumentId() {
+        return documentId;
+    }
+    
+    public LogEvent getEvent() {
+        return event;
+    }
+}
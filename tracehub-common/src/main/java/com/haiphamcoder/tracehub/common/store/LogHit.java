@@ -0,0 +1,31 @@
+package com.haiphamcoder.tracehub.common.store;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+
+/**
+ * A search hit with the sort values that identify its position
+ */
+public final class LogHit {
+    
+    private final LogEvent event;
+    private final long timestampMillis;
+    private final String documentId;
+    
+    public LogHit(LogEvent event, long timestampMillis, String documentId) {
+        this.event = event;
+        this.timestampMillis = timestampMillis;
+        this.documentId = documentId;
+    }
+    
+    public LogEvent getEvent() {
+        return event;
+    }
+    
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+    
+    public String getDocumentId() {
+        return documentId;
+    }
+}
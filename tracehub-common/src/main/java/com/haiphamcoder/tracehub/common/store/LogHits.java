@@ -0,0 +1,25 @@
+package com.haiphamcoder.tracehub.common.store;
+
+import java.util.List;
+
+/**
+ * One page of search hits and the total number of matches
+ */
+public final class LogHits {
+    
+    private final List<LogHit> hits;
+    private final long total;
+    
+    public LogHits(List<LogHit> hits, long total) {
+        this.hits = hits;
+        this.total = total;
+    }
+    
+    public List<LogHit> getHits() {
+        return hits;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,88 @@
+package com.haiphamcoder.tracehub.common.store;
+
+import com.haiphamcoder.tracehub.common.dto.MetadataFilter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Filters, cursor and page size of a {@link LogStore} search.
+ * Null filters match everything. The text filter matches events whose message
+ * contains every term of it, and every metadata filter must match.
+ */
+public class LogQuery {
+    
+    private String tenantId;
+    private Instant from;
+    private Instant to;
+    private String action;
+    private String status;
+    private String userId;
+    private String actorIp;
+    private String text;
+    private List<MetadataFilter> metadataFilters = List.of();
+    private Long afterTimestampMillis;
+    private String afterDocumentId;
+    private int limit = 100;
+    
+    public LogQuery() {}
+    
+    public String getTenantId() { return tenantId; }
+    public void setTenantId(String tenantId) { this.tenantId = tenantId; }
+    
+    public Instant getFrom() { return from; }
+    public void setFrom(Instant from) { this.from = from; }
+    
+    public Instant getTo() { return to; }
+    public void setTo(Instant to) { this.to = to; }
+    
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    /**
+     * userId as stored, i.e. tokenized for tokenized tenants
+     */
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    
+    /**
+     * actorIp as stored, i.e. tokenized for tokenized tenants
+     */
+    public String getActorIp() { return actorIp; }
+    public void setActorIp(String actorIp) { this.actorIp = actorIp; }
+    
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+    
+    public List<MetadataFilter> getMetadataFilters() { return metadataFilters; }
+    public void setMetadataFilters(List<MetadataFilter> metadataFilters) {
+        this.metadataFilters = metadataFilters != null ? metadataFilters : List.of();
+    }
+    
+    /**
+     * Timestamp of the last hit of the previous page, or null for the first page
+     */
+    public Long getAfterTimestampMillis() { return afterTimestampMillis; }
+    
+    /**
+     * Document ID of the last hit of the previous page, or null for the first page
+     */
+    public String getAfterDocumentId() { return afterDocumentId; }
+    
+    /**
+     * Return only hits after the given one in newest-first order
+     *
+     * @param timestampMillis timestamp of the last hit of the previous page
+     * @param documentId document ID of that hit
+     */
+    public void setAfter(long timestampMillis, String documentId) {
+        this.afterTimestampMillis = timestampMillis;
+        this.afterDocumentId = documentId;
+    }
+    
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -0,0 +1,64 @@
+package com.haiphamcoder.tracehub.common.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Storage backend for indexed log events.
+ * The processor writes through it and the query service searches through it, so the
+ * pipeline does not depend on a particular engine. Events are partitioned by UTC day
+ * ({@code logs-tracehub-yyyy.MM.dd}); a store may map partitions to indices, directories
+ * or anything else. Field values are stored as given, so tokenized fields must be
+ * queried with their tokens.
+ */
+public interface LogStore extends Closeable {
+    
+    /**
+     * Fields {@link #aggregate} can group by
+     */
+    Set<String> AGGREGATABLE_FIELDS = Set.of("tenantId", "userId", "action", "status");
+    
+    /**
+     * Write a batch of documents.
+     * Writes are idempotent by document ID: a document redelivered with the same ID
+     * leaves one copy and counts as written.
+     *
+     * @param documents the documents to write
+     * @return number of rejected documents per error type, empty when all were written
+     * @throws IOException if the batch as a whole could not be written
+     */
+    Map<String, Integer> write(List<LogDocument> documents) throws IOException;
+    
+    /**
+     * Search events, newest first (timestamp descending, then document ID descending)
+     *
+     * @param query the filters, cursor and page size
+     * @return one page of hits and the total number of matches
+     * @throws IOException if the search fails
+     */
+    LogHits search(LogQuery query) throws IOException;
+    
+    /**
+     * Count matching events per value of a field
+     *
+     * @param query the filters; cursor and page size are ignored
+     * @param field one of {@link #AGGREGATABLE_FIELDS}
+     * @param size maximum number of values, most frequent first
+     * @return event count per value, in descending count order
+     * @throws IOException if the aggregation fails
+     */
+    Map<String, Long> aggregate(LogQuery query, String field, int size) throws IOException;
+    
+    /**
+     * Release resources; the default does nothing
+     *
+     * @throws IOException if pending writes cannot be flushed
+     */
+    @Override
+    default void close() throws IOException {
+        // Nothing to release
+    }
+}
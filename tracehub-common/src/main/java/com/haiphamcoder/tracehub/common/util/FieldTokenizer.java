@@ -0,0 +1,162 @@
+package com.haiphamcoder.tracehub.common.util;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Deterministic, tenant-scoped tokenization of field values with keyed HMAC-SHA256.
+ * The same tenant, field and value always yield the same token, so the processor can
+ * index tokens and the query service can tokenize filter values for equality search,
+ * while the clear value cannot be recovered without the tenant's key.
+ *
+ * Keys are HMAC secret keys in a PKCS12 keystore, one entry per tenant with the
+ * tenant ID as alias (PKCS12 aliases are case-insensitive). Tenants without a key
+ * are not tokenized. A {@link Mac} is initialized once per thread and tenant and
+ * reused, so tokenizing a value costs one HMAC computation and no key setup.
+ */
+public final class FieldTokenizer {
+    
+    /**
+     * Prefix of every token, so tokens are recognizable in stored documents
+     */
+    public static final String TOKEN_PREFIX = "tk_";
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int TOKEN_BYTES = 16;
+    private static final int TOKEN_LENGTH = TOKEN_PREFIX.length() + 22; // unpadded base64 of 16 bytes
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final FieldTokenizer DISABLED = new FieldTokenizer(Map.of());
+    
+    private final Map<String, SecretKey> keys;
+    private final ThreadLocal<Map<String, Mac>> macs = ThreadLocal.withInitial(HashMap::new);
+    
+    private FieldTokenizer(Map<String, SecretKey> keys) {
+        this.keys = keys;
+    }
+    
+    /**
+     * Tokenizer with explicit keys
+     *
+     * @param keys secret key per tenant ID
+     * @return the tokenizer
+     */
+    public static FieldTokenizer of(Map<String, SecretKey> keys) {
+        Map<String, SecretKey> normalized = new HashMap<>();
+        keys.forEach((tenantId, key) -> normalized.put(normalize(tenantId), key));
+        return new FieldTokenizer(Collections.unmodifiableMap(normalized));
+    }
+    
+    /**
+     * Tokenizer that leaves every value in clear
+     *
+     * @return the disabled tokenizer
+     */
+    public static FieldTokenizer disabled() {
+        return DISABLED;
+    }
+    
+    /**
+     * Load the tenant keys from a PKCS12 keystore
+     *
+     * @param keystore path of the keystore; null or blank disables tokenization
+     * @param password keystore password, also used for the key entries
+     * @return the tokenizer
+     * @throws IOException if the keystore cannot be read
+     * @throws GeneralSecurityException if the keystore or a key entry is invalid
+     */
+    public static FieldTokenizer load(String keystore, char[] password) throws IOException, GeneralSecurityException {
+        if (keystore == null || keystore.isBlank()) {
+            return DISABLED;
+        }
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(Path.of(keystore))) {
+            store.load(in, password);
+        }
+        
+        Map<String, SecretKey> keys = new HashMap<>();
+        for (String alias : Collections.list(store.aliases())) {
+            if (!store.entryInstanceOf(alias, KeyStore.SecretKeyEntry.class)) {
+                continue;
+            }
+            Key key = store.getKey(alias, password);
+            // Fail at startup rather than on the first event of the tenant
+            newMac((SecretKey) key);
+            keys.put(normalize(alias), (SecretKey) key);
+        }
+        return new FieldTokenizer(Collections.unmodifiableMap(keys));
+    }
+    
+    /**
+     * Whether values of a tenant are tokenized
+     *
+     * @param tenantId the tenant
+     * @return true if the tenant has a key
+     */
+    public boolean isTokenized(String tenantId) {
+        return tenantId != null && !keys.isEmpty() && keys.containsKey(normalize(tenantId));
+    }
+    
+    /**
+     * Tokenize a field value of a tenant
+     *
+     * @param tenantId the tenant
+     * @param field the field name; the same value in different fields yields different tokens
+     * @param value the clear value
+     * @return the token, or the value itself if the tenant has no key or the value is null
+     */
+    public String tokenize(String tenantId, String field, String value) {
+        if (value == null || !isTokenized(tenantId) || isToken(value)) {
+            return value;
+        }
+        Mac mac = macs.get().computeIfAbsent(normalize(tenantId), tenant -> newMac(keys.get(tenant)));
+        mac.update(field.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        byte[] digest = mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        byte[] truncated = new byte[TOKEN_BYTES];
+        System.arraycopy(digest, 0, truncated, 0, TOKEN_BYTES);
+        return TOKEN_PREFIX + ENCODER.encodeToString(truncated);
+    }
+    
+    /**
+     * Whether a value is a token produced by this class
+     *
+     * @param value the value
+     * @return true if the value has the token shape
+     */
+    public static boolean isToken(String value) {
+        return value != null && value.length() == TOKEN_LENGTH && value.startsWith(TOKEN_PREFIX);
+    }
+    
+    public int getTenantCount() {
+        return keys.size();
+    }
+    
+    private static Mac newMac(SecretKey key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Invalid tokenization key", e);
+        }
+    }
+    
+    private static String normalize(String tenantId) {
+        return tenantId.toLowerCase(Locale.ROOT);
+    }
+}
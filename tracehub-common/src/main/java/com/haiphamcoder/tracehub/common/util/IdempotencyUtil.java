@@ -6,6 +6,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
+import java.util.TreeMap;
 
 /**
  * Utility for generating idempotency keys
@@ -57,4 +58,32 @@ public final class IdempotencyUtil {
     public static String generateDocumentId(LogEvent event, String producerId, long seq) {
         return generateIdempotencyKey(event, producerId, seq);
     }
+    
+    /**
+     * Generate a content key for a log event: SHA-256 over every field, so retries of the
+     * same event yield the same key regardless of which producer accepted them.
+     * Fields are separated by NUL and metadata entries are sorted by key.
+     * 
+     * @param event the log event
+     * @return the 32-byte digest
+     */
+    public static byte[] generateContentKey(LogEvent event) {
+        StringBuilder input = new StringBuilder(128 + (event.getMessage() != null ? event.getMessage().length() : 0));
+        input.append(event.getTenantId()).append('\0')
+            .append(event.getTimestamp()).append('\0')
+            .append(event.getUserId()).append('\0')
+            .append(event.getAction()).append('\0')
+            .append(event.getStatus()).append('\0')
+            .append(event.getActorIp()).append('\0')
+            .append(event.getMessage());
+        if (event.getMetadata() != null && !event.getMetadata().isEmpty()) {
+            input.append('\0').append(new TreeMap<>(event.getMetadata()));
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
 }
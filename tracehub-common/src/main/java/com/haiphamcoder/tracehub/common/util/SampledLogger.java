@@ -0,0 +1,78 @@
+package com.haiphamcoder.tracehub.common.util;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate-limited structured logging for hot paths.
+ * Emits the first event and then at most one event per interval; events in
+ * between are only counted, and the count is attached to the next emitted
+ * event as the "suppressed" key. Callers add fields with
+ * {@link LoggingEventBuilder#addKeyValue}, which structured console logging
+ * (logging.structured.format.console) writes as JSON attributes.
+ *
+ * A suppressed call costs one volatile read and one counter increment, and
+ * builds no message or arguments.
+ */
+public final class SampledLogger {
+    
+    private final Logger logger;
+    private final long intervalNanos;
+    private final AtomicLong nextEmitNanos;
+    private final LongAdder suppressed = new LongAdder();
+    
+    /**
+     * @param logger the underlying logger
+     * @param interval minimum time between two emitted events
+     */
+    public SampledLogger(Logger logger, Duration interval) {
+        this.logger = logger;
+        this.intervalNanos = interval.toNanos();
+        this.nextEmitNanos = new AtomicLong(System.nanoTime());
+    }
+    
+    public LoggingEventBuilder atDebug() {
+        return sample(Level.DEBUG);
+    }
+    
+    public LoggingEventBuilder atInfo() {
+        return sample(Level.INFO);
+    }
+    
+    public LoggingEventBuilder atWarn() {
+        return sample(Level.WARN);
+    }
+    
+    public LoggingEventBuilder atError() {
+        return sample(Level.ERROR);
+    }
+    
+    /**
+     * @return number of events dropped since the last emitted one
+     */
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+    
+    private LoggingEventBuilder sample(Level level) {
+        if (!logger.isEnabledForLevel(level)) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+        long now = System.nanoTime();
+        long next = nextEmitNanos.get();
+        // Only the caller that wins the CAS emits; concurrent callers count as suppressed
+        if (now - next < 0 || !nextEmitNanos.compareAndSet(next, now + intervalNanos)) {
+            suppressed.increment();
+            return NOPLoggingEventBuilder.singleton();
+        }
+        LoggingEventBuilder builder = logger.atLevel(level);
+        long skipped = suppressed.sumThenReset();
+        return skipped > 0 ? builder.addKeyValue("suppressed", skipped) : builder;
+    }
+}
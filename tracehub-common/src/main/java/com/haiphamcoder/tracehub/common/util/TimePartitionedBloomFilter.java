@@ -0,0 +1,158 @@
+package com.haiphamcoder.tracehub.common.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Bloom filter that forgets old keys by time, with fixed memory.
+ * The window is split into {@code partitions} generations, each its own Bloom filter.
+ * Keys are added to the newest generation and looked up in all of them. When a new
+ * generation starts, the oldest one is cleared and reused, so a key is remembered for
+ * at least (partitions - 1) / partitions of the window and at most the whole window.
+ *
+ * Each generation is sized for its share of the expected keys at a false-positive rate
+ * of {@code fpp / partitions}, so a lookup across all generations stays within the
+ * configured rate while the filter holds no more than the expected number of keys.
+ * Keys are given as two independent 64-bit hashes (for example two halves of a digest).
+ */
+public class TimePartitionedBloomFilter {
+    
+    private static final double LN2 = Math.log(2);
+    
+    private final long partitionMillis;
+    private final int hashFunctions;
+    private final long bitCount;
+    private final long[][] bits;
+    private final long[] bitsSet;
+    private int head;
+    private long headPartition = Long.MIN_VALUE;
+    
+    /**
+     * @param window how long keys are remembered
+     * @param partitions number of generations the window is split into (at least 2)
+     * @param expectedKeys expected number of keys added per window
+     * @param fpp target false-positive rate of a lookup, in (0, 1)
+     */
+    public TimePartitionedBloomFilter(Duration window, int partitions, long expectedKeys, double fpp) {
+        if (partitions < 2) {
+            throw new IllegalArgumentException("partitions must be at least 2");
+        }
+        if (expectedKeys <= 0) {
+            throw new IllegalArgumentException("expectedKeys must be positive");
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("fpp must be in (0, 1)");
+        }
+        this.partitionMillis = Math.max(1, window.toMillis() / partitions);
+        
+        double keysPerPartition = Math.ceil((double) expectedKeys / partitions);
+        double partitionFpp = fpp / partitions;
+        long optimalBits = (long) Math.ceil(-keysPerPartition * Math.log(partitionFpp) / (LN2 * LN2));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) >>> 6);
+        this.bitCount = (long) words << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round(bitCount / keysPerPartition * LN2));
+        this.bits = new long[partitions][words];
+        this.bitsSet = new long[partitions];
+    }
+    
+    /**
+     * Whether a key may have been added within the window
+     *
+     * @param hash1 first hash of the key
+     * @param hash2 second, independent hash of the key
+     * @param nowMillis the current time
+     * @return false if the key was definitely not added; true if it probably was
+     */
+    public synchronized boolean mightContain(long hash1, long hash2, long nowMillis) {
+        rotate(nowMillis);
+        for (long[] generation : bits) {
+            if (contains(generation, hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Add a key to the current generation
+     *
+     * @param hash1 first hash of the key
+     * @param hash2 second, independent hash of the key
+     * @param nowMillis the current time
+     */
+    public synchronized void put(long hash1, long hash2, long nowMillis) {
+        rotate(nowMillis);
+        long[] generation = bits[head];
+        long combined = hash1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            long mask = 1L << index;
+            int word = (int) (index >>> 6);
+            if ((generation[word] & mask) == 0) {
+                generation[word] |= mask;
+                bitsSet[head]++;
+            }
+            combined += hash2;
+        }
+    }
+    
+    /**
+     * False-positive rate of a lookup right now, estimated from how full each generation is
+     *
+     * @return the estimated rate
+     */
+    public synchronized double estimatedFpp() {
+        double miss = 1;
+        for (long set : bitsSet) {
+            miss *= 1 - Math.pow((double) set / bitCount, hashFunctions);
+        }
+        return 1 - miss;
+    }
+    
+    /**
+     * Memory held by the bit arrays; fixed at construction
+     *
+     * @return size in bytes
+     */
+    public long memoryBytes() {
+        return bits.length * (bitCount >>> 3);
+    }
+    
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+    
+    private boolean contains(long[] generation, long hash1, long hash2) {
+        long combined = hash1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            if ((generation[(int) (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+            combined += hash2;
+        }
+        return true;
+    }
+    
+    /**
+     * Start new generations for the partitions that began since the last call,
+     * clearing the oldest ones
+     */
+    private void rotate(long nowMillis) {
+        long partition = Math.floorDiv(nowMillis, partitionMillis);
+        if (headPartition == Long.MIN_VALUE) {
+            headPartition = partition;
+            return;
+        }
+        if (partition <= headPartition) {
+            return;
+        }
+        long steps = Math.min(partition - headPartition, bits.length);
+        for (long i = 0; i < steps; i++) {
+            head = (head + 1) % bits.length;
+            Arrays.fill(bits[head], 0L);
+            bitsSet[head] = 0;
+        }
+        headPartition = partition;
+    }
+}
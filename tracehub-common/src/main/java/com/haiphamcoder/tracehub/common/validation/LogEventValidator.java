@@ -0,0 +1,196 @@
+package com.haiphamcoder.tracehub.common.validation;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass check of the Bean Validation constraints declared on {@link LogEvent},
+ * without reflection or regular expressions.
+ * <ul>
+ *   <li>Each field is checked with the same semantics as its annotations, and a failed
+ *       constraint yields the annotation's message. Like Hibernate Validator, a field can
+ *       fail several constraints at once (an empty tenantId is blank, too short and does
+ *       not match its pattern).</li>
+ *   <li>Patterns are replaced by character-class scans: tenantId characters, the five
+ *       status values, and actorIp as four dot-separated groups of 1-3 digits or a run of
+ *       hex digits and colons.</li>
+ *   <li>A valid event allocates nothing.</li>
+ * </ul>
+ * {@code LogEventValidatorTests} checks that both agree; change the annotations and this
+ * class together.
+ */
+public final class LogEventValidator {
+
+    private LogEventValidator() {
+        // Utility class
+    }
+
+    /**
+     * A failed constraint
+     *
+     * @param field the field name
+     * @param message the constraint's message
+     */
+    public record Violation(String field, String message) {
+
+        @Override
+        public String toString() {
+            return field + ": " + message;
+        }
+    }
+
+    /**
+     * Check an event
+     *
+     * @param event the event
+     * @return the failed constraints, empty if the event is valid
+     */
+    public static List<Violation> validate(LogEvent event) {
+        List<Violation> violations = List.of();
+
+        if (event.getTimestamp() == null) {
+            violations = add(violations, "timestamp", "timestamp is required");
+        }
+
+        String tenantId = event.getTenantId();
+        if (isBlank(tenantId)) {
+            violations = add(violations, "tenantId", "tenantId is required");
+        }
+        if (tenantId != null && (tenantId.length() < 1 || tenantId.length() > 50)) {
+            violations = add(violations, "tenantId", "tenantId must be between 1 and 50 characters");
+        }
+        if (tenantId != null && !isTenantId(tenantId)) {
+            violations = add(violations, "tenantId",
+                "tenantId must contain only alphanumeric characters, hyphens, and underscores");
+        }
+
+        String userId = event.getUserId();
+        if (isBlank(userId)) {
+            violations = add(violations, "userId", "userId is required");
+        }
+        if (userId != null && (userId.length() < 1 || userId.length() > 100)) {
+            violations = add(violations, "userId", "userId must be between 1 and 100 characters");
+        }
+
+        String action = event.getAction();
+        if (isBlank(action)) {
+            violations = add(violations, "action", "action is required");
+        }
+        if (action != null && (action.length() < 1 || action.length() > 100)) {
+            violations = add(violations, "action", "action must be between 1 and 100 characters");
+        }
+
+        String status = event.getStatus();
+        if (isBlank(status)) {
+            violations = add(violations, "status", "status is required");
+        }
+        if (status != null && !isStatus(status)) {
+            violations = add(violations, "status", "status must be one of: SUCCESS, FAILURE, WARN, INFO, ERROR");
+        }
+
+        String actorIp = event.getActorIp();
+        if (isBlank(actorIp)) {
+            violations = add(violations, "actorIp", "actorIp is required");
+        }
+        if (actorIp != null && !isIpv4Shape(actorIp) && !isIpv6Shape(actorIp)) {
+            violations = add(violations, "actorIp", "actorIp must be a valid IPv4 or IPv6 address");
+        }
+
+        String message = event.getMessage();
+        if (isBlank(message)) {
+            violations = add(violations, "message", "message is required");
+        }
+        if (message != null && message.length() > 10000) {
+            violations = add(violations, "message", "message must not exceed 10000 characters");
+        }
+
+        return violations;
+    }
+
+    private static List<Violation> add(List<Violation> violations, String field, String message) {
+        List<Violation> result = violations.isEmpty() ? new ArrayList<>(4) : violations;
+        result.add(new Violation(field, message));
+        return result;
+    }
+
+    /**
+     * {@code @NotBlank}: null, or nothing left after {@link String#trim()}
+     */
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@code ^[a-zA-Z0-9_-]+$}
+     */
+    private static boolean isTenantId(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@code ^(SUCCESS|FAILURE|WARN|INFO|ERROR)$}
+     */
+    private static boolean isStatus(String value) {
+        return switch (value) {
+            case "SUCCESS", "FAILURE", "WARN", "INFO", "ERROR" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * {@code ^(?:[0-9]{1,3}\.){3}[0-9]{1,3}$}: four groups of one to three digits
+     */
+    private static boolean isIpv4Shape(String value) {
+        int groups = 0;
+        int digits = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 3) {
+                    return false;
+                }
+            } else if (c == '.' && digits > 0 && groups < 3) {
+                groups++;
+                digits = 0;
+            } else {
+                return false;
+            }
+        }
+        return groups == 3 && digits > 0;
+    }
+
+    /**
+     * {@code ^[0-9a-fA-F:]+$}
+     */
+    private static boolean isIpv6Shape(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == ':')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package com.haiphamcoder.tracehub.common.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+class ArchiveSegmentTests {
+
+	@Test
+	void roundTripsEventsInTimestampOrder(@TempDir Path dir) throws Exception {
+		List<LogEvent> events = new ArrayList<>();
+		for (int i = 999; i >= 0; i--) {
+			LogEvent event = new LogEvent(Instant.ofEpochSecond(1_700_000_000L + i), "tenant-" + (i % 7),
+					"user-" + (i % 50), "LOGIN", i % 10 == 0 ? "FAILURE" : "SUCCESS", "10.0.0." + (i % 256),
+					"message " + i);
+			if (i % 3 == 0) {
+				event.setMetadata(Map.of("requestId", "r-" + i, "attempt", i % 4));
+			}
+			events.add(event);
+		}
+		events.get(0).setMessage(null);
+
+		Path file = dir.resolve("logs-tracehub-2023.11.14.00000.thseg");
+		ArchiveSegmentWriter.write(events, file);
+		ArchiveSegment segment = ArchiveSegment.open(file);
+
+		assertEquals(1000, segment.getRowCount());
+		assertEquals(Instant.ofEpochSecond(1_700_000_000L), segment.getMinTimestamp());
+		assertEquals(Instant.ofEpochSecond(1_700_000_999L), segment.getMaxTimestamp());
+		List<LogEvent> read = segment.readAll();
+		for (int i = 0; i < 1000; i++) {
+			LogEvent expected = events.get(999 - i);
+			LogEvent actual = read.get(i);
+			assertEquals(expected.getTimestamp(), actual.getTimestamp());
+			assertEquals(expected.getTenantId(), actual.getTenantId());
+			assertEquals(expected.getUserId(), actual.getUserId());
+			assertEquals(expected.getStatus(), actual.getStatus());
+			assertEquals(expected.getActorIp(), actual.getActorIp());
+			assertEquals(expected.getMessage(), actual.getMessage());
+			assertEquals(expected.getMetadata(), actual.getMetadata());
+		}
+		assertNull(read.get(999).getMessage());
+
+		BitSet failures = new BitSet();
+		String[] statuses = segment.readStrings(ArchiveSegment.STATUS);
+		for (int i = 0; i < statuses.length; i++) {
+			failures.set(i, statuses[i].equals("FAILURE"));
+		}
+		assertEquals(100, segment.readEvents(failures).size());
+	}
+
+	@Test
+	void skipsByTimeRangeAndTenant(@TempDir Path dir) throws Exception {
+		Path file = dir.resolve("segment.thseg");
+		ArchiveSegmentWriter.write(List.of(
+				new LogEvent(Instant.parse("2024-01-15T10:00:00Z"), "acme", "u1", "LOGIN", "SUCCESS", "10.0.0.1", "a"),
+				new LogEvent(Instant.parse("2024-01-15T12:00:00Z"), "globex", "u2", "LOGIN", "SUCCESS", "10.0.0.2", "b")),
+				file);
+		ArchiveSegment segment = ArchiveSegment.open(file);
+
+		assertTrue(segment.mightContainTenant("acme"));
+		assertTrue(segment.mightContainTenant("globex"));
+		assertFalse(segment.mightContainTenant("initech"));
+		assertTrue(segment.overlaps(Instant.parse("2024-01-15T11:00:00Z"), null));
+		assertFalse(segment.overlaps(Instant.parse("2024-01-15T12:00:01Z"), null));
+		assertFalse(segment.overlaps(null, Instant.parse("2024-01-15T09:59:59Z")));
+	}
+
+}
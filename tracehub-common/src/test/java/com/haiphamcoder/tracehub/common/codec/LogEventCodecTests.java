@@ -0,0 +1,103 @@
+package com.haiphamcoder.tracehub.common.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+class LogEventCodecTests {
+
+	private final ObjectMapper mapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+	@Test
+	void formatsAndParsesLikeJavaTime() {
+		Random random = new Random(7);
+		for (int i = 0; i < 10_000; i++) {
+			long epochSecond = random.nextLong(-62_135_596_800L, 253_402_300_799L);
+			int nanos = switch (i % 4) {
+				case 0 -> 0;
+				case 1 -> random.nextInt(1000) * 1_000_000;
+				case 2 -> random.nextInt(1_000_000) * 1_000;
+				default -> random.nextInt(1_000_000_000);
+			};
+			Instant instant = Instant.ofEpochSecond(epochSecond, nanos);
+			assertEquals(instant.toString(), Iso8601.format(instant));
+			assertEquals(instant, Iso8601.parse(instant.toString()));
+		}
+		assertEquals(Instant.parse("2025-01-24T03:00:00.5Z"), Iso8601.parse("2025-01-24T10:00:00.5+07:00"));
+		assertEquals(Instant.parse("2024-02-29T23:59:59Z"), Iso8601.parse("2024-02-29T23:59:59Z"));
+		assertThrows(RuntimeException.class, () -> Iso8601.parse("2025-02-29T00:00:00Z"));
+		assertThrows(RuntimeException.class, () -> Iso8601.parse("2025-01-24T10:00:00"));
+	}
+
+	@Test
+	void roundTripsWithSubSecondPrecisionAndInternsVocabularyFields() throws Exception {
+		String json = """
+				{"timestamp":"2025-01-24T10:00:00.123456789Z","tenantId":"acme","userId":"u1",\
+				"action":"LOGIN","status":"SUCCESS","actorIp":"10.0.0.1","message":"hello \\"world\\"",\
+				"metadata":{"device":"ios","attempts":3,"tags":["a","b"]},"unknown":{"x":[1]}}""";
+
+		LogEvent first = mapper.readValue(json, LogEvent.class);
+		LogEvent second = LogEventCodec.decode(json.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(Instant.parse("2025-01-24T10:00:00.123456789Z"), first.getTimestamp());
+		assertEquals("hello \"world\"", first.getMessage());
+		assertSame(first.getTenantId(), second.getTenantId());
+		assertSame(first.getAction(), second.getAction());
+		assertSame(first.getStatus(), second.getStatus());
+
+		LazyMetadata metadata = assertInstanceOf(LazyMetadata.class, first.getMetadata());
+		assertFalse(metadata.isParsed());
+		String encoded = mapper.writeValueAsString(first);
+		assertFalse(metadata.isParsed());
+		assertEquals(json.substring(0, json.indexOf(",\"unknown\"")) + "}", encoded);
+
+		assertEquals(3, metadata.get("attempts"));
+		assertEquals(List.of("a", "b"), metadata.get("tags"));
+		assertTrue(metadata.isParsed());
+		assertEquals(encoded, new String(LogEventCodec.encode(first), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void writesWholeSecondsWithoutFractionAndNullsAsNull() throws Exception {
+		LogEvent event = new LogEvent(Instant.parse("2025-01-24T10:00:00Z"), "acme", "u1", "LOGIN", "SUCCESS",
+				"10.0.0.1", "m");
+		event.setMetadata(Map.of("k", "v"));
+
+		assertEquals("""
+				{"timestamp":"2025-01-24T10:00:00Z","tenantId":"acme","userId":"u1","action":"LOGIN",\
+				"status":"SUCCESS","actorIp":"10.0.0.1","message":"m","metadata":{"k":"v"}}""",
+				mapper.writeValueAsString(event));
+
+		LogEvent empty = mapper.readValue(mapper.writeValueAsString(new LogEvent()), LogEvent.class);
+		assertNull(empty.getTimestamp());
+		assertNull(empty.getMetadata());
+	}
+
+	@Test
+	void rejectsMalformedFields() {
+		assertThrows(JsonProcessingException.class,
+				() -> mapper.readValue("{\"timestamp\":\"yesterday\"}", LogEvent.class));
+		assertThrows(JsonProcessingException.class,
+				() -> mapper.readValue("{\"timestamp\":1737712800}", LogEvent.class));
+		assertThrows(JsonProcessingException.class,
+				() -> mapper.readValue("{\"metadata\":[1]}", LogEvent.class));
+		assertThrows(JsonProcessingException.class,
+				() -> new ObjectMapper().readValue("{\"other\":1}", LogEvent.class));
+	}
+}
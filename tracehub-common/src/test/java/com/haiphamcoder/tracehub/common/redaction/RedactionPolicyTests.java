@@ -0,0 +1,54 @@
+package com.haiphamcoder.tracehub.common.redaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class RedactionPolicyTests {
+
+	private final RedactionPolicy policy = RedactionPolicy.of("EMAIL,CARD",
+			Map.of("acme", "CARD", "internal", "NONE"), List.of("acme_key_"));
+
+	@Test
+	void appliesTheTenantPolicyOrTheDefault() {
+		LogEvent other = event("other", "mail bob@example.com");
+		LogEvent acme = event("acme", "mail bob@example.com");
+		LogEvent internal = event("internal", "card 4111 1111 1111 1111");
+
+		assertTrue(policy.redact(other));
+		assertFalse(policy.redact(acme));
+		assertFalse(policy.redact(internal));
+
+		assertEquals("mail [REDACTED:email]", other.getMessage());
+		assertEquals("mail bob@example.com", acme.getMessage());
+		assertEquals("card 4111 1111 1111 1111", internal.getMessage());
+	}
+
+	@Test
+	void redactsMetadataValues() {
+		LogEvent event = event("other", "login");
+		Map<String, Object> metadata = new HashMap<>();
+		metadata.put("contact", "bob@example.com");
+		event.setMetadata(metadata);
+
+		assertTrue(policy.redact(event));
+
+		assertEquals("login", event.getMessage());
+		assertEquals("[REDACTED:email]", event.getMetadata().get("contact"));
+	}
+
+	private static LogEvent event(String tenantId, String message) {
+		LogEvent event = new LogEvent();
+		event.setTenantId(tenantId);
+		event.setMessage(message);
+		return event;
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.haiphamcoder.tracehub.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.Map;
+
+class FieldTokenizerTests {
+
+	@Test
+	void tokensAreDeterministicPerTenantAndField() throws Exception {
+		FieldTokenizer tokenizer = FieldTokenizer.of(Map.of("acme", newKey(), "globex", newKey()));
+
+		String token = tokenizer.tokenize("acme", "userId", "alice");
+		assertTrue(FieldTokenizer.isToken(token));
+		assertEquals(token, tokenizer.tokenize("ACME", "userId", "alice"));
+		assertEquals(token, tokenizer.tokenize("acme", "userId", token));
+		assertNotEquals(token, tokenizer.tokenize("globex", "userId", "alice"));
+		assertNotEquals(token, tokenizer.tokenize("acme", "actorIp", "alice"));
+		assertEquals("alice", tokenizer.tokenize("initech", "userId", "alice"));
+		assertFalse(FieldTokenizer.isToken("10.0.0.1"));
+	}
+
+	@Test
+	void loadsTenantKeysFromKeystore(@TempDir Path dir) throws Exception {
+		char[] password = "changeit".toCharArray();
+		SecretKey key = newKey();
+		KeyStore store = KeyStore.getInstance("PKCS12");
+		store.load(null, password);
+		store.setEntry("acme", new KeyStore.SecretKeyEntry(key), new KeyStore.PasswordProtection(password));
+		Path file = dir.resolve("tokenization.p12");
+		try (OutputStream out = Files.newOutputStream(file)) {
+			store.store(out, password);
+		}
+
+		FieldTokenizer loaded = FieldTokenizer.load(file.toString(), password);
+		assertEquals(1, loaded.getTenantCount());
+		assertEquals(FieldTokenizer.of(Map.of("acme", key)).tokenize("acme", "userId", "alice"),
+				loaded.tokenize("acme", "userId", "alice"));
+		assertFalse(FieldTokenizer.load("", password).isTokenized("acme"));
+	}
+
+	private static SecretKey newKey() throws Exception {
+		KeyGenerator generator = KeyGenerator.getInstance("HmacSHA256");
+		generator.init(256);
+		return generator.generateKey();
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.haiphamcoder.tracehub.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.KeyValuePair;
+
+import java.time.Duration;
+import java.util.List;
+
+class SampledLoggerTests {
+
+	private final Logger logger = (Logger) LoggerFactory.getLogger(SampledLoggerTests.class);
+	private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+	@BeforeEach
+	void setUp() {
+		appender.start();
+		logger.addAppender(appender);
+		logger.setLevel(Level.INFO);
+	}
+
+	@AfterEach
+	void tearDown() {
+		logger.detachAppender(appender);
+		logger.setLevel(null);
+	}
+
+	@Test
+	void emitsTheFirstEventAndCountsTheRestOfTheInterval() {
+		SampledLogger sampled = new SampledLogger(logger, Duration.ofHours(1));
+
+		for (int i = 0; i < 5; i++) {
+			sampled.atWarn().addKeyValue("i", i).log("failed");
+		}
+
+		assertEquals(1, appender.list.size());
+		assertEquals("failed", appender.list.get(0).getFormattedMessage());
+		assertEquals(4, sampled.getSuppressedCount());
+	}
+
+	@Test
+	void attachesTheSuppressedCountToTheNextEmittedEvent() throws InterruptedException {
+		SampledLogger sampled = new SampledLogger(logger, Duration.ofMillis(50));
+
+		sampled.atWarn().log("first");
+		sampled.atWarn().log("suppressed");
+		sampled.atWarn().log("suppressed");
+		Thread.sleep(100);
+		sampled.atWarn().log("next");
+
+		assertEquals(List.of("first", "next"), appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList());
+		List<KeyValuePair> keyValues = appender.list.get(1).getKeyValuePairs();
+		assertEquals("suppressed", keyValues.get(0).key);
+		assertEquals(2L, keyValues.get(0).value);
+		assertEquals(0, sampled.getSuppressedCount());
+	}
+
+	@Test
+	void disabledLevelsAreNeitherEmittedNorCounted() {
+		SampledLogger sampled = new SampledLogger(logger, Duration.ofHours(1));
+
+		sampled.atDebug().log("debug");
+		sampled.atInfo().log("info");
+
+		assertEquals(1, appender.list.size());
+		assertEquals("info", appender.list.get(0).getFormattedMessage());
+		assertTrue(sampled.getSuppressedCount() == 0);
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.haiphamcoder.tracehub.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+class TimePartitionedBloomFilterTests {
+
+	@Test
+	void remembersKeysForTheWindowAndThenForgets() {
+		TimePartitionedBloomFilter filter = new TimePartitionedBloomFilter(Duration.ofMinutes(4), 4, 1000, 0.001);
+		long start = 1_700_000_000_000L;
+		filter.put(1, 2, start);
+
+		assertTrue(filter.mightContain(1, 2, start));
+		assertTrue(filter.mightContain(1, 2, start + Duration.ofMinutes(3).toMillis()));
+		assertFalse(filter.mightContain(1, 2, start + Duration.ofMinutes(5).toMillis()));
+	}
+
+	@Test
+	void staysWithinTheFalsePositiveRateAtExpectedLoad() {
+		int expected = 10_000;
+		double fpp = 0.01;
+		TimePartitionedBloomFilter filter = new TimePartitionedBloomFilter(Duration.ofMinutes(4), 4, expected, fpp);
+		SplittableRandom random = new SplittableRandom(7);
+		long now = 1_700_000_000_000L;
+		for (int i = 0; i < expected; i++) {
+			filter.put(random.nextLong(), random.nextLong(), now + i * 24L); // spread over the window
+		}
+
+		long lookupTime = now + expected * 24L;
+		int falsePositives = 0;
+		int lookups = 100_000;
+		for (int i = 0; i < lookups; i++) {
+			if (filter.mightContain(random.nextLong(), random.nextLong(), lookupTime)) {
+				falsePositives++;
+			}
+		}
+		assertTrue((double) falsePositives / lookups < fpp, "false positives: " + falsePositives);
+		assertTrue(filter.estimatedFpp() < fpp);
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.haiphamcoder.tracehub.common.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fast validator must report exactly what Bean Validation reports for the annotations
+ */
+class LogEventValidatorTests {
+
+	private static final List<String> SAMPLES = List.of("", " ", "\t\n", "a", "acme", "acme-prod_1", "acme.prod",
+			"ACME", "Ünïcode", "SUCCESS", "FAILURE", "WARN", "INFO", "ERROR", "success", "SUCCESS ", "SUCCESS\n",
+			"OK", "10.0.0.1", "255.255.255.255", "999.1.1.1", "1.2.3", "1.2.3.4.5", "1..2.3", "1.2.3.4.", ".1.2.3",
+			"1234.1.1.1", "::1", "fe80::1", "2001:DB8::ff", "g::1", ":", "10.0.0.1\n", " 10.0.0.1", "x".repeat(50),
+			"x".repeat(51), "x".repeat(100), "x".repeat(101), "x".repeat(10000), "x".repeat(10001));
+
+	private static ValidatorFactory factory;
+	private static Validator validator;
+
+	@BeforeAll
+	static void setUp() {
+		factory = Validation.buildDefaultValidatorFactory();
+		validator = factory.getValidator();
+	}
+
+	@AfterAll
+	static void tearDown() {
+		factory.close();
+	}
+
+	@Test
+	void acceptsValidEvent() {
+		LogEvent event = new LogEvent(Instant.now(), "acme", "u1", "LOGIN", "SUCCESS", "10.0.0.1", "hello");
+		assertTrue(LogEventValidator.validate(event).isEmpty());
+		assertTrue(validator.validate(event).isEmpty());
+	}
+
+	@Test
+	void matchesBeanValidationForEachFieldSample() {
+		for (String sample : SAMPLES) {
+			for (int field = 0; field < 6; field++) {
+				LogEvent event = new LogEvent(Instant.now(), "acme", "u1", "LOGIN", "SUCCESS", "10.0.0.1", "hello");
+				set(event, field, sample);
+				assertSameViolations(event);
+				set(event, field, null);
+				assertSameViolations(event);
+			}
+		}
+		assertSameViolations(new LogEvent());
+	}
+
+	@Test
+	void matchesBeanValidationForRandomIpShapes() {
+		Random random = new Random(11);
+		String alphabet = "0123456789.:abcfgABF ";
+		for (int i = 0; i < 20_000; i++) {
+			StringBuilder value = new StringBuilder();
+			for (int length = random.nextInt(18); length > 0; length--) {
+				value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			LogEvent event = new LogEvent(Instant.now(), "acme", "u1", "LOGIN", "SUCCESS", value.toString(), "m");
+			assertSameViolations(event);
+		}
+	}
+
+	private static void set(LogEvent event, int field, String value) {
+		switch (field) {
+			case 0 -> event.setTenantId(value);
+			case 1 -> event.setUserId(value);
+			case 2 -> event.setAction(value);
+			case 3 -> event.setStatus(value);
+			case 4 -> event.setActorIp(value);
+			default -> event.setMessage(value);
+		}
+	}
+
+	private static void assertSameViolations(LogEvent event) {
+		Set<String> expected = validator.validate(event).stream()
+				.map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+				.collect(Collectors.toSet());
+		Set<String> actual = LogEventValidator.validate(event).stream()
+				.map(LogEventValidator.Violation::toString)
+				.collect(Collectors.toSet());
+		assertEquals(expected, actual, () -> event.toString());
+	}
+}
@@ -1,19 +1,33 @@
 package com.haiphamcoder.tracehub.ingest.controller;
 
 import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.util.SampledLogger;
+import com.haiphamcoder.tracehub.common.validation.LogEventValidator;
 import com.haiphamcoder.tracehub.ingest.service.LogIngestService;
 import io.micrometer.core.annotation.Timed;
-import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.concurrent.CompletableFuture;
+import java.time.Duration;
+import java.util.List;
 
 /**
- * REST controller for log ingestion
+ * REST controller for log ingestion.
+ * Events are checked with {@link LogEventValidator} instead of {@code @Valid}. Failed
+ * constraints are raised as the {@link MethodArgumentNotValidException} that {@code @Valid}
+ * would throw, one field error per constraint, so clients get the same 400 response.
  */
 @RestController
 @RequestMapping("/api/v1")
@@ -21,11 +35,21 @@ import java.util.concurrent.CompletableFuture;
 public class LogIngestController {
     
     private static final Logger logger = LoggerFactory.getLogger(LogIngestController.class);
+    private static final MethodParameter EVENT_PARAMETER = bodyParameter("ingestLog", LogEvent.class);
+    private static final MethodParameter EVENTS_PARAMETER = bodyParameter("ingestLogs", List.class);
     
     private final LogIngestService logIngestService;
+    private final int maxBatchSize;
+    private final SampledLogger receivedLog;
+    private final SampledLogger errorLog;
     
-    public LogIngestController(LogIngestService logIngestService) {
+    public LogIngestController(LogIngestService logIngestService,
+                               @Value("${tracehub.ingest.batch.max-size:1000}") int maxBatchSize,
+                               @Value("${tracehub.logging.sample-interval:1s}") Duration sampleInterval) {
         this.logIngestService = logIngestService;
+        this.maxBatchSize = maxBatchSize;
+        this.receivedLog = new SampledLogger(logger, sampleInterval);
+        this.errorLog = new SampledLogger(logger, sampleInterval);
     }
     
     /**
@@ -33,34 +57,108 @@ public class LogIngestController {
      * 
      * @param event the log event to ingest
      * @return 202 Accepted response
+     * @throws MethodArgumentNotValidException if the event is invalid
      */
     @PostMapping("/logs")
-    public ResponseEntity<String> ingestLog(@Valid @RequestBody LogEvent event) {
-        logger.info("Received log event: tenantId={}, action={}, userId={}", 
-                   event.getTenantId(), event.getAction(), event.getUserId());
+    public ResponseEntity<String> ingestLog(@RequestBody LogEvent event) throws MethodArgumentNotValidException {
+        List<LogEventValidator.Violation> violations = LogEventValidator.validate(event);
+        if (!violations.isEmpty()) {
+            BindingResult result = new BeanPropertyBindingResult(event, "logEvent");
+            reject(result, "", event, violations);
+            throw new MethodArgumentNotValidException(EVENT_PARAMETER, result);
+        }
+        receivedLog.atInfo()
+            .addKeyValue("tenantId", event.getTenantId())
+            .addKeyValue("action", event.getAction())
+            .log("Received log event");
         
         // TODO: Extract tenantId from JWT token or API key for authorization
         // TODO: Add rate limiting per tenant
         
         try {
-            CompletableFuture<Void> future = logIngestService.ingestLog(event)
-                    .thenAccept(result -> logger.debug("Log event sent to Kafka successfully"))
-                    .exceptionally(throwable -> {
-                        logger.error("Failed to send log event to Kafka", throwable);
-                        return null;
-                    });
+            // Send failures are counted and logged by the service
+            logIngestService.ingestLog(event);
             
             // Return 202 Accepted immediately (async processing)
             return ResponseEntity.accepted()
                     .body("Log event accepted for processing");
                     
         } catch (Exception e) {
-            logger.error("Error processing log event", e);
+            errorLog.atError().setCause(e).log("Error processing log event");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Internal server error");
         }
     }
     
+    /**
+     * Ingest a batch of log events. The batch is validated as a whole: if any event is
+     * invalid, none is sent and the response lists the failures by position.
+     * 
+     * @param events the log events to ingest
+     * @return 202 Accepted response
+     * @throws MethodArgumentNotValidException if the batch size is out of range or any event is
+     *         invalid; field errors are named {@code [<position>].<field>}
+     */
+    @PostMapping("/logs/batch")
+    public ResponseEntity<String> ingestLogs(@RequestBody List<LogEvent> events) throws MethodArgumentNotValidException {
+        BindingResult result = new BeanPropertyBindingResult(events, "logEventList");
+        if (events.isEmpty() || events.size() > maxBatchSize) {
+            result.addError(new ObjectError(result.getObjectName(),
+                "Batch must contain between 1 and " + maxBatchSize + " events"));
+        } else {
+            for (int i = 0; i < events.size(); i++) {
+                LogEvent event = events.get(i);
+                if (event == null) {
+                    result.addError(new FieldError(result.getObjectName(), "[" + i + "]", "event is required"));
+                    continue;
+                }
+                reject(result, "[" + i + "].", event, LogEventValidator.validate(event));
+            }
+        }
+        if (result.hasErrors()) {
+            throw new MethodArgumentNotValidException(EVENTS_PARAMETER, result);
+        }
+        receivedLog.atInfo()
+            .addKeyValue("events", events.size())
+            .log("Received log event batch");
+        
+        try {
+            for (LogEvent event : events) {
+                logIngestService.ingestLog(event);
+            }
+            return ResponseEntity.accepted()
+                    .body(events.size() + " log events accepted for processing");
+                    
+        } catch (Exception e) {
+            errorLog.atError().setCause(e).log("Error processing log event batch");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Internal server error");
+        }
+    }
+    
+    /**
+     * Add a field error per failed constraint, with the rejected value as {@code @Valid} does
+     */
+    private static void reject(BindingResult result, String prefix, LogEvent event,
+                               List<LogEventValidator.Violation> violations) {
+        if (violations.isEmpty()) {
+            return;
+        }
+        BeanWrapper accessor = PropertyAccessorFactory.forBeanPropertyAccess(event);
+        for (LogEventValidator.Violation violation : violations) {
+            result.addError(new FieldError(result.getObjectName(), prefix + violation.field(),
+                accessor.getPropertyValue(violation.field()), false, null, null, violation.message()));
+        }
+    }
+    
+    private static MethodParameter bodyParameter(String method, Class<?> type) {
+        try {
+            return new MethodParameter(LogIngestController.class.getMethod(method, type), 0);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
     /**
      * Health check endpoint
      * 
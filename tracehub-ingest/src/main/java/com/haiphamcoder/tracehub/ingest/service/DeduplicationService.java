@@ -0,0 +1,143 @@
+package com.haiphamcoder.tracehub.ingest.service;
+
+import com.haiphamcoder.tracehub.common.util.TimePartitionedBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drops retried events before they are produced to Kafka.
+ * Each tenant gets a {@link TimePartitionedBloomFilter} over event content keys, with the
+ * same fixed size for every tenant. A key is added only once Kafka has acknowledged the
+ * event, so an event whose send failed can be retried. A retry that arrives while the
+ * first send is still in flight is produced again, as a second record, and indexed twice.
+ * Tenants beyond {@code max-tenants} are not deduplicated.
+ * <pre>
+ * tracehub.ingest.dedup.enabled=true
+ * tracehub.ingest.dedup.window=5m
+ * tracehub.ingest.dedup.expected-events-per-tenant=10000
+ * tracehub.ingest.dedup.false-positive-rate=0.0001
+ * </pre>
+ */
+@Service
+public class DeduplicationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DeduplicationService.class);
+    
+    private final boolean enabled;
+    private final Duration window;
+    private final int partitions;
+    private final long expectedEventsPerTenant;
+    private final double falsePositiveRate;
+    private final int maxTenants;
+    private final ConcurrentHashMap<String, TimePartitionedBloomFilter> filters = new ConcurrentHashMap<>();
+    private final Counter dropped;
+    private final Counter untracked;
+    
+    public DeduplicationService(MeterRegistry meterRegistry,
+                                @Value("${tracehub.ingest.dedup.enabled:false}") boolean enabled,
+                                @Value("${tracehub.ingest.dedup.window:5m}") Duration window,
+                                @Value("${tracehub.ingest.dedup.partitions:4}") int partitions,
+                                @Value("${tracehub.ingest.dedup.expected-events-per-tenant:10000}") long expectedEventsPerTenant,
+                                @Value("${tracehub.ingest.dedup.false-positive-rate:0.0001}") double falsePositiveRate,
+                                @Value("${tracehub.ingest.dedup.max-tenants:1000}") int maxTenants) {
+        this.enabled = enabled;
+        this.window = window;
+        this.partitions = partitions;
+        this.expectedEventsPerTenant = expectedEventsPerTenant;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxTenants = maxTenants;
+        
+        // Validates the settings and gives the per-tenant size up front
+        long bytesPerTenant = newFilter().memoryBytes();
+        this.dropped = Counter.builder("tracehub.ingest.dedup.dropped")
+            .description("Events dropped as duplicates before produce")
+            .register(meterRegistry);
+        this.untracked = Counter.builder("tracehub.ingest.dedup.untracked")
+            .description("Events not deduplicated because max-tenants was reached")
+            .register(meterRegistry);
+        Gauge.builder("tracehub.ingest.dedup.tenants", filters, ConcurrentHashMap::size)
+            .description("Tenants with a deduplication filter")
+            .register(meterRegistry);
+        Gauge.builder("tracehub.ingest.dedup.memory", filters, map -> (double) map.size() * bytesPerTenant)
+            .description("Memory held by deduplication filters")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("tracehub.ingest.dedup.false.positive.rate", this, DeduplicationService::maxEstimatedFpp)
+            .description("Highest estimated false-positive rate across tenant filters")
+            .register(meterRegistry);
+        Gauge.builder("tracehub.ingest.dedup.false.positive.rate.target", () -> falsePositiveRate)
+            .description("Configured false-positive rate")
+            .register(meterRegistry);
+        
+        logger.info("Deduplication initialized: enabled={}, window={}, bytesPerTenant={}, maxTenants={}",
+                    enabled, window, bytesPerTenant, maxTenants);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Whether an event with this content key was probably already produced within the window
+     *
+     * @param tenantId the event's tenant
+     * @param contentKey the event's content key (at least 16 bytes)
+     * @return true if the event should be dropped
+     */
+    public boolean isDuplicate(String tenantId, byte[] contentKey) {
+        TimePartitionedBloomFilter filter = filterFor(tenantId);
+        if (filter == null) {
+            untracked.increment();
+            return false;
+        }
+        ByteBuffer key = ByteBuffer.wrap(contentKey);
+        if (filter.mightContain(key.getLong(0), key.getLong(8), System.currentTimeMillis())) {
+            dropped.increment();
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Remember an event that Kafka has acknowledged
+     *
+     * @param tenantId the event's tenant
+     * @param contentKey the event's content key (at least 16 bytes)
+     */
+    public void markProduced(String tenantId, byte[] contentKey) {
+        TimePartitionedBloomFilter filter = filterFor(tenantId);
+        if (filter != null) {
+            ByteBuffer key = ByteBuffer.wrap(contentKey);
+            filter.put(key.getLong(0), key.getLong(8), System.currentTimeMillis());
+        }
+    }
+    
+    private TimePartitionedBloomFilter filterFor(String tenantId) {
+        TimePartitionedBloomFilter filter = filters.get(tenantId);
+        if (filter != null || filters.size() >= maxTenants) {
+            return filter;
+        }
+        return filters.computeIfAbsent(tenantId, tenant -> newFilter());
+    }
+    
+    private TimePartitionedBloomFilter newFilter() {
+        return new TimePartitionedBloomFilter(window, partitions, expectedEventsPerTenant, falsePositiveRate);
+    }
+    
+    private double maxEstimatedFpp() {
+        double max = 0;
+        for (TimePartitionedBloomFilter filter : filters.values()) {
+            max = Math.max(max, filter.estimatedFpp());
+        }
+        return max;
+    }
+}
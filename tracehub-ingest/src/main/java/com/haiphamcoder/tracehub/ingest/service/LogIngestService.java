@@ -3,14 +3,23 @@ package com.haiphamcoder.tracehub.ingest.service;
 import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
 import com.haiphamcoder.tracehub.common.dto.LogEvent;
 import com.haiphamcoder.tracehub.common.util.IdempotencyUtil;
+import com.haiphamcoder.tracehub.common.util.SampledLogger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for ingesting log events into Kafka
@@ -21,37 +30,74 @@ public class LogIngestService {
     private static final Logger logger = LoggerFactory.getLogger(LogIngestService.class);
     
     private final KafkaTemplate<String, LogEvent> kafkaTemplate;
+    private final DeduplicationService deduplicationService;
     private final String producerId;
+    private final Timer sendLatency;
+    private final Counter sendErrors;
+    private final SampledLogger sentLog;
+    private final SampledLogger failedLog;
     
-    public LogIngestService(KafkaTemplate<String, LogEvent> kafkaTemplate) {
+    public LogIngestService(KafkaTemplate<String, LogEvent> kafkaTemplate, DeduplicationService deduplicationService,
+                            MeterRegistry meterRegistry,
+                            @Value("${tracehub.logging.sample-interval:1s}") Duration sampleInterval) {
         this.kafkaTemplate = kafkaTemplate;
+        this.deduplicationService = deduplicationService;
         this.producerId = UUID.randomUUID().toString();
+        this.sendLatency = Timer.builder("tracehub.ingest.send.latency")
+            .description("Time from accepting an event to its acknowledgement by Kafka")
+            .register(meterRegistry);
+        this.sendErrors = Counter.builder("tracehub.ingest.send.errors")
+            .description("Events that could not be written to Kafka")
+            .register(meterRegistry);
+        this.sentLog = new SampledLogger(logger, sampleInterval);
+        this.failedLog = new SampledLogger(logger, sampleInterval);
         logger.info("LogIngestService initialized with producerId: {}", producerId);
     }
     
     /**
-     * Send log event to Kafka
+     * Send log event to Kafka, stamped with the ingest time header.
+     * With deduplication enabled, an event already produced within the window is dropped.
      * 
      * @param event the log event to send
-     * @return CompletableFuture with send result
+     * @return CompletableFuture with send result, completed with null if the event was dropped as a duplicate
      */
     public CompletableFuture<SendResult<String, LogEvent>> ingestLog(LogEvent event) {
-        String key = event.getTenantId(); // Use tenantId as Kafka key for partitioning
-        String idempotencyKey = IdempotencyUtil.generateIdempotencyKey(event, producerId, System.currentTimeMillis());
+        long ingestMillis = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         
-        logger.debug("Sending log event to Kafka: tenantId={}, action={}, idempotencyKey={}", 
-                   event.getTenantId(), event.getAction(), idempotencyKey);
+        byte[] contentKey = null;
+        if (deduplicationService.isEnabled()) {
+            contentKey = IdempotencyUtil.generateContentKey(event);
+            if (deduplicationService.isDuplicate(event.getTenantId(), contentKey)) {
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+        byte[] producedKey = contentKey;
         
-        // TODO: Add headers for idempotency and tracing
-        return kafkaTemplate.send(TracehubConstants.AUDIT_LOGS_TOPIC, key, event)
+        // Use tenantId as Kafka key for partitioning
+        ProducerRecord<String, LogEvent> record =
+            new ProducerRecord<>(TracehubConstants.AUDIT_LOGS_TOPIC, event.getTenantId(), event);
+        record.headers().add(TracehubConstants.INGEST_TIME_HEADER,
+            Long.toString(ingestMillis).getBytes(StandardCharsets.US_ASCII));
+        
+        return kafkaTemplate.send(record)
                 .whenComplete((result, throwable) -> {
                     if (throwable != null) {
-                        logger.error("Failed to send log event to Kafka: tenantId={}, error={}", 
-                                   event.getTenantId(), throwable.getMessage(), throwable);
+                        sendErrors.increment();
+                        failedLog.atError()
+                            .setCause(throwable)
+                            .addKeyValue("tenantId", event.getTenantId())
+                            .log("Failed to send log event to Kafka");
                     } else {
-                        logger.debug("Successfully sent log event to Kafka: tenantId={}, partition={}, offset={}", 
-                                   event.getTenantId(), result.getRecordMetadata().partition(), 
-                                   result.getRecordMetadata().offset());
+                        if (producedKey != null) {
+                            deduplicationService.markProduced(event.getTenantId(), producedKey);
+                        }
+                        sendLatency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                        sentLog.atDebug()
+                            .addKeyValue("tenantId", event.getTenantId())
+                            .addKeyValue("partition", result.getRecordMetadata().partition())
+                            .addKeyValue("offset", result.getRecordMetadata().offset())
+                            .log("Sent log event to Kafka");
                     }
                 });
     }
@@ -0,0 +1,285 @@
+package com.haiphamcoder.tracehub.ingest.stream;
+
+import com.haiphamcoder.tracehub.common.codec.LogEventCodec;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.validation.LogEventValidator;
+import com.haiphamcoder.tracehub.ingest.service.LogIngestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Collectors;
+
+/**
+ * One agent connection of the {@link StreamingIngestServer}.
+ * <ul>
+ *   <li>The connection's own thread reads frames and hands each event to
+ *       {@link LogIngestService} as soon as it is decoded and validated.</li>
+ *   <li>Kafka acknowledgements arrive in any order. Each one marks its sequence done in a
+ *       ring of {@code creditWindow} slots; the server's flusher then acknowledges the
+ *       contiguous range of done sequences and grants that many credits back. The client
+ *       never has more than the window in flight, so slots are never reused early.</li>
+ *   <li>A failed send stops acknowledgements at the failed event: the server reports the
+ *       error and closes, and the client resumes from the last acknowledged sequence. Events
+ *       after the failed one are sent again even if they were produced.</li>
+ * </ul>
+ */
+final class StreamConnection implements Runnable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StreamConnection.class);
+    private static final int MAX_STREAM_ID_LENGTH = 200;
+    
+    private final StreamingIngestServer server;
+    private final LogIngestService logIngestService;
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final int creditWindow;
+    private final int maxFrameBytes;
+    private final AtomicIntegerArray done;
+    private final AtomicInteger credits = new AtomicInteger();
+    
+    private String streamId;
+    private volatile long nextSequence;
+    private long acked;
+    private volatile Throwable failure;
+    private volatile boolean closed;
+    
+    StreamConnection(StreamingIngestServer server, LogIngestService logIngestService, Socket socket,
+                     int creditWindow, int maxFrameBytes) throws IOException {
+        this.server = server;
+        this.logIngestService = logIngestService;
+        this.socket = socket;
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 8 * 1024));
+        this.creditWindow = creditWindow;
+        this.maxFrameBytes = maxFrameBytes;
+        this.done = new AtomicIntegerArray(creditWindow);
+    }
+    
+    String getStreamId() {
+        return streamId;
+    }
+    
+    @Override
+    public void run() {
+        try {
+            handshake();
+            while (!closed) {
+                int length = readFrameLength();
+                byte type = in.readByte();
+                if (type != StreamProtocol.EVENTS) {
+                    throw new ProtocolException("Unexpected frame type " + type);
+                }
+                readEvents(length - 1);
+            }
+        } catch (EOFException e) {
+            logger.debug("Stream {} closed by client", streamId);
+        } catch (ProtocolException e) {
+            logger.warn("Stream {} protocol error: {}", streamId, e.getMessage());
+            sendError(e.getMessage());
+        } catch (IOException e) {
+            if (!closed) {
+                logger.debug("Stream {} connection lost: {}", streamId, e.getMessage());
+            }
+        } finally {
+            flush();
+            close();
+            server.release(this);
+        }
+    }
+    
+    private void handshake() throws IOException {
+        readFrameLength();
+        if (in.readByte() != StreamProtocol.HELLO) {
+            throw new ProtocolException("Expected HELLO");
+        }
+        int version = in.readUnsignedByte();
+        if (version != StreamProtocol.VERSION) {
+            throw new ProtocolException("Unsupported protocol version " + version);
+        }
+        String requestedStreamId = in.readUTF();
+        if (requestedStreamId.isEmpty() || requestedStreamId.length() > MAX_STREAM_ID_LENGTH) {
+            throw new ProtocolException("streamId must be between 1 and " + MAX_STREAM_ID_LENGTH + " characters");
+        }
+        long firstSequence = in.readLong();
+        
+        this.streamId = requestedStreamId;
+        Long resumePoint = server.register(this);
+        long next = resumePoint != null ? Math.max(firstSequence, resumePoint) : firstSequence;
+        synchronized (this) {
+            this.nextSequence = next;
+            this.acked = next - 1;
+            credits.set(creditWindow);
+        }
+        write(StreamProtocol.frame(StreamProtocol.RESUME, payload -> payload.writeLong(next)));
+        write(StreamProtocol.frame(StreamProtocol.CREDIT, payload -> payload.writeInt(creditWindow)));
+        synchronized (out) {
+            out.flush();
+        }
+        logger.info("Stream {} connected from {}, resuming at sequence {}", streamId,
+            socket.getRemoteSocketAddress(), next);
+    }
+    
+    private int readFrameLength() throws IOException {
+        int length = in.readInt();
+        if (length < 1 || length > maxFrameBytes) {
+            throw new ProtocolException("Frame length " + length + " outside 1.." + maxFrameBytes);
+        }
+        return length;
+    }
+    
+    private void readEvents(int payloadLength) throws IOException {
+        long firstSequence = in.readLong();
+        int count = in.readInt();
+        if (firstSequence != nextSequence) {
+            throw new ProtocolException("Expected sequence " + nextSequence + ", got " + firstSequence);
+        }
+        if (count < 1 || count > credits.get()) {
+            throw new ProtocolException("Batch of " + count + " events exceeds the " + credits.get() + " granted credits");
+        }
+        credits.addAndGet(-count);
+        
+        int remaining = payloadLength - Long.BYTES - Integer.BYTES;
+        for (int i = 0; i < count; i++) {
+            int size = in.readInt();
+            remaining -= Integer.BYTES + size;
+            if (size < 0 || remaining < 0) {
+                throw new ProtocolException("Event length exceeds its frame");
+            }
+            byte[] json = new byte[size];
+            in.readFully(json);
+            long sequence = firstSequence + i;
+            dispatch(sequence, json);
+            nextSequence = sequence + 1;
+        }
+        if (remaining != 0) {
+            throw new ProtocolException("Frame length does not match its events");
+        }
+    }
+    
+    private void dispatch(long sequence, byte[] json) throws IOException {
+        LogEvent event;
+        try {
+            event = LogEventCodec.decode(json);
+        } catch (IOException e) {
+            reject(sequence, "Invalid log event JSON");
+            return;
+        }
+        List<LogEventValidator.Violation> violations = LogEventValidator.validate(event);
+        if (!violations.isEmpty()) {
+            reject(sequence, "Invalid log event: "
+                + violations.stream().map(LogEventValidator.Violation::message).collect(Collectors.joining(", ")));
+            return;
+        }
+        
+        server.countAccepted();
+        try {
+            logIngestService.ingestLog(event).whenComplete((result, error) -> {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    done.set(slot(sequence), 1);
+                }
+            });
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+    }
+    
+    private void reject(long sequence, String reason) throws IOException {
+        server.countRejected();
+        write(StreamProtocol.frame(StreamProtocol.REJECT, payload -> {
+            payload.writeLong(sequence);
+            payload.writeUTF(reason);
+        }));
+        done.set(slot(sequence), 1);
+    }
+    
+    /**
+     * Acknowledge the contiguous range of done events, grant their credits back and flush.
+     * Called periodically by the server, so acknowledgements are coalesced.
+     */
+    synchronized void flush() {
+        long from = acked + 1;
+        long sequence = from;
+        long limit = nextSequence;
+        while (sequence < limit && done.get(slot(sequence)) == 1) {
+            done.set(slot(sequence), 0);
+            sequence++;
+        }
+        try {
+            if (sequence > from) {
+                long last = sequence - 1;
+                int granted = (int) (sequence - from);
+                acked = last;
+                server.recordResumePoint(streamId, sequence);
+                credits.addAndGet(granted);
+                if (!closed) {
+                    write(StreamProtocol.frame(StreamProtocol.ACK, payload -> {
+                        payload.writeLong(from);
+                        payload.writeLong(last);
+                    }));
+                    write(StreamProtocol.frame(StreamProtocol.CREDIT, payload -> payload.writeInt(granted)));
+                }
+            }
+            Throwable error = failure;
+            if (error != null && !closed) {
+                logger.warn("Stream {} stopped at sequence {}: {}", streamId, acked + 1, error.getMessage());
+                sendError("Failed to produce event " + (acked + 1) + ": " + error.getMessage());
+                close();
+                return;
+            }
+            if (!closed) {
+                synchronized (out) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            close();
+        }
+    }
+    
+    private void sendError(String message) {
+        try {
+            write(StreamProtocol.frame(StreamProtocol.ERROR, payload -> payload.writeUTF(String.valueOf(message))));
+            synchronized (out) {
+                out.flush();
+            }
+        } catch (IOException ignored) {
+            // The connection is closed next either way
+        }
+    }
+    
+    private void write(byte[] frame) throws IOException {
+        synchronized (out) {
+            out.write(frame);
+        }
+    }
+    
+    private int slot(long sequence) {
+        return (int) Math.floorMod(sequence, (long) creditWindow);
+    }
+    
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Already closed
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.haiphamcoder.tracehub.ingest.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Frames of the streaming ingest protocol.
+ * Every frame is {@code [int32 length][uint8 type][payload]}, big-endian, where length
+ * counts the type byte and the payload. Strings are {@link DataOutputStream#writeUTF}.
+ * <pre>
+ * client -> server
+ *   HELLO   uint8 version, utf streamId, int64 firstSequence
+ *   EVENTS  int64 firstSequence, int32 count, count x (int32 length, JSON LogEvent)
+ * server -> client
+ *   RESUME  int64 nextSequence
+ *   CREDIT  int32 events
+ *   ACK     int64 firstSequence, int64 lastSequence
+ *   REJECT  int64 sequence, utf reason
+ *   ERROR   utf message (the server then closes the connection)
+ * </pre>
+ * Sequence numbers belong to the stream ID: they increase by one per event and are never
+ * reused, across connections too.
+ * <p>
+ * Delivery is at least once. RESUME gives the first sequence not yet acknowledged, and the
+ * client sends everything from there again: events still in flight when the connection
+ * dropped, and events after a failed one that were already produced, are produced twice.
+ */
+public final class StreamProtocol {
+    
+    public static final int VERSION = 1;
+    
+    public static final byte HELLO = 1;
+    public static final byte EVENTS = 2;
+    public static final byte RESUME = 3;
+    public static final byte CREDIT = 4;
+    public static final byte ACK = 5;
+    public static final byte REJECT = 6;
+    public static final byte ERROR = 7;
+    
+    private StreamProtocol() {
+        // Utility class
+    }
+    
+    /**
+     * Payload writer of a frame
+     */
+    @FunctionalInterface
+    public interface Payload {
+        void write(DataOutputStream out) throws IOException;
+    }
+    
+    /**
+     * Encode a frame, length prefix included
+     *
+     * @param type the frame type
+     * @param payload writes the payload
+     * @return the frame bytes
+     */
+    public static byte[] frame(byte type, Payload payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeByte(type);
+        payload.write(out);
+        out.flush();
+        byte[] frame = bytes.toByteArray();
+        int length = frame.length - Integer.BYTES;
+        frame[0] = (byte) (length >>> 24);
+        frame[1] = (byte) (length >>> 16);
+        frame[2] = (byte) (length >>> 8);
+        frame[3] = (byte) length;
+        return frame;
+    }
+}
@@ -0,0 +1,218 @@
+package com.haiphamcoder.tracehub.ingest.stream;
+
+import com.haiphamcoder.tracehub.ingest.service.LogIngestService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persistent TCP ingest for agents that send continuously, speaking {@link StreamProtocol}.
+ * <ul>
+ *   <li>An agent opens a stream with HELLO and its stream ID, then sends EVENTS frames of
+ *       sequence-numbered events. Each event goes straight to {@link LogIngestService},
+ *       with the same validation as the HTTP endpoints.</li>
+ *   <li>Flow control is credit-based: the agent may have at most {@code credit-window}
+ *       unacknowledged events, and credits are granted back as Kafka acknowledges them.</li>
+ *   <li>Acknowledgements cover contiguous sequence ranges and are sent every
+ *       {@code ack-interval}, so a busy stream gets a few frames per interval rather
+ *       than one per event.</li>
+ *   <li>The last acknowledged sequence of recent streams is kept in memory. On reconnect
+ *       the server answers HELLO with the sequence to resume from; events past it are sent
+ *       again, so delivery is at least once.</li>
+ * </ul>
+ * Each connection has its own reader thread; agents are expected to hold a few long-lived
+ * connections each.
+ * <pre>
+ * tracehub.ingest.stream.enabled=true
+ * tracehub.ingest.stream.port=9091
+ * tracehub.ingest.stream.credit-window=10000
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(name = "tracehub.ingest.stream.enabled", havingValue = "true")
+public class StreamingIngestServer implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StreamingIngestServer.class);
+    
+    private final LogIngestService logIngestService;
+    private final int port;
+    private final int creditWindow;
+    private final Duration ackInterval;
+    private final int maxFrameBytes;
+    private final Map<String, StreamConnection> streams = new ConcurrentHashMap<>();
+    private final Map<String, Long> resumePoints;
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final Counter acceptedEvents;
+    private final Counter rejectedEvents;
+    
+    private volatile boolean running;
+    private ServerSocket serverSocket;
+    private ScheduledExecutorService flusher;
+    
+    public StreamingIngestServer(LogIngestService logIngestService, MeterRegistry meterRegistry,
+                                 @Value("${tracehub.ingest.stream.port:9091}") int port,
+                                 @Value("${tracehub.ingest.stream.credit-window:10000}") int creditWindow,
+                                 @Value("${tracehub.ingest.stream.ack-interval:20ms}") Duration ackInterval,
+                                 @Value("${tracehub.ingest.stream.max-frame-bytes:4194304}") int maxFrameBytes,
+                                 @Value("${tracehub.ingest.stream.resume-streams:10000}") int resumeStreams) {
+        if (creditWindow < 1) {
+            throw new IllegalArgumentException("credit-window must be at least 1");
+        }
+        this.logIngestService = logIngestService;
+        this.port = port;
+        this.creditWindow = creditWindow;
+        this.ackInterval = ackInterval;
+        this.maxFrameBytes = maxFrameBytes;
+        this.resumePoints = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > resumeStreams;
+            }
+        };
+        
+        this.acceptedEvents = Counter.builder("tracehub.ingest.stream.events")
+            .tag("result", "accepted")
+            .description("Events received over streaming connections")
+            .register(meterRegistry);
+        this.rejectedEvents = Counter.builder("tracehub.ingest.stream.events")
+            .tag("result", "rejected")
+            .description("Events received over streaming connections")
+            .register(meterRegistry);
+        Gauge.builder("tracehub.ingest.stream.connections", connectionCount, AtomicInteger::get)
+            .description("Open streaming ingest connections")
+            .register(meterRegistry);
+    }
+    
+    @Override
+    public void start() {
+        try {
+            serverSocket = new ServerSocket();
+            serverSocket.setReuseAddress(true);
+            serverSocket.bind(new InetSocketAddress(port));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot listen for streaming ingest on port " + port, e);
+        }
+        running = true;
+        
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ingest-stream-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> streams.values().forEach(StreamConnection::flush),
+            ackInterval.toMillis(), ackInterval.toMillis(), TimeUnit.MILLISECONDS);
+        
+        Thread acceptor = new Thread(this::accept, "ingest-stream-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info("Streaming ingest listening on port {}: creditWindow={}, ackInterval={}",
+            getPort(), creditWindow, ackInterval);
+    }
+    
+    private void accept() {
+        int connectionNumber = 0;
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                StreamConnection connection = new StreamConnection(this, logIngestService, socket,
+                    creditWindow, maxFrameBytes);
+                connectionCount.incrementAndGet();
+                Thread reader = new Thread(connection, "ingest-stream-" + ++connectionNumber);
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Failed to accept streaming connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // Stopping anyway
+        }
+        streams.values().forEach(connection -> {
+            connection.flush();
+            connection.close();
+        });
+        flusher.shutdownNow();
+        logger.info("Streaming ingest stopped");
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * The bound port, useful when configured as 0
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+    
+    /**
+     * Make a connection the live one for its stream, closing any earlier connection
+     *
+     * @param connection the connection, after HELLO
+     * @return the sequence to resume the stream from, or null if the stream is not known
+     */
+    Long register(StreamConnection connection) {
+        StreamConnection previous = streams.put(connection.getStreamId(), connection);
+        if (previous != null) {
+            logger.info("Stream {} reconnected, closing its earlier connection", connection.getStreamId());
+            previous.close();
+            previous.flush();
+        }
+        synchronized (resumePoints) {
+            return resumePoints.get(connection.getStreamId());
+        }
+    }
+    
+    void release(StreamConnection connection) {
+        connectionCount.decrementAndGet();
+        if (connection.getStreamId() != null) {
+            streams.remove(connection.getStreamId(), connection);
+        }
+    }
+    
+    void recordResumePoint(String streamId, long nextSequence) {
+        synchronized (resumePoints) {
+            // A closed connection may flush after its replacement has moved further
+            resumePoints.merge(streamId, nextSequence, Math::max);
+        }
+    }
+    
+    void countAccepted() {
+        acceptedEvents.increment();
+    }
+    
+    void countRejected() {
+        rejectedEvents.increment();
+    }
+}
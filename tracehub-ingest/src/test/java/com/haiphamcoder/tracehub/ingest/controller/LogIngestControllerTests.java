@@ -0,0 +1,66 @@
+package com.haiphamcoder.tracehub.ingest.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.ingest.service.LogIngestService;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+class LogIngestControllerTests {
+
+	private final LogIngestService service = mock(LogIngestService.class);
+	private final LogIngestController controller = new LogIngestController(service, 2, Duration.ofSeconds(1));
+
+	@Test
+	void rejectsAnInvalidEventWithFieldErrorsLikeValid() {
+		LogEvent event = event("t1");
+		event.setStatus("MAYBE");
+
+		MethodArgumentNotValidException e = assertThrows(MethodArgumentNotValidException.class,
+				() -> controller.ingestLog(event));
+
+		assertEquals("logEvent", e.getBindingResult().getObjectName());
+		FieldError error = e.getBindingResult().getFieldError();
+		assertEquals("status", error.getField());
+		assertEquals("MAYBE", error.getRejectedValue());
+		assertEquals(0, e.getParameter().getParameterIndex());
+		verify(service, never()).ingestLog(any());
+	}
+
+	@Test
+	void namesBatchFieldErrorsByPosition() {
+		MethodArgumentNotValidException e = assertThrows(MethodArgumentNotValidException.class,
+				() -> controller.ingestLogs(Arrays.asList(event("bad tenant"), null)));
+
+		List<String> fields = e.getBindingResult().getFieldErrors().stream().map(FieldError::getField).toList();
+		assertEquals(List.of("[0].tenantId", "[1]"), fields);
+		verify(service, never()).ingestLog(any());
+	}
+
+	@Test
+	void rejectsABatchOverTheMaximumSize() {
+		MethodArgumentNotValidException e = assertThrows(MethodArgumentNotValidException.class,
+				() -> controller.ingestLogs(List.of(event("t1"), event("t1"), event("t1"))));
+
+		assertEquals("Batch must contain between 1 and 2 events",
+				e.getBindingResult().getGlobalError().getDefaultMessage());
+	}
+
+	private static LogEvent event(String tenantId) {
+		return new LogEvent(Instant.parse("2026-01-01T00:00:00Z"), tenantId, "u1", "LOGIN", "SUCCESS",
+				"10.0.0.1", "login");
+	}
+
+}
@@ -0,0 +1,194 @@
+package com.haiphamcoder.tracehub.ingest.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.ingest.service.LogIngestService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.SendResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+class StreamingIngestServerTests {
+
+	private static final String VALID = """
+			{"timestamp":"2025-01-24T10:00:00.250Z","tenantId":"t1","userId":"u1","action":"LOGIN",\
+			"status":"SUCCESS","actorIp":"10.0.0.1","message":"ok"}""";
+	private static final String INVALID = """
+			{"timestamp":"2025-01-24T10:00:00Z","tenantId":"t 1","userId":"u1","action":"LOGIN",\
+			"status":"DONE","actorIp":"10.0.0.1","message":"bad"}""";
+
+	private LogIngestService logIngestService;
+	private StreamingIngestServer server;
+
+	@BeforeEach
+	void setUp() {
+		logIngestService = mock(LogIngestService.class);
+		when(logIngestService.ingestLog(any())).thenReturn(CompletableFuture.completedFuture(null));
+		server = new StreamingIngestServer(logIngestService, new SimpleMeterRegistry(), 0, 4,
+				Duration.ofMillis(5), 1 << 20, 100);
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop();
+	}
+
+	@Test
+	void acknowledgesRangesGrantsCreditsAndResumes() throws Exception {
+		try (Client client = new Client(server.getPort())) {
+			client.hello("agent-1", 1);
+			assertEquals(1, client.expect(StreamProtocol.RESUME).readLong());
+			assertEquals(4, client.expect(StreamProtocol.CREDIT).readInt());
+
+			client.events(1, List.of(VALID, INVALID, VALID));
+			// The flusher may split the range, so read until all three are acknowledged
+			long acked = 0;
+			int credits = 0;
+			String rejection = null;
+			while (acked < 3) {
+				byte[] frame = client.read();
+				DataInputStream payload = Client.payload(frame);
+				switch (frame[0]) {
+					case StreamProtocol.REJECT -> {
+						assertEquals(2, payload.readLong());
+						rejection = payload.readUTF();
+					}
+					case StreamProtocol.ACK -> {
+						assertEquals(acked + 1, payload.readLong());
+						acked = payload.readLong();
+					}
+					case StreamProtocol.CREDIT -> credits += payload.readInt();
+					default -> throw new AssertionError("Unexpected frame " + frame[0]);
+				}
+			}
+			assertEquals(3, acked);
+			assertTrue(rejection != null && rejection.contains("status must be one of"));
+			while (credits < 3) {
+				credits += client.expect(StreamProtocol.CREDIT).readInt();
+			}
+			assertEquals(3, credits);
+		}
+		verify(logIngestService, times(2)).ingestLog(any());
+
+		// A reconnect resumes after the acknowledged events, even if the client still holds them
+		try (Client client = new Client(server.getPort())) {
+			client.hello("agent-1", 1);
+			assertEquals(4, client.expect(StreamProtocol.RESUME).readLong());
+		}
+	}
+
+	@Test
+	void holdsAcknowledgementUntilKafkaConfirms() throws Exception {
+		CompletableFuture<SendResult<String, LogEvent>> pending = new CompletableFuture<>();
+		when(logIngestService.ingestLog(any())).thenReturn(pending)
+				.thenReturn(CompletableFuture.completedFuture(null));
+		try (Client client = new Client(server.getPort())) {
+			client.hello("agent-2", 10);
+			assertEquals(10, client.expect(StreamProtocol.RESUME).readLong());
+			client.expect(StreamProtocol.CREDIT);
+
+			client.events(10, List.of(VALID, VALID));
+			verify(logIngestService, timeout(5000).times(2)).ingestLog(any());
+			Thread.sleep(50);
+			assertEquals(0, client.available());
+
+			pending.complete(null);
+			DataInputStream ack = client.expect(StreamProtocol.ACK);
+			assertEquals(10, ack.readLong());
+			assertEquals(11, ack.readLong());
+		}
+	}
+
+	@Test
+	void closesStreamThatExceedsItsCredits() throws Exception {
+		try (Client client = new Client(server.getPort())) {
+			client.hello("agent-3", 1);
+			client.expect(StreamProtocol.RESUME);
+			client.expect(StreamProtocol.CREDIT);
+
+			client.events(1, List.of(VALID, VALID, VALID, VALID, VALID));
+			assertTrue(client.expect(StreamProtocol.ERROR).readUTF().contains("credits"));
+		}
+	}
+
+	private static final class Client implements AutoCloseable {
+
+		private final Socket socket;
+		private final DataInputStream in;
+		private final DataOutputStream out;
+
+		Client(int port) throws IOException {
+			socket = new Socket("localhost", port);
+			socket.setSoTimeout(5000);
+			in = new DataInputStream(socket.getInputStream());
+			out = new DataOutputStream(socket.getOutputStream());
+		}
+
+		void hello(String streamId, long firstSequence) throws IOException {
+			out.write(StreamProtocol.frame(StreamProtocol.HELLO, payload -> {
+				payload.writeByte(StreamProtocol.VERSION);
+				payload.writeUTF(streamId);
+				payload.writeLong(firstSequence);
+			}));
+			out.flush();
+		}
+
+		void events(long firstSequence, List<String> events) throws IOException {
+			out.write(StreamProtocol.frame(StreamProtocol.EVENTS, payload -> {
+				payload.writeLong(firstSequence);
+				payload.writeInt(events.size());
+				for (String event : events) {
+					byte[] json = event.getBytes(StandardCharsets.UTF_8);
+					payload.writeInt(json.length);
+					payload.write(json);
+				}
+			}));
+			out.flush();
+		}
+
+		byte[] read() throws IOException {
+			byte[] frame = new byte[in.readInt()];
+			in.readFully(frame);
+			return frame;
+		}
+
+		DataInputStream expect(byte type) throws IOException {
+			byte[] frame = read();
+			assertEquals(type, frame[0]);
+			return payload(frame);
+		}
+
+		static DataInputStream payload(byte[] frame) {
+			return new DataInputStream(new ByteArrayInputStream(frame, 1, frame.length - 1));
+		}
+
+		int available() throws IOException {
+			return in.available();
+		}
+
+		@Override
+		public void close() throws IOException {
+			socket.close();
+		}
+	}
+}
@@ -36,6 +36,43 @@ public class AlertController {
         return ResponseEntity.ok(alertService.getAlertRules());
     }
     
+    /**
+     * Create or replace an alert rule
+     * 
+     * @param rule the alert rule
+     * @return the stored rule
+     */
+    @PostMapping("/alerts/rules")
+    public ResponseEntity<AlertService.AlertRule> putAlertRule(@RequestBody AlertService.AlertRule rule) {
+        if (rule.getName() == null || rule.getName().isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (rule.getType() == AlertService.RuleType.THRESHOLD && rule.getTimeWindowMinutes() <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (rule.getType() == AlertService.RuleType.ANOMALY && rule.getAlpha() > 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        logger.info("Storing alert rule: {}", rule.getName());
+        alertService.addAlertRule(rule);
+        return ResponseEntity.ok(rule);
+    }
+    
+    /**
+     * Delete an alert rule
+     * 
+     * @param name the rule name
+     * @return 204 No Content, or 404 if the rule does not exist
+     */
+    @DeleteMapping("/alerts/rules/{name}")
+    public ResponseEntity<Void> deleteAlertRule(@PathVariable String name) {
+        if (!alertService.getAlertRules().containsKey(name)) {
+            return ResponseEntity.notFound().build();
+        }
+        alertService.removeAlertRule(name);
+        return ResponseEntity.noContent().build();
+    }
+    
     /**
      * Health check endpoint
      * 
@@ -0,0 +1,37 @@
+package com.haiphamcoder.tracehub.notifier.dispatch;
+
+import java.time.Instant;
+
+/**
+ * A fired alert waiting to be delivered to its endpoint
+ */
+public class AlertNotification {
+    
+    private final String ruleName;
+    private final String description;
+    private final String endpoint;
+    private final long count;
+    private final int threshold;
+    private final int timeWindowMinutes;
+    private final Instant firedAt;
+    
+    public AlertNotification(String ruleName, String description, String endpoint,
+                             long count, int threshold, int timeWindowMinutes, Instant firedAt) {
+        this.ruleName = ruleName;
+        this.description = description;
+        this.endpoint = endpoint;
+        this.count = count;
+        this.threshold = threshold;
+        this.timeWindowMinutes = timeWindowMinutes;
+        this.firedAt = firedAt;
+    }
+    
+    // Getters
+    public String getRuleName() { return ruleName; }
+    public String getDescription() { return description; }
+    public String getEndpoint() { return endpoint; }
+    public long getCount() { return count; }
+    public int getThreshold() { return threshold; }
+    public int getTimeWindowMinutes() { return timeWindowMinutes; }
+    public Instant getFiredAt() { return firedAt; }
+}
@@ -0,0 +1,403 @@
+package com.haiphamcoder.tracehub.notifier.dispatch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous delivery of fired alerts to webhook endpoints.
+ * Alerts are handed over through a bounded queue so rule evaluation never waits
+ * on the network. Per endpoint, alerts arriving within the digest window are
+ * batched into one request, requests are limited by a concurrency cap and a
+ * token bucket, and failed deliveries are retried with jittered exponential backoff.
+ */
+@Component
+public class NotificationDispatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+    
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    
+    @Value("${tracehub.notifier.dispatch.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${tracehub.notifier.dispatch.digest-window:PT2S}")
+    private Duration digestWindow;
+    
+    @Value("${tracehub.notifier.dispatch.max-batch-size:50}")
+    private int maxBatchSize;
+    
+    @Value("${tracehub.notifier.dispatch.max-pending-per-endpoint:1000}")
+    private int maxPendingPerEndpoint;
+    
+    @Value("${tracehub.notifier.dispatch.max-concurrency-per-endpoint:2}")
+    private int maxConcurrencyPerEndpoint;
+    
+    @Value("${tracehub.notifier.dispatch.rate-per-second:5}")
+    private double ratePerSecond;
+    
+    @Value("${tracehub.notifier.dispatch.burst:10}")
+    private int burst;
+    
+    @Value("${tracehub.notifier.dispatch.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${tracehub.notifier.dispatch.initial-backoff:PT0.5S}")
+    private Duration initialBackoff;
+    
+    @Value("${tracehub.notifier.dispatch.max-backoff:PT30S}")
+    private Duration maxBackoff;
+    
+    @Value("${tracehub.notifier.dispatch.request-timeout:PT10S}")
+    private Duration requestTimeout;
+    
+    private ArrayBlockingQueue<AlertNotification> queue;
+    private ScheduledThreadPoolExecutor scheduler;
+    private HttpClient httpClient;
+    private Thread dispatcherThread;
+    private volatile boolean running;
+    
+    private Timer deliveryLatency;
+    private Counter delivered;
+    private Counter failed;
+    private Counter retried;
+    private Counter dropped;
+    
+    public NotificationDispatcher(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "notification-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        httpClient = HttpClient.newBuilder()
+            .connectTimeout(requestTimeout)
+            .build();
+        
+        deliveryLatency = Timer.builder("tracehub.notifier.delivery.latency")
+            .description("Time from an alert firing to its endpoint acknowledging it")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        delivered = notificationCounter("delivered");
+        failed = notificationCounter("failed");
+        retried = notificationCounter("retried");
+        dropped = notificationCounter("dropped");
+        Gauge.builder("tracehub.notifier.dispatch.queue.size", queue, ArrayBlockingQueue::size)
+            .description("Alerts waiting to be assigned to an endpoint")
+            .register(meterRegistry);
+        
+        running = true;
+        dispatcherThread = new Thread(this::dispatchLoop, "notification-dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (dispatcherThread != null) {
+            dispatcherThread.interrupt();
+            dispatcherThread.join(5000);
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        int undelivered = queue != null ? queue.size() : 0;
+        for (Endpoint endpoint : endpoints.values()) {
+            undelivered += endpoint.pendingCount();
+        }
+        if (undelivered > 0) {
+            logger.warn("Notification dispatcher stopped with {} undelivered alerts", undelivered);
+        }
+    }
+    
+    /**
+     * Queue an alert for delivery; never blocks
+     *
+     * @param notification the fired alert
+     * @return false if the alert was dropped because the queue is full or the endpoint is invalid
+     */
+    public boolean submit(AlertNotification notification) {
+        String endpoint = notification.getEndpoint();
+        if (endpoint == null || endpoint.isBlank()) {
+            logger.debug("No endpoint configured for alert: {}", notification.getRuleName());
+            return false;
+        }
+        if (!queue.offer(notification)) {
+            dropped.increment();
+            logger.warn("Notification queue full, dropping alert: {}", notification.getRuleName());
+            return false;
+        }
+        return true;
+    }
+    
+    public int getQueueSize() {
+        return queue.size();
+    }
+    
+    /**
+     * Move queued alerts into their endpoint's digest batch
+     */
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                AlertNotification notification = queue.poll(1, TimeUnit.SECONDS);
+                if (notification == null) {
+                    continue;
+                }
+                Endpoint endpoint = endpoints.computeIfAbsent(notification.getEndpoint(), this::createEndpoint);
+                if (endpoint == null) {
+                    failed.increment();
+                    continue;
+                }
+                endpoint.add(notification);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Error dispatching notification", e);
+            }
+        }
+    }
+    
+    private Endpoint createEndpoint(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getScheme() == null || !uri.getScheme().startsWith("http")) {
+                throw new IllegalArgumentException("Unsupported scheme: " + uri.getScheme());
+            }
+            return new Endpoint(uri);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid notification endpoint {}: {}", url, e.getMessage());
+            return null;
+        }
+    }
+    
+    private Counter notificationCounter(String result) {
+        return Counter.builder("tracehub.notifier.notifications")
+            .description("Alert notifications by delivery result")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Delay before the given retry: exponential growth capped at maxBackoff, with
+     * half of it randomized so endpoints recovering from an outage are not hit in lockstep
+     */
+    private long backoffNanos(int attempt) {
+        long base = initialBackoff.toNanos() << Math.min(attempt - 1, 30);
+        long capped = Math.min(Math.max(base, 0), maxBackoff.toNanos());
+        long half = capped / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+    
+    /**
+     * A batch of alerts on its way to an endpoint
+     */
+    private static class Delivery {
+        private final List<AlertNotification> alerts;
+        private final int attempt;
+        
+        Delivery(List<AlertNotification> alerts, int attempt) {
+            this.alerts = alerts;
+            this.attempt = attempt;
+        }
+    }
+    
+    /**
+     * Delivery state of a single webhook endpoint
+     */
+    private class Endpoint {
+        private final URI uri;
+        private final Semaphore permits;
+        private final TokenBucket rateLimit;
+        private final ArrayDeque<AlertNotification> pending = new ArrayDeque<>();
+        private final ArrayDeque<Delivery> retries = new ArrayDeque<>();
+        private final Timer requestTimer;
+        private boolean flushScheduled;
+        
+        Endpoint(URI uri) {
+            this.uri = uri;
+            this.permits = new Semaphore(maxConcurrencyPerEndpoint);
+            this.rateLimit = new TokenBucket(ratePerSecond, burst, System.nanoTime());
+            this.requestTimer = Timer.builder("tracehub.notifier.webhook.request")
+                .description("Webhook request round trips")
+                .tag("host", String.valueOf(uri.getHost()))
+                .register(meterRegistry);
+        }
+        
+        synchronized void add(AlertNotification notification) {
+            if (pending.size() >= maxPendingPerEndpoint) {
+                AlertNotification oldest = pending.poll();
+                dropped.increment();
+                logger.warn("Endpoint {} backlog full, dropping alert: {}", uri, oldest.getRuleName());
+            }
+            pending.add(notification);
+            if (pending.size() >= maxBatchSize) {
+                flush();
+            } else if (!flushScheduled) {
+                scheduleFlush(digestWindow.toNanos());
+            }
+        }
+        
+        synchronized int pendingCount() {
+            int count = pending.size();
+            for (Delivery delivery : retries) {
+                count += delivery.alerts.size();
+            }
+            return count;
+        }
+        
+        /**
+         * Send as many batches as the concurrency and rate limits allow.
+         * Whatever is left is picked up when a request completes or a token becomes available.
+         */
+        synchronized void flush() {
+            flushScheduled = false;
+            while (!retries.isEmpty() || !pending.isEmpty()) {
+                if (!permits.tryAcquire()) {
+                    return; // a completing request flushes again
+                }
+                long now = System.nanoTime();
+                if (!rateLimit.tryAcquire(now)) {
+                    permits.release();
+                    scheduleFlush(rateLimit.nanosUntilAvailable(now));
+                    return;
+                }
+                Delivery delivery = retries.poll();
+                if (delivery == null) {
+                    List<AlertNotification> batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+                    while (!pending.isEmpty() && batch.size() < maxBatchSize) {
+                        batch.add(pending.poll());
+                    }
+                    delivery = new Delivery(batch, 1);
+                }
+                send(delivery);
+            }
+        }
+        
+        private void scheduleFlush(long delayNanos) {
+            if (flushScheduled || !running) {
+                return;
+            }
+            flushScheduled = true;
+            scheduler.schedule(this::flush, delayNanos, TimeUnit.NANOSECONDS);
+        }
+        
+        /**
+         * Send one batch; called with a permit and a token held
+         */
+        private void send(Delivery delivery) {
+            byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(payload(delivery.alerts));
+            } catch (JsonProcessingException e) {
+                permits.release();
+                failed.increment(delivery.alerts.size());
+                logger.error("Failed to serialize notification for {}", uri, e);
+                return;
+            }
+            
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+            
+            long start = System.nanoTime();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    requestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    permits.release();
+                    onComplete(delivery, response != null ? response.statusCode() : -1, error);
+                });
+        }
+        
+        private void onComplete(Delivery delivery, int status, Throwable error) {
+            if (error == null && status >= 200 && status < 300) {
+                Instant now = Instant.now();
+                for (AlertNotification alert : delivery.alerts) {
+                    deliveryLatency.record(Duration.between(alert.getFiredAt(), now));
+                }
+                delivered.increment(delivery.alerts.size());
+                logger.debug("Delivered {} alerts to {}", delivery.alerts.size(), uri);
+            } else {
+                // Client errors other than throttling will not succeed on retry
+                boolean retryable = error != null || status == 429 || status >= 500;
+                String reason = error != null ? error.toString() : "HTTP " + status;
+                if (retryable && delivery.attempt < maxAttempts && running) {
+                    long delay = backoffNanos(delivery.attempt);
+                    retried.increment(delivery.alerts.size());
+                    logger.warn("Delivery to {} failed ({}), retry {} in {} ms",
+                               uri, reason, delivery.attempt, TimeUnit.NANOSECONDS.toMillis(delay));
+                    scheduler.schedule(() -> retry(new Delivery(delivery.alerts, delivery.attempt + 1)),
+                                       delay, TimeUnit.NANOSECONDS);
+                } else {
+                    failed.increment(delivery.alerts.size());
+                    logger.error("Giving up delivering {} alerts to {} after {} attempts ({})",
+                                delivery.alerts.size(), uri, delivery.attempt, reason);
+                }
+            }
+            flush();
+        }
+        
+        private synchronized void retry(Delivery delivery) {
+            retries.add(delivery);
+            flush();
+        }
+    }
+    
+    private static Map<String, Object> payload(List<AlertNotification> alerts) {
+        List<Map<String, Object>> items = new ArrayList<>(alerts.size());
+        for (AlertNotification alert : alerts) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("rule", alert.getRuleName());
+            item.put("description", alert.getDescription());
+            item.put("count", alert.getCount());
+            item.put("threshold", alert.getThreshold());
+            item.put("timeWindowMinutes", alert.getTimeWindowMinutes());
+            item.put("firedAt", alert.getFiredAt().toString());
+            items.add(item);
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("alertCount", alerts.size());
+        payload.put("alerts", items);
+        return payload;
+    }
+}
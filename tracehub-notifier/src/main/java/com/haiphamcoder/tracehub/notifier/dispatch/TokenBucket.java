@@ -0,0 +1,62 @@
+package com.haiphamcoder.tracehub.notifier.dispatch;
+
+/**
+ * Token bucket rate limiter.
+ * Refills continuously at a fixed rate up to a burst capacity; callers never block.
+ */
+public class TokenBucket {
+    
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+    
+    /**
+     * @param ratePerSecond sustained rate
+     * @param burst maximum number of tokens that can accumulate
+     * @param nowNanos current time from {@link System#nanoTime()}
+     */
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+    
+    /**
+     * Take one token if available
+     *
+     * @param nowNanos current time from {@link System#nanoTime()}
+     * @return true if a token was taken
+     */
+    public synchronized boolean tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Time until the next token becomes available
+     *
+     * @param nowNanos current time from {@link System#nanoTime()}
+     * @return nanoseconds to wait, 0 if a token is available now
+     */
+    public synchronized long nanosUntilAvailable(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+    
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
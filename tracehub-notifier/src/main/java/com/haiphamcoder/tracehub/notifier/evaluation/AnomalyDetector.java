@@ -0,0 +1,278 @@
+package com.haiphamcoder.tracehub.notifier.evaluation;
+
+import java.util.Arrays;
+
+/**
+ * Streaming anomaly detection over per-series event counts.
+ * Each series (tenantId x action) counts events in fixed-size time buckets and
+ * keeps an exponentially weighted moving mean and variance of past bucket counts.
+ * The running count of the current bucket is scored against that baseline, so a
+ * spike is reported while it is still happening.
+ *
+ * Series live in an open-addressing table of parallel primitive arrays, so each
+ * series costs a fixed ~50 bytes regardless of its traffic or history, and
+ * recording an event allocates nothing. When the table is full, series without events
+ * for the idle timeout are evicted to admit new ones; the sweep runs at most once per
+ * bucket, so a table full of active series rejects new ones at no extra cost.
+ */
+public class AnomalyDetector {
+    
+    /**
+     * Receives series whose current bucket deviates from their baseline
+     */
+    public interface Listener {
+        void onAnomaly(String tenantId, String action, long count, double mean, double stdDev, double zScore);
+    }
+    
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long NO_BUCKET = Long.MIN_VALUE;
+    
+    private final int bucketSeconds;
+    private final double alpha;
+    private final double zScoreThreshold;
+    private final int warmupBuckets;
+    private final long cooldownBuckets;
+    private final int maxSeries;
+    private final long idleBuckets;
+    private final int maxCatchUpBuckets;
+    private final Listener listener;
+    
+    // Parallel arrays indexed by slot
+    private String[] tenants;
+    private String[] actions;
+    private long[] currentBucket;
+    private long[] lastFiredBucket;
+    private int[] currentCount;
+    private int[] observedBuckets;
+    private double[] mean;
+    private double[] variance;
+    private int size;
+    private long rejectedSeries;
+    private long evictedSeries;
+    private long lastSweepBucket = NO_BUCKET;
+    
+    /**
+     * @param bucketSeconds length of a counting bucket
+     * @param alpha EWMA smoothing factor in (0, 1]; higher reacts faster
+     * @param zScoreThreshold deviation (in standard deviations) that counts as an anomaly
+     * @param warmupBuckets completed buckets needed before a series can fire
+     * @param cooldownSeconds minimum time between two anomalies of the same series
+     * @param maxSeries upper bound on tracked series; new series beyond it are ignored
+     *                  unless idle series can be evicted
+     * @param idleSeconds time without events after which a series may be evicted
+     * @param listener called for every anomaly
+     */
+    public AnomalyDetector(int bucketSeconds, double alpha, double zScoreThreshold, int warmupBuckets,
+                           long cooldownSeconds, int maxSeries, long idleSeconds, Listener listener) {
+        if (bucketSeconds <= 0) {
+            throw new IllegalArgumentException("bucketSeconds must be positive");
+        }
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]");
+        }
+        this.bucketSeconds = bucketSeconds;
+        this.alpha = alpha;
+        this.zScoreThreshold = zScoreThreshold;
+        this.warmupBuckets = warmupBuckets;
+        this.cooldownBuckets = Math.max(1, (cooldownSeconds + bucketSeconds - 1) / bucketSeconds);
+        this.maxSeries = maxSeries;
+        this.idleBuckets = Math.max(1, (idleSeconds + bucketSeconds - 1) / bucketSeconds);
+        // After this many empty buckets the baseline has decayed to ~1e-6 of its value
+        this.maxCatchUpBuckets = alpha >= 1 ? 1 : (int) Math.ceil(Math.log(1e-6) / Math.log(1 - alpha));
+        this.listener = listener;
+        allocate(INITIAL_CAPACITY);
+    }
+    
+    /**
+     * Count one event of a series
+     *
+     * @param tenantId the tenant
+     * @param action the action
+     * @param epochSecond the current time in epoch seconds
+     */
+    public synchronized void record(String tenantId, String action, long epochSecond) {
+        if (tenantId == null || action == null) {
+            return;
+        }
+        long bucket = Math.floorDiv(epochSecond, bucketSeconds);
+        int slot = slotFor(tenantId, action, bucket);
+        if (slot < 0) {
+            rejectedSeries++;
+            return;
+        }
+        
+        if (currentBucket[slot] == NO_BUCKET) {
+            currentBucket[slot] = bucket;
+        } else if (bucket > currentBucket[slot]) {
+            closeBuckets(slot, bucket);
+        }
+        int count = ++currentCount[slot];
+        
+        if (observedBuckets[slot] < warmupBuckets || count <= mean[slot]
+                || currentBucket[slot] - lastFiredBucket[slot] < cooldownBuckets) {
+            return;
+        }
+        // Poisson floor keeps near-constant series from firing on tiny deviations
+        double stdDev = Math.sqrt(Math.max(Math.max(variance[slot], mean[slot]), 1.0));
+        double zScore = (count - mean[slot]) / stdDev;
+        if (zScore >= zScoreThreshold) {
+            lastFiredBucket[slot] = currentBucket[slot];
+            listener.onAnomaly(tenantId, action, count, mean[slot], stdDev, zScore);
+        }
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    public synchronized long getRejectedSeries() {
+        return rejectedSeries;
+    }
+    
+    public synchronized long getEvictedSeries() {
+        return evictedSeries;
+    }
+    
+    public int getBucketSeconds() {
+        return bucketSeconds;
+    }
+    
+    public double getAlpha() {
+        return alpha;
+    }
+    
+    public double getZScoreThreshold() {
+        return zScoreThreshold;
+    }
+    
+    /**
+     * Baseline mean of a series, for inspection
+     *
+     * @return the EWMA mean, or NaN if the series is not tracked
+     */
+    public synchronized double meanOf(String tenantId, String action) {
+        int slot = find(tenantId, action);
+        return slot >= 0 ? mean[slot] : Double.NaN;
+    }
+    
+    /**
+     * Fold the finished bucket, and any empty buckets after it, into the baseline
+     */
+    private void closeBuckets(int slot, long bucket) {
+        update(slot, currentCount[slot]);
+        long empty = Math.min(bucket - currentBucket[slot] - 1, maxCatchUpBuckets);
+        for (long i = 0; i < empty; i++) {
+            update(slot, 0);
+        }
+        currentBucket[slot] = bucket;
+        currentCount[slot] = 0;
+    }
+    
+    private void update(int slot, double x) {
+        if (observedBuckets[slot] == 0) {
+            mean[slot] = x;
+            variance[slot] = 0;
+        } else {
+            double diff = x - mean[slot];
+            double increment = alpha * diff;
+            mean[slot] += increment;
+            variance[slot] = (1 - alpha) * (variance[slot] + diff * increment);
+        }
+        if (observedBuckets[slot] < Integer.MAX_VALUE) {
+            observedBuckets[slot]++;
+        }
+    }
+    
+    private int find(String tenantId, String action) {
+        int mask = tenants.length - 1;
+        for (int slot = hash(tenantId, action) & mask; tenants[slot] != null; slot = (slot + 1) & mask) {
+            if (tenants[slot].equals(tenantId) && actions[slot].equals(action)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+    
+    private int slotFor(String tenantId, String action, long bucket) {
+        int mask = tenants.length - 1;
+        int slot = hash(tenantId, action) & mask;
+        while (tenants[slot] != null) {
+            if (tenants[slot].equals(tenantId) && actions[slot].equals(action)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size >= maxSeries) {
+            if (bucket <= lastSweepBucket) {
+                return -1;
+            }
+            lastSweepBucket = bucket;
+            int before = size;
+            rehash(tenants.length, bucket - idleBuckets);
+            evictedSeries += before - size;
+            return size < maxSeries ? slotFor(tenantId, action, bucket) : -1;
+        }
+        if ((size + 1) * 4 > tenants.length * 3) {
+            rehash(tenants.length * 2, NO_BUCKET);
+            return slotFor(tenantId, action, bucket);
+        }
+        tenants[slot] = tenantId;
+        actions[slot] = action;
+        size++;
+        return slot;
+    }
+    
+    private static int hash(String tenantId, String action) {
+        int h = tenantId.hashCode() * 31 + action.hashCode();
+        return h ^ (h >>> 16);
+    }
+    
+    private void allocate(int capacity) {
+        tenants = new String[capacity];
+        actions = new String[capacity];
+        currentBucket = new long[capacity];
+        lastFiredBucket = new long[capacity];
+        currentCount = new int[capacity];
+        observedBuckets = new int[capacity];
+        mean = new double[capacity];
+        variance = new double[capacity];
+        Arrays.fill(currentBucket, NO_BUCKET);
+        Arrays.fill(lastFiredBucket, NO_BUCKET / 2); // far enough in the past without overflowing the subtraction
+    }
+    
+    /**
+     * Rebuild the table at the given capacity, dropping series last seen before {@code minBucket}
+     */
+    private void rehash(int capacity, long minBucket) {
+        String[] oldTenants = tenants;
+        String[] oldActions = actions;
+        long[] oldCurrentBucket = currentBucket;
+        long[] oldLastFiredBucket = lastFiredBucket;
+        int[] oldCurrentCount = currentCount;
+        int[] oldObservedBuckets = observedBuckets;
+        double[] oldMean = mean;
+        double[] oldVariance = variance;
+        
+        allocate(capacity);
+        size = 0;
+        int mask = capacity - 1;
+        for (int i = 0; i < oldTenants.length; i++) {
+            if (oldTenants[i] == null || oldCurrentBucket[i] < minBucket) {
+                continue;
+            }
+            int slot = hash(oldTenants[i], oldActions[i]) & mask;
+            while (tenants[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            tenants[slot] = oldTenants[i];
+            actions[slot] = oldActions[i];
+            currentBucket[slot] = oldCurrentBucket[i];
+            lastFiredBucket[slot] = oldLastFiredBucket[i];
+            currentCount[slot] = oldCurrentCount[i];
+            observedBuckets[slot] = oldObservedBuckets[i];
+            mean[slot] = oldMean[i];
+            variance[slot] = oldVariance[i];
+            size++;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.haiphamcoder.tracehub.notifier.evaluation;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+
+/**
+ * Field access on log events by name, as used in alert rule filters
+ */
+public final class EventFields {
+    
+    private static final String METADATA_PREFIX = "metadata.";
+    
+    private EventFields() {
+        // Utility class
+    }
+    
+    /**
+     * Get the value of a named field of a log event
+     * Supported names: tenantId, userId, action, status, actorIp and metadata.&lt;key&gt;
+     *
+     * @param event the log event
+     * @param field the field name
+     * @return the field value as a string, or null if absent or unknown
+     */
+    public static String valueOf(LogEvent event, String field) {
+        if (field == null) {
+            return null;
+        }
+        switch (field) {
+            case "tenantId":
+                return event.getTenantId();
+            case "userId":
+                return event.getUserId();
+            case "action":
+                return event.getAction();
+            case "status":
+                return event.getStatus();
+            case "actorIp":
+                return event.getActorIp();
+            default:
+                if (field.startsWith(METADATA_PREFIX) && event.getMetadata() != null) {
+                    Object value = event.getMetadata().get(field.substring(METADATA_PREFIX.length()));
+                    return value != null ? value.toString() : null;
+                }
+                return null;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.haiphamcoder.tracehub.notifier.evaluation;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.notifier.service.AlertService.AlertRule;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Index of alert rules by (filterField, filterValue, actionFilter).
+ * Matching an event costs two hash lookups per distinct filter field in use,
+ * independent of the number of rules, and only touches rules that match.
+ * Reads are lock-free; writes are serialized and publish copy-on-write arrays.
+ */
+public class RuleIndex {
+    
+    private static final AlertRule[] NO_RULES = new AlertRule[0];
+    
+    // filterField -> filterValue -> bucket; rules without a field filter use NO_FIELD
+    private static final String NO_FIELD = "";
+    
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, ActionBucket>> index = new ConcurrentHashMap<>();
+    private final Map<String, Integer> fieldRefCounts = new HashMap<>();
+    private volatile String[] fields = new String[0];
+    private int size;
+    
+    /**
+     * Check whether a log event matches the filters of a rule.
+     * This is the reference semantics the index implements.
+     *
+     * @param rule the alert rule
+     * @param event the log event
+     * @return true if the event counts towards the rule
+     */
+    public static boolean matches(AlertRule rule, LogEvent event) {
+        if (rule.getActionFilter() != null && !rule.getActionFilter().equals(event.getAction())) {
+            return false;
+        }
+        if (rule.getFilterField() == null) {
+            return true;
+        }
+        return rule.getFilterValue() != null
+                && rule.getFilterValue().equals(EventFields.valueOf(event, rule.getFilterField()));
+    }
+    
+    /**
+     * Add a rule to the index
+     *
+     * @param rule the rule to add
+     */
+    public synchronized void add(AlertRule rule) {
+        if (rule.getFilterField() != null && rule.getFilterValue() == null) {
+            return; // can never match
+        }
+        String field = fieldKey(rule);
+        String value = valueKey(rule);
+        
+        ActionBucket bucket = index.computeIfAbsent(field, f -> new ConcurrentHashMap<>())
+                .computeIfAbsent(value, v -> new ActionBucket());
+        bucket.add(rule);
+        
+        if (rule.getFilterField() != null) {
+            fieldRefCounts.merge(field, 1, Integer::sum);
+            fields = fieldRefCounts.keySet().toArray(new String[0]);
+        }
+        size++;
+    }
+    
+    /**
+     * Remove a rule from the index
+     *
+     * @param rule the rule to remove (matched by name)
+     */
+    public synchronized void remove(AlertRule rule) {
+        if (rule.getFilterField() != null && rule.getFilterValue() == null) {
+            return; // never indexed
+        }
+        String field = fieldKey(rule);
+        String value = valueKey(rule);
+        
+        ConcurrentHashMap<String, ActionBucket> values = index.get(field);
+        ActionBucket bucket = values != null ? values.get(value) : null;
+        if (bucket == null || !bucket.remove(rule)) {
+            return;
+        }
+        if (bucket.isEmpty()) {
+            values.remove(value);
+            if (values.isEmpty()) {
+                index.remove(field);
+            }
+        }
+        
+        if (rule.getFilterField() != null) {
+            if (fieldRefCounts.merge(field, -1, Integer::sum) <= 0) {
+                fieldRefCounts.remove(field);
+            }
+            fields = fieldRefCounts.keySet().toArray(new String[0]);
+        }
+        size--;
+    }
+    
+    /**
+     * Invoke the callback for every rule the event matches
+     *
+     * @param event the log event
+     * @param callback called once per matching rule
+     */
+    public void forEachMatch(LogEvent event, Consumer<AlertRule> callback) {
+        String action = event.getAction();
+        
+        // Rules that only filter on action (or match everything)
+        ConcurrentHashMap<String, ActionBucket> unfiltered = index.get(NO_FIELD);
+        if (unfiltered != null) {
+            dispatch(unfiltered.get(NO_FIELD), action, callback);
+        }
+        
+        for (String field : fields) {
+            String value = EventFields.valueOf(event, field);
+            if (value == null) {
+                continue;
+            }
+            ConcurrentHashMap<String, ActionBucket> values = index.get(field);
+            if (values != null) {
+                dispatch(values.get(value), action, callback);
+            }
+        }
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    private static void dispatch(ActionBucket bucket, String action, Consumer<AlertRule> callback) {
+        if (bucket == null) {
+            return;
+        }
+        for (AlertRule rule : bucket.anyAction) {
+            callback.accept(rule);
+        }
+        if (action != null) {
+            AlertRule[] rules = bucket.byAction.get(action);
+            if (rules != null) {
+                for (AlertRule rule : rules) {
+                    callback.accept(rule);
+                }
+            }
+        }
+    }
+    
+    private static String fieldKey(AlertRule rule) {
+        return rule.getFilterField() != null ? rule.getFilterField() : NO_FIELD;
+    }
+    
+    private static String valueKey(AlertRule rule) {
+        return rule.getFilterField() != null ? rule.getFilterValue() : NO_FIELD;
+    }
+    
+    /**
+     * Rules sharing a (field, value) pair, split by action filter
+     */
+    private static class ActionBucket {
+        private volatile AlertRule[] anyAction = NO_RULES;
+        private final ConcurrentHashMap<String, AlertRule[]> byAction = new ConcurrentHashMap<>();
+        
+        void add(AlertRule rule) {
+            if (rule.getActionFilter() == null) {
+                anyAction = append(anyAction, rule);
+            } else {
+                byAction.merge(rule.getActionFilter(), new AlertRule[] {rule},
+                        (existing, added) -> append(existing, added[0]));
+            }
+        }
+        
+        boolean remove(AlertRule rule) {
+            if (rule.getActionFilter() == null) {
+                AlertRule[] updated = without(anyAction, rule);
+                boolean removed = updated != anyAction;
+                anyAction = updated;
+                return removed;
+            }
+            AlertRule[] existing = byAction.get(rule.getActionFilter());
+            if (existing == null) {
+                return false;
+            }
+            AlertRule[] updated = without(existing, rule);
+            if (updated.length == 0) {
+                byAction.remove(rule.getActionFilter());
+            } else {
+                byAction.put(rule.getActionFilter(), updated);
+            }
+            return updated != existing;
+        }
+        
+        boolean isEmpty() {
+            return anyAction.length == 0 && byAction.isEmpty();
+        }
+        
+        private static AlertRule[] append(AlertRule[] rules, AlertRule rule) {
+            AlertRule[] updated = Arrays.copyOf(rules, rules.length + 1);
+            updated[rules.length] = rule;
+            return updated;
+        }
+        
+        private static AlertRule[] without(AlertRule[] rules, AlertRule rule) {
+            for (int i = 0; i < rules.length; i++) {
+                if (rules[i].getName().equals(rule.getName())) {
+                    AlertRule[] updated = new AlertRule[rules.length - 1];
+                    System.arraycopy(rules, 0, updated, 0, i);
+                    System.arraycopy(rules, i + 1, updated, i, rules.length - i - 1);
+                    return updated;
+                }
+            }
+            return rules;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.haiphamcoder.tracehub.notifier.evaluation;
+
+import java.util.Arrays;
+
+/**
+ * Event counter over a sliding time window.
+ * The window is a ring buffer of per-second buckets, so memory is fixed per
+ * counter and both increment and read are O(1) amortized.
+ */
+public class SlidingWindowCounter {
+    
+    private final long[] buckets;
+    private long headSecond = Long.MIN_VALUE; // most recent second covered by the ring
+    private long total;
+    
+    /**
+     * @param windowSeconds window length in seconds (one bucket per second)
+     */
+    public SlidingWindowCounter(int windowSeconds) {
+        if (windowSeconds <= 0) {
+            throw new IllegalArgumentException("windowSeconds must be positive");
+        }
+        this.buckets = new long[windowSeconds];
+    }
+    
+    /**
+     * Count one event at the given second
+     *
+     * @param epochSecond the current time in epoch seconds
+     * @return number of events in the window ending at epochSecond
+     */
+    public synchronized long increment(long epochSecond) {
+        advance(epochSecond);
+        buckets[index(headSecond)]++;
+        return ++total;
+    }
+    
+    /**
+     * Get the number of events in the window ending at the given second
+     *
+     * @param epochSecond the current time in epoch seconds
+     * @return event count
+     */
+    public synchronized long count(long epochSecond) {
+        advance(epochSecond);
+        return total;
+    }
+    
+    /**
+     * Clear all buckets
+     */
+    public synchronized void reset() {
+        Arrays.fill(buckets, 0);
+        total = 0;
+    }
+    
+    public int getWindowSeconds() {
+        return buckets.length;
+    }
+    
+    /**
+     * Move the head of the ring to epochSecond, expiring the buckets that fall out of the window.
+     * Time never moves backwards: late calls are counted in the current head bucket.
+     */
+    private void advance(long epochSecond) {
+        if (headSecond == Long.MIN_VALUE) {
+            headSecond = epochSecond;
+            return;
+        }
+        if (epochSecond <= headSecond) {
+            return;
+        }
+        
+        long gap = Math.min(epochSecond - headSecond, buckets.length);
+        for (long i = 1; i <= gap; i++) {
+            int idx = index(headSecond + i);
+            total -= buckets[idx];
+            buckets[idx] = 0;
+        }
+        headSecond = epochSecond;
+    }
+    
+    private int index(long epochSecond) {
+        return (int) Math.floorMod(epochSecond, (long) buckets.length);
+    }
+}
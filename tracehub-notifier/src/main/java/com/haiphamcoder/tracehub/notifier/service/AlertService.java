@@ -1,29 +1,77 @@
 package com.haiphamcoder.tracehub.notifier.service;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.notifier.dispatch.AlertNotification;
+import com.haiphamcoder.tracehub.notifier.dispatch.NotificationDispatcher;
+import com.haiphamcoder.tracehub.notifier.evaluation.AnomalyDetector;
+import com.haiphamcoder.tracehub.notifier.evaluation.RuleIndex;
+import com.haiphamcoder.tracehub.notifier.evaluation.SlidingWindowCounter;
+import com.haiphamcoder.tracehub.notifier.state.AlertStateStore;
+import com.haiphamcoder.tracehub.notifier.state.RuleOwnership;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Service for handling basic alerting
+ * Service for handling basic alerting.
+ * Alert rules are evaluated on the event stream itself: every matching event
+ * increments the rule's sliding-window counter, and the rule fires as soon as
+ * the counter reaches its threshold. Anomaly rules instead score each
+ * tenant/action series against its own streaming baseline. Rules are looked up through a
+ * {@link RuleIndex}, so each event only touches the rules it can match.
+ * Rules and cooldowns are persisted through {@link AlertStateStore}, and each
+ * instance only evaluates the rules {@link RuleOwnership} assigns to it.
+ * Fired alerts are handed to the {@link NotificationDispatcher} for delivery.
  */
 @Service
-public class AlertService {
+public class AlertService implements AlertStateStore.Listener {
     
     private static final Logger logger = LoggerFactory.getLogger(AlertService.class);
     
-    // Simple in-memory storage for alert rules and last-fired timestamps
-    // TODO: Replace with proper database storage
+    // In-memory view of alert rules and last-fired timestamps; the durable copy lives in AlertStateStore
     private final ConcurrentHashMap<String, AlertRule> alertRules = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, Instant> lastFired = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SlidingWindowCounter> windowCounters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AnomalyDetector> anomalyDetectors = new ConcurrentHashMap<>();
+    private final RuleIndex ruleIndex = new RuleIndex();
+    private final AlertStateStore stateStore;
+    private final RuleOwnership ruleOwnership;
+    private final NotificationDispatcher notificationDispatcher;
     
-    public AlertService() {
-        // Initialize with some sample rules
-        initializeSampleRules();
+    @Value("${tracehub.notifier.anomaly.max-series-per-rule:1000000}")
+    private int maxSeriesPerRule;
+    
+    @Value("${tracehub.notifier.anomaly.warmup-buckets:30}")
+    private int warmupBuckets;
+    
+    @Value("${tracehub.notifier.anomaly.idle-timeout:PT24H}")
+    private Duration idleTimeout;
+    
+    public AlertService(AlertStateStore stateStore, RuleOwnership ruleOwnership,
+                        NotificationDispatcher notificationDispatcher,
+                        @Value("${tracehub.notifier.sample-rules.enabled:true}") boolean sampleRulesEnabled) {
+        this.stateStore = stateStore;
+        this.ruleOwnership = ruleOwnership;
+        this.notificationDispatcher = notificationDispatcher;
+        
+        // Restore persisted rules and cooldowns
+        stateStore.register(this);
+        
+        if (sampleRulesEnabled) {
+            // Initialize with some sample rules
+            initializeSampleRules();
+        }
     }
     
     /**
@@ -35,85 +83,122 @@ public class AlertService {
             "high-failure-rate",
             "High failure rate detected",
             "status", "FAILURE",
-            "action", // actionFilter
+            null, // actionFilter (any action)
             5, // timeWindowMinutes
             10, // threshold
             "http://localhost:8084/webhook/sample" // webhookUrl
         );
         
-        alertRules.put("high-failure-rate", failureRule);
-        logger.info("Initialized sample alert rule: {}", failureRule.getName());
+        // Sample rules are local only and never override a persisted rule of the same name
+        if (!alertRules.containsKey(failureRule.getName())) {
+            onRuleUpdated(failureRule);
+        }
     }
     
     /**
-     * Scheduled task to check alert rules
-     * Runs every 30 seconds
+     * Evaluate alert rules against log events from Kafka
+     * 
+     * @param event the log event
      */
-    @Scheduled(fixedRate = 30000)
-    public void checkAlertRules() {
-        logger.debug("Checking alert rules...");
+    @KafkaListener(
+        topics = TracehubConstants.AUDIT_LOGS_TOPIC,
+        groupId = "${spring.kafka.consumer.group-id}"
+    )
+    public void onLogEvent(@Payload LogEvent event) {
+        long nowSecond = Instant.now().getEpochSecond();
         
-        for (AlertRule rule : alertRules.values()) {
+        ruleIndex.forEachMatch(event, rule -> {
+            if (!ruleOwnership.owns(rule.getName())) {
+                return; // evaluated by another notifier instance
+            }
             try {
-                checkAlertRule(rule);
+                if (rule.getType() == RuleType.ANOMALY) {
+                    AnomalyDetector detector = anomalyDetectors.get(rule.getName());
+                    if (detector != null) {
+                        detector.record(event.getTenantId(), event.getAction(), nowSecond);
+                    }
+                } else {
+                    recordMatch(rule, nowSecond);
+                }
             } catch (Exception e) {
-                logger.error("Error checking alert rule: {}", rule.getName(), e);
+                logger.error("Error evaluating alert rule: {}", rule.getName(), e);
             }
-        }
+        });
     }
     
     /**
-     * Check a specific alert rule
+     * Count a matching event and fire the rule if its threshold is reached
      * 
-     * @param rule the alert rule to check
+     * @param rule the alert rule
+     * @param nowSecond the current time in epoch seconds
      */
-    private void checkAlertRule(AlertRule rule) {
+    private void recordMatch(AlertRule rule, long nowSecond) {
+        SlidingWindowCounter counter = windowCounters.get(rule.getName());
+        if (counter == null) {
+            return; // rule removed concurrently
+        }
+        
+        long count = counter.increment(nowSecond);
+        if (count < rule.getThreshold()) {
+            return;
+        }
+        
         // Check cooldown period
+        Instant now = Instant.ofEpochSecond(nowSecond);
         Instant lastFiredTime = lastFired.get(rule.getName());
         if (lastFiredTime != null) {
-            long minutesSinceLastFired = java.time.Duration.between(lastFiredTime, Instant.now()).toMinutes();
+            long minutesSinceLastFired = Duration.between(lastFiredTime, now).toMinutes();
             if (minutesSinceLastFired < rule.getCooldownMinutes()) {
-                logger.debug("Alert rule {} is in cooldown period", rule.getName());
                 return;
             }
         }
         
-        // TODO: Implement actual query to check conditions
-        // For now, simulate a check
-        boolean shouldFire = simulateAlertCheck(rule);
-        
-        if (shouldFire) {
-            fireAlert(rule);
-            lastFired.put(rule.getName(), Instant.now());
+        // Only one thread wins the right to fire for this cooldown period
+        boolean won = lastFiredTime == null
+                ? lastFired.putIfAbsent(rule.getName(), now) == null
+                : lastFired.replace(rule.getName(), lastFiredTime, now);
+        if (won) {
+            stateStore.putCooldown(rule.getName(), now);
+            fireAlert(rule, count, now);
         }
     }
     
-    /**
-     * Simulate alert condition check
-     * TODO: Replace with actual query to OpenSearch
-     * 
-     * @param rule the alert rule
-     * @return true if alert should fire
-     */
-    private boolean simulateAlertCheck(AlertRule rule) {
-        // TODO: Implement actual query logic
-        // For now, randomly return true/false for demonstration
-        double random = Math.random();
-        return random < 0.1; // 10% chance of firing
-    }
-    
     /**
      * Fire an alert
      * 
      * @param rule the alert rule that was triggered
+     * @param count number of matching events in the rule's window
+     * @param firedAt when the alert fired
      */
-    private void fireAlert(AlertRule rule) {
-        logger.info("Firing alert: {} - {}", rule.getName(), rule.getDescription());
+    private void fireAlert(AlertRule rule, long count, Instant firedAt) {
+        logger.info("Firing alert: {} - {} (count={}, threshold={}, windowMinutes={})", 
+                   rule.getName(), rule.getDescription(), count, rule.getThreshold(), rule.getTimeWindowMinutes());
+        
+        // Delivery happens asynchronously; this never blocks event evaluation
+        notificationDispatcher.submit(new AlertNotification(
+            rule.getName(), rule.getDescription(), rule.getWebhookUrl(),
+            count, rule.getThreshold(), rule.getTimeWindowMinutes(), firedAt));
         
-        // TODO: Implement webhook call
         // TODO: Implement other notification methods (email, Telegram, etc.)
+    }
+    
+    /**
+     * Fire an alert for a series that deviates from its baseline.
+     * Cooldown is tracked per series by the detector, so one noisy tenant does not mute the others.
+     */
+    private void fireAnomaly(String ruleName, String tenantId, String action,
+                             long count, double mean, double stdDev, double zScore) {
+        AlertRule rule = alertRules.get(ruleName);
+        if (rule == null) {
+            return;
+        }
+        String description = String.format("%s: tenantId=%s, action=%s, %d events in %ds vs baseline %.1f \u00b1 %.1f (z=%.1f)",
+                rule.getDescription(), tenantId, action, count, rule.getBucketSeconds(), mean, stdDev, zScore);
+        logger.info("Firing anomaly alert: {} - {}", rule.getName(), description);
         
-        logger.info("Alert fired successfully: {}", rule.getName());
+        notificationDispatcher.submit(new AlertNotification(
+            rule.getName(), description, rule.getWebhookUrl(),
+            count, (int) Math.ceil(mean + rule.getZScore() * stdDev), 0, Instant.now()));
     }
     
     /**
@@ -131,8 +216,8 @@ public class AlertService {
      * @param rule the alert rule to add
      */
     public void addAlertRule(AlertRule rule) {
-        alertRules.put(rule.getName(), rule);
-        logger.info("Added alert rule: {}", rule.getName());
+        onRuleUpdated(rule);
+        stateStore.putRule(rule);
     }
     
     /**
@@ -141,28 +226,107 @@ public class AlertService {
      * @param ruleName the name of the rule to remove
      */
     public void removeAlertRule(String ruleName) {
+        onRuleRemoved(ruleName);
+        stateStore.removeRule(ruleName);
+    }
+    
+    @Override
+    public synchronized void onRuleUpdated(AlertRule rule) {
+        AlertRule previous = alertRules.put(rule.getName(), rule);
+        if (previous != null) {
+            ruleIndex.remove(previous);
+        }
+        if (rule.getType() == RuleType.ANOMALY) {
+            windowCounters.remove(rule.getName());
+            // Keep the learned baselines unless the bucketing changed
+            AnomalyDetector detector = anomalyDetectors.get(rule.getName());
+            if (detector == null || detector.getZScoreThreshold() != rule.getZScore()
+                    || detector.getBucketSeconds() != rule.getBucketSeconds() || detector.getAlpha() != rule.getAlpha()) {
+                anomalyDetectors.put(rule.getName(), new AnomalyDetector(
+                    rule.getBucketSeconds(), rule.getAlpha(), rule.getZScore(), warmupBuckets,
+                    rule.getCooldownMinutes() * 60L, maxSeriesPerRule, idleTimeout.toSeconds(),
+                    (tenantId, action, count, mean, stdDev, zScore) ->
+                        fireAnomaly(rule.getName(), tenantId, action, count, mean, stdDev, zScore)));
+            }
+        } else {
+            anomalyDetectors.remove(rule.getName());
+            // Keep the running window unless the window length changed
+            SlidingWindowCounter counter = windowCounters.get(rule.getName());
+            if (counter == null || counter.getWindowSeconds() != rule.getTimeWindowMinutes() * 60) {
+                windowCounters.put(rule.getName(), new SlidingWindowCounter(rule.getTimeWindowMinutes() * 60));
+            }
+        }
+        ruleIndex.add(rule);
+        if (previous == null) {
+            logger.info("Added alert rule: {}", rule.getName());
+        }
+    }
+    
+    @Override
+    public synchronized void onRuleRemoved(String ruleName) {
         AlertRule removed = alertRules.remove(ruleName);
+        windowCounters.remove(ruleName);
+        anomalyDetectors.remove(ruleName);
+        lastFired.remove(ruleName);
         if (removed != null) {
+            ruleIndex.remove(removed);
             logger.info("Removed alert rule: {}", ruleName);
         }
     }
     
+    @Override
+    public void onCooldownUpdated(String ruleName, Instant firedAt) {
+        lastFired.merge(ruleName, firedAt, (current, updated) -> updated.isAfter(current) ? updated : current);
+    }
+    
+    /**
+     * How a rule decides to fire
+     */
+    public enum RuleType {
+        /** Fixed event count over a sliding window */
+        THRESHOLD,
+        /** Deviation of a tenant/action series from its own EWMA baseline */
+        ANOMALY
+    }
+    
     /**
      * Simple alert rule representation
      */
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class AlertRule {
         private final String name;
         private final String description;
         private final String filterField;
         private final String filterValue;
-        private final String actionFilter;
+        private final String actionFilter; // null matches any action
         private final int timeWindowMinutes;
         private final int threshold;
         private final String webhookUrl;
         private final int cooldownMinutes;
+        private final RuleType type;
+        private final double zScore; // anomaly rules only
+        private final int bucketSeconds; // anomaly rules only
+        private final double alpha; // anomaly rules only
         
         public AlertRule(String name, String description, String filterField, String filterValue,
                         String actionFilter, int timeWindowMinutes, int threshold, String webhookUrl) {
+            this(name, description, filterField, filterValue, actionFilter, timeWindowMinutes, threshold,
+                 webhookUrl, RuleType.THRESHOLD, 0, 0, 0);
+        }
+        
+        @JsonCreator
+        public AlertRule(@JsonProperty("name") String name,
+                        @JsonProperty("description") String description,
+                        @JsonProperty("filterField") String filterField,
+                        @JsonProperty("filterValue") String filterValue,
+                        @JsonProperty("actionFilter") String actionFilter,
+                        @JsonProperty("timeWindowMinutes") int timeWindowMinutes,
+                        @JsonProperty("threshold") int threshold,
+                        @JsonProperty("webhookUrl") String webhookUrl,
+                        @JsonProperty("type") RuleType type,
+                        @JsonProperty("zScore") double zScore,
+                        @JsonProperty("bucketSeconds") int bucketSeconds,
+                        @JsonProperty("alpha") double alpha) {
             this.name = name;
             this.description = description;
             this.filterField = filterField;
@@ -172,6 +336,10 @@ public class AlertService {
             this.threshold = threshold;
             this.webhookUrl = webhookUrl;
             this.cooldownMinutes = 5; // Default 5 minute cooldown
+            this.type = type != null ? type : RuleType.THRESHOLD;
+            this.zScore = zScore > 0 ? zScore : 3.0;
+            this.bucketSeconds = bucketSeconds > 0 ? bucketSeconds : 60;
+            this.alpha = alpha > 0 ? alpha : 0.1;
         }
         
         // Getters
@@ -184,5 +352,10 @@ public class AlertService {
         public int getThreshold() { return threshold; }
         public String getWebhookUrl() { return webhookUrl; }
         public int getCooldownMinutes() { return cooldownMinutes; }
+        public RuleType getType() { return type; }
+        @JsonProperty("zScore")
+        public double getZScore() { return zScore; }
+        public int getBucketSeconds() { return bucketSeconds; }
+        public double getAlpha() { return alpha; }
     }
 }
@@ -0,0 +1,396 @@
+package com.haiphamcoder.tracehub.notifier.state;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import com.haiphamcoder.tracehub.notifier.service.AlertService.AlertRule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Durable store for alert rules and cooldowns, backed by a compacted Kafka topic.
+ * Every change is written to the topic (keyed by rule) and applied from it, so
+ * all notifier instances converge on the same state. A local snapshot of the
+ * state and the topic offsets lets a restart replay only the tail of the topic.
+ */
+@Component
+public class AlertStateStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AlertStateStore.class);
+    private static final String RULE_KEY_PREFIX = "rule:";
+    private static final String COOLDOWN_KEY_PREFIX = "cooldown:";
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(5);
+    
+    /**
+     * Receives state changes in topic order
+     */
+    public interface Listener {
+        void onRuleUpdated(AlertRule rule);
+        void onRuleRemoved(String ruleName);
+        void onCooldownUpdated(String ruleName, Instant firedAt);
+    }
+    
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaProperties kafkaProperties;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${tracehub.notifier.state.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${tracehub.notifier.state.partitions:12}")
+    private int partitions;
+    
+    @Value("${tracehub.notifier.state.replication-factor:1}")
+    private short replicationFactor;
+    
+    @Value("${tracehub.notifier.state.snapshot-path:data/alert-state.snapshot.json}")
+    private String snapshotPath;
+    
+    @Value("${tracehub.notifier.state.snapshot-interval:PT1M}")
+    private Duration snapshotInterval;
+    
+    // State as applied from the topic; guarded by this
+    private final Map<String, AlertRule> rules = new HashMap<>();
+    private final Map<String, Long> cooldowns = new HashMap<>();
+    private final Map<Integer, Long> offsets = new HashMap<>();
+    private Listener listener;
+    
+    private volatile boolean running;
+    private volatile boolean caughtUp;
+    private volatile KafkaConsumer<String, String> consumer;
+    private Thread readerThread;
+    
+    public AlertStateStore(KafkaTemplate<String, String> kafkaTemplate, KafkaProperties kafkaProperties,
+                           ObjectMapper objectMapper) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaProperties = kafkaProperties;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Restore the local snapshot and start following the state topic
+     */
+    @PostConstruct
+    public void start() {
+        loadSnapshot();
+        if (!enabled) {
+            logger.info("Alert state persistence disabled - rules and cooldowns are kept in memory only");
+            caughtUp = true;
+            return;
+        }
+        running = true;
+        readerThread = new Thread(this::readLoop, "alert-state-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        KafkaConsumer<String, String> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        if (readerThread != null) {
+            readerThread.join(RETRY_BACKOFF.toMillis());
+        }
+        if (enabled && caughtUp) {
+            writeSnapshot();
+        }
+    }
+    
+    /**
+     * Register the listener and replay the current state to it
+     *
+     * @param listener the listener
+     */
+    public synchronized void register(Listener listener) {
+        this.listener = listener;
+        rules.values().forEach(listener::onRuleUpdated);
+        cooldowns.forEach((name, firedAt) -> listener.onCooldownUpdated(name, Instant.ofEpochMilli(firedAt)));
+    }
+    
+    /**
+     * Persist a rule (insert or replace)
+     *
+     * @param rule the rule
+     */
+    public void putRule(AlertRule rule) {
+        try {
+            send(RULE_KEY_PREFIX + rule.getName(), objectMapper.writeValueAsString(rule));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to serialize alert rule: " + rule.getName(), e);
+        }
+    }
+    
+    /**
+     * Persist the removal of a rule and its cooldown
+     *
+     * @param ruleName the rule name
+     */
+    public void removeRule(String ruleName) {
+        send(RULE_KEY_PREFIX + ruleName, null);
+        send(COOLDOWN_KEY_PREFIX + ruleName, null);
+    }
+    
+    /**
+     * Persist the last time a rule fired
+     *
+     * @param ruleName the rule name
+     * @param firedAt when the rule fired
+     */
+    public void putCooldown(String ruleName, Instant firedAt) {
+        send(COOLDOWN_KEY_PREFIX + ruleName, String.valueOf(firedAt.toEpochMilli()));
+    }
+    
+    /**
+     * Whether the store has replayed the state topic up to its end at least once
+     *
+     * @return true once caught up
+     */
+    public boolean isCaughtUp() {
+        return caughtUp;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    private void send(String key, String value) {
+        if (!enabled) {
+            return;
+        }
+        kafkaTemplate.send(TracehubConstants.ALERT_STATE_TOPIC, key, value)
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        logger.error("Failed to persist alert state: key={}, error={}", key, throwable.getMessage());
+                    }
+                });
+    }
+    
+    /**
+     * Follow the state topic: seek to the snapshot offsets, catch up, then keep applying changes
+     */
+    private void readLoop() {
+        while (running) {
+            try {
+                ensureTopic();
+                consumer = new KafkaConsumer<>(consumerProperties());
+                
+                List<TopicPartition> assignment = new ArrayList<>();
+                for (int p = 0; p < partitions; p++) {
+                    assignment.add(new TopicPartition(TracehubConstants.ALERT_STATE_TOPIC, p));
+                }
+                consumer.assign(assignment);
+                synchronized (this) {
+                    for (TopicPartition tp : assignment) {
+                        Long offset = offsets.get(tp.partition());
+                        if (offset != null) {
+                            consumer.seek(tp, offset);
+                        } else {
+                            consumer.seekToBeginning(List.of(tp));
+                        }
+                    }
+                }
+                Map<TopicPartition, Long> endOffsets = consumer.endOffsets(assignment);
+                long lastSnapshot = System.nanoTime();
+                
+                while (running) {
+                    for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofSeconds(1))) {
+                        apply(record);
+                    }
+                    if (!caughtUp && reached(endOffsets)) {
+                        caughtUp = true;
+                        logger.info("Alert state restored: rules={}, cooldowns={}", rules.size(), cooldowns.size());
+                        writeSnapshot();
+                    }
+                    if (System.nanoTime() - lastSnapshot > snapshotInterval.toNanos()) {
+                        writeSnapshot();
+                        lastSnapshot = System.nanoTime();
+                    }
+                }
+            
+            } catch (WakeupException e) {
+                // Shutting down
+            } catch (Exception e) {
+                logger.warn("Alert state reader failed, retrying in {}: {}", RETRY_BACKOFF, e.getMessage());
+                sleep(RETRY_BACKOFF);
+            } finally {
+                KafkaConsumer<String, String> current = consumer;
+                consumer = null;
+                if (current != null) {
+                    current.close(Duration.ofSeconds(1));
+                }
+            }
+        }
+    }
+    
+    private synchronized boolean reached(Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (offsets.getOrDefault(end.getKey().partition(), 0L) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Apply one state record to the in-memory state and the listener
+     *
+     * @param record the record
+     */
+    synchronized void apply(ConsumerRecord<String, String> record) {
+        offsets.put(record.partition(), record.offset() + 1);
+        String key = record.key();
+        String value = record.value();
+        if (key == null) {
+            return;
+        }
+        
+        try {
+            if (key.startsWith(RULE_KEY_PREFIX)) {
+                String name = key.substring(RULE_KEY_PREFIX.length());
+                if (value == null) {
+                    rules.remove(name);
+                    if (listener != null) {
+                        listener.onRuleRemoved(name);
+                    }
+                } else {
+                    AlertRule rule = objectMapper.readValue(value, AlertRule.class);
+                    rules.put(name, rule);
+                    if (listener != null) {
+                        listener.onRuleUpdated(rule);
+                    }
+                }
+            } else if (key.startsWith(COOLDOWN_KEY_PREFIX)) {
+                String name = key.substring(COOLDOWN_KEY_PREFIX.length());
+                if (value == null) {
+                    cooldowns.remove(name);
+                } else {
+                    long firedAt = Long.parseLong(value);
+                    cooldowns.put(name, firedAt);
+                    if (listener != null) {
+                        listener.onCooldownUpdated(name, Instant.ofEpochMilli(firedAt));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Skipping malformed alert state record: key={}, offset={}, error={}",
+                        key, record.offset(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Create the compacted state topic if it does not exist yet
+     */
+    private void ensureTopic() throws InterruptedException, ExecutionException {
+        try (AdminClient admin = AdminClient.create(kafkaProperties.buildAdminProperties(null))) {
+            NewTopic topic = new NewTopic(TracehubConstants.ALERT_STATE_TOPIC, partitions, replicationFactor)
+                    .configs(Map.of(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT));
+            admin.createTopics(List.of(topic)).all().get();
+            logger.info("Created alert state topic: {}", TracehubConstants.ALERT_STATE_TOPIC);
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof TopicExistsException)) {
+                throw e;
+            }
+        }
+    }
+    
+    Map<String, Object> consumerProperties() {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG); // manual assignment, no group
+        // Snapshot offsets removed by compaction must replay from the start, never skip state
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        return props;
+    }
+    
+    /**
+     * Load the local snapshot, if any
+     */
+    private synchronized void loadSnapshot() {
+        Path path = Paths.get(snapshotPath);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            Snapshot snapshot = objectMapper.readValue(path.toFile(), Snapshot.class);
+            snapshot.rules.forEach(rule -> rules.put(rule.getName(), rule));
+            cooldowns.putAll(snapshot.cooldowns);
+            offsets.putAll(snapshot.offsets);
+            logger.info("Loaded alert state snapshot: rules={}, cooldowns={}, path={}",
+                       rules.size(), cooldowns.size(), path);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable alert state snapshot: path={}, error={}", path, e.getMessage());
+        }
+    }
+    
+    /**
+     * Atomically write the current state and offsets to the local snapshot
+     */
+    synchronized void writeSnapshot() {
+        Path path = Paths.get(snapshotPath);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Snapshot snapshot = new Snapshot();
+            snapshot.rules = new ArrayList<>(rules.values());
+            snapshot.cooldowns = new HashMap<>(cooldowns);
+            snapshot.offsets = new HashMap<>(offsets);
+            
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), snapshot);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to write alert state snapshot: path={}, error={}", path, e.getMessage());
+        }
+    }
+    
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * On-disk snapshot format
+     */
+    static class Snapshot {
+        public List<AlertRule> rules = new ArrayList<>();
+        public Map<String, Long> cooldowns = new HashMap<>();
+        public Map<Integer, Long> offsets = new HashMap<>();
+    }
+}
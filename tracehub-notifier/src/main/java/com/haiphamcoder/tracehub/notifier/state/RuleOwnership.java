@@ -0,0 +1,181 @@
+package com.haiphamcoder.tracehub.notifier.state;
+
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Partition-based ownership of alert rules across notifier instances.
+ * Each rule hashes to one of the state topic's partitions; instances join a
+ * consumer group on that topic purely for membership, and an instance evaluates
+ * exactly the rules whose partition is currently assigned to it. Kafka's group
+ * protocol handles failover and rebalancing when instances come and go.
+ */
+@Component
+public class RuleOwnership {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RuleOwnership.class);
+    
+    private final KafkaProperties kafkaProperties;
+    private final ConcurrentHashMap<String, Integer> partitionCache = new ConcurrentHashMap<>();
+    private volatile Set<Integer> ownedPartitions = Set.of();
+    
+    @Value("${tracehub.notifier.ownership.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${tracehub.notifier.ownership.group-id:tracehub-notifier-owners}")
+    private String groupId;
+    
+    @Value("${tracehub.notifier.state.partitions:12}")
+    private int partitions;
+    
+    private volatile boolean running;
+    private volatile KafkaConsumer<byte[], byte[]> consumer;
+    private Thread membershipThread;
+    
+    public RuleOwnership(KafkaProperties kafkaProperties) {
+        this.kafkaProperties = kafkaProperties;
+    }
+    
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Rule ownership disabled - this instance evaluates every rule");
+            return;
+        }
+        running = true;
+        membershipThread = new Thread(this::membershipLoop, "rule-ownership");
+        membershipThread.setDaemon(true);
+        membershipThread.start();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        KafkaConsumer<byte[], byte[]> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        if (membershipThread != null) {
+            membershipThread.join(5000);
+        }
+    }
+    
+    /**
+     * Whether this instance is responsible for evaluating a rule
+     *
+     * @param ruleName the rule name
+     * @return true if owned
+     */
+    public boolean owns(String ruleName) {
+        return !enabled || ownedPartitions.contains(partitionFor(ruleName));
+    }
+    
+    /**
+     * Partition of the state topic a rule belongs to (same hash as Kafka's default partitioner)
+     *
+     * @param ruleName the rule name
+     * @return partition number
+     */
+    public int partitionFor(String ruleName) {
+        return partitionCache.computeIfAbsent(ruleName,
+            name -> Utils.toPositive(Utils.murmur2(name.getBytes(StandardCharsets.UTF_8))) % partitions);
+    }
+    
+    public Set<Integer> getOwnedPartitions() {
+        return ownedPartitions;
+    }
+    
+    /**
+     * Stay in the ownership group; partitions are paused so no records are fetched
+     */
+    private void membershipLoop() {
+        while (running) {
+            try {
+                consumer = new KafkaConsumer<>(consumerProperties());
+                KafkaConsumer<byte[], byte[]> current = consumer;
+                current.subscribe(List.of(TracehubConstants.ALERT_STATE_TOPIC), new ConsumerRebalanceListener() {
+                    @Override
+                    public void onPartitionsAssigned(Collection<TopicPartition> assigned) {
+                        current.pause(assigned);
+                        update(assigned, true);
+                    }
+                    
+                    @Override
+                    public void onPartitionsRevoked(Collection<TopicPartition> revoked) {
+                        update(revoked, false);
+                    }
+                    
+                    @Override
+                    public void onPartitionsLost(Collection<TopicPartition> lost) {
+                        update(lost, false);
+                    }
+                });
+                while (running) {
+                    current.poll(Duration.ofSeconds(1));
+                }
+            } catch (WakeupException e) {
+                // Shutting down
+            } catch (Exception e) {
+                logger.warn("Rule ownership membership failed, retrying: {}", e.getMessage());
+                ownedPartitions = Set.of();
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                KafkaConsumer<byte[], byte[]> current = consumer;
+                consumer = null;
+                if (current != null) {
+                    current.close(Duration.ofSeconds(1));
+                }
+            }
+        }
+        ownedPartitions = Set.of();
+    }
+    
+    void update(Collection<TopicPartition> changed, boolean added) {
+        Set<Integer> updated = new HashSet<>(ownedPartitions);
+        for (TopicPartition tp : changed) {
+            if (added) {
+                updated.add(tp.partition());
+            } else {
+                updated.remove(tp.partition());
+            }
+        }
+        ownedPartitions = Set.copyOf(updated);
+        logger.info("Rule ownership changed: ownedPartitions={}", ownedPartitions);
+    }
+    
+    private Map<String, Object> consumerProperties() {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        return props;
+    }
+}
@@ -0,0 +1,143 @@
+package com.haiphamcoder.tracehub.notifier.dispatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class NotificationDispatcherTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CopyOnWriteArrayList<JsonNode> received = new CopyOnWriteArrayList<>();
+	private final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private volatile long responseDelayMillis;
+	private volatile CountDownLatch alertsLatch;
+
+	private ExecutorService serverExecutor;
+	private HttpServer server;
+	private NotificationDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/hook", exchange -> {
+			int concurrent = inFlight.incrementAndGet();
+			maxInFlight.accumulateAndGet(concurrent, Math::max);
+			try {
+				JsonNode body = objectMapper.readTree(exchange.getRequestBody());
+				Thread.sleep(responseDelayMillis);
+				int status = failuresBeforeSuccess.getAndDecrement() > 0 ? 503 : 200;
+				if (status == 200) {
+					received.add(body);
+					for (int i = 0; i < body.get("alertCount").asInt(); i++) {
+						alertsLatch.countDown();
+					}
+				}
+				exchange.sendResponseHeaders(status, -1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				inFlight.decrementAndGet();
+				exchange.close();
+			}
+		});
+		serverExecutor = Executors.newCachedThreadPool();
+		server.setExecutor(serverExecutor);
+		server.start();
+
+		dispatcher = new NotificationDispatcher(objectMapper, meterRegistry);
+		ReflectionTestUtils.setField(dispatcher, "queueCapacity", 1000);
+		ReflectionTestUtils.setField(dispatcher, "digestWindow", Duration.ofMillis(200));
+		ReflectionTestUtils.setField(dispatcher, "maxBatchSize", 10);
+		ReflectionTestUtils.setField(dispatcher, "maxPendingPerEndpoint", 1000);
+		ReflectionTestUtils.setField(dispatcher, "maxConcurrencyPerEndpoint", 2);
+		ReflectionTestUtils.setField(dispatcher, "ratePerSecond", 1000d);
+		ReflectionTestUtils.setField(dispatcher, "burst", 100);
+		ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+		ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ofMillis(20));
+		ReflectionTestUtils.setField(dispatcher, "maxBackoff", Duration.ofMillis(100));
+		ReflectionTestUtils.setField(dispatcher, "requestTimeout", Duration.ofSeconds(5));
+		dispatcher.start();
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		dispatcher.stop();
+		server.stop(0);
+		serverExecutor.shutdownNow();
+	}
+
+	@Test
+	void alertsWithinDigestWindowAreBatched() throws InterruptedException {
+		alertsLatch = new CountDownLatch(5);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(dispatcher.submit(alert("rule-" + i)));
+		}
+
+		assertTrue(alertsLatch.await(5, TimeUnit.SECONDS));
+		assertEquals(1, received.size());
+		assertEquals(5, received.get(0).get("alerts").size());
+		awaitCounter("delivered", 5);
+		assertEquals(5, meterRegistry.get("tracehub.notifier.delivery.latency").timer().count());
+	}
+
+	@Test
+	void failedDeliveriesAreRetried() throws InterruptedException {
+		failuresBeforeSuccess.set(2);
+		alertsLatch = new CountDownLatch(1);
+		dispatcher.submit(alert("flaky"));
+
+		assertTrue(alertsLatch.await(5, TimeUnit.SECONDS));
+		assertEquals("flaky", received.get(0).get("alerts").get(0).get("rule").asText());
+		assertEquals(2, meterRegistry.get("tracehub.notifier.notifications").tag("result", "retried").counter().count());
+	}
+
+	@Test
+	void concurrencyPerEndpointIsLimited() throws InterruptedException {
+		responseDelayMillis = 100;
+		alertsLatch = new CountDownLatch(100);
+		for (int i = 0; i < 100; i++) {
+			dispatcher.submit(alert("burst-" + i));
+		}
+
+		assertTrue(alertsLatch.await(10, TimeUnit.SECONDS));
+		assertTrue(maxInFlight.get() <= 2, "max in flight: " + maxInFlight.get());
+		assertEquals(100, received.stream().mapToInt(body -> body.get("alertCount").asInt()).sum());
+	}
+
+	// The stub counts alerts before responding, so the dispatcher may not have seen the response yet
+	private void awaitCounter(String result, double expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get("tracehub.notifier.notifications").tag("result", result).counter().count() < expected
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private AlertNotification alert(String ruleName) {
+		String endpoint = "http://127.0.0.1:" + server.getAddress().getPort() + "/hook";
+		return new AlertNotification(ruleName, "test alert", endpoint, 11, 10, 5, Instant.now());
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.haiphamcoder.tracehub.notifier.evaluation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class AnomalyDetectorTests {
+
+	private static final long START = 1_700_000_000L;
+
+	@Test
+	void firesOnSpikeRelativeToOwnBaseline() {
+		List<String> fired = new ArrayList<>();
+		AnomalyDetector detector = new AnomalyDetector(60, 0.1, 3.0, 10, 300, 1000, 3600,
+				(tenant, action, count, mean, stdDev, zScore) -> fired.add(tenant));
+
+		// A large tenant at ~1000 events/min and a small one at ~2 events/min
+		long second = START;
+		for (int minute = 0; minute < 30; minute++, second += 60) {
+			int big = 1000 + (minute % 3) * 20;
+			for (int i = 0; i < big; i++) {
+				detector.record("big", "LOGIN", second);
+			}
+			for (int i = 0; i < 2; i++) {
+				detector.record("small", "LOGIN", second);
+			}
+		}
+		assertTrue(fired.isEmpty(), "normal traffic fired: " + fired);
+
+		// 30 events is nothing for the big tenant but a clear anomaly for the small one
+		for (int i = 0; i < 30; i++) {
+			detector.record("big", "LOGIN", second);
+			detector.record("small", "LOGIN", second);
+		}
+		assertEquals(List.of("small"), fired);
+
+		// Cooldown: the spike continuing does not fire again
+		for (int i = 0; i < 30; i++) {
+			detector.record("small", "LOGIN", second + 1);
+		}
+		assertEquals(1, fired.size());
+	}
+
+	@Test
+	void idleSeriesBaselineDecays() {
+		AnomalyDetector detector = new AnomalyDetector(60, 0.5, 3.0, 1, 0, 1000, 3600,
+				(tenant, action, count, mean, stdDev, zScore) -> { });
+		for (int i = 0; i < 100; i++) {
+			detector.record("t1", "EXPORT", START);
+		}
+		detector.record("t1", "EXPORT", START + 60 * 1000);
+		assertTrue(detector.meanOf("t1", "EXPORT") < 1e-3);
+	}
+
+	@Test
+	void tracksHundredsOfThousandsOfSeries() {
+		AnomalyDetector detector = new AnomalyDetector(60, 0.1, 3.0, 10, 300, 250_000, 3600,
+				(tenant, action, count, mean, stdDev, zScore) -> { });
+		String[] actions = {"LOGIN", "LOGOUT", "CREATE", "DELETE", "EXPORT"};
+		for (int tenant = 0; tenant < 60_000; tenant++) {
+			String tenantId = "tenant-" + tenant;
+			for (String action : actions) {
+				detector.record(tenantId, action, START);
+			}
+		}
+		assertEquals(250_000, detector.size());
+		assertEquals(50_000, detector.getRejectedSeries());
+		assertEquals(0.0, detector.meanOf("tenant-0", "LOGIN"));
+	}
+
+	@Test
+	void admitsNewSeriesOnceOldOnesGoIdle() {
+		AnomalyDetector detector = new AnomalyDetector(60, 0.1, 3.0, 10, 300, 2, 3600,
+				(tenant, action, count, mean, stdDev, zScore) -> { });
+		detector.record("old", "LOGIN", START);
+		detector.record("active", "LOGIN", START);
+		detector.record("active", "LOGIN", START + 3000);
+
+		// Full, and "old" has only been idle for 50 minutes
+		detector.record("new", "LOGIN", START + 3000);
+		assertEquals(1, detector.getRejectedSeries());
+		assertTrue(Double.isNaN(detector.meanOf("new", "LOGIN")));
+
+		detector.record("active", "LOGIN", START + 3700);
+		detector.record("new", "LOGIN", START + 3700);
+		assertEquals(1, detector.getEvictedSeries());
+		assertEquals(2, detector.size());
+		assertTrue(Double.isNaN(detector.meanOf("old", "LOGIN")));
+		assertEquals(0.0, detector.meanOf("new", "LOGIN"));
+		assertEquals(1, detector.getRejectedSeries());
+	}
+
+}
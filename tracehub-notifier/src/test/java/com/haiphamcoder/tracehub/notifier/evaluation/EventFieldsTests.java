@@ -0,0 +1,49 @@
+package com.haiphamcoder.tracehub.notifier.evaluation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+class EventFieldsTests {
+
+	private final LogEvent event = new LogEvent(Instant.EPOCH, "t1", "u1", "LOGIN", "FAILURE", "10.0.0.1", "login failed");
+
+	@Test
+	void readsNamedFields() {
+		assertEquals("t1", EventFields.valueOf(event, "tenantId"));
+		assertEquals("u1", EventFields.valueOf(event, "userId"));
+		assertEquals("LOGIN", EventFields.valueOf(event, "action"));
+		assertEquals("FAILURE", EventFields.valueOf(event, "status"));
+		assertEquals("10.0.0.1", EventFields.valueOf(event, "actorIp"));
+	}
+
+	@Test
+	void readsMetadataValuesAsStrings() {
+		Map<String, Object> metadata = new HashMap<>();
+		metadata.put("country", "VN");
+		metadata.put("attempts", 3);
+		metadata.put("empty", null);
+		event.setMetadata(metadata);
+
+		assertEquals("VN", EventFields.valueOf(event, "metadata.country"));
+		assertEquals("3", EventFields.valueOf(event, "metadata.attempts"));
+		assertNull(EventFields.valueOf(event, "metadata.empty"));
+		assertNull(EventFields.valueOf(event, "metadata.missing"));
+	}
+
+	@Test
+	void unknownOrAbsentFieldsAreNull() {
+		assertNull(EventFields.valueOf(event, "metadata.country"));
+		assertNull(EventFields.valueOf(event, "message"));
+		assertNull(EventFields.valueOf(event, "metadata"));
+		assertNull(EventFields.valueOf(event, null));
+		assertNull(EventFields.valueOf(new LogEvent(), "tenantId"));
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.haiphamcoder.tracehub.notifier.evaluation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.notifier.service.AlertService.AlertRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class RuleIndexTests {
+
+	private static final String[] ACTIONS = {"LOGIN", "LOGOUT", "CREATE", "UPDATE", "DELETE", "EXPORT", "GRANT", "REVOKE"};
+	private static final String[] STATUSES = {"SUCCESS", "FAILURE", "WARN", "INFO", "ERROR"};
+	private static final int TENANTS = 2000;
+
+	@Test
+	void indexMatchesLinearScan() {
+		Random random = new Random(7);
+		List<AlertRule> rules = randomRules(random, 5_000);
+		rules.add(new AlertRule("any", "matches everything", null, null, null, 5, 10, null));
+		rules.add(new AlertRule("login-only", "action filter only", null, null, "LOGIN", 5, 10, null));
+
+		RuleIndex index = new RuleIndex();
+		rules.forEach(index::add);
+		index.remove(rules.get(0));
+		rules.remove(0);
+
+		for (LogEvent event : randomEvents(random, 2_000)) {
+			Set<String> expected = new HashSet<>();
+			for (AlertRule rule : rules) {
+				if (RuleIndex.matches(rule, event)) {
+					expected.add(rule.getName());
+				}
+			}
+
+			Set<String> actual = new HashSet<>();
+			index.forEachMatch(event, rule -> actual.add(rule.getName()));
+
+			assertEquals(expected, actual);
+		}
+	}
+
+	private static List<AlertRule> randomRules(Random random, int count) {
+		List<AlertRule> rules = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String tenant = "tenant-" + random.nextInt(TENANTS);
+			String action = random.nextBoolean() ? ACTIONS[random.nextInt(ACTIONS.length)] : null;
+			rules.add(switch (random.nextInt(10)) {
+				case 0 -> new AlertRule("rule-" + i, "status rule", "status",
+						STATUSES[random.nextInt(STATUSES.length)], action, 5, 10, null);
+				case 1 -> new AlertRule("rule-" + i, "user rule", "userId",
+						"user-" + random.nextInt(10_000), action, 5, 10, null);
+				default -> new AlertRule("rule-" + i, "tenant rule", "tenantId", tenant, action, 5, 10, null);
+			});
+		}
+		return rules;
+	}
+
+	private static List<LogEvent> randomEvents(Random random, int count) {
+		List<LogEvent> events = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			events.add(new LogEvent(Instant.now(),
+					"tenant-" + random.nextInt(TENANTS),
+					"user-" + random.nextInt(10_000),
+					ACTIONS[random.nextInt(ACTIONS.length)],
+					STATUSES[random.nextInt(STATUSES.length)],
+					"10.0." + random.nextInt(256) + "." + random.nextInt(256),
+					"rule index test event"));
+		}
+		return events;
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.haiphamcoder.tracehub.notifier.evaluation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class SlidingWindowCounterTests {
+
+	private static final long START = 1_700_000_000L;
+
+	@Test
+	void eventExpiresExactlyOneWindowLater() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(60);
+		assertEquals(1, counter.increment(START));
+
+		assertEquals(1, counter.count(START + 59));
+		assertEquals(0, counter.count(START + 60));
+	}
+
+	@Test
+	void ringRollsOverItsBuckets() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(60);
+		for (long second = START; second < START + 180; second++) {
+			counter.increment(second);
+			counter.increment(second);
+			assertEquals(2 * Math.min(second - START + 1, 60), counter.count(second));
+		}
+		assertEquals(118, counter.count(START + 180));
+		assertEquals(2, counter.count(START + 238));
+	}
+
+	@Test
+	void countsRestartAfterIdleGaps() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(60);
+		counter.increment(START);
+		counter.increment(START + 30);
+
+		// Shorter than the window: only the older event has expired
+		assertEquals(1, counter.count(START + 65));
+		assertEquals(0, counter.count(START + 90));
+
+		// Longer than the window, including many whole laps of the ring
+		counter.increment(START + 100);
+		assertEquals(1, counter.increment(START + 100 + 10 * 60 + 7));
+		assertEquals(2, counter.increment(START + 100 + 10 * 60 + 8));
+	}
+
+	@Test
+	void lateEventsCountInTheCurrentSecond() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(60);
+		counter.increment(START + 100);
+		assertEquals(2, counter.increment(START + 10));
+
+		assertEquals(2, counter.count(START + 159));
+		assertEquals(0, counter.count(START + 160));
+	}
+
+	@Test
+	void resetClearsTheWindow() {
+		SlidingWindowCounter counter = new SlidingWindowCounter(60);
+		counter.increment(START);
+		counter.reset();
+
+		assertEquals(0, counter.count(START));
+		assertEquals(1, counter.increment(START + 1));
+		assertEquals(0, counter.count(START + 61));
+	}
+
+	@Test
+	void rejectsEmptyWindow() {
+		assertThrows(IllegalArgumentException.class, () -> new SlidingWindowCounter(0));
+	}
+
+}
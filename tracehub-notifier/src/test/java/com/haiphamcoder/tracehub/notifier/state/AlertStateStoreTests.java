@@ -0,0 +1,116 @@
+package com.haiphamcoder.tracehub.notifier.state;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import com.haiphamcoder.tracehub.notifier.service.AlertService.AlertRule;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class AlertStateStoreTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void restartRestoresRulesCooldownsAndOffsetsFromTheSnapshot() throws Exception {
+		AlertStateStore first = store();
+		first.apply(record(0, 0, "rule:login-failures", objectMapper.writeValueAsString(rule("login-failures"))));
+		first.apply(record(0, 1, "rule:exports", objectMapper.writeValueAsString(rule("exports"))));
+		first.apply(record(3, 0, "cooldown:login-failures", "1700000000000"));
+		first.apply(record(0, 2, "rule:exports", null));
+		first.writeSnapshot();
+
+		AlertStateStore restarted = store();
+		RecordingListener listener = new RecordingListener();
+		restarted.register(listener);
+
+		assertEquals(List.of("login-failures"), new ArrayList<>(listener.rules.keySet()));
+		assertEquals(Map.of("login-failures", Instant.ofEpochMilli(1_700_000_000_000L)), listener.cooldowns);
+		@SuppressWarnings("unchecked")
+		Map<Integer, Long> offsets = (Map<Integer, Long>) ReflectionTestUtils.getField(restarted, "offsets");
+		assertEquals(Map.of(0, 3L, 3, 1L), offsets);
+	}
+
+	@Test
+	void recordsAfterRegistrationReachTheListenerInTopicOrder() throws Exception {
+		AlertStateStore store = store();
+		RecordingListener listener = new RecordingListener();
+		store.register(listener);
+
+		store.apply(record(1, 0, "rule:r1", objectMapper.writeValueAsString(rule("r1"))));
+		store.apply(record(1, 1, "rule:r1", "{not json"));
+		store.apply(record(1, 2, "cooldown:r1", "1700000000000"));
+		store.apply(record(1, 3, "rule:r1", null));
+
+		assertNull(listener.rules.get("r1"));
+		assertEquals(List.of("r1"), listener.removed);
+		assertEquals(Instant.ofEpochMilli(1_700_000_000_000L), listener.cooldowns.get("r1"));
+	}
+
+	@Test
+	void stateReaderStartsFromTheEarliestOffsetWithoutAGroup() {
+		Map<String, Object> props = store().consumerProperties();
+
+		assertEquals("earliest", props.get(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG));
+		assertNull(props.get(ConsumerConfig.GROUP_ID_CONFIG));
+		assertEquals(false, props.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+	}
+
+	private AlertStateStore store() {
+		KafkaProperties kafkaProperties = new KafkaProperties();
+		kafkaProperties.getConsumer().setGroupId("tracehub-notifier-test");
+		kafkaProperties.getConsumer().setAutoOffsetReset("latest");
+		AlertStateStore store = new AlertStateStore(null, kafkaProperties, objectMapper);
+		ReflectionTestUtils.setField(store, "enabled", false);
+		ReflectionTestUtils.setField(store, "snapshotPath", dir.resolve("alert-state.snapshot.json").toString());
+		store.start();
+		return store;
+	}
+
+	private static ConsumerRecord<String, String> record(int partition, long offset, String key, String value) {
+		return new ConsumerRecord<>(TracehubConstants.ALERT_STATE_TOPIC, partition, offset, key, value);
+	}
+
+	private static AlertRule rule(String name) {
+		return new AlertRule(name, "", "tenantId", "t1", "LOGIN", 5, 20, "http://example.com/hook");
+	}
+
+	private static class RecordingListener implements AlertStateStore.Listener {
+		private final Map<String, AlertRule> rules = new LinkedHashMap<>();
+		private final Map<String, Instant> cooldowns = new LinkedHashMap<>();
+		private final List<String> removed = new ArrayList<>();
+
+		@Override
+		public void onRuleUpdated(AlertRule rule) {
+			rules.put(rule.getName(), rule);
+		}
+
+		@Override
+		public void onRuleRemoved(String ruleName) {
+			rules.remove(ruleName);
+			removed.add(ruleName);
+		}
+
+		@Override
+		public void onCooldownUpdated(String ruleName, Instant firedAt) {
+			cooldowns.put(ruleName, firedAt);
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.haiphamcoder.tracehub.notifier.state;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+class RuleOwnershipTests {
+
+	private static final int PARTITIONS = 12;
+
+	@Test
+	void ownsExactlyTheRulesOfAssignedPartitions() {
+		RuleOwnership ownership = ownership(true);
+		int partition = ownership.partitionFor("login-failures");
+
+		assertFalse(ownership.owns("login-failures"));
+
+		ownership.update(List.of(partition(partition)), true);
+		assertTrue(ownership.owns("login-failures"));
+		assertEquals(Set.of(partition), ownership.getOwnedPartitions());
+
+		// Cooperative rebalance: the partition moves to another instance
+		ownership.update(List.of(partition(partition)), false);
+		assertFalse(ownership.owns("login-failures"));
+	}
+
+	@Test
+	void everyRuleHasOneStablePartition() {
+		RuleOwnership ownership = ownership(true);
+		RuleOwnership other = ownership(true);
+		Set<Integer> used = new HashSet<>();
+
+		for (int i = 0; i < 1000; i++) {
+			String rule = "rule-" + i;
+			int partition = ownership.partitionFor(rule);
+			assertTrue(partition >= 0 && partition < PARTITIONS);
+			assertEquals(partition, other.partitionFor(rule));
+			used.add(partition);
+		}
+		assertEquals(PARTITIONS, used.size());
+	}
+
+	@Test
+	void instancesSplittingThePartitionsOwnEachRuleOnce() {
+		RuleOwnership first = ownership(true);
+		RuleOwnership second = ownership(true);
+		first.update(IntStream.range(0, PARTITIONS / 2).mapToObj(RuleOwnershipTests::partition).toList(), true);
+		second.update(IntStream.range(PARTITIONS / 2, PARTITIONS).mapToObj(RuleOwnershipTests::partition).toList(), true);
+
+		for (int i = 0; i < 100; i++) {
+			String rule = "rule-" + i;
+			assertTrue(first.owns(rule) ^ second.owns(rule), rule);
+		}
+	}
+
+	@Test
+	void disabledOwnershipEvaluatesEveryRule() {
+		assertTrue(ownership(false).owns("any-rule"));
+	}
+
+	private static RuleOwnership ownership(boolean enabled) {
+		RuleOwnership ownership = new RuleOwnership(new KafkaProperties());
+		ReflectionTestUtils.setField(ownership, "enabled", enabled);
+		ReflectionTestUtils.setField(ownership, "partitions", PARTITIONS);
+		return ownership;
+	}
+
+	private static TopicPartition partition(int partition) {
+		return new TopicPartition(TracehubConstants.ALERT_STATE_TOPIC, partition);
+	}
+
+}
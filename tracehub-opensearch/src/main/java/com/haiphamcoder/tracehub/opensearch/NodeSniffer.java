@@ -0,0 +1,106 @@
+package com.haiphamcoder.tracehub.opensearch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.HttpHost;
+import org.opensearch.client.Node;
+import org.opensearch.client.Request;
+import org.opensearch.client.Response;
+import org.opensearch.client.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the client's node list with the HTTP-enabled nodes the cluster reports.
+ * Dedicated cluster-manager nodes are left out, so requests only go to nodes that hold
+ * or ingest data. If sniffing fails or finds nothing, the current nodes are kept.
+ */
+final class NodeSniffer implements Runnable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NodeSniffer.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    private final RestClient restClient;
+    private final String scheme;
+    
+    NodeSniffer(RestClient restClient, String scheme) {
+        this.restClient = restClient;
+        this.scheme = scheme;
+    }
+    
+    @Override
+    public void run() {
+        try {
+            List<Node> nodes = sniff();
+            if (nodes.isEmpty()) {
+                logger.warn("Node sniffing found no HTTP nodes, keeping {} known nodes", restClient.getNodes().size());
+                return;
+            }
+            restClient.setNodes(nodes);
+            logger.debug("Sniffed {} OpenSearch nodes", nodes.size());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Node sniffing failed, keeping {} known nodes", restClient.getNodes().size(), e);
+        }
+    }
+    
+    private List<Node> sniff() throws IOException {
+        Response response = restClient.performRequest(new Request("GET", "/_nodes/http"));
+        try (InputStream content = response.getEntity().getContent()) {
+            return parseNodes(content, scheme);
+        }
+    }
+    
+    /**
+     * Parse a {@code _nodes/http} response
+     *
+     * @param content the response body
+     * @param scheme scheme of the nodes, which the response does not report
+     * @return the nodes to send requests to
+     * @throws IOException if the body is not valid JSON
+     */
+    static List<Node> parseNodes(InputStream content, String scheme) throws IOException {
+        List<Node> nodes = new ArrayList<>();
+        for (JsonNode node : MAPPER.readTree(content).path("nodes")) {
+            String address = node.path("http").path("publish_address").asText("");
+            if (address.isEmpty() || isDedicatedClusterManager(node.path("roles"))) {
+                continue;
+            }
+            nodes.add(new Node(toHost(address, scheme)));
+        }
+        return nodes;
+    }
+    
+    /**
+     * Publish addresses are {@code ip:port} or {@code hostname/ip:port}; the hostname is
+     * preferred when present so TLS hostname verification works
+     */
+    private static HttpHost toHost(String address, String scheme) {
+        int slash = address.indexOf('/');
+        String hostPort = slash < 0 ? address : address.substring(slash + 1);
+        int colon = hostPort.lastIndexOf(':');
+        int port = Integer.parseInt(hostPort.substring(colon + 1));
+        String host = slash > 0 ? address.substring(0, slash) : hostPort.substring(0, colon);
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1);
+        }
+        return new HttpHost(host, port, scheme);
+    }
+    
+    private static boolean isDedicatedClusterManager(JsonNode roles) {
+        if (!roles.isArray() || roles.isEmpty()) {
+            return false;
+        }
+        for (JsonNode role : roles) {
+            String name = role.asText();
+            if (!name.equals("cluster_manager") && !name.equals("master")) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+package com.haiphamcoder.tracehub.opensearch;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Connection settings for a {@link PooledOpenSearchTransport}.
+ * Each service fills these from its own {@code opensearch.*} properties, so the
+ * processor and query tiers size their pools independently.
+ */
+public class OpenSearchClientSettings {
+    
+    private List<String> hosts = List.of("http://localhost:9200");
+    private String username;
+    private String password;
+    private int maxConnections = 30;
+    private int maxConnectionsPerRoute = 10;
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration socketTimeout = Duration.ofSeconds(30);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+    private Duration keepAlive = Duration.ofMinutes(1);
+    private boolean compression = true;
+    private Duration sniffInterval = Duration.ZERO;
+    
+    public OpenSearchClientSettings() {}
+    
+    /**
+     * Seed nodes as {@code scheme://host:port}; requests are spread over them round-robin
+     */
+    public List<String> getHosts() { return hosts; }
+    public void setHosts(List<String> hosts) { this.hosts = hosts; }
+    
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+    
+    /**
+     * Connections across all nodes
+     */
+    public int getMaxConnections() { return maxConnections; }
+    public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+    
+    /**
+     * Connections to any single node
+     */
+    public int getMaxConnectionsPerRoute() { return maxConnectionsPerRoute; }
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) { this.maxConnectionsPerRoute = maxConnectionsPerRoute; }
+    
+    public Duration getConnectTimeout() { return connectTimeout; }
+    public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+    
+    public Duration getSocketTimeout() { return socketTimeout; }
+    public void setSocketTimeout(Duration socketTimeout) { this.socketTimeout = socketTimeout; }
+    
+    /**
+     * Longest wait for a pooled connection once the pool is exhausted
+     */
+    public Duration getConnectionRequestTimeout() { return connectionRequestTimeout; }
+    public void setConnectionRequestTimeout(Duration connectionRequestTimeout) { this.connectionRequestTimeout = connectionRequestTimeout; }
+    
+    /**
+     * Longest time an idle connection is kept; a shorter server-sent Keep-Alive wins
+     */
+    public Duration getKeepAlive() { return keepAlive; }
+    public void setKeepAlive(Duration keepAlive) { this.keepAlive = keepAlive; }
+    
+    /**
+     * Gzip request bodies and accept gzip responses
+     */
+    public boolean isCompression() { return compression; }
+    public void setCompression(boolean compression) { this.compression = compression; }
+    
+    /**
+     * How often to refresh the node list from the cluster; zero keeps the seed nodes
+     */
+    public Duration getSniffInterval() { return sniffInterval; }
+    public void setSniffInterval(Duration sniffInterval) { this.sniffInterval = sniffInterval; }
+}
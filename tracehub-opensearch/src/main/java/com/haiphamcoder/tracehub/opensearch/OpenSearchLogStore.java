@@ -0,0 +1,437 @@
+package com.haiphamcoder.tracehub.opensearch;
+
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.dto.MetadataFilter;
+import com.haiphamcoder.tracehub.common.store.LogDocument;
+import com.haiphamcoder.tracehub.common.store.LogHit;
+import com.haiphamcoder.tracehub.common.store.LogHits;
+import com.haiphamcoder.tracehub.common.store.LogQuery;
+import com.haiphamcoder.tracehub.common.store.LogStore;
+import com.haiphamcoder.tracehub.common.util.FieldTokenizer;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch._types.ErrorCause;
+import org.opensearch.client.opensearch._types.FieldValue;
+import org.opensearch.client.opensearch._types.SortOrder;
+import org.opensearch.client.opensearch._types.aggregations.StringTermsBucket;
+import org.opensearch.client.opensearch._types.mapping.TypeMapping;
+import org.opensearch.client.opensearch._types.query_dsl.Operator;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch.core.BulkRequest;
+import org.opensearch.client.opensearch.core.BulkResponse;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.bulk.BulkResponseItem;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.indices.CreateIndexRequest;
+import org.opensearch.client.opensearch.indices.ExistsRequest;
+import org.opensearch.client.opensearch.indices.IndexSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link LogStore} on OpenSearch: one index per daily partition, searched through the
+ * {@code logs-tracehub-*} alias. Documents and searches are routed by {@link TenantRouting},
+ * and metadata keys are promoted to typed fields by {@link PromotedFields}.
+ */
+public class OpenSearchLogStore implements LogStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OpenSearchLogStore.class);
+    static final String WRITE_BLOCKED = "index_write_blocked";
+    
+    private final OpenSearchClient openSearchClient;
+    private final TenantRouting routing;
+    private final PromotedFields promotedFields;
+    private final Set<String> knownIndices = ConcurrentHashMap.newKeySet();
+    private volatile boolean templateInstalled;
+    
+    public OpenSearchLogStore(OpenSearchClient openSearchClient) {
+        this(openSearchClient, TenantRouting.disabled());
+    }
+    
+    public OpenSearchLogStore(OpenSearchClient openSearchClient, TenantRouting routing) {
+        this(openSearchClient, routing, PromotedFields.none());
+    }
+    
+    public OpenSearchLogStore(OpenSearchClient openSearchClient, TenantRouting routing, PromotedFields promotedFields) {
+        this.openSearchClient = openSearchClient;
+        this.routing = routing;
+        this.promotedFields = promotedFields;
+    }
+    
+    /**
+     * Index a batch of log events with a single bulk request.
+     * Documents are written with op_type create, so an event redelivered after a
+     * rebalance conflicts with its existing document and counts as indexed.
+     */
+    @Override
+    public Map<String, Integer> write(List<LogDocument> documents) throws IOException {
+        if (documents.isEmpty()) {
+            return Map.of();
+        }
+        
+        ensureTemplateInstalled();
+        BulkRequest.Builder bulk = new BulkRequest.Builder();
+        for (LogDocument document : documents) {
+            ensureIndexExists(document.getPartition());
+            bulk.operations(op -> op.create(c -> c
+                .index(document.getPartition())
+                .id(document.getDocumentId())
+                .routing(routing.indexRouting(document.getEvent().getTenantId(), document.getDocumentId()))
+                .document(toDocument(document.getEvent()))
+            ));
+        }
+        
+        BulkResponse response = openSearchClient.bulk(bulk.build());
+        if (!response.errors()) {
+            return Map.of();
+        }
+        Map<String, Integer> failures = new HashMap<>();
+        for (BulkResponseItem item : response.items()) {
+            ErrorCause error = item.error();
+            if (error != null && item.status() != 409) {
+                failures.merge(failureType(error), 1, Integer::sum);
+            }
+        }
+        return failures;
+    }
+    
+    /**
+     * Error type a rejected document is counted under. A write to an index with
+     * {@code index.blocks.write} (the lifecycle's warm and archive phases) is reported as
+     * {@value #WRITE_BLOCKED} rather than as any other cluster block, such as the disk
+     * flood-stage block, so lost late events can be alerted on.
+     */
+    static String failureType(ErrorCause error) {
+        if ("cluster_block_exception".equals(error.type()) && error.reason() != null
+                && error.reason().contains("index write (api)")) {
+            return WRITE_BLOCKED;
+        }
+        return error.type();
+    }
+    
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public LogHits search(LogQuery query) throws IOException {
+        Query filter = buildQuery(query, promotedFields);
+        String searchRouting = routing.searchRouting(query.getTenantId(), query.getFrom());
+        SearchResponse<Map> response = openSearchClient.search(s -> {
+            s.index(TracehubConstants.INDEX_ALIAS)
+                .routing(searchRouting)
+                .ignoreUnavailable(true)
+                .query(filter)
+                .size(query.getLimit())
+                .trackTotalHits(t -> t.enabled(true))
+                .sort(so -> so.field(f -> f.field("@timestamp").order(SortOrder.Desc)))
+                .sort(so -> so.field(f -> f.field("_id").order(SortOrder.Desc)));
+            if (query.getAfterTimestampMillis() != null) {
+                s.searchAfter(String.valueOf(query.getAfterTimestampMillis()), query.getAfterDocumentId());
+            }
+            return s;
+        }, Map.class);
+        
+        List<LogHit> hits = new ArrayList<>(response.hits().hits().size());
+        for (Hit<Map> hit : response.hits().hits()) {
+            LogEvent event = convertFromMap(hit.source());
+            hits.add(new LogHit(event, event.getTimestamp().toEpochMilli(), hit.id()));
+        }
+        long total = response.hits().total() != null ? response.hits().total().value() : hits.size();
+        return new LogHits(hits, total);
+    }
+    
+    @Override
+    public Map<String, Long> aggregate(LogQuery query, String field, int size) throws IOException {
+        if (!AGGREGATABLE_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("Cannot aggregate by " + field);
+        }
+        Query filter = buildQuery(query, promotedFields);
+        String searchRouting = routing.searchRouting(query.getTenantId(), query.getFrom());
+        SearchResponse<Void> response = openSearchClient.search(s -> s
+            .index(TracehubConstants.INDEX_ALIAS)
+            .routing(searchRouting)
+            .ignoreUnavailable(true)
+            .query(filter)
+            .size(0)
+            .aggregations(field, a -> a.terms(t -> t.field(field).size(size))),
+            Void.class);
+        
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (StringTermsBucket bucket : response.aggregations().get(field).sterms().buckets().array()) {
+            counts.put(bucket.key(), bucket.docCount());
+        }
+        return counts;
+    }
+    
+    /**
+     * Build the bool filter for a query.
+     * A tokenized actorIp is indexed in its own keyword field, so the field is chosen
+     * the same way as when indexing. Metadata filters on keys the tenant promoted use the
+     * typed field; others query the flattened {@code metadata} field.
+     *
+     * @param query the query
+     * @param promotedFields the promoted metadata keys
+     * @return the OpenSearch query
+     */
+    static Query buildQuery(LogQuery query, PromotedFields promotedFields) {
+        List<Query> filters = new ArrayList<>();
+        addTerm(filters, "tenantId", query.getTenantId());
+        addTerm(filters, "action", query.getAction());
+        addTerm(filters, "status", query.getStatus());
+        addTerm(filters, "userId", query.getUserId());
+        addTerm(filters, FieldTokenizer.isToken(query.getActorIp()) ? TracehubConstants.ACTOR_IP_TOKEN_FIELD : "actorIp",
+            query.getActorIp());
+        if (query.getFrom() != null || query.getTo() != null) {
+            filters.add(Query.of(q -> q.range(r -> {
+                r.field("@timestamp");
+                if (query.getFrom() != null) {
+                    r.gte(JsonData.of(query.getFrom().toString()));
+                }
+                if (query.getTo() != null) {
+                    r.lte(JsonData.of(query.getTo().toString()));
+                }
+                return r;
+            })));
+        }
+        if (query.getText() != null && !query.getText().isBlank()) {
+            filters.add(Query.of(q -> q.match(m -> m
+                .field("message")
+                .query(FieldValue.of(query.getText()))
+                .operator(Operator.And)
+            )));
+        }
+        for (MetadataFilter filter : query.getMetadataFilters()) {
+            filters.add(metadataQuery(filter, promotedFields.typeOf(query.getTenantId(), filter.getKey())));
+        }
+        return Query.of(q -> q.bool(b -> b.filter(filters)));
+    }
+    
+    /**
+     * Query of one metadata filter
+     *
+     * @param filter the filter
+     * @param type the type the key is promoted to, or null if it is not
+     * @return the OpenSearch query
+     */
+    private static Query metadataQuery(MetadataFilter filter, PromotedFields.Type type) {
+        String field = type != null ? PromotedFields.fieldName(type, filter.getKey()) : "metadata." + filter.getKey();
+        Object value = bound(type, filter.getValue());
+        Object gte = bound(type, filter.getGte());
+        Object lte = bound(type, filter.getLte());
+        if ((filter.getValue() != null && value == null) || (filter.getGte() != null && gte == null)
+                || (filter.getLte() != null && lte == null)) {
+            // A bound that is not a valid value of the promoted type matches nothing
+            return Query.of(q -> q.matchNone(n -> n));
+        }
+        
+        List<Query> clauses = new ArrayList<>(2);
+        if (value != null) {
+            clauses.add(Query.of(q -> q.term(t -> t.field(field).value(fieldValue(value)))));
+        }
+        if (gte != null || lte != null) {
+            clauses.add(Query.of(q -> q.range(r -> {
+                r.field(field);
+                if (gte != null) {
+                    r.gte(JsonData.of(gte));
+                }
+                if (lte != null) {
+                    r.lte(JsonData.of(lte));
+                }
+                return r;
+            })));
+        }
+        return clauses.size() == 1 ? clauses.get(0) : Query.of(q -> q.bool(b -> b.filter(clauses)));
+    }
+    
+    private static Object bound(PromotedFields.Type type, String bound) {
+        if (bound == null) {
+            return null;
+        }
+        return type != null ? PromotedFields.convert(type, bound) : bound;
+    }
+    
+    private static FieldValue fieldValue(Object value) {
+        if (value instanceof Long number) {
+            return FieldValue.of(number);
+        }
+        if (value instanceof Double number) {
+            return FieldValue.of(number);
+        }
+        if (value instanceof Boolean flag) {
+            return FieldValue.of(flag);
+        }
+        return FieldValue.of(value.toString());
+    }
+    
+    private static void addTerm(List<Query> filters, String field, String value) {
+        if (value != null && !value.isEmpty()) {
+            filters.add(Query.of(q -> q.term(t -> t.field(field).value(FieldValue.of(value)))));
+        }
+    }
+    
+    /**
+     * Ensure index exists with proper mapping
+     *
+     * @param indexName the index name
+     */
+    private void ensureIndexExists(String indexName) throws IOException {
+        if (knownIndices.contains(indexName)) {
+            return;
+        }
+        
+        boolean exists = openSearchClient.indices().exists(ExistsRequest.of(e -> e.index(indexName))).value();
+        
+        if (!exists) {
+            logger.info("Creating index: {}", indexName);
+            createIndex(indexName);
+        }
+        knownIndices.add(indexName);
+    }
+    
+    /**
+     * Forget that an index exists, after it was deleted, so the next write to its
+     * partition creates it again with the mapping
+     *
+     * @param indexName the index name
+     */
+    public void forgetIndex(String indexName) {
+        knownIndices.remove(indexName);
+    }
+    
+    /**
+     * Install the index template for {@code logs-tracehub-*}, once per store.
+     * A bulk request to a missing index creates it on the fly; with the template, such an
+     * index (e.g. for late events of a day another instance just archived and deleted)
+     * still gets the mapping instead of a dynamic one.
+     */
+    private void ensureTemplateInstalled() throws IOException {
+        if (templateInstalled) {
+            return;
+        }
+        openSearchClient.indices().putIndexTemplate(t -> t
+            .name(TracehubConstants.INDEX_PREFIX)
+            .indexPatterns(TracehubConstants.INDEX_ALIAS)
+            .template(tm -> tm.settings(indexSettings()).mappings(indexMapping()))
+        );
+        templateInstalled = true;
+    }
+    
+    /**
+     * Create index with proper mapping
+     *
+     * @param indexName the index name
+     */
+    private void createIndex(String indexName) throws IOException {
+        CreateIndexRequest request = CreateIndexRequest.of(i -> i
+            .index(indexName)
+            .settings(indexSettings())
+            .mappings(indexMapping())
+        );
+        
+        openSearchClient.indices().create(request);
+        logger.info("Successfully created index: {}", indexName);
+    }
+    
+    private static IndexSettings indexSettings() {
+        return IndexSettings.of(s -> s
+            .numberOfShards(String.valueOf(TracehubConstants.DEFAULT_SHARDS))
+            .numberOfReplicas(String.valueOf(TracehubConstants.DEFAULT_REPLICAS))
+        );
+    }
+    
+    /**
+     * Mapping of a daily index.
+     * With tenant routing, routing is required so a document indexed without it fails
+     * instead of landing on a shard that tenant searches skip. Promoted metadata is mapped
+     * by dynamic templates and kept out of {@code _source}.
+     */
+    private TypeMapping indexMapping() {
+        return TypeMapping.of(m -> m
+            .routing(r -> r.required(routing.isEnabled()))
+            .dynamicTemplates(PromotedFields.dynamicTemplates())
+            .source(s -> s.excludes(PromotedFields.FIELD))
+            .properties("@timestamp", p -> p.date(d -> d))
+            .properties("tenantId", p -> p.keyword(k -> k))
+            .properties("userId", p -> p.keyword(k -> k))
+            .properties("action", p -> p.keyword(k -> k))
+            .properties("status", p -> p.keyword(k -> k))
+            .properties("actorIp", p -> p.ip(ip -> ip))
+            .properties(TracehubConstants.ACTOR_IP_TOKEN_FIELD, p -> p.keyword(k -> k))
+            .properties("message", p -> p.text(t -> t))
+            .properties("metadata", p -> p.flattened(f -> f))
+        );
+    }
+    
+    /**
+     * Document of an event, with the metadata values its tenant promotes
+     *
+     * @param event the log event
+     * @return the document source
+     */
+    Map<String, Object> toDocument(LogEvent event) {
+        Map<String, Object> document = convertToMap(event);
+        Map<String, Object> promoted = promotedFields.extract(event.getTenantId(), event.getMetadata());
+        if (promoted == null) {
+            return document;
+        }
+        Map<String, Object> withPromoted = new HashMap<>(document);
+        withPromoted.put(PromotedFields.FIELD, promoted);
+        return withPromoted;
+    }
+    
+    /**
+     * Convert LogEvent to Map for OpenSearch indexing.
+     * A tokenized actorIp is not a valid ip value, so it goes to its own keyword field.
+     *
+     * @param event the log event
+     * @return map representation
+     */
+    public static Map<String, Object> convertToMap(LogEvent event) {
+        String actorIpField = FieldTokenizer.isToken(event.getActorIp())
+            ? TracehubConstants.ACTOR_IP_TOKEN_FIELD : "actorIp";
+        return Map.of(
+            "@timestamp", event.getTimestamp().toString(),
+            "tenantId", event.getTenantId(),
+            "userId", event.getUserId(),
+            "action", event.getAction(),
+            "status", event.getStatus(),
+            actorIpField, event.getActorIp(),
+            "message", event.getMessage(),
+            "metadata", event.getMetadata() != null ? event.getMetadata() : Map.of()
+        );
+    }
+    
+    /**
+     * Convert an indexed document back to a LogEvent, the inverse of {@link #convertToMap}
+     *
+     * @param source the document source
+     * @return the log event
+     */
+    @SuppressWarnings("unchecked")
+    public static LogEvent convertFromMap(Map<String, Object> source) {
+        Object actorIp = source.containsKey("actorIp") ? source.get("actorIp") : source.get(TracehubConstants.ACTOR_IP_TOKEN_FIELD);
+        LogEvent event = new LogEvent(
+            Instant.parse((String) source.get("@timestamp")),
+            (String) source.get("tenantId"),
+            (String) source.get("userId"),
+            (String) source.get("action"),
+            (String) source.get("status"),
+            (String) actorIp,
+            (String) source.get("message")
+        );
+        Object metadata = source.get("metadata");
+        if (metadata instanceof Map && !((Map<?, ?>) metadata).isEmpty()) {
+            event.setMetadata((Map<String, Object>) metadata);
+        }
+        return event;
+    }
+}
@@ -0,0 +1,165 @@
+package com.haiphamcoder.tracehub.opensearch;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.HttpHost;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.RestClientBuilder;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.transport.rest_client.RestClientTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * OpenSearch client over a pooled, keep-alive HTTP transport.
+ * <ul>
+ *   <li>Connections are pooled with a total and a per-node limit. Requests are spread
+ *       round-robin over the nodes, and failed nodes are retried after a back-off.</li>
+ *   <li>Idle connections are reused for the keep-alive time, and expired ones are
+ *       evicted in the background.</li>
+ *   <li>Request bodies (bulk requests in particular) are gzipped, and gzip responses are
+ *       accepted.</li>
+ *   <li>With a sniff interval, the node list is refreshed from the cluster.</li>
+ * </ul>
+ * Pool usage is exported as {@code tracehub.opensearch.pool.*} gauges tagged with the
+ * client name. {@code pending} above zero means requests are waiting for a connection.
+ */
+public final class PooledOpenSearchTransport implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PooledOpenSearchTransport.class);
+    private static final Duration EVICTION_INTERVAL = Duration.ofSeconds(30);
+    
+    private final RestClient restClient;
+    private final OpenSearchClient client;
+    private final PoolingNHttpClientConnectionManager connectionManager;
+    private final ScheduledExecutorService maintenance;
+    
+    /**
+     * Create the transport; no connection is opened until the first request
+     *
+     * @param name client name for metrics and thread names, e.g. the service name
+     * @param settings connection settings
+     * @param meterRegistry registry for pool gauges
+     * @throws IOReactorException if the I/O reactor cannot be started
+     */
+    public PooledOpenSearchTransport(String name, OpenSearchClientSettings settings, MeterRegistry meterRegistry)
+            throws IOReactorException {
+        if (settings.getHosts().isEmpty()) {
+            throw new IllegalArgumentException("At least one OpenSearch host is required");
+        }
+        HttpHost[] hosts = settings.getHosts().stream().map(String::trim).map(HttpHost::create).toArray(HttpHost[]::new);
+        
+        // A custom connection manager replaces the builder's pool and TLS settings, so both are set here
+        this.connectionManager = new PoolingNHttpClientConnectionManager(
+            new DefaultConnectingIOReactor(IOReactorConfig.custom()
+                .setConnectTimeout((int) settings.getConnectTimeout().toMillis())
+                .setSoTimeout((int) settings.getSocketTimeout().toMillis())
+                .setSoKeepAlive(true)
+                .build()),
+            RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", SSLIOSessionStrategy.getSystemDefaultStrategy())
+                .build());
+        connectionManager.setMaxTotal(settings.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(settings.getMaxConnectionsPerRoute());
+        
+        long keepAliveMillis = settings.getKeepAlive().toMillis();
+        RestClientBuilder builder = RestClient.builder(hosts)
+            .setCompressionEnabled(settings.isCompression())
+            .setRequestConfigCallback(request -> request
+                .setConnectTimeout((int) settings.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) settings.getSocketTimeout().toMillis())
+                .setConnectionRequestTimeout((int) settings.getConnectionRequestTimeout().toMillis()))
+            .setHttpClientConfigCallback(http -> {
+                http.setConnectionManager(connectionManager)
+                    .setKeepAliveStrategy((response, context) -> {
+                        long server = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                        return server > 0 ? Math.min(server, keepAliveMillis) : keepAliveMillis;
+                    });
+                if (settings.getUsername() != null && !settings.getUsername().isEmpty()) {
+                    BasicCredentialsProvider credentials = new BasicCredentialsProvider();
+                    credentials.setCredentials(AuthScope.ANY,
+                        new UsernamePasswordCredentials(settings.getUsername(), settings.getPassword()));
+                    http.setDefaultCredentialsProvider(credentials);
+                }
+                return http;
+            });
+        this.restClient = builder.build();
+        this.client = new OpenSearchClient(new RestClientTransport(restClient, new JacksonJsonpMapper()));
+        
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "opensearch-" + name + "-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS);
+        }, EVICTION_INTERVAL.toMillis(), EVICTION_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        if (!settings.getSniffInterval().isZero()) {
+            long sniffMillis = settings.getSniffInterval().toMillis();
+            maintenance.scheduleWithFixedDelay(new NodeSniffer(restClient, hosts[0].getSchemeName()),
+                0, sniffMillis, TimeUnit.MILLISECONDS);
+        }
+        
+        registerPoolGauge(meterRegistry, name, "leased", "Connections in use", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, name, "pending", "Requests waiting for a connection", PoolStats::getPending);
+        registerPoolGauge(meterRegistry, name, "available", "Idle connections ready for reuse", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, name, "max", "Connection limit across nodes", PoolStats::getMax);
+        Gauge.builder("tracehub.opensearch.nodes", restClient, c -> c.getNodes().size())
+            .tag("client", name)
+            .description("OpenSearch nodes requests are spread over")
+            .register(meterRegistry);
+        
+        logger.info("OpenSearch client '{}' created: hosts={}, maxConnections={}, maxConnectionsPerRoute={}, compression={}, sniffInterval={}",
+            name, settings.getHosts(), settings.getMaxConnections(), settings.getMaxConnectionsPerRoute(),
+            settings.isCompression(), settings.getSniffInterval());
+    }
+    
+    private void registerPoolGauge(MeterRegistry meterRegistry, String name, String stat, String description,
+                                   ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("tracehub.opensearch.pool." + stat, connectionManager, m -> value.applyAsDouble(m.getTotalStats()))
+            .tag("client", name)
+            .description(description)
+            .register(meterRegistry);
+    }
+    
+    public OpenSearchClient getClient() {
+        return client;
+    }
+    
+    /**
+     * The low-level client, for requests the typed client does not cover
+     */
+    public RestClient getRestClient() {
+        return restClient;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        maintenance.shutdownNow();
+        restClient.close();
+    }
+}
@@ -0,0 +1,222 @@
+package com.haiphamcoder.tracehub.opensearch;
+
+import com.haiphamcoder.tracehub.common.codec.Iso8601;
+import com.haiphamcoder.tracehub.common.dto.MetadataFilter;
+import org.opensearch.client.opensearch._types.mapping.DynamicTemplate;
+
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Metadata keys promoted, per tenant, to typed top-level fields.
+ * <ul>
+ *   <li>{@code metadata} stays a {@code flattened} field, where every value is a keyword.
+ *       A promoted key is also indexed as {@code promoted.<type>.<key>}, which supports
+ *       typed range queries and aggregations.</li>
+ *   <li>The promoted fields are mapped by dynamic templates on the type segment of the path,
+ *       so tenants can promote keys without changing the index mapping, and two tenants can
+ *       promote the same key as different types.</li>
+ *   <li>Promoted values are excluded from {@code _source}: the event is read back from
+ *       {@code metadata}, and only the index and doc values are added.</li>
+ *   <li>A value that cannot be converted to the type is left out of the promoted field;
+ *       the event is still indexed and found through {@code metadata}.</li>
+ * </ul>
+ * <pre>
+ * tracehub.store.opensearch.promoted-fields.acme=country:keyword,amount:double,attempts:long
+ * </pre>
+ */
+public final class PromotedFields {
+    
+    /**
+     * Top-level object holding promoted values
+     */
+    public static final String FIELD = "promoted";
+    
+    private static final PromotedFields NONE = new PromotedFields(Map.of());
+    
+    /**
+     * Types a metadata key can be promoted to
+     */
+    public enum Type {
+        KEYWORD, LONG, DOUBLE, DATE, BOOLEAN;
+        
+        String pathSegment() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+    
+    private final Map<String, Map<String, Type>> tenantFields;
+    
+    /**
+     * @param tenantFields promoted keys and their types, per tenant
+     */
+    public PromotedFields(Map<String, Map<String, Type>> tenantFields) {
+        Map<String, Map<String, Type>> copy = new HashMap<>();
+        tenantFields.forEach((tenantId, fields) -> copy.put(tenantId, Map.copyOf(fields)));
+        this.tenantFields = Map.copyOf(copy);
+    }
+    
+    /**
+     * No promoted keys
+     */
+    public static PromotedFields none() {
+        return NONE;
+    }
+    
+    /**
+     * Parse per-tenant settings of the form {@code key:type,key:type}
+     *
+     * @param config settings per tenant
+     * @return the promoted fields
+     * @throws IllegalArgumentException if a setting is malformed or names an unknown type
+     */
+    public static PromotedFields parse(Map<String, String> config) {
+        Map<String, Map<String, Type>> tenantFields = new HashMap<>();
+        config.forEach((tenantId, spec) -> {
+            Map<String, Type> fields = new LinkedHashMap<>();
+            for (String entry : spec.split(",")) {
+                if (entry.isBlank()) {
+                    continue;
+                }
+                int colon = entry.lastIndexOf(':');
+                if (colon <= 0) {
+                    throw new IllegalArgumentException("Promoted field of tenant " + tenantId
+                        + " must be key:type, got " + entry.trim());
+                }
+                String type = entry.substring(colon + 1).trim().toUpperCase(Locale.ROOT);
+                try {
+                    fields.put(entry.substring(0, colon).trim(), Type.valueOf(type));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown promoted field type " + type + " for tenant " + tenantId);
+                }
+            }
+            if (!fields.isEmpty()) {
+                tenantFields.put(tenantId, fields);
+            }
+        });
+        return new PromotedFields(tenantFields);
+    }
+    
+    /**
+     * Type a tenant promoted a metadata key to
+     *
+     * @param tenantId the tenant
+     * @param key the metadata key
+     * @return the type, or null if the key is not promoted
+     */
+    public Type typeOf(String tenantId, String key) {
+        Map<String, Type> fields = tenantId != null ? tenantFields.get(tenantId) : null;
+        return fields != null ? fields.get(key) : null;
+    }
+    
+    /**
+     * Field holding a promoted key
+     *
+     * @param type the promoted type
+     * @param key the metadata key
+     * @return the field path
+     */
+    public static String fieldName(Type type, String key) {
+        return FIELD + "." + type.pathSegment() + "." + key;
+    }
+    
+    /**
+     * Promoted values of an event, to index under {@link #FIELD}
+     *
+     * @param tenantId the event's tenant
+     * @param metadata the event's metadata, or null
+     * @return values by type segment and key, or null if the event has none
+     */
+    public Map<String, Object> extract(String tenantId, Map<String, Object> metadata) {
+        Map<String, Type> fields = tenantId != null ? tenantFields.get(tenantId) : null;
+        if (fields == null || metadata == null || metadata.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> promoted = null;
+        for (Map.Entry<String, Type> field : fields.entrySet()) {
+            Object value = convert(field.getValue(), MetadataFilter.valueOf(metadata, field.getKey()));
+            if (value == null) {
+                continue;
+            }
+            if (promoted == null) {
+                promoted = new HashMap<>();
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> byKey = (Map<String, Object>) promoted.computeIfAbsent(
+                field.getValue().pathSegment(), segment -> new HashMap<String, Object>());
+            byKey.put(field.getKey(), value);
+        }
+        return promoted;
+    }
+    
+    /**
+     * Convert a metadata value, or a filter bound, to a promoted type
+     *
+     * @param type the type
+     * @param value the value
+     * @return the value to index, or null if it does not convert
+     */
+    public static Object convert(Type type, Object value) {
+        if (value == null || value instanceof Map || value instanceof List) {
+            return null;
+        }
+        try {
+            switch (type) {
+                case KEYWORD:
+                    return value.toString();
+                case LONG:
+                    if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+                        return ((Number) value).longValue();
+                    }
+                    return value instanceof String text ? Long.parseLong(text.trim()) : null;
+                case DOUBLE:
+                    double number = value instanceof Number n ? n.doubleValue()
+                        : value instanceof String text ? Double.parseDouble(text.trim()) : Double.NaN;
+                    return Double.isFinite(number) ? number : null;
+                case DATE:
+                    return value instanceof String text ? Iso8601.parse(text.trim()).toString() : null;
+                case BOOLEAN:
+                    if (value instanceof Boolean) {
+                        return value;
+                    }
+                    return "true".equals(value) ? Boolean.TRUE : "false".equals(value) ? Boolean.FALSE : null;
+                default:
+                    return null;
+            }
+        } catch (NumberFormatException | DateTimeException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Dynamic templates mapping {@code promoted.<type>.*} to the type
+     */
+    static List<Map<String, DynamicTemplate>> dynamicTemplates() {
+        List<Map<String, DynamicTemplate>> templates = new ArrayList<>();
+        templates.add(template(Type.KEYWORD, DynamicTemplate.of(t -> t
+            .pathMatch(FIELD + ".keyword.*")
+            .mapping(p -> p.keyword(k -> k.ignoreAbove(1024))))));
+        templates.add(template(Type.LONG, DynamicTemplate.of(t -> t
+            .pathMatch(FIELD + ".long.*")
+            .mapping(p -> p.long_(l -> l.ignoreMalformed(true))))));
+        templates.add(template(Type.DOUBLE, DynamicTemplate.of(t -> t
+            .pathMatch(FIELD + ".double.*")
+            .mapping(p -> p.double_(d -> d.ignoreMalformed(true))))));
+        templates.add(template(Type.DATE, DynamicTemplate.of(t -> t
+            .pathMatch(FIELD + ".date.*")
+            .mapping(p -> p.date(d -> d.ignoreMalformed(true))))));
+        templates.add(template(Type.BOOLEAN, DynamicTemplate.of(t -> t
+            .pathMatch(FIELD + ".boolean.*")
+            .mapping(p -> p.boolean_(b -> b)))));
+        return templates;
+    }
+    
+    private static Map<String, DynamicTemplate> template(Type type, DynamicTemplate template) {
+        return Map.of("promoted_" + type.pathSegment(), template);
+    }
+}
@@ -0,0 +1,109 @@
+package com.haiphamcoder.tracehub.opensearch;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Shard routing of log documents by tenant.
+ * <ul>
+ *   <li>A tenant's documents are routed by its tenant ID, so they all land on one shard of
+ *       each daily index and a single-tenant search only queries that shard.</li>
+ *   <li>A large tenant is salted over a few routing values instead ({@code tenantId#0},
+ *       {@code tenantId#1}, ...), so it does not overload one shard; its searches query
+ *       those shards only. The salt is derived from the document ID, so a redelivered
+ *       event lands on the same shard and still conflicts with its earlier copy. The number
+ *       of routing values cannot change for indices already written: searches would skip
+ *       shards holding the tenant, and redelivered events would be indexed twice. Change it
+ *       only for tenants without documents in routed indices, or reindex.</li>
+ *   <li>Indices created before routing was enabled hold documents routed by ID. Searches
+ *       that may reach them (starting before {@code since}) query all shards.</li>
+ * </ul>
+ */
+public final class TenantRouting {
+    
+    private static final char SALT_SEPARATOR = '#';
+    private static final TenantRouting DISABLED = new TenantRouting(false, Map.of(), null);
+    
+    private final boolean enabled;
+    private final Map<String, Integer> tenantPartitions;
+    private final Instant since;
+    
+    /**
+     * @param enabled whether documents are routed by tenant
+     * @param tenantPartitions routing values per large tenant; other tenants use one
+     * @param since first day whose index is routed, required if enabled
+     * @throws IllegalArgumentException if routing is enabled without {@code since}, or a
+     *         tenant has fewer than one routing value
+     */
+    public TenantRouting(boolean enabled, Map<String, Integer> tenantPartitions, LocalDate since) {
+        if (enabled && since == null) {
+            throw new IllegalArgumentException(
+                "Tenant routing requires tracehub.store.opensearch.routing.since, the first day whose index is routed");
+        }
+        tenantPartitions.forEach((tenantId, partitions) -> {
+            if (partitions < 1) {
+                throw new IllegalArgumentException("Routing partitions of tenant " + tenantId + " must be at least 1");
+            }
+        });
+        this.enabled = enabled;
+        this.tenantPartitions = Map.copyOf(tenantPartitions);
+        this.since = since != null ? since.atStartOfDay(ZoneOffset.UTC).toInstant() : null;
+    }
+    
+    /**
+     * Routing that leaves shard selection to OpenSearch
+     */
+    public static TenantRouting disabled() {
+        return DISABLED;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Routing value of a document
+     *
+     * @param tenantId the document's tenant
+     * @param documentId the document ID
+     * @return the routing value, or null to route by ID
+     */
+    public String indexRouting(String tenantId, String documentId) {
+        if (!enabled || tenantId == null) {
+            return null;
+        }
+        int partitions = tenantPartitions.getOrDefault(tenantId, 1);
+        if (partitions == 1) {
+            return tenantId;
+        }
+        return tenantId + SALT_SEPARATOR + Math.floorMod(documentId.hashCode(), partitions);
+    }
+    
+    /**
+     * Routing of a search, covering every routing value of the tenant
+     *
+     * @param tenantId the searched tenant, or null across tenants
+     * @param from start of the searched range, or null if unbounded
+     * @return comma-separated routing values, or null to search all shards
+     */
+    public String searchRouting(String tenantId, Instant from) {
+        if (!enabled || tenantId == null || tenantId.isEmpty()) {
+            return null;
+        }
+        if (from == null || from.isBefore(since)) {
+            return null;
+        }
+        int partitions = tenantPartitions.getOrDefault(tenantId, 1);
+        if (partitions == 1) {
+            return tenantId;
+        }
+        StringJoiner routing = new StringJoiner(",");
+        for (int salt = 0; salt < partitions; salt++) {
+            routing.add(tenantId + SALT_SEPARATOR + salt);
+        }
+        return routing.toString();
+    }
+}
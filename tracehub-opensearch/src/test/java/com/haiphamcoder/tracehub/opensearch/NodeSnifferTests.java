@@ -0,0 +1,31 @@
+package com.haiphamcoder.tracehub.opensearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.apache.http.HttpHost;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.Node;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+class NodeSnifferTests {
+
+	@Test
+	void keepsHttpNodesThatAreNotDedicatedClusterManagers() throws Exception {
+		String body = """
+				{"nodes": {
+				  "a": {"roles": ["data", "ingest"], "http": {"publish_address": "10.0.0.1:9200"}},
+				  "b": {"roles": ["cluster_manager", "data"], "http": {"publish_address": "os-2.internal/10.0.0.2:9201"}},
+				  "c": {"roles": ["cluster_manager"], "http": {"publish_address": "10.0.0.3:9200"}},
+				  "d": {"roles": ["data"]},
+				  "e": {"roles": ["data"], "http": {"publish_address": "[::1]:9200"}}
+				}}""";
+
+		List<Node> nodes = NodeSniffer.parseNodes(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), "https");
+
+		assertEquals(List.of(new HttpHost("10.0.0.1", 9200, "https"), new HttpHost("os-2.internal", 9201, "https"),
+				new HttpHost("::1", 9200, "https")), nodes.stream().map(Node::getHost).toList());
+	}
+}
@@ -0,0 +1,24 @@
+package com.haiphamcoder.tracehub.opensearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.opensearch._types.ErrorCause;
+
+class OpenSearchLogStoreTests {
+
+	@Test
+	void countsWritesToWriteBlockedIndicesApartFromOtherBlocks() {
+		assertEquals(OpenSearchLogStore.WRITE_BLOCKED, OpenSearchLogStore.failureType(error("cluster_block_exception",
+				"index [logs-tracehub-2026.01.01] blocked by: [FORBIDDEN/8/index write (api)];")));
+		assertEquals("cluster_block_exception", OpenSearchLogStore.failureType(error("cluster_block_exception",
+				"index [logs-tracehub-2026.01.01] blocked by: [TOO_MANY_REQUESTS/12/disk usage exceeded flood-stage watermark, index has read-only-allow-delete block];")));
+		assertEquals("mapper_parsing_exception", OpenSearchLogStore.failureType(error("mapper_parsing_exception",
+				"failed to parse field [@timestamp]")));
+	}
+
+	private static ErrorCause error(String type, String reason) {
+		return ErrorCause.of(e -> e.type(type).reason(reason));
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.haiphamcoder.tracehub.opensearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.dto.MetadataFilter;
+import com.haiphamcoder.tracehub.common.store.LogQuery;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+class PromotedFieldsTests {
+
+	private final PromotedFields promoted = PromotedFields.parse(Map.of(
+			"acme", "country:keyword, amount:double, attempts:long, paidAt:date, geo.city:keyword"));
+
+	@Test
+	void promotesConvertibleValuesOfConfiguredKeys() {
+		Map<String, Object> values = promoted.extract("acme", Map.of(
+				"country", "VN",
+				"amount", "12.5",
+				"attempts", "not a number",
+				"paidAt", "2025-01-24T17:00:00+07:00",
+				"geo", Map.of("city", "Hanoi"),
+				"plan", "pro"));
+
+		assertEquals(Map.of(
+				"keyword", Map.of("country", "VN", "geo.city", "Hanoi"),
+				"double", Map.of("amount", 12.5),
+				"date", Map.of("paidAt", "2025-01-24T10:00:00Z")), values);
+		assertNull(promoted.extract("other", Map.of("country", "VN")));
+		assertNull(promoted.extract("acme", Map.of("plan", "pro")));
+	}
+
+	@Test
+	void addsPromotedValuesToDocument() {
+		OpenSearchLogStore store = new OpenSearchLogStore(null, TenantRouting.disabled(), promoted);
+		LogEvent event = new LogEvent(Instant.parse("2025-01-24T10:00:00Z"), "acme", "u1", "PAY", "SUCCESS",
+				"10.0.0.1", "paid");
+		event.setMetadata(Map.of("attempts", 3));
+
+		Map<String, Object> document = store.toDocument(event);
+		assertEquals(Map.of("long", Map.of("attempts", 3L)), document.get(PromotedFields.FIELD));
+		assertEquals(Map.of("attempts", 3), document.get("metadata"));
+	}
+
+	@Test
+	void routesMetadataFiltersToPromotedFields() {
+		LogQuery query = new LogQuery();
+		query.setTenantId("acme");
+		query.setMetadataFilters(List.of(
+				new MetadataFilter("amount", null, "100", null),
+				new MetadataFilter("plan", "pro", null, null),
+				new MetadataFilter("attempts", "many", null, null)));
+
+		List<Query> filters = OpenSearchLogStore.buildQuery(query, promoted).bool().filter();
+		Query amount = filters.get(1);
+		assertTrue(amount.isRange());
+		assertEquals("promoted.double.amount", amount.range().field());
+		assertEquals(100.0, amount.range().gte().to(Double.class));
+		assertEquals("metadata.plan", filters.get(2).term().field());
+		// Not a long, so it cannot match the promoted field
+		assertTrue(filters.get(3).isMatchNone());
+	}
+
+	@Test
+	void rejectsUnknownTypes() {
+		assertThrows(IllegalArgumentException.class, () -> PromotedFields.parse(Map.of("acme", "country:text")));
+		assertThrows(IllegalArgumentException.class, () -> PromotedFields.parse(Map.of("acme", "country")));
+		assertNull(PromotedFields.parse(Map.of("acme", " ")).typeOf("acme", "country"));
+	}
+}
@@ -0,0 +1,54 @@
+package com.haiphamcoder.tracehub.opensearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class TenantRoutingTests {
+
+	private final TenantRouting routing = new TenantRouting(true, Map.of("big", 3), LocalDate.parse("2025-02-01"));
+
+	@Test
+	void routesSmallTenantsByTenantId() {
+		assertEquals("t1", routing.indexRouting("t1", "doc-1"));
+		assertEquals("t1", routing.searchRouting("t1", Instant.parse("2025-02-03T00:00:00Z")));
+	}
+
+	@Test
+	void saltsLargeTenantsByDocumentId() {
+		Set<String> used = IntStream.range(0, 100)
+				.mapToObj(i -> routing.indexRouting("big", "doc-" + i))
+				.collect(Collectors.toSet());
+		assertEquals(Set.of("big#0", "big#1", "big#2"), used);
+		// A redelivered document is routed to the same shard
+		assertEquals(routing.indexRouting("big", "doc-7"), routing.indexRouting("big", "doc-7"));
+
+		List<String> searched = List.of(routing.searchRouting("big", Instant.parse("2025-02-03T00:00:00Z")).split(","));
+		assertTrue(searched.containsAll(used));
+	}
+
+	@Test
+	void searchesAllShardsWhenRangeReachesUnroutedIndices() {
+		assertNull(routing.searchRouting("t1", Instant.parse("2025-01-31T23:59:59Z")));
+		assertNull(routing.searchRouting("t1", null));
+		assertNull(routing.searchRouting(null, Instant.parse("2025-02-03T00:00:00Z")));
+		assertNull(TenantRouting.disabled().indexRouting("t1", "doc-1"));
+	}
+
+	@Test
+	void requiresTheFirstRoutedDayWhenEnabled() {
+		assertThrows(IllegalArgumentException.class, () -> new TenantRouting(true, Map.of(), null));
+		assertNull(new TenantRouting(false, Map.of(), null).searchRouting("t1", null));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.haiphamcoder.tracehub.processor.config;
+
+import com.haiphamcoder.tracehub.common.archive.ArchiveStorage;
+import com.haiphamcoder.tracehub.common.archive.LocalArchiveStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Configuration for the archive tier that index lifecycle exports to, active with
+ * {@code tracehub.lifecycle.enabled=true}. {@code tracehub.archive.path} is then required:
+ * segments are the only copy of archived indices, so they must live on durable storage shared
+ * with the query service, never a temp directory.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracehub.lifecycle.enabled", havingValue = "true")
+public class ArchiveConfig {
+    
+    @Value("${tracehub.archive.path}")
+    private String path;
+    
+    @Bean
+    public ArchiveStorage archiveStorage() throws IOException {
+        return new LocalArchiveStorage(Path.of(path));
+    }
+}
@@ -0,0 +1,33 @@
+package com.haiphamcoder.tracehub.processor.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Group membership of the processor's consumers.
+ * With {@code tracehub.processor.instance-id} set, consumers join as static members
+ * ({@code group.instance.id}), so a restarted instance takes back its partitions within
+ * {@code session.timeout.ms} without a rebalance. The ID must be stable across restarts and
+ * unique in the group, e.g. a StatefulSet pod name; with listener concurrency above one, each
+ * consumer gets a {@code -n} suffix. Without it, consumers are dynamic members.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+    
+    @Value("${tracehub.processor.instance-id:}")
+    private String instanceId;
+    
+    @Bean
+    public DefaultKafkaConsumerFactoryCustomizer staticMembershipCustomizer() {
+        return consumerFactory -> {
+            if (!instanceId.isBlank()) {
+                consumerFactory.updateConfigs(Map.of(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, instanceId));
+            }
+        };
+    }
+}
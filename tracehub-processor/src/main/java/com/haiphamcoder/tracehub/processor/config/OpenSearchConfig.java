@@ -1,31 +1,38 @@
 package com.haiphamcoder.tracehub.processor.config;
 
-import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import com.haiphamcoder.tracehub.common.store.LogStore;
+import com.haiphamcoder.tracehub.opensearch.OpenSearchClientSettings;
+import com.haiphamcoder.tracehub.opensearch.OpenSearchLogStore;
+import com.haiphamcoder.tracehub.opensearch.PooledOpenSearchTransport;
+import com.haiphamcoder.tracehub.opensearch.PromotedFields;
+import com.haiphamcoder.tracehub.opensearch.TenantRouting;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.opensearch.client.opensearch.OpenSearchClient;
-import org.opensearch.client.transport.OpenSearchTransport;
-import org.opensearch.client.transport.rest_client.RestClientTransport;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Configuration for OpenSearch client
+ * Configuration for OpenSearch client and the OpenSearch log store, the default store.
+ * The processor mostly sends large bulk requests from its consumer threads, so its pool
+ * is sized by consumer concurrency rather than by request rate.
  */
 @Configuration
+@ConditionalOnProperty(name = "tracehub.store.type", havingValue = "opensearch", matchIfMissing = true)
 public class OpenSearchConfig {
     
-    private static final Logger logger = LoggerFactory.getLogger(OpenSearchConfig.class);
-    
-    @Value("${opensearch.host:localhost}")
-    private String host;
-    
-    @Value("${opensearch.port:9200}")
-    private int port;
-    
-    @Value("${opensearch.scheme:http}")
-    private String scheme;
+    @Value("${opensearch.hosts:${opensearch.scheme:http}://${opensearch.host:localhost}:${opensearch.port:9200}}")
+    private List<String> hosts;
     
     @Value("${opensearch.username:admin}")
     private String username;
@@ -33,12 +40,75 @@ public class OpenSearchConfig {
     @Value("${opensearch.password:admin}")
     private String password;
     
+    @Value("${opensearch.pool.max-connections:30}")
+    private int maxConnections;
+    
+    @Value("${opensearch.pool.max-connections-per-route:10}")
+    private int maxConnectionsPerRoute;
+    
+    @Value("${opensearch.connect-timeout:1s}")
+    private Duration connectTimeout;
+    
+    @Value("${opensearch.socket-timeout:60s}")
+    private Duration socketTimeout;
+    
+    @Value("${opensearch.pool.keep-alive:1m}")
+    private Duration keepAlive;
+    
+    @Value("${opensearch.compression:true}")
+    private boolean compression;
+    
+    @Value("${opensearch.sniff-interval:0s}")
+    private Duration sniffInterval;
+    
+    @Value("${tracehub.store.opensearch.routing.enabled:false}")
+    private boolean routingEnabled;
+    
+    @Value("${tracehub.store.opensearch.routing.since:}")
+    private String routingSince;
+    
+    @Bean(destroyMethod = "close")
+    public PooledOpenSearchTransport openSearchTransport(MeterRegistry meterRegistry) throws IOReactorException {
+        OpenSearchClientSettings settings = new OpenSearchClientSettings();
+        settings.setHosts(hosts);
+        settings.setUsername(username);
+        settings.setPassword(password);
+        settings.setMaxConnections(maxConnections);
+        settings.setMaxConnectionsPerRoute(maxConnectionsPerRoute);
+        settings.setConnectTimeout(connectTimeout);
+        settings.setSocketTimeout(socketTimeout);
+        settings.setKeepAlive(keepAlive);
+        settings.setCompression(compression);
+        settings.setSniffInterval(sniffInterval);
+        return new PooledOpenSearchTransport("processor", settings, meterRegistry);
+    }
+    
+    @Bean
+    public OpenSearchClient openSearchClient(PooledOpenSearchTransport openSearchTransport) {
+        return openSearchTransport.getClient();
+    }
+    
+    /**
+     * Log store routing by tenant, and metadata keys promoted to typed fields per tenant:
+     * <pre>
+     * tracehub.store.opensearch.routing.enabled=true
+     * tracehub.store.opensearch.routing.since=2025-02-01
+     * tracehub.store.opensearch.routing.tenant-partitions.acme=2
+     * tracehub.store.opensearch.promoted-fields.acme=country:keyword,amount:double
+     * </pre>
+     * Processor and query must use the same routing and promoted fields. Routing needs
+     * {@code since}, so that searches never skip shards of indices written without it.
+     */
     @Bean
-    public OpenSearchClient openSearchClient() {
-        // TODO: Implement proper OpenSearch client configuration
-        // For now, return null to avoid compilation errors
-        // This will be implemented when OpenSearch is available
-        logger.warn("OpenSearch client is not properly configured - returning null");
-        return null;
+    public LogStore logStore(OpenSearchClient openSearchClient, Environment environment) {
+        Map<String, Integer> tenantPartitions = Binder.get(environment)
+            .bind("tracehub.store.opensearch.routing.tenant-partitions", Bindable.mapOf(String.class, Integer.class))
+            .orElse(Map.of());
+        TenantRouting routing = new TenantRouting(routingEnabled, tenantPartitions,
+            routingSince.isEmpty() ? null : LocalDate.parse(routingSince));
+        PromotedFields promotedFields = PromotedFields.parse(Binder.get(environment)
+            .bind("tracehub.store.opensearch.promoted-fields", Bindable.mapOf(String.class, String.class))
+            .orElse(Map.of()));
+        return new OpenSearchLogStore(openSearchClient, routing, promotedFields);
     }
 }
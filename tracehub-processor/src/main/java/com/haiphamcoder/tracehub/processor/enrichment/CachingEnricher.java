@@ -0,0 +1,258 @@
+package com.haiphamcoder.tracehub.processor.enrichment;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.util.SampledLogger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * An {@link Enricher} behind a bounded LRU cache with TTL and negative caching.
+ * For each batch the distinct keys are resolved from the cache first; the missing
+ * ones are loaded with one {@link Enricher#lookup} call. Blocking lookups run on
+ * the executor and the batch waits at most the latency budget for them: past
+ * that, the batch's misses go unenriched and the lookup finishes in the
+ * background, filling the cache for later polls. At most maxConcurrentLoads
+ * lookups run at once; a batch that finds them all busy skips its misses.
+ */
+public class CachingEnricher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CachingEnricher.class);
+    
+    private final Enricher enricher;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final long budgetNanos;
+    private final Executor executor;
+    private final Semaphore loads;
+    private final LinkedHashMap<String, Entry> cache;
+    
+    private final Counter hits;
+    private final Counter loaded;
+    private final Counter skipped;
+    private final Counter failed;
+    private final Timer loadLatency;
+    private final SampledLogger failureLog = new SampledLogger(logger, Duration.ofSeconds(10));
+    
+    /**
+     * @param enricher the source of attributes
+     * @param maxSize maximum number of cached keys, found or not
+     * @param ttl how long found attributes are reused
+     * @param negativeTtl how long a not-found key is remembered
+     * @param budget maximum time a batch waits for a blocking lookup
+     * @param maxConcurrentLoads maximum number of blocking lookups in progress
+     * @param executor runs blocking lookups
+     * @param meterRegistry registry for hit/miss counters and lookup latency
+     */
+    public CachingEnricher(Enricher enricher, int maxSize, Duration ttl, Duration negativeTtl, Duration budget,
+                           int maxConcurrentLoads, Executor executor, MeterRegistry meterRegistry) {
+        this.enricher = enricher;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.budgetNanos = budget.toNanos();
+        this.executor = executor;
+        this.loads = new Semaphore(maxConcurrentLoads);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > CachingEnricher.this.maxSize;
+            }
+        };
+        
+        String name = enricher.getName();
+        this.hits = keyCounter(meterRegistry, name, "hit");
+        this.loaded = keyCounter(meterRegistry, name, "loaded");
+        this.skipped = keyCounter(meterRegistry, name, "skipped");
+        this.failed = keyCounter(meterRegistry, name, "failed");
+        this.loadLatency = Timer.builder("tracehub.pipeline.enrichment.lookup.latency")
+            .description("Duration of uncached enrichment lookups")
+            .tag("enricher", name)
+            .register(meterRegistry);
+        meterRegistry.gauge("tracehub.pipeline.enrichment.cache.size",
+            Tags.of("enricher", name), this, CachingEnricher::size);
+    }
+    
+    /**
+     * Enrich a batch of events in place, writing found attributes to
+     * metadata[enricher name]
+     *
+     * @param events the events of one poll
+     */
+    public void enrich(List<LogEvent> events) {
+        long now = System.nanoTime();
+        Map<String, Map<String, Object>> resolved = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        String[] keys = new String[events.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = enricher.keyOf(events.get(i));
+        }
+        synchronized (cache) {
+            for (String key : keys) {
+                if (key == null || resolved.containsKey(key) || missing.contains(key)) {
+                    continue;
+                }
+                Entry entry = cache.get(key);
+                if (entry != null && entry.expiresAtNanos - now > 0) {
+                    resolved.put(key, entry.attributes);
+                } else {
+                    missing.add(key);
+                }
+            }
+        }
+        hits.increment(resolved.size());
+        
+        if (!missing.isEmpty()) {
+            Map<String, Map<String, Object>> found = load(missing);
+            if (found != null) {
+                for (String key : missing) {
+                    resolved.put(key, found.getOrDefault(key, Map.of()));
+                }
+            }
+        }
+        if (resolved.isEmpty()) {
+            return;
+        }
+        
+        for (int i = 0; i < keys.length; i++) {
+            Map<String, Object> attributes = keys[i] != null ? resolved.get(keys[i]) : null;
+            if (attributes == null || attributes.isEmpty()) {
+                continue;
+            }
+            LogEvent event = events.get(i);
+            Map<String, Object> metadata = event.getMetadata();
+            if (metadata == null) {
+                metadata = new HashMap<>();
+                event.setMetadata(metadata);
+            }
+            // A copy per event: redaction rewrites values in place, and the cached map is shared
+            metadata.put(enricher.getName(), new HashMap<>(attributes));
+        }
+    }
+    
+    public String getName() {
+        return enricher.getName();
+    }
+    
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+    
+    /**
+     * @return the lookup result, or null if the keys are skipped for this batch
+     */
+    private Map<String, Map<String, Object>> load(Set<String> keys) {
+        if (!enricher.isBlocking()) {
+            try {
+                return lookupAndCache(keys);
+            } catch (Exception e) {
+                onFailure(keys.size(), e);
+                return null;
+            }
+        }
+        
+        if (!loads.tryAcquire()) {
+            skipped.increment(keys.size());
+            return null;
+        }
+        CompletableFuture<Map<String, Map<String, Object>>> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return lookupAndCache(keys);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                } finally {
+                    loads.release();
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            loads.release();
+            onFailure(keys.size(), e);
+            return null;
+        }
+        
+        try {
+            return future.get(budgetNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Left running: its result still fills the cache
+            skipped.increment(keys.size());
+            return null;
+        } catch (ExecutionException e) {
+            onFailure(keys.size(), e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            skipped.increment(keys.size());
+            return null;
+        }
+    }
+    
+    private Map<String, Map<String, Object>> lookupAndCache(Set<String> keys) throws Exception {
+        long start = System.nanoTime();
+        Map<String, Map<String, Object>> found = enricher.lookup(keys);
+        long now = System.nanoTime();
+        loadLatency.record(now - start, TimeUnit.NANOSECONDS);
+        loaded.increment(keys.size());
+        
+        synchronized (cache) {
+            for (String key : keys) {
+                Map<String, Object> attributes = found.get(key);
+                if (attributes != null && !attributes.isEmpty()) {
+                    cache.put(key, new Entry(attributes, now + ttlNanos));
+                } else {
+                    cache.put(key, new Entry(Map.of(), now + negativeTtlNanos));
+                }
+            }
+        }
+        return found;
+    }
+    
+    private void onFailure(int keys, Throwable cause) {
+        failed.increment(keys);
+        failureLog.atWarn()
+            .setCause(cause)
+            .addKeyValue("enricher", enricher.getName())
+            .addKeyValue("keys", keys)
+            .log("Enrichment lookup failed");
+    }
+    
+    private static Counter keyCounter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder("tracehub.pipeline.enrichment.keys")
+            .description("Distinct enrichment keys per batch, by how they were resolved")
+            .tag("enricher", name)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+    
+    private static final class Entry {
+        private final Map<String, Object> attributes;
+        private final long expiresAtNanos;
+        
+        private Entry(Map<String, Object> attributes, long expiresAtNanos) {
+            this.attributes = attributes;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
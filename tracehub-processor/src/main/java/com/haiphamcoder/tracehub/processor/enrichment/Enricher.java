@@ -0,0 +1,44 @@
+package com.haiphamcoder.tracehub.processor.enrichment;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A source of attributes added to log events before indexing.
+ * Implementations are Spring beans; {@link EnrichmentPipeline} wraps each one in a
+ * {@link CachingEnricher}, so {@link #lookup} is only called for keys that are not
+ * cached, once per Kafka poll, with all of the poll's missing keys.
+ */
+public interface Enricher {
+    
+    /**
+     * @return name of the enricher; also the metadata field its attributes are written to
+     *         and the key of its settings under tracehub.processor.enrichment
+     */
+    String getName();
+    
+    /**
+     * @param event the event to enrich
+     * @return the lookup key of the event, or null if the event cannot be enriched
+     */
+    String keyOf(LogEvent event);
+    
+    /**
+     * Resolve a set of keys
+     *
+     * @param keys distinct keys missing from the cache
+     * @return attributes per found key; keys absent from the result are cached as not found
+     * @throws Exception if the source is unavailable; nothing is cached in that case
+     */
+    Map<String, Map<String, Object>> lookup(Set<String> keys) throws Exception;
+    
+    /**
+     * @return true if {@link #lookup} does I/O and must run off the consumer thread under
+     *         a latency budget; local sources return false and are called inline
+     */
+    default boolean isBlocking() {
+        return true;
+    }
+}
@@ -0,0 +1,78 @@
+package com.haiphamcoder.tracehub.processor.enrichment;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs every {@link Enricher} bean, each behind its own {@link CachingEnricher},
+ * over the events of a Kafka poll. Settings per enricher, under
+ * tracehub.processor.enrichment.{name}: cache-size, ttl, negative-ttl, budget
+ * and max-concurrent-loads.
+ */
+@Component
+public class EnrichmentPipeline {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EnrichmentPipeline.class);
+    private static final String PREFIX = "tracehub.processor.enrichment.";
+    
+    private final List<CachingEnricher> enrichers;
+    private final ExecutorService executor;
+    
+    public EnrichmentPipeline(ObjectProvider<Enricher> enricherBeans, Environment environment,
+                              MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        // Concurrency is bounded per enricher by max-concurrent-loads
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "enrichment-lookup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.enrichers = enricherBeans.orderedStream()
+            .map(enricher -> {
+                String prefix = PREFIX + enricher.getName() + ".";
+                return new CachingEnricher(
+                    enricher,
+                    environment.getProperty(prefix + "cache-size", Integer.class, 100_000),
+                    environment.getProperty(prefix + "ttl", Duration.class, Duration.ofMinutes(10)),
+                    environment.getProperty(prefix + "negative-ttl", Duration.class, Duration.ofMinutes(1)),
+                    environment.getProperty(prefix + "budget", Duration.class, Duration.ofMillis(20)),
+                    environment.getProperty(prefix + "max-concurrent-loads", Integer.class, 2),
+                    executor,
+                    meterRegistry);
+            })
+            .toList();
+        logger.info("Enrichment pipeline initialized with enrichers: {}",
+                    enrichers.stream().map(CachingEnricher::getName).toList());
+    }
+    
+    /**
+     * Enrich the events of one poll in place
+     *
+     * @param events the events
+     */
+    public void enrich(List<LogEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        for (CachingEnricher enricher : enrichers) {
+            enricher.enrich(events);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,325 @@
+package com.haiphamcoder.tracehub.processor.enrichment;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only IPv4 range database, memory-mapped from a local file.
+ * The file is a sorted array of fixed-size range records followed by a string
+ * table, so a lookup is a binary search over the mapped pages with no heap
+ * copy of the data and no parsing at startup.
+ *
+ * <pre>
+ * header   "THGEOIP1" | int count | int stringTableOffset
+ * records  count x (int startIp | int endIp | int asn | int country | int city | int asOrg)
+ * strings  (unsigned short length | UTF-8 bytes)*
+ * </pre>
+ * IPs are unsigned 32-bit values; string fields are offsets into the string
+ * table, -1 when absent. Files are built from CSV with {@link #convertCsv}.
+ */
+public final class GeoIpDatabase {
+    
+    private static final byte[] MAGIC = "THGEOIP1".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 24;
+    
+    /**
+     * An IP range and its location
+     */
+    public static final class Range {
+        
+        private final long startIp;
+        private final long endIp;
+        private final String country;
+        private final String city;
+        private final long asn;
+        private final String asOrg;
+        
+        public Range(long startIp, long endIp, String country, String city, long asn, String asOrg) {
+            this.startIp = startIp;
+            this.endIp = endIp;
+            this.country = country;
+            this.city = city;
+            this.asn = asn;
+            this.asOrg = asOrg;
+        }
+        
+        public long getStartIp() {
+            return startIp;
+        }
+        
+        public long getEndIp() {
+            return endIp;
+        }
+        
+        public String getCountry() {
+            return country;
+        }
+        
+        public String getCity() {
+            return city;
+        }
+        
+        public long getAsn() {
+            return asn;
+        }
+        
+        public String getAsOrg() {
+            return asOrg;
+        }
+    }
+    
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int stringTableOffset;
+    
+    private GeoIpDatabase(ByteBuffer buffer) {
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IllegalArgumentException("Not a GeoIP database file");
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(8);
+        this.stringTableOffset = buffer.getInt(12);
+        if ((long) HEADER_BYTES + (long) count * RECORD_BYTES > stringTableOffset || stringTableOffset > buffer.limit()) {
+            throw new IllegalArgumentException("Corrupt GeoIP database file");
+        }
+    }
+    
+    /**
+     * Map a database file into memory
+     *
+     * @param path the database file
+     * @return the database; the mapping stays valid after the file channel is closed
+     * @throws IOException if the file cannot be read
+     */
+    public static GeoIpDatabase open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new GeoIpDatabase(buffer);
+        }
+    }
+    
+    /**
+     * Find the range containing an address
+     *
+     * @param ip IPv4 address as an unsigned value, see {@link #parseIpv4}
+     * @return the range, or null if the address is not covered
+     */
+    public Range lookup(long ip) {
+        int low = 0;
+        int high = count - 1;
+        int found = -1;
+        // Last record whose start is <= ip
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Integer.toUnsignedLong(buffer.getInt(recordOffset(mid))) <= ip) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (found < 0) {
+            return null;
+        }
+        int offset = recordOffset(found);
+        long endIp = Integer.toUnsignedLong(buffer.getInt(offset + 4));
+        if (ip > endIp) {
+            return null;
+        }
+        return new Range(
+            Integer.toUnsignedLong(buffer.getInt(offset)),
+            endIp,
+            readString(buffer.getInt(offset + 12)),
+            readString(buffer.getInt(offset + 16)),
+            Integer.toUnsignedLong(buffer.getInt(offset + 8)),
+            readString(buffer.getInt(offset + 20))
+        );
+    }
+    
+    public int size() {
+        return count;
+    }
+    
+    /**
+     * Parse a dotted-quad IPv4 address without name resolution
+     *
+     * @param address the address
+     * @return the address as an unsigned value, or -1 if it is not a valid IPv4 address
+     */
+    public static long parseIpv4(String address) {
+        if (address == null) {
+            return -1;
+        }
+        long ip = 0;
+        int octets = 0;
+        int value = -1;
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                if (value > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && value >= 0 && octets < 3) {
+                ip = (ip << 8) | value;
+                octets++;
+                value = -1;
+            } else {
+                return -1;
+            }
+        }
+        if (value < 0 || octets != 3) {
+            return -1;
+        }
+        return (ip << 8) | value;
+    }
+    
+    /**
+     * Write a database file
+     *
+     * @param ranges non-overlapping ranges, in any order
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    public static void write(List<Range> ranges, OutputStream out) throws IOException {
+        List<Range> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingLong(Range::getStartIp));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getStartIp() <= sorted.get(i - 1).getEndIp()) {
+                throw new IllegalArgumentException("Overlapping ranges at " + sorted.get(i).getStartIp());
+            }
+        }
+        
+        // Deduplicated string table
+        Map<String, Integer> stringOffsets = new HashMap<>();
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        DataOutputStream stringData = new DataOutputStream(strings);
+        
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeInt(sorted.size());
+        data.writeInt(HEADER_BYTES + sorted.size() * RECORD_BYTES);
+        for (Range range : sorted) {
+            data.writeInt((int) range.getStartIp());
+            data.writeInt((int) range.getEndIp());
+            data.writeInt((int) range.getAsn());
+            data.writeInt(intern(range.getCountry(), stringOffsets, stringData));
+            data.writeInt(intern(range.getCity(), stringOffsets, stringData));
+            data.writeInt(intern(range.getAsOrg(), stringOffsets, stringData));
+        }
+        stringData.flush();
+        strings.writeTo(data);
+        data.flush();
+    }
+    
+    /**
+     * Build a database file from CSV lines of
+     * {@code startIp,endIp,country,city,asn,asOrg}; empty fields are allowed,
+     * asOrg may contain commas, and lines starting with '#' are skipped
+     *
+     * @param csv the CSV file
+     * @param database the database file to write
+     * @return number of ranges written
+     * @throws IOException if reading or writing fails
+     */
+    public static int convertCsv(Path csv, Path database) throws IOException {
+        List<Range> ranges = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",", 6);
+                if (fields.length < 6) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected 6 fields");
+                }
+                long start = parseIpv4(fields[0].trim());
+                long end = parseIpv4(fields[1].trim());
+                if (start < 0 || end < start) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": invalid range");
+                }
+                String asn = fields[4].trim();
+                ranges.add(new Range(start, end, emptyToNull(fields[2]), emptyToNull(fields[3]),
+                    asn.isEmpty() ? 0 : Long.parseLong(asn), emptyToNull(fields[5])));
+            }
+        }
+        try (OutputStream out = Files.newOutputStream(database)) {
+            write(ranges, new BufferedOutputStream(out));
+        }
+        return ranges.size();
+    }
+    
+    /**
+     * Build a database file from CSV: {@code GeoIpDatabase <ranges.csv> <geoip.db>}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: GeoIpDatabase <ranges.csv> <geoip.db>");
+            System.exit(2);
+        }
+        int ranges = convertCsv(Path.of(args[0]), Path.of(args[1]));
+        System.out.println("Wrote " + ranges + " ranges to " + args[1]);
+    }
+    
+    private static int recordOffset(int index) {
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+    
+    private String readString(int offset) {
+        if (offset < 0) {
+            return null;
+        }
+        int position = stringTableOffset + offset;
+        int length = Short.toUnsignedInt(buffer.getShort(position));
+        byte[] bytes = new byte[length];
+        buffer.get(position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static int intern(String value, Map<String, Integer> offsets, DataOutputStream strings) throws IOException {
+        if (value == null) {
+            return -1;
+        }
+        Integer existing = offsets.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("String too long: " + value.substring(0, 32));
+        }
+        int offset = strings.size();
+        strings.writeShort(bytes.length);
+        strings.write(bytes);
+        offsets.put(value, offset);
+        return offset;
+    }
+    
+    private static String emptyToNull(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
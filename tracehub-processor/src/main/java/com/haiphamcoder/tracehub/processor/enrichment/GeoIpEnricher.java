@@ -0,0 +1,75 @@
+package com.haiphamcoder.tracehub.processor.enrichment;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Adds country, city and ASN of {@code actorIp} from a local {@link GeoIpDatabase}.
+ * Lookups are in-memory binary searches, so they run inline on the consumer thread.
+ * Enabled when tracehub.processor.enrichment.geo.database points to a database file.
+ */
+@Component
+@ConditionalOnProperty(name = "tracehub.processor.enrichment.geo.database")
+public class GeoIpEnricher implements Enricher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GeoIpEnricher.class);
+    
+    private final GeoIpDatabase database;
+    
+    public GeoIpEnricher(@Value("${tracehub.processor.enrichment.geo.database}") Path databasePath) throws IOException {
+        this.database = GeoIpDatabase.open(databasePath);
+        logger.info("Loaded GeoIP database: path={}, ranges={}", databasePath, database.size());
+    }
+    
+    @Override
+    public String getName() {
+        return "geo";
+    }
+    
+    @Override
+    public String keyOf(LogEvent event) {
+        // IPv6 addresses are not covered by the database
+        return GeoIpDatabase.parseIpv4(event.getActorIp()) >= 0 ? event.getActorIp() : null;
+    }
+    
+    @Override
+    public Map<String, Map<String, Object>> lookup(Set<String> keys) {
+        Map<String, Map<String, Object>> found = new HashMap<>();
+        for (String key : keys) {
+            GeoIpDatabase.Range range = database.lookup(GeoIpDatabase.parseIpv4(key));
+            if (range == null) {
+                continue;
+            }
+            Map<String, Object> attributes = new HashMap<>();
+            putIfPresent(attributes, "country", range.getCountry());
+            putIfPresent(attributes, "city", range.getCity());
+            if (range.getAsn() > 0) {
+                attributes.put("asn", range.getAsn());
+            }
+            putIfPresent(attributes, "asOrg", range.getAsOrg());
+            found.put(key, attributes);
+        }
+        return found;
+    }
+    
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+    
+    private static void putIfPresent(Map<String, Object> attributes, String name, String value) {
+        if (value != null) {
+            attributes.put(name, value);
+        }
+    }
+}
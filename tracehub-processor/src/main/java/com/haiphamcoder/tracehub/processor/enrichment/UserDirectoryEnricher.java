@@ -0,0 +1,78 @@
+package com.haiphamcoder.tracehub.processor.enrichment;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Adds user attributes (department, role, ...) from an HTTP user directory.
+ * All keys missing from the cache in one poll are resolved with a single request:
+ * <pre>
+ * POST {url}  {"keys": ["tenantId/userId", ...]}
+ * 200         {"tenantId/userId": {"department": "...", ...}, ...}
+ * </pre>
+ * Users absent from the response are cached as not found.
+ * Enabled when tracehub.processor.enrichment.user.url is set.
+ */
+@Component
+@ConditionalOnProperty(name = "tracehub.processor.enrichment.user.url")
+public class UserDirectoryEnricher implements Enricher {
+    
+    private static final TypeReference<Map<String, Map<String, Object>>> RESPONSE_TYPE = new TypeReference<>() { };
+    
+    private final ObjectMapper objectMapper;
+    private final URI url;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+    
+    public UserDirectoryEnricher(ObjectMapper objectMapper,
+                                 @Value("${tracehub.processor.enrichment.user.url}") URI url,
+                                 @Value("${tracehub.processor.enrichment.user.request-timeout:2s}") Duration requestTimeout) {
+        this.objectMapper = objectMapper;
+        this.url = url;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(requestTimeout)
+            .build();
+    }
+    
+    @Override
+    public String getName() {
+        return "user";
+    }
+    
+    @Override
+    public String keyOf(LogEvent event) {
+        if (event.getTenantId() == null || event.getUserId() == null) {
+            return null;
+        }
+        return event.getTenantId() + "/" + event.getUserId();
+    }
+    
+    @Override
+    public Map<String, Map<String, Object>> lookup(Set<String> keys) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+            .timeout(requestTimeout)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(Map.of("keys", keys))))
+            .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("User directory returned HTTP " + response.statusCode());
+        }
+        return objectMapper.readValue(response.body(), RESPONSE_TYPE);
+    }
+}
@@ -0,0 +1,328 @@
+package com.haiphamcoder.tracehub.processor.lifecycle;
+
+import com.haiphamcoder.tracehub.common.archive.ArchiveSegment;
+import com.haiphamcoder.tracehub.common.archive.ArchiveSegmentWriter;
+import com.haiphamcoder.tracehub.common.archive.ArchiveStorage;
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.store.LogStore;
+import com.haiphamcoder.tracehub.opensearch.OpenSearchLogStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch._types.SortOrder;
+import org.opensearch.client.opensearch._types.Time;
+import org.opensearch.client.opensearch.core.ScrollRequest;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.indices.IndexSettingBlocks;
+import org.opensearch.client.opensearch.indices.IndexSettings;
+import org.opensearch.client.opensearch.indices.IndexState;
+import org.opensearch.client.opensearch.indices.get_mapping.IndexMappingRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Moves daily {@code logs-tracehub-*} indices through hot, warm and archive.
+ * <ul>
+ *   <li><b>Warm</b> ({@code warm-after} past the end of the index's day): force-merged
+ *       to one segment, made read-only and given fewer replicas.</li>
+ *   <li><b>Archive</b> ({@code archive-after}): exported in timestamp order to compressed
+ *       columnar segment files in {@link ArchiveStorage}, then deleted once the number of
+ *       exported events matches the index's document count; see {@link #archive}.</li>
+ * </ul>
+ * Hot-cluster storage and heap therefore follow hot and warm retention only. Enable the
+ * manager on one processor instance; it does nothing while OpenSearch is unavailable.
+ */
+@Component
+public class IndexLifecycleManager {
+    
+    private static final Logger logger = LoggerFactory.getLogger(IndexLifecycleManager.class);
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+    private static final String INDEX_NAME_PREFIX = TracehubConstants.INDEX_PREFIX + "-";
+    private static final Time SCROLL_KEEP_ALIVE = Time.of(t -> t.time("2m"));
+    private static final String ARCHIVE_FIRST_SEGMENT = "tracehub_archive_first_segment";
+    
+    private final OpenSearchClient openSearchClient;
+    private final ArchiveStorage archiveStorage;
+    private final LogStore logStore;
+    private final Counter warmed;
+    private final Counter archived;
+    private final Counter archivedEvents;
+    private final Counter failures;
+    
+    @Value("${tracehub.lifecycle.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${tracehub.lifecycle.warm-after:7d}")
+    private Duration warmAfter;
+    
+    @Value("${tracehub.lifecycle.archive-after:30d}")
+    private Duration archiveAfter;
+    
+    @Value("${tracehub.lifecycle.warm.replicas:0}")
+    private int warmReplicas;
+    
+    @Value("${tracehub.lifecycle.archive.segment-rows:100000}")
+    private int segmentRows;
+    
+    @Value("${tracehub.lifecycle.archive.page-size:5000}")
+    private int pageSize;
+    
+    public IndexLifecycleManager(ObjectProvider<OpenSearchClient> openSearchClient, ObjectProvider<ArchiveStorage> archiveStorage,
+                                 ObjectProvider<LogStore> logStore, MeterRegistry meterRegistry) {
+        this.openSearchClient = openSearchClient.getIfAvailable();
+        this.archiveStorage = archiveStorage.getIfAvailable();
+        this.logStore = logStore.getIfAvailable();
+        this.warmed = Counter.builder("tracehub.lifecycle.indices").tag("phase", "warm")
+            .description("Indices moved to a lifecycle phase")
+            .register(meterRegistry);
+        this.archived = Counter.builder("tracehub.lifecycle.indices").tag("phase", "archive")
+            .description("Indices moved to a lifecycle phase")
+            .register(meterRegistry);
+        this.archivedEvents = Counter.builder("tracehub.lifecycle.archived.events")
+            .description("Events exported to archive segments")
+            .register(meterRegistry);
+        this.failures = Counter.builder("tracehub.lifecycle.failures")
+            .description("Index transitions that failed and will be retried")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Check every daily index and apply the transitions that are due
+     */
+    @Scheduled(initialDelayString = "${tracehub.lifecycle.initial-delay-ms:300000}",
+               fixedDelayString = "${tracehub.lifecycle.check-interval-ms:3600000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        if (openSearchClient == null) {
+            logger.warn("OpenSearch client not available - skipping index lifecycle");
+            return;
+        }
+        if (archiveStorage == null) {
+            logger.warn("Archive storage not configured - skipping index lifecycle");
+            return;
+        }
+        
+        Map<String, IndexState> indices;
+        try {
+            indices = new TreeMap<>(openSearchClient.indices().get(g -> g.index(TracehubConstants.INDEX_ALIAS)).result());
+        } catch (IOException e) {
+            logger.error("Failed to list indices for lifecycle", e);
+            return;
+        }
+        Instant now = Instant.now();
+        for (Map.Entry<String, IndexState> index : indices.entrySet()) {
+            Instant dayEnd = dayEnd(index.getKey());
+            if (dayEnd == null) {
+                continue;
+            }
+            try {
+                if (!dayEnd.plus(archiveAfter).isAfter(now)) {
+                    archive(index.getKey());
+                } else if (!dayEnd.plus(warmAfter).isAfter(now) && !isReadOnly(index.getValue())) {
+                    warm(index.getKey());
+                }
+            } catch (IOException | RuntimeException e) {
+                failures.increment();
+                logger.error("Lifecycle transition failed for index {}", index.getKey(), e);
+            }
+        }
+    }
+    
+    /**
+     * Block writes to an index, reduce its replicas and force-merge it to one segment
+     *
+     * @param indexName the index
+     * @throws IOException if a request fails
+     */
+    public void warm(String indexName) throws IOException {
+        logger.info("Moving index {} to warm", indexName);
+        // Block writes first, so no new segments appear after the merge
+        openSearchClient.indices().putSettings(p -> p
+            .index(indexName)
+            .settings(s -> s
+                .numberOfReplicas(String.valueOf(warmReplicas))
+                .blocks(b -> b.write(true))
+            )
+        );
+        openSearchClient.indices().forcemerge(f -> f.index(indexName).maxNumSegments(1L));
+        warmed.increment();
+    }
+    
+    /**
+     * Export an index to archive segments and delete it.
+     * <ul>
+     *   <li>Writes are blocked first, so the count and the export see the same documents
+     *       and nothing indexed afterwards is deleted with the index.</li>
+     *   <li>The export writes segments from a first sequence kept in the index's mapping
+     *       {@code _meta}. An export interrupted by a crash is redone over the same sequences.
+     *       An index recreated by late events after its day was archived is exported after
+     *       the existing segments, which are kept.</li>
+     *   <li>If the export fails or exports fewer events than counted, the segments it wrote
+     *       are deleted and the index is kept for the next run.</li>
+     * </ul>
+     *
+     * @param indexName the index
+     * @throws IOException if the export or a request fails; the index is kept
+     */
+    public void archive(String indexName) throws IOException {
+        int firstSequence = startExport(indexName);
+        openSearchClient.indices().putSettings(p -> p
+            .index(indexName)
+            .settings(s -> s.blocks(b -> b.write(true)))
+        );
+        long expected = openSearchClient.count(c -> c.index(indexName)).count();
+        logger.info("Archiving index {} ({} events) from segment {}", indexName, expected, firstSequence);
+        
+        List<String> written = new ArrayList<>();
+        long exported = 0;
+        try {
+            List<LogEvent> buffer = new ArrayList<>(Math.min(segmentRows, 100_000));
+            SearchResponse<Map> page = openSearchClient.search(SearchRequest.of(s -> s
+                .index(indexName)
+                .scroll(SCROLL_KEEP_ALIVE)
+                .size(pageSize)
+                .sort(so -> so.field(f -> f.field("@timestamp").order(SortOrder.Asc)))
+            ), Map.class);
+            String scrollId = page.scrollId();
+            try {
+                while (!page.hits().hits().isEmpty()) {
+                    for (Hit<Map> hit : page.hits().hits()) {
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> source = hit.source();
+                        buffer.add(OpenSearchLogStore.convertFromMap(source));
+                        if (buffer.size() >= segmentRows) {
+                            exported += writeSegment(indexName, firstSequence + written.size(), buffer, written);
+                        }
+                    }
+                    String currentScrollId = scrollId;
+                    page = openSearchClient.scroll(ScrollRequest.of(r -> r.scrollId(currentScrollId).scroll(SCROLL_KEEP_ALIVE)), Map.class);
+                    scrollId = page.scrollId();
+                }
+                if (!buffer.isEmpty()) {
+                    exported += writeSegment(indexName, firstSequence + written.size(), buffer, written);
+                }
+            } finally {
+                if (scrollId != null) {
+                    String lastScrollId = scrollId;
+                    openSearchClient.clearScroll(c -> c.scrollId(lastScrollId));
+                }
+            }
+            if (exported != expected) {
+                throw new IOException("Exported " + exported + " of " + expected + " events from " + indexName);
+            }
+        } catch (IOException | RuntimeException e) {
+            for (String name : written) {
+                archiveStorage.delete(name);
+            }
+            throw e;
+        }
+        
+        openSearchClient.indices().delete(d -> d.index(indexName));
+        if (logStore instanceof OpenSearchLogStore openSearchLogStore) {
+            openSearchLogStore.forgetIndex(indexName);
+        }
+        archived.increment();
+        archivedEvents.increment(exported);
+        logger.info("Archived index {} to {} segments and deleted it", indexName, written.size());
+    }
+    
+    /**
+     * First segment sequence of an index's export, recorded in its mapping {@code _meta}.
+     * Segments a previous, interrupted export of the same index left from that sequence on
+     * are deleted.
+     */
+    private int startExport(String indexName) throws IOException {
+        IndexMappingRecord mapping = openSearchClient.indices().getMapping(g -> g.index(indexName)).result().get(indexName);
+        Map<String, JsonData> meta = mapping != null && mapping.mappings() != null ? mapping.mappings().meta() : null;
+        JsonData started = meta != null ? meta.get(ARCHIVE_FIRST_SEGMENT) : null;
+        
+        int next = 0;
+        for (String name : archiveStorage.list(indexName + ".")) {
+            if (!indexName.equals(ArchiveSegment.indexOf(name))) {
+                continue;
+            }
+            int sequence = ArchiveSegment.sequenceOf(name);
+            if (started != null && sequence >= started.to(Integer.class)) {
+                archiveStorage.delete(name);
+            } else {
+                next = Math.max(next, sequence + 1);
+            }
+        }
+        if (started != null) {
+            return started.to(Integer.class);
+        }
+        int firstSequence = next;
+        openSearchClient.indices().putMapping(p -> p
+            .index(indexName)
+            .meta(ARCHIVE_FIRST_SEGMENT, JsonData.of(firstSequence))
+        );
+        return firstSequence;
+    }
+    
+    private int writeSegment(String indexName, int sequence, List<LogEvent> events, List<String> written) throws IOException {
+        String name = ArchiveSegment.name(indexName, sequence);
+        Path file = Files.createTempFile(name, ".tmp");
+        try {
+            ArchiveSegmentWriter.write(events, file);
+            archiveStorage.put(name, file);
+            written.add(name);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        int count = events.size();
+        events.clear();
+        return count;
+    }
+    
+    /**
+     * End of the UTC day a daily index covers
+     *
+     * @param indexName the index
+     * @return the instant the day ends, or null if the name is not a daily index
+     */
+    static Instant dayEnd(String indexName) {
+        if (!indexName.startsWith(INDEX_NAME_PREFIX)) {
+            return null;
+        }
+        try {
+            LocalDate day = LocalDate.parse(indexName.substring(INDEX_NAME_PREFIX.length()), DATE_FORMATTER);
+            return day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    private static boolean isReadOnly(IndexState state) {
+        IndexSettings settings = state.settings();
+        if (settings == null) {
+            return false;
+        }
+        // Settings come back nested under "index"
+        IndexSettingBlocks blocks = settings.index() != null ? settings.index().blocks() : settings.blocks();
+        return blocks != null && Boolean.TRUE.equals(blocks.write());
+    }
+}
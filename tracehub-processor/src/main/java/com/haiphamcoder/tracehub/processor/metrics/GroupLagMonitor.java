@@ -0,0 +1,208 @@
+package com.haiphamcoder.tracehub.processor.metrics;
+
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import com.haiphamcoder.tracehub.common.util.SampledLogger;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lag and throughput of the whole processor consumer group, the signal for autoscaling.
+ * <ul>
+ *   <li>{@code tracehub.pipeline.group.lag{group}}: records between the group's committed
+ *       offsets and the log end, over all partitions of {@code audit-logs}. Partitions without
+ *       a committed offset count from the log start.</li>
+ *   <li>{@code tracehub.pipeline.group.produce.rate{group}} and
+ *       {@code tracehub.pipeline.group.consume.rate{group}}: records per second appended to the
+ *       topic and committed by the group, over the last interval.</li>
+ * </ul>
+ * Offsets are read with the admin client, from the brokers, so the values include partitions
+ * no instance is consuming and stay correct while the group rebalances. Every instance exports
+ * the same values; aggregate them with max, not sum.
+ */
+@Component
+@ConditionalOnProperty(name = "tracehub.processor.group-lag.enabled", havingValue = "true", matchIfMissing = true)
+public class GroupLagMonitor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GroupLagMonitor.class);
+    
+    private final KafkaAdmin kafkaAdmin;
+    private final String groupId;
+    private final long timeoutMillis;
+    private final SampledLogger errorLog;
+    
+    private Admin admin;
+    private Sample previous;
+    private volatile long lag = -1;
+    private volatile double produceRate = Double.NaN;
+    private volatile double consumeRate = Double.NaN;
+    
+    public GroupLagMonitor(KafkaAdmin kafkaAdmin, MeterRegistry meterRegistry,
+                           @Value("${spring.kafka.consumer.group-id}") String groupId,
+                           @Value("${tracehub.processor.group-lag.interval-ms:15000}") long intervalMillis) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.groupId = groupId;
+        this.timeoutMillis = intervalMillis;
+        this.errorLog = new SampledLogger(logger, Duration.ofMinutes(1));
+        
+        Tags tags = Tags.of("group", groupId);
+        Gauge.builder("tracehub.pipeline.group.lag", this, monitor -> monitor.lag < 0 ? Double.NaN : monitor.lag)
+            .description("Records between the group's committed offsets and the log end")
+            .tags(tags)
+            .baseUnit("records")
+            .register(meterRegistry);
+        Gauge.builder("tracehub.pipeline.group.produce.rate", this, monitor -> monitor.produceRate)
+            .description("Records per second appended to the consumed topic")
+            .tags(tags)
+            .register(meterRegistry);
+        Gauge.builder("tracehub.pipeline.group.consume.rate", this, monitor -> monitor.consumeRate)
+            .description("Records per second committed by the group")
+            .tags(tags)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Use the given admin client instead of creating one from the Kafka properties
+     */
+    void setAdmin(Admin admin) {
+        this.admin = admin;
+    }
+    
+    @Scheduled(initialDelayString = "${tracehub.processor.group-lag.interval-ms:15000}",
+               fixedDelayString = "${tracehub.processor.group-lag.interval-ms:15000}")
+    public void refresh() {
+        try {
+            if (admin == null) {
+                admin = Admin.create(kafkaAdmin.getConfigurationProperties());
+            }
+            long now = System.nanoTime();
+            String topic = TracehubConstants.AUDIT_LOGS_TOPIC;
+            TopicDescription description = admin.describeTopics(List.of(topic)).allTopicNames()
+                .get(timeoutMillis, TimeUnit.MILLISECONDS).get(topic);
+            Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+            description.partitions().forEach(partition ->
+                latest.put(new TopicPartition(topic, partition.partition()), OffsetSpec.latest()));
+            
+            Map<TopicPartition, Long> endOffsets = offsets(latest);
+            Map<TopicPartition, Long> committed = new HashMap<>();
+            Map<TopicPartition, OffsetAndMetadata> groupOffsets = admin.listConsumerGroupOffsets(groupId)
+                .partitionsToOffsetAndMetadata().get(timeoutMillis, TimeUnit.MILLISECONDS);
+            groupOffsets.forEach((partition, offset) -> {
+                if (offset != null && latest.containsKey(partition)) {
+                    committed.put(partition, offset.offset());
+                }
+            });
+            Map<TopicPartition, OffsetSpec> earliest = new HashMap<>();
+            latest.keySet().forEach(partition -> {
+                if (!committed.containsKey(partition)) {
+                    earliest.put(partition, OffsetSpec.earliest());
+                }
+            });
+            Map<TopicPartition, Long> startOffsets = earliest.isEmpty() ? Map.of() : offsets(earliest);
+            
+            Sample sample = Sample.of(now, endOffsets, committed, startOffsets);
+            lag = sample.lag();
+            if (previous != null) {
+                produceRate = rate(previous.endSum, sample.endSum, sample.nanos - previous.nanos);
+                consumeRate = rate(previous.positionSum, sample.positionSum, sample.nanos - previous.nanos);
+            }
+            previous = sample;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            lag = -1;
+            produceRate = Double.NaN;
+            consumeRate = Double.NaN;
+            previous = null;
+            errorLog.atWarn()
+                .addKeyValue("groupId", groupId)
+                .log("Failed to read consumer group lag: {}", e.toString());
+        }
+    }
+    
+    private Map<TopicPartition, Long> offsets(Map<TopicPartition, OffsetSpec> specs) throws Exception {
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> results = admin.listOffsets(specs).all()
+            .get(timeoutMillis, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        results.forEach((partition, info) -> offsets.put(partition, info.offset()));
+        return offsets;
+    }
+    
+    /**
+     * Records per second between two offset sums; a decrease (e.g. offsets reset) reads as zero
+     */
+    static double rate(long from, long to, long elapsedNanos) {
+        if (elapsedNanos <= 0) {
+            return Double.NaN;
+        }
+        return Math.max(0, to - from) * 1e9 / elapsedNanos;
+    }
+    
+    @PreDestroy
+    public void close() {
+        if (admin != null) {
+            admin.close(Duration.ofSeconds(1));
+        }
+    }
+    
+    /**
+     * Offset sums over all partitions at one point in time
+     */
+    static final class Sample {
+        final long nanos;
+        final long endSum;
+        final long positionSum;
+        
+        private Sample(long nanos, long endSum, long positionSum) {
+            this.nanos = nanos;
+            this.endSum = endSum;
+            this.positionSum = positionSum;
+        }
+        
+        /**
+         * @param nanos time of the sample
+         * @param endOffsets log end offset per partition
+         * @param committed the group's committed offset, for partitions that have one
+         * @param startOffsets log start offset, for partitions without a committed offset
+         */
+        static Sample of(long nanos, Map<TopicPartition, Long> endOffsets, Map<TopicPartition, Long> committed,
+                         Map<TopicPartition, Long> startOffsets) {
+            long endSum = 0;
+            long positionSum = 0;
+            for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+                Long position = committed.get(end.getKey());
+                if (position == null) {
+                    position = startOffsets.getOrDefault(end.getKey(), end.getValue());
+                }
+                endSum += end.getValue();
+                // Committed offsets can briefly read ahead of a stale end offset
+                positionSum += Math.min(position, end.getValue());
+            }
+            return new Sample(nanos, endSum, positionSum);
+        }
+        
+        long lag() {
+            return endSum - positionSum;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.haiphamcoder.tracehub.processor.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stage-level metrics of the processing pipeline.
+ * <ul>
+ *   <li>{@code tracehub.pipeline.ingest.lag}: ingest (record header) to consume, per event</li>
+ *   <li>{@code tracehub.pipeline.index.latency}: consume to indexed, per bulk request</li>
+ *   <li>{@code tracehub.pipeline.batch.size}: events per consumed batch</li>
+ *   <li>{@code tracehub.pipeline.consumer.lag}: records behind the log end, per assigned partition</li>
+ *   <li>{@code tracehub.pipeline.indexed} and {@code tracehub.pipeline.index.errors{reason}}</li>
+ *   <li>{@code tracehub.pipeline.partitions.assigned} and
+ *       {@code tracehub.pipeline.rebalance.partitions{event}}: partitions assigned, revoked or lost</li>
+ *   <li>{@code tracehub.processor.startup.first.record}: JVM start to the first consumed record,
+ *       next to Spring Boot's {@code application.ready.time}</li>
+ * </ul>
+ * Percentile histograms are enabled through management.metrics.distribution.percentiles-histogram.
+ */
+@Component
+public class PipelineMetrics {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PipelineMetrics.class);
+    
+    private final MeterRegistry meterRegistry;
+    private final Timer ingestLag;
+    private final Timer indexLatency;
+    private final DistributionSummary batchSize;
+    private final Counter indexed;
+    private final Map<TopicPartition, PartitionLag> partitionLags = new ConcurrentHashMap<>();
+    private final Set<TopicPartition> assignedPartitions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong firstRecordMillis = new AtomicLong(-1);
+    
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.ingestLag = Timer.builder("tracehub.pipeline.ingest.lag")
+            .description("Time from ingest to consumption by the processor")
+            .register(meterRegistry);
+        this.indexLatency = Timer.builder("tracehub.pipeline.index.latency")
+            .description("Time from consuming a batch to its bulk indexing response")
+            .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("tracehub.pipeline.batch.size")
+            .description("Events per consumed batch")
+            .baseUnit("events")
+            .register(meterRegistry);
+        this.indexed = Counter.builder("tracehub.pipeline.indexed")
+            .description("Events indexed")
+            .register(meterRegistry);
+        TimeGauge.builder("tracehub.processor.startup.first.record", firstRecordMillis, TimeUnit.MILLISECONDS,
+                AtomicLong::get)
+            .description("Time from JVM start to the first consumed record, -1 until then")
+            .register(meterRegistry);
+        Gauge.builder("tracehub.pipeline.partitions.assigned", assignedPartitions, Set::size)
+            .description("Partitions assigned to this instance's consumers")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Record the time to the first consumed record; later calls are a single read
+     */
+    public void recordFirstRecord() {
+        if (firstRecordMillis.get() < 0
+                && firstRecordMillis.compareAndSet(-1, ManagementFactory.getRuntimeMXBean().getUptime())) {
+            logger.info("First record consumed {} ms after JVM start", firstRecordMillis.get());
+        }
+    }
+    
+    public void recordBatchSize(int size) {
+        batchSize.record(size);
+    }
+    
+    /**
+     * @param lagMillis consume time minus ingest time; negative values (clock skew) count as zero
+     */
+    public void recordIngestLag(long lagMillis) {
+        ingestLag.record(Math.max(0, lagMillis), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Record a completed bulk request
+     *
+     * @param succeeded number of events indexed
+     * @param elapsedNanos time since the batch was consumed
+     */
+    public void recordIndexed(int succeeded, long elapsedNanos) {
+        indexed.increment(succeeded);
+        indexLatency.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordIndexErrors(String reason, int count) {
+        meterRegistry.counter("tracehub.pipeline.index.errors", "reason", reason).increment(count);
+    }
+    
+    /**
+     * Refresh per-partition lag from the consumer's last fetch metadata.
+     * Must be called on the consumer thread. Gauges of partitions no longer assigned are removed.
+     *
+     * @param consumer the listener's consumer
+     */
+    public void updateConsumerLag(Consumer<?, ?> consumer) {
+        Set<TopicPartition> assignment = consumer.assignment();
+        for (TopicPartition partition : assignment) {
+            // Answered from fetch responses, no broker round trip
+            OptionalLong lag = consumer.currentLag(partition);
+            if (lag.isPresent()) {
+                partitionLags.computeIfAbsent(partition, this::registerLag).value.set(lag.getAsLong());
+            }
+        }
+        partitionLags.entrySet().removeIf(entry -> {
+            if (assignment.contains(entry.getKey())) {
+                return false;
+            }
+            meterRegistry.remove(entry.getValue().gauge);
+            return true;
+        });
+    }
+    
+    /**
+     * Record partitions gained or given up in a rebalance. Lag gauges of partitions given up
+     * are removed at once, so lag summed over instances does not count them twice.
+     *
+     * @param event assigned, revoked or lost
+     * @param partitions the partitions
+     */
+    public void recordRebalance(String event, Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        meterRegistry.counter("tracehub.pipeline.rebalance.partitions", "event", event).increment(partitions.size());
+        if ("assigned".equals(event)) {
+            assignedPartitions.addAll(partitions);
+            return;
+        }
+        assignedPartitions.removeAll(partitions);
+        for (TopicPartition partition : partitions) {
+            PartitionLag lag = partitionLags.remove(partition);
+            if (lag != null) {
+                meterRegistry.remove(lag.gauge);
+            }
+        }
+    }
+    
+    private PartitionLag registerLag(TopicPartition partition) {
+        AtomicLong value = new AtomicLong();
+        Gauge gauge = Gauge.builder("tracehub.pipeline.consumer.lag", value, AtomicLong::get)
+            .description("Records between the consumer position and the log end offset")
+            .tags(Tags.of("topic", partition.topic(), "partition", String.valueOf(partition.partition())))
+            .baseUnit("records")
+            .register(meterRegistry);
+        return new PartitionLag(value, gauge);
+    }
+    
+    private static final class PartitionLag {
+        private final AtomicLong value;
+        private final Gauge gauge;
+        
+        private PartitionLag(AtomicLong value, Gauge gauge) {
+            this.value = value;
+            this.gauge = gauge;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.haiphamcoder.tracehub.processor.redaction;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.redaction.PiiType;
+import com.haiphamcoder.tracehub.common.redaction.RedactionPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies per-tenant redaction policies to log events.
+ * A policy is the set of {@link PiiType}s to redact; tenants without their own policy
+ * use the default one. The query service's live tail reads the same properties, so tails
+ * are redacted like indexed events.
+ * <pre>
+ * tracehub.processor.redaction.default-types=EMAIL,PHONE,CARD,TOKEN
+ * tracehub.processor.redaction.tenant-types.acme=CARD,TOKEN
+ * tracehub.processor.redaction.tenant-types.internal=NONE
+ * </pre>
+ */
+@Service
+public class RedactionService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RedactionService.class);
+    
+    private final boolean enabled;
+    private final RedactionPolicy policy;
+    private final Counter redactedEvents;
+    
+    public RedactionService(Environment environment, MeterRegistry meterRegistry,
+                            @Value("${tracehub.processor.redaction.enabled:true}") boolean enabled,
+                            @Value("${tracehub.processor.redaction.default-types:EMAIL,PHONE,CARD,TOKEN}") String defaultTypes,
+                            @Value("${tracehub.processor.redaction.token-prefixes:}") List<String> extraTokenPrefixes) {
+        this.enabled = enabled;
+        Map<String, String> tenantTypes = Binder.get(environment)
+            .bind("tracehub.processor.redaction.tenant-types", Bindable.mapOf(String.class, String.class))
+            .orElse(Map.of());
+        this.policy = RedactionPolicy.of(defaultTypes, tenantTypes, extraTokenPrefixes);
+        
+        this.redactedEvents = Counter.builder("tracehub.pipeline.redacted")
+            .description("Events in which at least one value was redacted")
+            .register(meterRegistry);
+        logger.info("Redaction initialized: enabled={}, default={}, tenantPolicies={}",
+                    enabled, policy.getDefaultTypes(), policy.getTenantPolicyCount());
+    }
+    
+    /**
+     * Redact the message and metadata values of an event in place
+     *
+     * @param event the event
+     * @return true if anything was redacted
+     */
+    public boolean redact(LogEvent event) {
+        if (!enabled) {
+            return false;
+        }
+        boolean changed = policy.redact(event);
+        if (changed) {
+            redactedEvents.increment();
+        }
+        return changed;
+    }
+}
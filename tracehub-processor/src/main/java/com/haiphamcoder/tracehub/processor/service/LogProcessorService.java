@@ -2,21 +2,34 @@ package com.haiphamcoder.tracehub.processor.service;
 
 import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
 import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.store.LogDocument;
+import com.haiphamcoder.tracehub.common.store.LogStore;
 import com.haiphamcoder.tracehub.common.util.IdempotencyUtil;
+import com.haiphamcoder.tracehub.common.util.SampledLogger;
+import com.haiphamcoder.tracehub.processor.enrichment.EnrichmentPipeline;
+import com.haiphamcoder.tracehub.processor.metrics.PipelineMetrics;
+import com.haiphamcoder.tracehub.processor.redaction.RedactionService;
+import com.haiphamcoder.tracehub.processor.tokenization.TokenizationService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
- * Service for processing log events from Kafka and indexing to OpenSearch
+ * Service for processing log events from Kafka and writing them to the log store
  */
 @Service
 public class LogProcessorService {
@@ -24,60 +37,160 @@ public class LogProcessorService {
     private static final Logger logger = LoggerFactory.getLogger(LogProcessorService.class);
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy.MM.dd");
     
-    private final OpenSearchService openSearchService;
+    private final LogStore logStore;
+    private final RedactionService redactionService;
+    private final EnrichmentPipeline enrichmentPipeline;
+    private final TokenizationService tokenizationService;
+    private final PipelineMetrics pipelineMetrics;
     private final String processorId;
+    private final SampledLogger batchLog;
+    private final SampledLogger errorLog;
     
-    public LogProcessorService(OpenSearchService openSearchService) {
-        this.openSearchService = openSearchService;
-        this.processorId = UUID.randomUUID().toString();
+    public LogProcessorService(LogStore logStore, RedactionService redactionService,
+                               EnrichmentPipeline enrichmentPipeline, TokenizationService tokenizationService,
+                               PipelineMetrics pipelineMetrics,
+                               @Value("${tracehub.processor.instance-id:}") String instanceId,
+                               @Value("${tracehub.logging.sample-interval:1s}") Duration sampleInterval) {
+        this.logStore = logStore;
+        this.redactionService = redactionService;
+        this.enrichmentPipeline = enrichmentPipeline;
+        this.tokenizationService = tokenizationService;
+        this.pipelineMetrics = pipelineMetrics;
+        this.processorId = instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId;
+        this.batchLog = new SampledLogger(logger, sampleInterval);
+        this.errorLog = new SampledLogger(logger, sampleInterval);
         logger.info("LogProcessorService initialized with processorId: {}", processorId);
     }
     
     /**
-     * Process log events from Kafka
+     * Process a batch of log events from Kafka and write it to the store in one batch
      * 
-     * @param event the log event to process
-     * @param key the Kafka message key (tenantId)
-     * @param partition the Kafka partition
-     * @param offset the Kafka offset
+     * @param records the records of one poll
+     * @param consumer the listener's consumer, used to read partition lag
      */
     @KafkaListener(
         topics = TracehubConstants.AUDIT_LOGS_TOPIC,
         groupId = "${spring.kafka.consumer.group-id}",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "kafkaListenerContainerFactory",
+        batch = "true"
     )
-    public void processLogEvent(
-            @Payload LogEvent event,
-            @Header(KafkaHeaders.RECEIVED_KEY) String key,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset) {
+    public void processLogEvents(List<ConsumerRecord<String, LogEvent>> records, Consumer<?, ?> consumer) {
+        if (records.isEmpty()) {
+            return;
+        }
+        long consumedAtMillis = System.currentTimeMillis();
+        long consumedAtNanos = System.nanoTime();
+        pipelineMetrics.recordFirstRecord();
+        pipelineMetrics.recordBatchSize(records.size());
+        
+        List<LogEvent> events = new ArrayList<>(records.size());
+        List<LogDocument> prepared = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, LogEvent> record : records) {
+            LogEvent event = record.value();
+            if (event == null) {
+                pipelineMetrics.recordIndexErrors("empty_record", 1);
+                continue;
+            }
+            try {
+                pipelineMetrics.recordIngestLag(consumedAtMillis - ingestTime(record));
+                
+                // Document ID from the record's position, the same on every redelivery and on any instance
+                String documentId = IdempotencyUtil.generateDocumentId(event,
+                    record.topic() + "-" + record.partition(), record.offset());
+                
+                prepared.add(new LogDocument(getIndexName(event.getTimestamp()), documentId, event));
+                events.add(event);
+            } catch (RuntimeException e) {
+                skip(record, e);
+            }
+        }
         
-        logger.debug("Processing log event: tenantId={}, action={}, partition={}, offset={}", 
-                   event.getTenantId(), event.getAction(), partition, offset);
+        // One lookup per enricher for the whole poll, bounded by each enricher's latency budget
+        enrichmentPipeline.enrich(events);
+        
+        // Redact after enrichment, so values added by enrichers are covered too, then tokenize
+        // identifying fields last, so enrichers still see the clear values
+        List<LogDocument> documents = new ArrayList<>(prepared.size());
+        for (LogDocument document : prepared) {
+            try {
+                redactionService.redact(document.getEvent());
+                tokenizationService.tokenize(document.getEvent());
+                documents.add(document);
+            } catch (RuntimeException e) {
+                skip(document, e);
+            }
+        }
         
         try {
-            // Generate document ID for idempotency
-            String documentId = IdempotencyUtil.generateDocumentId(event, processorId, offset);
-            
-            // Determine index name based on timestamp
-            String indexName = getIndexName(event.getTimestamp());
-            
-            // TODO: Add PII redaction logic here
-            // TODO: Add enrichment logic here
-            
-            // Index to OpenSearch
-            openSearchService.indexLogEvent(indexName, documentId, event);
-            
-            logger.debug("Successfully processed log event: tenantId={}, documentId={}", 
-                       event.getTenantId(), documentId);
-            
+            Map<String, Integer> failures = logStore.write(documents);
+            int failed = 0;
+            for (Map.Entry<String, Integer> failure : failures.entrySet()) {
+                pipelineMetrics.recordIndexErrors(failure.getKey(), failure.getValue());
+                failed += failure.getValue();
+            }
+            pipelineMetrics.recordIndexed(documents.size() - failed, System.nanoTime() - consumedAtNanos);
+            if (failed > 0) {
+                errorLog.atWarn()
+                    .addKeyValue("batchSize", documents.size())
+                    .addKeyValue("failures", failures)
+                    .log("Bulk indexing rejected documents");
+            }
         } catch (Exception e) {
-            logger.error("Failed to process log event: tenantId={}, error={}", 
-                        event.getTenantId(), e.getMessage(), e);
+            pipelineMetrics.recordIndexErrors("request_failed", documents.size());
+            errorLog.atError()
+                .setCause(e)
+                .addKeyValue("batchSize", documents.size())
+                .log("Failed to index batch");
             
             // TODO: Send to DLQ topic
             // TODO: Implement retry logic
         }
+        
+        pipelineMetrics.updateConsumerLag(consumer);
+        batchLog.atDebug()
+            .addKeyValue("batchSize", records.size())
+            .addKeyValue("partition", records.get(0).partition())
+            .addKeyValue("offset", records.get(0).offset())
+            .log("Processed batch");
+    }
+    
+    /**
+     * Count and log an event that failed processing; it is left out of the batch so the
+     * rest of the batch is still indexed
+     */
+    private void skip(ConsumerRecord<String, LogEvent> record, RuntimeException e) {
+        pipelineMetrics.recordIndexErrors("processing_failed", 1);
+        errorLog.atWarn()
+            .setCause(e)
+            .addKeyValue("tenantId", record.value().getTenantId())
+            .addKeyValue("partition", record.partition())
+            .addKeyValue("offset", record.offset())
+            .log("Skipped event that failed processing");
+    }
+    
+    private void skip(LogDocument document, RuntimeException e) {
+        pipelineMetrics.recordIndexErrors("processing_failed", 1);
+        errorLog.atWarn()
+            .setCause(e)
+            .addKeyValue("tenantId", document.getEvent().getTenantId())
+            .addKeyValue("documentId", document.getDocumentId())
+            .log("Skipped event that failed processing");
+    }
+    
+    /**
+     * Ingest time from the record header, falling back to the record timestamp
+     * for events produced without it
+     */
+    private static long ingestTime(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(TracehubConstants.INGEST_TIME_HEADER);
+        if (header != null) {
+            try {
+                return Long.parseLong(new String(header.value(), StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                // Fall through to the record timestamp
+            }
+        }
+        return record.timestamp();
     }
     
     /**
@@ -87,13 +200,14 @@ public class LogProcessorService {
      * @param timestamp the log event timestamp
      * @return index name
      */
-    private String getIndexName(java.time.Instant timestamp) {
+    public static String getIndexName(java.time.Instant timestamp) {
         LocalDate date = timestamp.atZone(java.time.ZoneOffset.UTC).toLocalDate();
         return TracehubConstants.INDEX_PREFIX + "-" + date.format(DATE_FORMATTER);
     }
     
     /**
-     * Get processor ID for this service instance
+     * Get processor ID for this service instance: tracehub.processor.instance-id, or a random ID.
+     * It identifies the instance in logs only; document IDs come from the record's offset.
      * 
      * @return processor ID
      */
@@ -0,0 +1,62 @@
+package com.haiphamcoder.tracehub.processor.service;
+
+import com.haiphamcoder.tracehub.processor.metrics.PipelineMetrics;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Rebalance callbacks of the processor's consumers.
+ * <ul>
+ *   <li>With the cooperative-sticky assignor, a rebalance revokes only the partitions that
+ *       move; the others keep being consumed throughout.</li>
+ *   <li>Callbacks run on the consumer thread between polls, after
+ *       {@link LogProcessorService#processLogEvents} has returned, so the bulk request of the
+ *       last batch has completed. Its offsets are committed right after
+ *       {@link #onPartitionsRevokedBeforeCommit}, and the new owner starts after it.</li>
+ *   <li>Lost partitions (session expired) were not committed; their last batch is consumed
+ *       again by the new owner and deduplicated by document ID.</li>
+ * </ul>
+ */
+@Component
+public class PartitionRebalanceListener implements ConsumerAwareRebalanceListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PartitionRebalanceListener.class);
+    
+    private final PipelineMetrics pipelineMetrics;
+    
+    public PartitionRebalanceListener(PipelineMetrics pipelineMetrics) {
+        this.pipelineMetrics = pipelineMetrics;
+    }
+    
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (!partitions.isEmpty()) {
+            logger.info("Partitions revoked, committing processed offsets: {}", partitions);
+        }
+    }
+    
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        pipelineMetrics.recordRebalance("revoked", partitions);
+    }
+    
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        logger.warn("Partitions lost without commit: {}", partitions);
+        pipelineMetrics.recordRebalance("lost", partitions);
+    }
+    
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (!partitions.isEmpty()) {
+            logger.info("Partitions assigned: {}", partitions);
+        }
+        pipelineMetrics.recordRebalance("assigned", partitions);
+    }
+}
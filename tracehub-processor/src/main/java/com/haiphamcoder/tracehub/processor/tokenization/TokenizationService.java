@@ -0,0 +1,62 @@
+package com.haiphamcoder.tracehub.processor.tokenization;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.util.FieldTokenizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+/**
+ * Replaces userId and actorIp with deterministic per-tenant tokens before indexing,
+ * for tenants that have a key in the tokenization keystore.
+ * Runs after enrichment, so enrichers still see the clear values.
+ * <pre>
+ * tracehub.tokenization.keystore=/etc/tracehub/tokenization.p12
+ * tracehub.tokenization.keystore-password=...
+ * </pre>
+ */
+@Service
+public class TokenizationService {
+    
+    public static final String USER_ID_FIELD = "userId";
+    public static final String ACTOR_IP_FIELD = "actorIp";
+    
+    private static final Logger logger = LoggerFactory.getLogger(TokenizationService.class);
+    
+    private final FieldTokenizer tokenizer;
+    private final Counter tokenizedEvents;
+    
+    public TokenizationService(MeterRegistry meterRegistry,
+                               @Value("${tracehub.tokenization.keystore:}") String keystore,
+                               @Value("${tracehub.tokenization.keystore-password:}") String password)
+            throws IOException, GeneralSecurityException {
+        this.tokenizer = FieldTokenizer.load(keystore, password.toCharArray());
+        this.tokenizedEvents = Counter.builder("tracehub.pipeline.tokenized")
+            .description("Events whose userId and actorIp were tokenized")
+            .register(meterRegistry);
+        logger.info("Tokenization initialized: tenants={}", tokenizer.getTenantCount());
+    }
+    
+    /**
+     * Tokenize the userId and actorIp of an event in place
+     *
+     * @param event the event
+     * @return true if the event's tenant is tokenized
+     */
+    public boolean tokenize(LogEvent event) {
+        String tenantId = event.getTenantId();
+        if (!tokenizer.isTokenized(tenantId)) {
+            return false;
+        }
+        event.setUserId(tokenizer.tokenize(tenantId, USER_ID_FIELD, event.getUserId()));
+        event.setActorIp(tokenizer.tokenize(tenantId, ACTOR_IP_FIELD, event.getActorIp()));
+        tokenizedEvents.increment();
+        return true;
+    }
+}
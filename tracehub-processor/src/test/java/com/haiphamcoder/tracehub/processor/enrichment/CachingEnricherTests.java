@@ -0,0 +1,124 @@
+package com.haiphamcoder.tracehub.processor.enrichment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class CachingEnricherTests {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void batchesMissesAndCachesFoundAndNotFoundKeys() {
+		RecordingEnricher source = new RecordingEnricher(Map.of("u1", Map.of("role", "admin")), null);
+		CachingEnricher enricher = new CachingEnricher(source, 100, Duration.ofMinutes(1), Duration.ofMinutes(1),
+				Duration.ofSeconds(1), 1, executor, new SimpleMeterRegistry());
+
+		List<LogEvent> batch = List.of(event("u1"), event("u1"), event("u2"));
+		enricher.enrich(batch);
+		assertEquals(List.of(Set.of("u1", "u2")), source.calls);
+		assertEquals(Map.of("role", "admin"), batch.get(1).getMetadata().get("test"));
+		assertNull(batch.get(2).getMetadata());
+
+		// Both the hit and the miss are served from the cache
+		enricher.enrich(List.of(event("u1"), event("u2")));
+		assertEquals(1, source.calls.size());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void givesEachEventItsOwnCopyOfTheCachedAttributes() {
+		RecordingEnricher source = new RecordingEnricher(Map.of("u1", Map.of("role", "admin")), null);
+		CachingEnricher enricher = new CachingEnricher(source, 100, Duration.ofMinutes(1), Duration.ofMinutes(1),
+				Duration.ofSeconds(1), 1, executor, new SimpleMeterRegistry());
+
+		List<LogEvent> batch = List.of(event("u1"), event("u1"));
+		enricher.enrich(batch);
+		((Map<String, Object>) batch.get(0).getMetadata().get("test")).put("role", "[REDACTED:TOKEN]");
+
+		assertEquals(Map.of("role", "admin"), batch.get(1).getMetadata().get("test"));
+		LogEvent cached = event("u1");
+		enricher.enrich(List.of(cached));
+		assertEquals(Map.of("role", "admin"), cached.getMetadata().get("test"));
+	}
+
+	@Test
+	void skipsBatchWhenBudgetIsExceededAndFillsCacheInBackground() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingEnricher source = new RecordingEnricher(Map.of("u1", Map.of("role", "admin")), release);
+		CachingEnricher enricher = new CachingEnricher(source, 100, Duration.ofMinutes(1), Duration.ofMinutes(1),
+				Duration.ofMillis(20), 1, executor, new SimpleMeterRegistry());
+
+		LogEvent slow = event("u1");
+		enricher.enrich(List.of(slow));
+		assertNull(slow.getMetadata());
+
+		release.countDown();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (enricher.size() == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		LogEvent cached = event("u1");
+		enricher.enrich(List.of(cached));
+		assertEquals(Map.of("role", "admin"), cached.getMetadata().get("test"));
+		assertEquals(1, source.calls.size());
+	}
+
+	private static LogEvent event(String userId) {
+		return new LogEvent(Instant.now(), "tenant-1", userId, "LOGIN", "SUCCESS", "10.0.0.1", "login");
+	}
+
+	private static final class RecordingEnricher implements Enricher {
+
+		private final Map<String, Map<String, Object>> data;
+		private final CountDownLatch release;
+		private final List<Set<String>> calls = new ArrayList<>();
+
+		RecordingEnricher(Map<String, Map<String, Object>> data, CountDownLatch release) {
+			this.data = data;
+			this.release = release;
+		}
+
+		@Override
+		public String getName() {
+			return "test";
+		}
+
+		@Override
+		public String keyOf(LogEvent event) {
+			return event.getUserId();
+		}
+
+		@Override
+		public Map<String, Map<String, Object>> lookup(Set<String> keys) throws InterruptedException {
+			synchronized (calls) {
+				calls.add(Set.copyOf(keys));
+			}
+			if (release != null) {
+				release.await();
+			}
+			return data;
+		}
+	}
+
+}
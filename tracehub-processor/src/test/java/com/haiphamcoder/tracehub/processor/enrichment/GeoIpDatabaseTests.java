@@ -0,0 +1,50 @@
+package com.haiphamcoder.tracehub.processor.enrichment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class GeoIpDatabaseTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void convertsCsvAndLooksUpMappedRanges() throws Exception {
+		Path csv = directory.resolve("ranges.csv");
+		Files.writeString(csv, """
+				# startIp,endIp,country,city,asn,asOrg
+				203.0.113.0,203.0.113.255,VN,Hanoi,45899,VNPT Corp
+				8.8.8.0,8.8.8.255,US,,15169,Google, LLC
+				255.255.255.0,255.255.255.255,ZZ,,,
+				""");
+		Path database = directory.resolve("geo.db");
+		assertEquals(3, GeoIpDatabase.convertCsv(csv, database));
+
+		GeoIpDatabase geo = GeoIpDatabase.open(database);
+		GeoIpDatabase.Range range = geo.lookup(GeoIpDatabase.parseIpv4("8.8.8.8"));
+		assertEquals("US", range.getCountry());
+		assertNull(range.getCity());
+		assertEquals(15169, range.getAsn());
+		assertEquals("Google, LLC", range.getAsOrg());
+		assertEquals("Hanoi", geo.lookup(GeoIpDatabase.parseIpv4("203.0.113.7")).getCity());
+		assertEquals("ZZ", geo.lookup(GeoIpDatabase.parseIpv4("255.255.255.255")).getCountry());
+		assertNull(geo.lookup(GeoIpDatabase.parseIpv4("8.8.9.1")));
+		assertNull(geo.lookup(GeoIpDatabase.parseIpv4("1.1.1.1")));
+	}
+
+	@Test
+	void parsesOnlyValidIpv4() {
+		assertEquals(0xC0A80001L, GeoIpDatabase.parseIpv4("192.168.0.1"));
+		assertEquals(-1, GeoIpDatabase.parseIpv4("256.1.1.1"));
+		assertEquals(-1, GeoIpDatabase.parseIpv4("1.2.3"));
+		assertEquals(-1, GeoIpDatabase.parseIpv4("::1"));
+		assertEquals(-1, GeoIpDatabase.parseIpv4("1.2.3.4."));
+	}
+
+}
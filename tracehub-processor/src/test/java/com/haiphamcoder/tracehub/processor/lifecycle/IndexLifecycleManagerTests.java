@@ -0,0 +1,253 @@
+package com.haiphamcoder.tracehub.processor.lifecycle;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.haiphamcoder.tracehub.common.archive.ArchiveSegment;
+import com.haiphamcoder.tracehub.common.archive.ArchiveSegmentWriter;
+import com.haiphamcoder.tracehub.common.archive.ArchiveStorage;
+import com.haiphamcoder.tracehub.common.store.LogStore;
+import com.haiphamcoder.tracehub.opensearch.OpenSearchLogStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch._types.mapping.TypeMapping;
+import org.opensearch.client.opensearch.core.CountResponse;
+import org.opensearch.client.opensearch.core.ScrollRequest;
+import org.opensearch.client.opensearch.core.ScrollResponse;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.core.search.HitsMetadata;
+import org.opensearch.client.opensearch.indices.GetMappingResponse;
+import org.opensearch.client.opensearch.indices.OpenSearchIndicesClient;
+import org.opensearch.client.opensearch.indices.PutMappingRequest;
+import org.opensearch.client.opensearch.indices.get_mapping.IndexMappingRecord;
+import org.opensearch.client.util.ObjectBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+class IndexLifecycleManagerTests {
+
+	private static final String INDEX = "logs-tracehub-2026.01.01";
+
+	@TempDir
+	Path tempDir;
+
+	private final OpenSearchClient client = mock(OpenSearchClient.class);
+	private final OpenSearchIndicesClient indices = mock(OpenSearchIndicesClient.class);
+	private final OpenSearchLogStore logStore = mock(OpenSearchLogStore.class);
+	private InMemoryArchiveStorage storage;
+	private IndexLifecycleManager manager;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		storage = new InMemoryArchiveStorage(tempDir);
+		when(client.indices()).thenReturn(indices);
+		ObjectProvider<OpenSearchClient> clientProvider = mock(ObjectProvider.class);
+		when(clientProvider.getIfAvailable()).thenReturn(client);
+		ObjectProvider<LogStore> logStoreProvider = mock(ObjectProvider.class);
+		when(logStoreProvider.getIfAvailable()).thenReturn(logStore);
+		ObjectProvider<ArchiveStorage> storageProvider = mock(ObjectProvider.class);
+		when(storageProvider.getIfAvailable()).thenReturn(storage);
+		manager = new IndexLifecycleManager(clientProvider, storageProvider, logStoreProvider, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(manager, "segmentRows", 2);
+		ReflectionTestUtils.setField(manager, "pageSize", 2);
+	}
+
+	@Test
+	void blocksWritesThenExportsToSegmentsAndDeletesTheIndex() throws IOException {
+		givenMeta(null);
+		givenCount(3);
+		givenPages(List.of(event(1), event(2)), List.of(event(3)));
+
+		manager.archive(INDEX);
+
+		assertEquals(List.of(ArchiveSegment.name(INDEX, 0), ArchiveSegment.name(INDEX, 1)), storage.list(""));
+		assertArrayEquals(new long[] {1000, 2000}, storage.open(ArchiveSegment.name(INDEX, 0)).readTimestamps());
+		assertArrayEquals(new long[] {3000}, storage.open(ArchiveSegment.name(INDEX, 1)).readTimestamps());
+		assertEquals(0, recordedFirstSegment());
+		InOrder order = inOrder(indices, client);
+		order.verify(indices).putSettings(any(Function.class));
+		order.verify(client).count(any(Function.class));
+		order.verify(client).search(any(SearchRequest.class), eq(Map.class));
+		order.verify(indices).delete(any(Function.class));
+		verify(logStore).forgetIndex(INDEX);
+	}
+
+	@Test
+	void countMismatchRemovesWrittenSegmentsAndKeepsTheIndex() throws IOException {
+		givenMeta(null);
+		givenCount(4);
+		givenPages(List.of(event(1), event(2)), List.of(event(3)));
+
+		assertThrows(IOException.class, () -> manager.archive(INDEX));
+
+		assertEquals(List.of(), storage.list(""));
+		verify(indices, never()).delete(any(Function.class));
+		verify(logStore, never()).forgetIndex(INDEX);
+	}
+
+	@Test
+	void recreatedIndexIsExportedAfterTheExistingSegments() throws IOException {
+		storage.putEvents(ArchiveSegment.name(INDEX, 0), 100);
+		storage.putEvents(ArchiveSegment.name(INDEX, 1), 200);
+		storage.putEvents(ArchiveSegment.name("logs-tracehub-2026.01.02", 0), 300);
+		givenMeta(null);
+		givenCount(1);
+		givenPages(List.of(event(5)));
+
+		manager.archive(INDEX);
+
+		assertEquals(2, recordedFirstSegment());
+		assertArrayEquals(new long[] {100_000}, storage.open(ArchiveSegment.name(INDEX, 0)).readTimestamps());
+		assertArrayEquals(new long[] {200_000}, storage.open(ArchiveSegment.name(INDEX, 1)).readTimestamps());
+		assertArrayEquals(new long[] {5000}, storage.open(ArchiveSegment.name(INDEX, 2)).readTimestamps());
+		verify(indices).delete(any(Function.class));
+	}
+
+	@Test
+	void interruptedExportIsRedoneOverItsOwnSegments() throws IOException {
+		storage.putEvents(ArchiveSegment.name(INDEX, 0), 100);
+		storage.putEvents(ArchiveSegment.name(INDEX, 1), 1);
+		givenMeta(1);
+		givenCount(1);
+		givenPages(List.of(event(7)));
+
+		manager.archive(INDEX);
+
+		assertEquals(List.of(ArchiveSegment.name(INDEX, 0), ArchiveSegment.name(INDEX, 1)), storage.list(""));
+		assertArrayEquals(new long[] {100_000}, storage.open(ArchiveSegment.name(INDEX, 0)).readTimestamps());
+		assertArrayEquals(new long[] {7000}, storage.open(ArchiveSegment.name(INDEX, 1)).readTimestamps());
+		verify(indices, never()).putMapping(any(Function.class));
+	}
+
+	private void givenMeta(Integer firstSegment) throws IOException {
+		TypeMapping mapping = firstSegment == null
+				? TypeMapping.of(m -> m)
+				: TypeMapping.of(m -> m.meta("tracehub_archive_first_segment", JsonData.of(firstSegment)));
+		GetMappingResponse.Builder response = new GetMappingResponse.Builder();
+		response.result(Map.of(INDEX, IndexMappingRecord.of(r -> r.mappings(mapping))));
+		when(indices.getMapping(any(Function.class))).thenReturn(response.build());
+	}
+
+	private void givenCount(long count) throws IOException {
+		CountResponse response = mock(CountResponse.class);
+		when(response.count()).thenReturn(count);
+		when(client.count(any(Function.class))).thenReturn(response);
+	}
+
+	private void givenPages(List<Map<String, Object>> first, List<Map<String, Object>>... more) throws IOException {
+		SearchResponse<Map> search = page(mock(SearchResponse.class), first);
+		when(client.search(any(SearchRequest.class), eq(Map.class))).thenReturn(search);
+		List<ScrollResponse<Map>> scrolls = new ArrayList<>();
+		for (List<Map<String, Object>> events : more) {
+			scrolls.add(page(mock(ScrollResponse.class), events));
+		}
+		scrolls.add(page(mock(ScrollResponse.class), List.of()));
+		when(client.scroll(any(ScrollRequest.class), eq(Map.class)))
+				.thenReturn(scrolls.get(0), scrolls.subList(1, scrolls.size()).toArray(new ScrollResponse[0]));
+	}
+
+	private static <R extends SearchResponse<Map>> R page(R response, List<Map<String, Object>> events) {
+		List<Hit<Map>> hits = new ArrayList<>();
+		for (Map<String, Object> source : events) {
+			hits.add(Hit.of(h -> h.index(INDEX).id(String.valueOf(hits.size())).source(source)));
+		}
+		HitsMetadata<Map> metadata = HitsMetadata.of(m -> m.hits(hits));
+		when(response.hits()).thenReturn(metadata);
+		when(response.scrollId()).thenReturn("scroll");
+		return response;
+	}
+
+	private int recordedFirstSegment() throws IOException {
+		ArgumentCaptor<Function<PutMappingRequest.Builder, ObjectBuilder<PutMappingRequest>>> captor = ArgumentCaptor.forClass(Function.class);
+		verify(indices).putMapping(captor.capture());
+		PutMappingRequest request = captor.getValue().apply(new PutMappingRequest.Builder()).build();
+		return request.meta().get("tracehub_archive_first_segment").to(Integer.class);
+	}
+
+	private static Map<String, Object> event(int seconds) {
+		return Map.of(
+				"@timestamp", Instant.ofEpochSecond(seconds).toString(),
+				"tenantId", "tenant-1",
+				"userId", "user-1",
+				"action", "LOGIN",
+				"status", "SUCCESS",
+				"actorIp", "10.0.0.1",
+				"message", "event " + seconds);
+	}
+
+	/**
+	 * Archive storage holding segment bytes in memory
+	 */
+	private static final class InMemoryArchiveStorage implements ArchiveStorage {
+
+		private final Map<String, byte[]> segments = new TreeMap<>();
+		private final Path dir;
+
+		InMemoryArchiveStorage(Path dir) {
+			this.dir = dir;
+		}
+
+		void putEvents(String name, int seconds) throws IOException {
+			Path file = dir.resolve("seed-" + name);
+			ArchiveSegmentWriter.write(
+					List.of(OpenSearchLogStore.convertFromMap(event(seconds))), file);
+			put(name, file);
+		}
+
+		ArchiveSegment open(String name) throws IOException {
+			return ArchiveSegment.open(fetch(name));
+		}
+
+		@Override
+		public void put(String name, Path file) throws IOException {
+			segments.put(name, Files.readAllBytes(file));
+		}
+
+		@Override
+		public List<String> list(String prefix) {
+			return segments.keySet().stream().filter(name -> name.startsWith(prefix)).toList();
+		}
+
+		@Override
+		public Path fetch(String name) throws IOException {
+			byte[] bytes = segments.get(name);
+			if (bytes == null) {
+				throw new IOException("No segment " + name);
+			}
+			return Files.write(Files.createTempFile(dir, name, ".fetched"), bytes);
+		}
+
+		@Override
+		public void delete(String name) {
+			segments.remove(name);
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.haiphamcoder.tracehub.processor.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsResult;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class GroupLagMonitorTests {
+
+	private static final TopicPartition P0 = new TopicPartition("audit-logs", 0);
+	private static final TopicPartition P1 = new TopicPartition("audit-logs", 1);
+	private static final TopicPartition P2 = new TopicPartition("audit-logs", 2);
+
+	@Test
+	void sumsLagOverPartitionsCountingUncommittedFromTheLogStart() {
+		GroupLagMonitor.Sample sample = GroupLagMonitor.Sample.of(0,
+				Map.of(P0, 1000L, P1, 500L, P2, 300L),
+				Map.of(P0, 900L, P1, 520L),
+				Map.of(P2, 100L));
+
+		// P0 is 100 behind, P1 committed past a stale end counts as caught up, P2 is 200 behind its start
+		assertEquals(300, sample.lag());
+	}
+
+	@Test
+	void refreshReadsOffsetsFromTheAdminClient() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		Admin admin = mock(Admin.class);
+		GroupLagMonitor monitor = new GroupLagMonitor(mock(KafkaAdmin.class), meterRegistry, "group-1", 1000);
+		monitor.setAdmin(admin);
+		givenPartitions(admin, 3);
+		Map<TopicPartition, Long> endOffsets = new HashMap<>(Map.of(P0, 1000L, P1, 500L, P2, 300L));
+		givenOffsets(admin, endOffsets, Map.of(P2, 100L));
+		givenCommitted(admin, Map.of(P0, 900L, P1, 450L));
+
+		monitor.refresh();
+
+		assertEquals(350.0, gauge(meterRegistry, "tracehub.pipeline.group.lag"));
+		assertTrue(Double.isNaN(gauge(meterRegistry, "tracehub.pipeline.group.produce.rate")));
+
+		endOffsets.put(P0, 1600L);
+		givenCommitted(admin, Map.of(P0, 1000L, P1, 500L, P2, 300L));
+		monitor.refresh();
+
+		assertEquals(600.0, gauge(meterRegistry, "tracehub.pipeline.group.lag"));
+		assertTrue(gauge(meterRegistry, "tracehub.pipeline.group.produce.rate") > 0);
+		assertTrue(gauge(meterRegistry, "tracehub.pipeline.group.consume.rate") > 0);
+	}
+
+	@Test
+	void failedRefreshClearsTheValues() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		Admin admin = mock(Admin.class);
+		GroupLagMonitor monitor = new GroupLagMonitor(mock(KafkaAdmin.class), meterRegistry, "group-1", 1000);
+		monitor.setAdmin(admin);
+		givenPartitions(admin, 1);
+		givenOffsets(admin, Map.of(P0, 1000L), Map.of());
+		givenCommitted(admin, Map.of(P0, 900L));
+		monitor.refresh();
+		assertEquals(100.0, gauge(meterRegistry, "tracehub.pipeline.group.lag"));
+
+		ListConsumerGroupOffsetsResult failed = mock(ListConsumerGroupOffsetsResult.class);
+		when(failed.partitionsToOffsetAndMetadata())
+				.thenReturn(KafkaFuture.completedFuture(null).thenApply(ignored -> {
+					throw new IllegalStateException("coordinator unavailable");
+				}));
+		when(admin.listConsumerGroupOffsets("group-1")).thenReturn(failed);
+		monitor.refresh();
+
+		assertTrue(Double.isNaN(gauge(meterRegistry, "tracehub.pipeline.group.lag")));
+		assertTrue(Double.isNaN(gauge(meterRegistry, "tracehub.pipeline.group.consume.rate")));
+	}
+
+	@Test
+	void ratesAreRecordsPerSecondAndNeverNegative() {
+		assertEquals(250.0, GroupLagMonitor.rate(1000, 1500, 2_000_000_000L));
+		assertEquals(0.0, GroupLagMonitor.rate(1500, 1000, 1_000_000_000L));
+		assertTrue(Double.isNaN(GroupLagMonitor.rate(1000, 1500, 0)));
+	}
+
+	private static double gauge(SimpleMeterRegistry meterRegistry, String name) {
+		return meterRegistry.get(name).tag("group", "group-1").gauge().value();
+	}
+
+	private static void givenPartitions(Admin admin, int partitions) {
+		List<TopicPartitionInfo> infos = new ArrayList<>();
+		for (int partition = 0; partition < partitions; partition++) {
+			infos.add(new TopicPartitionInfo(partition, null, List.of(), List.of()));
+		}
+		DescribeTopicsResult result = mock(DescribeTopicsResult.class);
+		when(result.allTopicNames()).thenReturn(KafkaFuture.completedFuture(
+				Map.of("audit-logs", new TopicDescription("audit-logs", false, infos))));
+		when(admin.describeTopics(any(Collection.class))).thenReturn(result);
+	}
+
+	/**
+	 * Answer listOffsets with the end offsets, or the start offsets for earliest specs
+	 */
+	private static void givenOffsets(Admin admin, Map<TopicPartition, Long> endOffsets,
+			Map<TopicPartition, Long> startOffsets) {
+		when(admin.listOffsets(anyMap())).thenAnswer(invocation -> {
+			Map<TopicPartition, OffsetSpec> specs = invocation.getArgument(0);
+			Map<TopicPartition, KafkaFuture<ListOffsetsResultInfo>> infos = new HashMap<>();
+			specs.forEach((partition, spec) -> {
+				long offset = spec instanceof OffsetSpec.EarliestSpec
+						? startOffsets.get(partition) : endOffsets.get(partition);
+				infos.put(partition, KafkaFuture.completedFuture(new ListOffsetsResultInfo(offset, -1, Optional.empty())));
+			});
+			return new ListOffsetsResult(infos);
+		});
+	}
+
+	private static void givenCommitted(Admin admin, Map<TopicPartition, Long> committed) {
+		Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+		committed.forEach((partition, offset) -> offsets.put(partition, new OffsetAndMetadata(offset)));
+		ListConsumerGroupOffsetsResult result = mock(ListConsumerGroupOffsetsResult.class);
+		when(result.partitionsToOffsetAndMetadata()).thenReturn(KafkaFuture.completedFuture(offsets));
+		when(admin.listConsumerGroupOffsets("group-1")).thenReturn(result);
+	}
+
+}
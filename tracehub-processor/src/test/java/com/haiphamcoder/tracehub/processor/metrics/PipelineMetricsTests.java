@@ -0,0 +1,86 @@
+package com.haiphamcoder.tracehub.processor.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+class PipelineMetricsTests {
+
+	private static final TopicPartition P0 = new TopicPartition("audit-logs", 0);
+	private static final TopicPartition P1 = new TopicPartition("audit-logs", 1);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final PipelineMetrics metrics = new PipelineMetrics(meterRegistry);
+
+	@Test
+	void recordsIndexedEventsAndErrorsByReason() {
+		metrics.recordIndexed(98, TimeUnit.MILLISECONDS.toNanos(40));
+		metrics.recordIndexErrors("mapper_parsing_exception", 2);
+		metrics.recordIndexErrors("processing_failed", 1);
+		metrics.recordIndexErrors("processing_failed", 1);
+
+		assertEquals(98, meterRegistry.get("tracehub.pipeline.indexed").counter().count());
+		assertEquals(40, meterRegistry.get("tracehub.pipeline.index.latency").timer().totalTime(TimeUnit.MILLISECONDS));
+		assertEquals(2, meterRegistry.get("tracehub.pipeline.index.errors").tag("reason", "mapper_parsing_exception")
+				.counter().count());
+		assertEquals(2, meterRegistry.get("tracehub.pipeline.index.errors").tag("reason", "processing_failed")
+				.counter().count());
+	}
+
+	@Test
+	void negativeIngestLagCountsAsZero() {
+		metrics.recordIngestLag(-500);
+		metrics.recordIngestLag(300);
+
+		assertEquals(2, meterRegistry.get("tracehub.pipeline.ingest.lag").timer().count());
+		assertEquals(300, meterRegistry.get("tracehub.pipeline.ingest.lag").timer().totalTime(TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void lagGaugesFollowTheAssignment() {
+		Consumer<?, ?> consumer = mock(Consumer.class);
+		when(consumer.assignment()).thenReturn(Set.of(P0, P1));
+		when(consumer.currentLag(P0)).thenReturn(OptionalLong.of(120));
+		when(consumer.currentLag(P1)).thenReturn(OptionalLong.empty());
+		metrics.recordRebalance("assigned", List.of(P0, P1));
+
+		metrics.updateConsumerLag(consumer);
+
+		assertEquals(2, meterRegistry.get("tracehub.pipeline.partitions.assigned").gauge().value());
+		assertEquals(120, meterRegistry.get("tracehub.pipeline.consumer.lag").tag("partition", "0").gauge().value());
+		assertNull(meterRegistry.find("tracehub.pipeline.consumer.lag").tag("partition", "1").gauge());
+
+		// P0 moves to another instance in a cooperative rebalance
+		metrics.recordRebalance("revoked", List.of(P0));
+
+		assertEquals(1, meterRegistry.get("tracehub.pipeline.partitions.assigned").gauge().value());
+		assertNull(meterRegistry.find("tracehub.pipeline.consumer.lag").tag("partition", "0").gauge());
+		assertEquals(1, meterRegistry.get("tracehub.pipeline.rebalance.partitions").tag("event", "revoked")
+				.counter().count());
+	}
+
+	@Test
+	void unassignedPartitionsLoseTheirLagGauge() {
+		Consumer<?, ?> consumer = mock(Consumer.class);
+		when(consumer.assignment()).thenReturn(Set.of(P0));
+		when(consumer.currentLag(P0)).thenReturn(OptionalLong.of(5));
+		metrics.updateConsumerLag(consumer);
+
+		when(consumer.assignment()).thenReturn(Set.of());
+		metrics.updateConsumerLag(consumer);
+
+		assertNull(meterRegistry.find("tracehub.pipeline.consumer.lag").gauge());
+	}
+
+}
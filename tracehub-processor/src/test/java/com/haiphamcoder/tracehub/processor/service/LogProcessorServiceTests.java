@@ -0,0 +1,113 @@
+package com.haiphamcoder.tracehub.processor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.store.LogDocument;
+import com.haiphamcoder.tracehub.common.store.LogStore;
+import com.haiphamcoder.tracehub.processor.enrichment.EnrichmentPipeline;
+import com.haiphamcoder.tracehub.processor.metrics.PipelineMetrics;
+import com.haiphamcoder.tracehub.processor.redaction.RedactionService;
+import com.haiphamcoder.tracehub.processor.tokenization.TokenizationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class LogProcessorServiceTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final LogStore logStore = mock(LogStore.class);
+	private final RedactionService redactionService = mock(RedactionService.class);
+	private final EnrichmentPipeline enrichmentPipeline = mock(EnrichmentPipeline.class);
+	private final TokenizationService tokenizationService = mock(TokenizationService.class);
+	private final Consumer<?, ?> consumer = mock(Consumer.class);
+	private LogProcessorService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		when(logStore.write(any())).thenReturn(Map.of());
+		when(consumer.assignment()).thenReturn(Set.of());
+		service = new LogProcessorService(logStore, redactionService, enrichmentPipeline, tokenizationService,
+				new PipelineMetrics(meterRegistry), "processor-0", Duration.ofSeconds(1));
+	}
+
+	@Test
+	void failingEventsAreCountedAndSkippedWithoutFailingTheBatch() throws Exception {
+		LogEvent noTimestamp = event("bad timestamp");
+		noTimestamp.setTimestamp(null);
+		LogEvent tokenizationFails = event("bad token");
+		doThrow(new IllegalStateException("key unavailable")).when(tokenizationService).tokenize(tokenizationFails);
+
+		service.processLogEvents(List.of(
+				record(0, event("ok 1")), record(1, noTimestamp), record(2, tokenizationFails), record(3, event("ok 2"))),
+				consumer);
+
+		List<LogDocument> written = written();
+		assertEquals(List.of("ok 1", "ok 2"), written.stream().map(document -> document.getEvent().getMessage()).toList());
+		assertEquals(2, meterRegistry.get("tracehub.pipeline.index.errors").tag("reason", "processing_failed")
+				.counter().count());
+		assertEquals(2, meterRegistry.get("tracehub.pipeline.indexed").counter().count());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void redactsAfterEnrichmentAndBeforeTokenization() throws Exception {
+		LogEvent event = event("login");
+		doAnswer(invocation -> {
+			for (LogEvent enriched : (List<LogEvent>) invocation.getArgument(0)) {
+				enriched.setMetadata(new HashMap<>(Map.of("managerEmail", "jane.roe@example.com")));
+			}
+			return null;
+		}).when(enrichmentPipeline).enrich(any());
+		List<Object> redactedMetadata = new ArrayList<>();
+		doAnswer(invocation -> {
+			redactedMetadata.add(((LogEvent) invocation.getArgument(0)).getMetadata().get("managerEmail"));
+			return true;
+		}).when(redactionService).redact(event);
+
+		service.processLogEvents(List.of(record(0, event)), consumer);
+
+		InOrder order = inOrder(enrichmentPipeline, redactionService, tokenizationService, logStore);
+		order.verify(enrichmentPipeline).enrich(any());
+		order.verify(redactionService).redact(event);
+		order.verify(tokenizationService).tokenize(event);
+		order.verify(logStore).write(any());
+		assertEquals(List.of("jane.roe@example.com"), redactedMetadata);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<LogDocument> written() throws Exception {
+		ArgumentCaptor<List<LogDocument>> documents = ArgumentCaptor.forClass(List.class);
+		verify(logStore).write(documents.capture());
+		return documents.getValue();
+	}
+
+	private static ConsumerRecord<String, LogEvent> record(long offset, LogEvent event) {
+		return new ConsumerRecord<>("audit-logs", 0, offset, event.getTenantId(), event);
+	}
+
+	private static LogEvent event(String message) {
+		return new LogEvent(Instant.parse("2026-01-01T12:00:00Z"), "t1", "u1", "LOGIN", "SUCCESS",
+				"10.0.0.1", message);
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.haiphamcoder.tracehub.query.config;
+
+import com.haiphamcoder.tracehub.common.archive.ArchiveStorage;
+import com.haiphamcoder.tracehub.common.archive.LocalArchiveStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Configuration for the archive tier searched beyond hot retention, active with
+ * {@code tracehub.query.archive.enabled=true}. {@code tracehub.archive.path} is then required
+ * and must be the processor's archive directory.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracehub.query.archive.enabled", havingValue = "true")
+public class ArchiveConfig {
+    
+    @Value("${tracehub.archive.path}")
+    private String path;
+    
+    @Bean
+    public ArchiveStorage archiveStorage() throws IOException {
+        return new LocalArchiveStorage(Path.of(path));
+    }
+}
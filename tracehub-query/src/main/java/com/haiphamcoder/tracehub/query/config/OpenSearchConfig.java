@@ -0,0 +1,114 @@
+package com.haiphamcoder.tracehub.query.config;
+
+import com.haiphamcoder.tracehub.common.store.LogStore;
+import com.haiphamcoder.tracehub.opensearch.OpenSearchClientSettings;
+import com.haiphamcoder.tracehub.opensearch.OpenSearchLogStore;
+import com.haiphamcoder.tracehub.opensearch.PooledOpenSearchTransport;
+import com.haiphamcoder.tracehub.opensearch.PromotedFields;
+import com.haiphamcoder.tracehub.opensearch.TenantRouting;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration for OpenSearch client and the OpenSearch log store, the default store.
+ * The query service issues many small concurrent searches from request and async-search
+ * threads, so it allows more connections per node than the processor.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracehub.store.type", havingValue = "opensearch", matchIfMissing = true)
+public class OpenSearchConfig {
+    
+    @Value("${opensearch.hosts:${opensearch.scheme:http}://${opensearch.host:localhost}:${opensearch.port:9200}}")
+    private List<String> hosts;
+    
+    @Value("${opensearch.username:admin}")
+    private String username;
+    
+    @Value("${opensearch.password:admin}")
+    private String password;
+    
+    @Value("${opensearch.pool.max-connections:100}")
+    private int maxConnections;
+    
+    @Value("${opensearch.pool.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+    
+    @Value("${opensearch.connect-timeout:1s}")
+    private Duration connectTimeout;
+    
+    @Value("${opensearch.socket-timeout:30s}")
+    private Duration socketTimeout;
+    
+    @Value("${opensearch.pool.keep-alive:1m}")
+    private Duration keepAlive;
+    
+    @Value("${opensearch.compression:true}")
+    private boolean compression;
+    
+    @Value("${opensearch.sniff-interval:0s}")
+    private Duration sniffInterval;
+    
+    @Value("${tracehub.store.opensearch.routing.enabled:false}")
+    private boolean routingEnabled;
+    
+    @Value("${tracehub.store.opensearch.routing.since:}")
+    private String routingSince;
+    
+    @Bean(destroyMethod = "close")
+    public PooledOpenSearchTransport openSearchTransport(MeterRegistry meterRegistry) throws IOReactorException {
+        OpenSearchClientSettings settings = new OpenSearchClientSettings();
+        settings.setHosts(hosts);
+        settings.setUsername(username);
+        settings.setPassword(password);
+        settings.setMaxConnections(maxConnections);
+        settings.setMaxConnectionsPerRoute(maxConnectionsPerRoute);
+        settings.setConnectTimeout(connectTimeout);
+        settings.setSocketTimeout(socketTimeout);
+        settings.setKeepAlive(keepAlive);
+        settings.setCompression(compression);
+        settings.setSniffInterval(sniffInterval);
+        return new PooledOpenSearchTransport("query", settings, meterRegistry);
+    }
+    
+    @Bean
+    public OpenSearchClient openSearchClient(PooledOpenSearchTransport openSearchTransport) {
+        return openSearchTransport.getClient();
+    }
+    
+    /**
+     * Log store routing by tenant, and metadata keys promoted to typed fields per tenant:
+     * <pre>
+     * tracehub.store.opensearch.routing.enabled=true
+     * tracehub.store.opensearch.routing.since=2025-02-01
+     * tracehub.store.opensearch.routing.tenant-partitions.acme=2
+     * tracehub.store.opensearch.promoted-fields.acme=country:keyword,amount:double
+     * </pre>
+     * Processor and query must use the same routing and promoted fields. Routing needs
+     * {@code since}, so that searches never skip shards of indices written without it.
+     */
+    @Bean
+    public LogStore logStore(OpenSearchClient openSearchClient, Environment environment) {
+        Map<String, Integer> tenantPartitions = Binder.get(environment)
+            .bind("tracehub.store.opensearch.routing.tenant-partitions", Bindable.mapOf(String.class, Integer.class))
+            .orElse(Map.of());
+        TenantRouting routing = new TenantRouting(routingEnabled, tenantPartitions,
+            routingSince.isEmpty() ? null : LocalDate.parse(routingSince));
+        PromotedFields promotedFields = PromotedFields.parse(Binder.get(environment)
+            .bind("tracehub.store.opensearch.promoted-fields", Bindable.mapOf(String.class, String.class))
+            .orElse(Map.of()));
+        return new OpenSearchLogStore(openSearchClient, routing, promotedFields);
+    }
+}
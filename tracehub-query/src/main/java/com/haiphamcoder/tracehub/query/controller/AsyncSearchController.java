@@ -0,0 +1,92 @@
+package com.haiphamcoder.tracehub.query.controller;
+
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import com.haiphamcoder.tracehub.common.dto.AsyncSearchResponse;
+import com.haiphamcoder.tracehub.common.dto.SearchRequest;
+import com.haiphamcoder.tracehub.query.service.AsyncSearchService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * REST controller for asynchronous (long-running) log search
+ */
+@RestController
+@RequestMapping("/api/v1")
+@Timed(value = "log.search.async", description = "Async log search metrics")
+public class AsyncSearchController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AsyncSearchController.class);
+    
+    private final AsyncSearchService asyncSearchService;
+    
+    public AsyncSearchController(AsyncSearchService asyncSearchService) {
+        this.asyncSearchService = asyncSearchService;
+    }
+    
+    /**
+     * Submit an asynchronous search
+     *
+     * @param request the search request
+     * @return 202 Accepted with the search ID, or 429 if too many searches are queued
+     */
+    @PostMapping("/search/async")
+    public ResponseEntity<AsyncSearchResponse> submit(@Valid @RequestBody SearchRequest request) {
+        logger.info("Received async search request: tenantId={}, from={}, to={}",
+                   request.getTenantId(), request.getFrom(), request.getTo());
+        
+        try {
+            AsyncSearchResponse response = asyncSearchService.submit(request);
+            return ResponseEntity.accepted()
+                    .header("Location", TracehubConstants.ASYNC_SEARCH_ENDPOINT + "/" + response.getId())
+                    .body(response);
+        
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+    
+    /**
+     * Poll an asynchronous search for its state and collected hits
+     *
+     * @param id the search ID
+     * @param offset offset into the collected hits
+     * @param size maximum number of hits to return
+     * @return the search state and a page of hits, or 404 if unknown or expired
+     */
+    @GetMapping("/search/async/{id}")
+    public ResponseEntity<AsyncSearchResponse> get(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "" + TracehubConstants.DEFAULT_SEARCH_SIZE) int size) {
+        if (offset < 0 || size <= 0 || size > TracehubConstants.MAX_SEARCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        AsyncSearchResponse response = asyncSearchService.get(id, offset, size);
+        if (response == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Cancel an asynchronous search and discard its results
+     *
+     * @param id the search ID
+     * @return 204 No Content, or 404 if unknown or expired
+     */
+    @DeleteMapping("/search/async/{id}")
+    public ResponseEntity<Void> cancel(@PathVariable String id) {
+        if (!asyncSearchService.cancel(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
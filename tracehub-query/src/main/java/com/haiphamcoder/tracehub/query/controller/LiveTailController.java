@@ -0,0 +1,54 @@
+package com.haiphamcoder.tracehub.query.controller;
+
+import com.haiphamcoder.tracehub.query.tail.LiveTailService;
+import com.haiphamcoder.tracehub.query.tail.TailFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * REST controller for live tail over Server-Sent Events
+ */
+@RestController
+@RequestMapping("/api/v1")
+@ConditionalOnProperty(name = "tracehub.query.tail.enabled", havingValue = "true")
+public class LiveTailController {
+    
+    private final LiveTailService liveTailService;
+    
+    public LiveTailController(LiveTailService liveTailService) {
+        this.liveTailService = liveTailService;
+    }
+    
+    /**
+     * Stream new log events of a tenant as they are ingested.
+     * Sends {@code events} events holding a JSON array of log events, and {@code lag}
+     * events with the number of events dropped because the client fell behind.
+     *
+     * @param tenantId the tenant
+     * @param action only events with this action
+     * @param status only events with this status
+     * @param userId only events of this user, in clear or tokenized
+     * @return the event stream, 400 without a tenant, or 429 if too many tails are open
+     */
+    @GetMapping(path = "/tail", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> tail(@RequestParam String tenantId,
+                                           @RequestParam(required = false) String action,
+                                           @RequestParam(required = false) String status,
+                                           @RequestParam(required = false) String userId) {
+        if (tenantId.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            return ResponseEntity.ok(liveTailService.subscribe(new TailFilter(tenantId, action, status, userId)));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+}
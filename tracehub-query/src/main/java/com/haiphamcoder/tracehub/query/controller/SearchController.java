@@ -2,6 +2,7 @@ package com.haiphamcoder.tracehub.query.controller;
 
 import com.haiphamcoder.tracehub.common.dto.SearchRequest;
 import com.haiphamcoder.tracehub.common.dto.SearchResponse;
+import com.haiphamcoder.tracehub.common.store.LogStore;
 import com.haiphamcoder.tracehub.query.service.SearchService;
 import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
@@ -10,6 +11,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 /**
  * REST controller for log search
  */
@@ -50,6 +53,29 @@ public class SearchController {
         }
     }
     
+    /**
+     * Count matching log events per value of a field
+     * 
+     * @param request the search filters
+     * @param field the field to group by: tenantId, userId, action or status
+     * @param size maximum number of values
+     * @return event count per value, most frequent first
+     */
+    @PostMapping("/search/aggregate")
+    public ResponseEntity<Map<String, Long>> aggregate(@Valid @RequestBody SearchRequest request,
+                                                       @RequestParam String field,
+                                                       @RequestParam(defaultValue = "10") int size) {
+        if (!LogStore.AGGREGATABLE_FIELDS.contains(field) || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(searchService.aggregate(request, field, size));
+        } catch (Exception e) {
+            logger.error("Error processing aggregation request", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     /**
      * Health check endpoint
      * 
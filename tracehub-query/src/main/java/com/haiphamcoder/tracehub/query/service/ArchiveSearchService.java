@@ -0,0 +1,282 @@
+package com.haiphamcoder.tracehub.query.service;
+
+import com.haiphamcoder.tracehub.common.archive.ArchiveSegment;
+import com.haiphamcoder.tracehub.common.archive.ArchiveStorage;
+import com.haiphamcoder.tracehub.common.codec.LazyMetadata;
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.dto.MetadataFilter;
+import com.haiphamcoder.tracehub.common.dto.SearchRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Searches the archive segments written by the processor's index lifecycle.
+ * Segments are pruned by the day in their name, then by the time range and tenant
+ * Bloom filter in their footer, before any column is decompressed. The remaining
+ * segments are searched in parallel on a fork-join pool: each one decodes the
+ * timestamp column, narrows to the requested time range by binary search, evaluates
+ * the filters column by column, and materializes only the rows of the requested page.
+ */
+@Service
+@ConditionalOnProperty(name = "tracehub.query.archive.enabled", havingValue = "true")
+public class ArchiveSearchService {
+    
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+    private static final String INDEX_NAME_PREFIX = TracehubConstants.INDEX_PREFIX + "-";
+    
+    private final ArchiveStorage archiveStorage;
+    private final ForkJoinPool pool;
+    private final Map<String, ArchiveSegment> openSegments = new ConcurrentHashMap<>();
+    private final Counter scannedSegments;
+    private final Counter skippedSegments;
+    
+    public ArchiveSearchService(ArchiveStorage archiveStorage, MeterRegistry meterRegistry,
+                                @Value("${tracehub.query.archive.parallelism:0}") int parallelism) {
+        this.archiveStorage = archiveStorage;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.scannedSegments = Counter.builder("tracehub.query.archive.segments").tag("result", "scanned")
+            .description("Archive segments considered by searches")
+            .register(meterRegistry);
+        this.skippedSegments = Counter.builder("tracehub.query.archive.segments").tag("result", "skipped")
+            .description("Archive segments considered by searches")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Search the archive
+     *
+     * @param request the search request; its userId and actorIp are ignored
+     * @param userId userId filter as stored (tokenized for tokenized tenants), or null
+     * @param actorIp actorIp filter as stored, or null
+     * @param after return only hits after this cursor, or null for the first page
+     * @param limit maximum number of hits to return
+     * @return the hits, newest first
+     * @throws IOException if a segment cannot be read
+     */
+    SearchPart search(SearchRequest request, String userId, String actorIp, SearchCursor after, int limit) throws IOException {
+        List<String> names = archiveStorage.list(INDEX_NAME_PREFIX);
+        openSegments.keySet().retainAll(new HashSet<>(names));
+        
+        Filter filter = new Filter(request, userId, actorIp);
+        List<Callable<SearchPart>> tasks = new ArrayList<>();
+        for (String name : names) {
+            if (dayOverlaps(name, request.getFrom(), request.getTo())) {
+                tasks.add(() -> searchSegment(name, filter, after, limit));
+            } else {
+                skippedSegments.increment();
+            }
+        }
+        if (tasks.isEmpty()) {
+            return SearchPart.EMPTY;
+        }
+        
+        List<RankedEvent> events = new ArrayList<>();
+        long total = 0;
+        try {
+            for (Future<SearchPart> future : pool.invokeAll(tasks)) {
+                SearchPart result = future.get();
+                events.addAll(result.getEvents());
+                total += result.getTotal();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Archive search interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+        events.sort(RankedEvent.NEWEST_FIRST);
+        return new SearchPart(events.size() > limit ? events.subList(0, limit) : events, total);
+    }
+    
+    private SearchPart searchSegment(String name, Filter filter, SearchCursor after, int limit) throws IOException {
+        ArchiveSegment segment = openSegments.get(name);
+        if (segment == null) {
+            segment = ArchiveSegment.open(archiveStorage.fetch(name));
+            openSegments.put(name, segment);
+        }
+        if (!segment.overlaps(filter.from, filter.to) || !segment.mightContainTenant(filter.tenantId)) {
+            skippedSegments.increment();
+            return SearchPart.EMPTY;
+        }
+        scannedSegments.increment();
+        
+        long[] timestamps = segment.readTimestamps();
+        int low = firstAtOrAfter(timestamps, filter.from.toEpochMilli());
+        int high = firstAtOrAfter(timestamps, filter.to.toEpochMilli() + 1);
+        if (low >= high) {
+            return SearchPart.EMPTY;
+        }
+        
+        String[] tenants = segment.readStrings(ArchiveSegment.TENANT_ID);
+        String[] actions = filter.action != null ? segment.readStrings(ArchiveSegment.ACTION) : null;
+        String[] statuses = filter.status != null ? segment.readStrings(ArchiveSegment.STATUS) : null;
+        String[] users = filter.userId != null ? segment.readStrings(ArchiveSegment.USER_ID) : null;
+        String[] actorIps = filter.actorIp != null ? segment.readStrings(ArchiveSegment.ACTOR_IP) : null;
+        String[] messages = filter.terms != null ? segment.readMessages() : null;
+        String[] metadata = !filter.metadataFilters.isEmpty() ? segment.readMetadata() : null;
+        
+        // Newest first, so the first rows past the cursor form the page
+        BitSet page = new BitSet(high);
+        int selected = 0;
+        long total = 0;
+        for (int row = high - 1; row >= low; row--) {
+            if (!filter.tenantId.equals(tenants[row])
+                    || (actions != null && !filter.action.equals(actions[row]))
+                    || (statuses != null && !filter.status.equals(statuses[row]))
+                    || (users != null && !filter.userId.equals(users[row]))
+                    || (actorIps != null && !filter.actorIp.equals(actorIps[row]))
+                    || (messages != null && !filter.matchesText(messages[row]))
+                    || (metadata != null && !filter.matchesMetadata(metadata[row]))) {
+                continue;
+            }
+            total++;
+            if (selected < limit && (after == null || timestamps[row] < after.getTimestampMillis()
+                    || after.precedes(timestamps[row], key(name, row)))) {
+                page.set(row);
+                selected++;
+            }
+        }
+        if (selected == 0) {
+            return new SearchPart(List.of(), total);
+        }
+        
+        List<LogEvent> events = segment.readEvents(page);
+        List<RankedEvent> ranked = new ArrayList<>(events.size());
+        int index = 0;
+        for (int row = page.nextSetBit(0); row >= 0; row = page.nextSetBit(row + 1)) {
+            ranked.add(new RankedEvent(events.get(index++), timestamps[row], key(name, row)));
+        }
+        return new SearchPart(ranked, total);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    /**
+     * Tiebreak key of an archive row; the row is zero-padded so keys sort in row order
+     */
+    private static String key(String segmentName, int row) {
+        return segmentName + ":" + String.format("%010d", row);
+    }
+    
+    private static int firstAtOrAfter(long[] timestamps, long millis) {
+        int index = Arrays.binarySearch(timestamps, millis);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && timestamps[index - 1] == millis) {
+            index--;
+        }
+        return index;
+    }
+    
+    /**
+     * Whether the day of the index a segment came from overlaps the range;
+     * segments whose name carries no day are always searched
+     */
+    private static boolean dayOverlaps(String segmentName, Instant from, Instant to) {
+        String indexName = ArchiveSegment.indexOf(segmentName);
+        if (indexName == null || !indexName.startsWith(INDEX_NAME_PREFIX)) {
+            return indexName != null;
+        }
+        try {
+            LocalDate day = LocalDate.parse(indexName.substring(INDEX_NAME_PREFIX.length()), DATE_FORMATTER);
+            Instant dayStart = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+            return dayStart.isBefore(to.plusMillis(1)) && dayStart.plusSeconds(86_400).isAfter(from);
+        } catch (DateTimeParseException e) {
+            return true;
+        }
+    }
+    
+    /**
+     * Filter values of a search, as stored in the archive
+     */
+    private static final class Filter {
+        
+        private final String tenantId;
+        private final Instant from;
+        private final Instant to;
+        private final String action;
+        private final String status;
+        private final String userId;
+        private final String actorIp;
+        private final String[] terms;
+        private final List<MetadataFilter> metadataFilters;
+        
+        Filter(SearchRequest request, String userId, String actorIp) {
+            this.tenantId = request.getTenantId();
+            this.from = request.getFrom();
+            this.to = request.getTo();
+            this.action = emptyToNull(request.getAction());
+            this.status = emptyToNull(request.getStatus());
+            this.userId = emptyToNull(userId);
+            this.actorIp = emptyToNull(actorIp);
+            String q = emptyToNull(request.getQ());
+            this.terms = q != null ? q.toLowerCase(Locale.ROOT).trim().split("\\s+") : null;
+            this.metadataFilters = request.getMetadataFilters() != null ? request.getMetadataFilters() : List.of();
+        }
+        
+        /**
+         * Every term of the query occurs in the message, ignoring case
+         */
+        boolean matchesText(String message) {
+            if (message == null) {
+                return false;
+            }
+            String lower = message.toLowerCase(Locale.ROOT);
+            for (String term : terms) {
+                if (!lower.contains(term)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        /**
+         * Every metadata filter matches; the JSON is only parsed for rows that pass the
+         * other filters
+         */
+        boolean matchesMetadata(String json) {
+            if (json == null) {
+                return false;
+            }
+            Map<String, Object> values = new LazyMetadata(json);
+            for (MetadataFilter metadataFilter : metadataFilters) {
+                if (!metadataFilter.matches(MetadataFilter.valueOf(values, metadataFilter.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private static String emptyToNull(String value) {
+            return value == null || value.isBlank() ? null : value;
+        }
+    }
+}
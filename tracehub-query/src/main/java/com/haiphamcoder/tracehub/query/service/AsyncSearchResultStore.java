@@ -0,0 +1,471 @@
+package com.haiphamcoder.tracehub.query.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haiphamcoder.tracehub.common.dto.AsyncSearchResponse;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded store for completed asynchronous search results.
+ * Results are kept in memory up to a byte budget, then spilled to disk as
+ * newline-delimited JSON up to a second budget. Entries expire after their keep-alive.
+ * <ul>
+ *   <li>Hits of running searches are {@linkplain #reserve reserved} against the same memory
+ *       budget: completed results are spilled to make room for them.</li>
+ *   <li>Spill files are written and deleted outside the monitor; a result being spilled is
+ *       still served from memory.</li>
+ *   <li>The byte offset of every {@value #INDEX_INTERVAL}th line is kept with a spilled
+ *       result, so reading a page skips straight to its block.</li>
+ * </ul>
+ */
+@Component
+public class AsyncSearchResultStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AsyncSearchResultStore.class);
+    private static final String SPILL_FILE_SUFFIX = ".ndjson";
+    private static final int INDEX_INTERVAL = 1024;
+    
+    private final ObjectMapper objectMapper;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+    private final Path spillDir;
+    
+    // Both maps are in insertion order so the oldest result is spilled/evicted first
+    private final LinkedHashMap<String, MemoryEntry> memoryEntries = new LinkedHashMap<>();
+    private final LinkedHashMap<String, DiskEntry> diskEntries = new LinkedHashMap<>();
+    // Results taken out of the memory budget whose spill file is being written
+    private final Map<String, MemoryEntry> spillingEntries = new HashMap<>();
+    private long memoryBytes;
+    // Hits held by running searches
+    private long reservedBytes;
+    private long diskBytes;
+    
+    public AsyncSearchResultStore(
+            ObjectMapper objectMapper,
+            @Value("${tracehub.query.async.max-memory-bytes:268435456}") long maxMemoryBytes,
+            @Value("${tracehub.query.async.max-disk-bytes:4294967296}") long maxDiskBytes,
+            @Value("${tracehub.query.async.spill-dir:${java.io.tmpdir}/tracehub-async-search}") String spillDir) {
+        this.objectMapper = objectMapper;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        this.spillDir = Paths.get(spillDir);
+    }
+    
+    /**
+     * Prepare the spill directory and remove results left over from a previous run
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(spillDir);
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(spillDir, "*" + SPILL_FILE_SUFFIX)) {
+            for (Path file : stale) {
+                Files.deleteIfExists(file);
+            }
+        }
+        logger.info("Async search result store initialized: spillDir={}, maxMemoryBytes={}, maxDiskBytes={}",
+                   spillDir, maxMemoryBytes, maxDiskBytes);
+    }
+    
+    /**
+     * Store a finished search result
+     *
+     * @param summary the search summary (state, timestamps, error); its hits are ignored
+     * @param hits all collected hits
+     */
+    public void put(AsyncSearchResponse summary, List<LogEvent> hits) {
+        List<MemoryEntry> toSpill = new ArrayList<>();
+        List<Path> toDelete = new ArrayList<>();
+        synchronized (this) {
+            removeEntry(summary.getId(), toDelete);
+            
+            long bytes = estimateBytes(hits);
+            memoryEntries.put(summary.getId(), new MemoryEntry(summary, hits, bytes));
+            memoryBytes += bytes;
+            takeOverBudget(toSpill);
+        }
+        
+        deleteFiles(toDelete);
+        for (MemoryEntry entry : toSpill) {
+            spill(entry);
+        }
+    }
+    
+    /**
+     * Reserve memory for hits a running search is about to hold, spilling completed results
+     * to make room. Reservations are returned with {@link #release} when the search ends.
+     *
+     * @param bytes estimated bytes of the hits, see {@link #estimateBytes}
+     * @return false, reserving nothing, if running searches alone would exceed the budget
+     */
+    public boolean reserve(long bytes) {
+        List<MemoryEntry> toSpill = new ArrayList<>();
+        synchronized (this) {
+            if (reservedBytes + bytes > maxMemoryBytes) {
+                return false;
+            }
+            reservedBytes += bytes;
+            takeOverBudget(toSpill);
+        }
+        
+        for (MemoryEntry entry : toSpill) {
+            spill(entry);
+        }
+        return true;
+    }
+    
+    /**
+     * Return memory reserved by a search
+     *
+     * @param bytes the sum of its reservations
+     */
+    public synchronized void release(long bytes) {
+        reservedBytes -= bytes;
+    }
+    
+    /**
+     * Get a page of a stored result
+     *
+     * @param id the search ID
+     * @param offset offset into the collected hits
+     * @param size maximum number of hits to return
+     * @return the response, or null if the ID is unknown or expired
+     */
+    public AsyncSearchResponse get(String id, int offset, int size) {
+        DiskEntry diskEntry;
+        synchronized (this) {
+            MemoryEntry memoryEntry = memoryEntries.get(id);
+            if (memoryEntry == null) {
+                memoryEntry = spillingEntries.get(id);
+            }
+            if (memoryEntry != null) {
+                List<LogEvent> hits = memoryEntry.hits;
+                int from = Math.min(offset, hits.size());
+                int to = Math.min(from + size, hits.size());
+                return withHits(memoryEntry.summary, new ArrayList<>(hits.subList(from, to)), hits.size(), from);
+            }
+            diskEntry = diskEntries.get(id);
+            if (diskEntry == null) {
+                return null;
+            }
+        }
+        
+        // Read the spilled page outside the lock so slow disks do not block other requests
+        try {
+            return withHits(diskEntry.summary, readPage(diskEntry, offset, size), diskEntry.hitCount, offset);
+        } catch (IOException e) {
+            logger.error("Failed to read spilled async search result: id={}, error={}", id, e.getMessage(), e);
+            AsyncSearchResponse response = withHits(diskEntry.summary, List.of(), diskEntry.hitCount, offset);
+            response.setError("Failed to read stored result");
+            return response;
+        }
+    }
+    
+    /**
+     * Remove a stored result
+     *
+     * @param id the search ID
+     * @return true if a result was removed
+     */
+    public boolean remove(String id) {
+        List<Path> toDelete = new ArrayList<>();
+        boolean removed;
+        synchronized (this) {
+            removed = removeEntry(id, toDelete);
+        }
+        deleteFiles(toDelete);
+        return removed;
+    }
+    
+    /**
+     * Scheduled task to drop expired results
+     * Runs every minute
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        Instant now = Instant.now();
+        int evicted = 0;
+        List<Path> toDelete = new ArrayList<>();
+        
+        synchronized (this) {
+            Iterator<MemoryEntry> memoryIt = memoryEntries.values().iterator();
+            while (memoryIt.hasNext()) {
+                MemoryEntry entry = memoryIt.next();
+                if (entry.summary.getExpirationTime().isBefore(now)) {
+                    memoryIt.remove();
+                    memoryBytes -= entry.bytes;
+                    evicted++;
+                }
+            }
+            
+            // The spill of an expired result finds it gone and discards its file
+            Iterator<MemoryEntry> spillingIt = spillingEntries.values().iterator();
+            while (spillingIt.hasNext()) {
+                if (spillingIt.next().summary.getExpirationTime().isBefore(now)) {
+                    spillingIt.remove();
+                    evicted++;
+                }
+            }
+            
+            Iterator<DiskEntry> diskIt = diskEntries.values().iterator();
+            while (diskIt.hasNext()) {
+                DiskEntry entry = diskIt.next();
+                if (entry.summary.getExpirationTime().isBefore(now)) {
+                    diskIt.remove();
+                    diskBytes -= entry.bytes;
+                    toDelete.add(entry.file);
+                    evicted++;
+                }
+            }
+        }
+        
+        deleteFiles(toDelete);
+        if (evicted > 0) {
+            logger.debug("Evicted {} expired async search results", evicted);
+        }
+    }
+    
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+    
+    public synchronized long getReservedBytes() {
+        return reservedBytes;
+    }
+    
+    public synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+    
+    /**
+     * Take the oldest results out of the memory budget until completed and running searches
+     * fit again; must hold the monitor
+     *
+     * @param toSpill collects the results to spill once the monitor is released
+     */
+    private void takeOverBudget(List<MemoryEntry> toSpill) {
+        Iterator<MemoryEntry> it = memoryEntries.values().iterator();
+        while (memoryBytes + reservedBytes > maxMemoryBytes && it.hasNext()) {
+            MemoryEntry oldest = it.next();
+            it.remove();
+            memoryBytes -= oldest.bytes;
+            spillingEntries.put(oldest.summary.getId(), oldest);
+            toSpill.add(oldest);
+        }
+    }
+    
+    /**
+     * Remove a result from whichever stage holds it; must hold the monitor
+     *
+     * @param toDelete collects the spill files to delete once the monitor is released
+     */
+    private boolean removeEntry(String id, List<Path> toDelete) {
+        MemoryEntry memoryEntry = memoryEntries.remove(id);
+        if (memoryEntry != null) {
+            memoryBytes -= memoryEntry.bytes;
+            return true;
+        }
+        if (spillingEntries.remove(id) != null) {
+            return true;
+        }
+        DiskEntry diskEntry = diskEntries.remove(id);
+        if (diskEntry != null) {
+            diskBytes -= diskEntry.bytes;
+            toDelete.add(diskEntry.file);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Write a result to disk, evicting the oldest spilled results if the disk budget is exceeded.
+     * The file is written without holding the monitor; the result is only moved to the disk
+     * entries if it was not removed, expired or replaced meanwhile.
+     */
+    private void spill(MemoryEntry entry) {
+        String id = entry.summary.getId();
+        Path file = null;
+        try {
+            file = Files.createTempFile(spillDir, id + "-", SPILL_FILE_SUFFIX);
+            List<LogEvent> hits = entry.hits;
+            long[] lineOffsets = new long[(hits.size() + INDEX_INTERVAL - 1) / INDEX_INTERVAL];
+            long fileBytes = 0;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                for (int i = 0; i < hits.size(); i++) {
+                    if (i % INDEX_INTERVAL == 0) {
+                        lineOffsets[i / INDEX_INTERVAL] = fileBytes;
+                    }
+                    byte[] line = objectMapper.writeValueAsString(hits.get(i)).getBytes(StandardCharsets.UTF_8);
+                    out.write(line);
+                    out.write('\n');
+                    fileBytes += line.length + 1;
+                }
+            }
+            
+            List<Path> toDelete = new ArrayList<>();
+            boolean stored = false;
+            synchronized (this) {
+                if (spillingEntries.remove(id, entry)) {
+                    Iterator<DiskEntry> it = diskEntries.values().iterator();
+                    while (diskBytes + fileBytes > maxDiskBytes && it.hasNext()) {
+                        DiskEntry oldest = it.next();
+                        it.remove();
+                        diskBytes -= oldest.bytes;
+                        toDelete.add(oldest.file);
+                        logger.warn("Async search result evicted to respect disk cap: id={}", oldest.summary.getId());
+                    }
+                    if (diskBytes + fileBytes <= maxDiskBytes) {
+                        diskEntries.put(id, new DiskEntry(entry.summary, file, hits.size(), lineOffsets, fileBytes));
+                        diskBytes += fileBytes;
+                        stored = true;
+                    } else {
+                        logger.warn("Async search result too large to store, dropping: id={}, bytes={}", id, fileBytes);
+                    }
+                }
+            }
+            
+            if (!stored) {
+                toDelete.add(file);
+            }
+            deleteFiles(toDelete);
+            if (stored) {
+                logger.debug("Spilled async search result to disk: id={}, hits={}, bytes={}", id, hits.size(), fileBytes);
+            }
+        
+        } catch (IOException e) {
+            logger.error("Failed to spill async search result: id={}, error={}", id, e.getMessage(), e);
+            synchronized (this) {
+                spillingEntries.remove(id, entry);
+            }
+            if (file != null) {
+                deleteFiles(List.of(file));
+            }
+        }
+    }
+    
+    /**
+     * Read a page of a spilled result, starting at the indexed line at or before the offset
+     */
+    private List<LogEvent> readPage(DiskEntry entry, int offset, int size) throws IOException {
+        List<LogEvent> page = new ArrayList<>(Math.min(size, 1024));
+        if (offset >= entry.hitCount || size <= 0) {
+            return page;
+        }
+        int block = offset / INDEX_INTERVAL;
+        try (SeekableByteChannel channel = Files.newByteChannel(entry.file)) {
+            channel.position(entry.lineOffsets[block]);
+            BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+            String line;
+            int index = block * INDEX_INTERVAL;
+            while ((line = reader.readLine()) != null && page.size() < size) {
+                if (index++ >= offset) {
+                    page.add(objectMapper.readValue(line, LogEvent.class));
+                }
+            }
+        }
+        return page;
+    }
+    
+    private static void deleteFiles(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Failed to delete spilled async search result: file={}, error={}", file, e.getMessage());
+            }
+        }
+    }
+    
+    private static AsyncSearchResponse withHits(AsyncSearchResponse summary, List<LogEvent> hits, long total, int offset) {
+        AsyncSearchResponse response = new AsyncSearchResponse(summary.getId(), summary.getState(), summary.isPartial());
+        response.setStartTime(summary.getStartTime());
+        response.setCompletionTime(summary.getCompletionTime());
+        response.setExpirationTime(summary.getExpirationTime());
+        response.setError(summary.getError());
+        response.setHits(hits);
+        response.setTotal(total);
+        response.setOffset(offset);
+        return response;
+    }
+    
+    /**
+     * Rough heap footprint of a list of hits (object headers plus UTF-16 string payloads)
+     *
+     * @param hits the hits
+     * @return estimated bytes
+     */
+    static long estimateBytes(List<LogEvent> hits) {
+        long bytes = 0;
+        for (LogEvent hit : hits) {
+            bytes += 160; // LogEvent, Instant and String headers
+            bytes += 2L * (length(hit.getTenantId()) + length(hit.getUserId()) + length(hit.getAction())
+                    + length(hit.getStatus()) + length(hit.getActorIp()) + length(hit.getMessage()));
+            if (hit.getMetadata() != null) {
+                bytes += 96L * hit.getMetadata().size();
+            }
+        }
+        return bytes;
+    }
+    
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+    
+    /**
+     * Result held in memory
+     */
+    private static class MemoryEntry {
+        private final AsyncSearchResponse summary;
+        private final List<LogEvent> hits;
+        private final long bytes;
+        
+        MemoryEntry(AsyncSearchResponse summary, List<LogEvent> hits, long bytes) {
+            this.summary = summary;
+            this.hits = hits;
+            this.bytes = bytes;
+        }
+    }
+    
+    /**
+     * Result spilled to disk
+     */
+    private static class DiskEntry {
+        private final AsyncSearchResponse summary;
+        private final Path file;
+        private final int hitCount;
+        // Byte offset of every INDEX_INTERVAL-th line
+        private final long[] lineOffsets;
+        private final long bytes;
+        
+        DiskEntry(AsyncSearchResponse summary, Path file, int hitCount, long[] lineOffsets, long bytes) {
+            this.summary = summary;
+            this.file = file;
+            this.hitCount = hitCount;
+            this.lineOffsets = lineOffsets;
+            this.bytes = bytes;
+        }
+    }
+}
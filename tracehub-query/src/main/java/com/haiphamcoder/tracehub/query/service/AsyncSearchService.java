@@ -0,0 +1,278 @@
+package com.haiphamcoder.tracehub.query.service;
+
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import com.haiphamcoder.tracehub.common.dto.AsyncSearchResponse;
+import com.haiphamcoder.tracehub.common.dto.AsyncSearchResponse.State;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.dto.SearchRequest;
+import com.haiphamcoder.tracehub.common.dto.SearchResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service for long-running searches.
+ * A search is submitted, runs page by page on a bounded executor and can be
+ * polled for partial results until it completes, fails or is cancelled.
+ * The hits a running search holds are reserved in the {@link AsyncSearchResultStore}'s
+ * memory budget; a search whose next page does not fit completes early with an error.
+ */
+@Service
+public class AsyncSearchService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AsyncSearchService.class);
+    
+    private final SearchService searchService;
+    private final AsyncSearchResultStore resultStore;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, AsyncSearch> activeSearches = new ConcurrentHashMap<>();
+    
+    @Value("${tracehub.query.async.max-hits:100000}")
+    private int maxHits;
+    
+    @Value("${tracehub.query.async.page-size:" + TracehubConstants.MAX_SEARCH_SIZE + "}")
+    private int pageSize;
+    
+    @Value("${tracehub.query.async.keep-alive:PT1H}")
+    private Duration keepAlive;
+    
+    public AsyncSearchService(
+            SearchService searchService,
+            AsyncSearchResultStore resultStore,
+            @Value("${tracehub.query.async.pool-size:4}") int poolSize,
+            @Value("${tracehub.query.async.queue-capacity:64}") int queueCapacity) {
+        this.searchService = searchService;
+        this.resultStore = resultStore;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "async-search-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+    
+    /**
+     * Submit a search for asynchronous execution
+     *
+     * @param request the search request
+     * @return the initial state of the search, including its ID
+     * @throws RejectedExecutionException if the executor queue is full
+     */
+    public AsyncSearchResponse submit(SearchRequest request) {
+        AsyncSearch search = new AsyncSearch(UUID.randomUUID().toString(), request, Instant.now().plus(keepAlive));
+        activeSearches.put(search.id, search);
+        
+        try {
+            search.future = executor.submit(() -> run(search));
+        } catch (RejectedExecutionException e) {
+            activeSearches.remove(search.id);
+            logger.warn("Async search rejected, executor saturated: tenantId={}", request.getTenantId());
+            throw e;
+        }
+        
+        logger.info("Submitted async search: id={}, tenantId={}, from={}, to={}",
+                   search.id, request.getTenantId(), request.getFrom(), request.getTo());
+        return search.toResponse(0, 0);
+    }
+    
+    /**
+     * Get the state and a page of the collected hits of a search
+     *
+     * @param id the search ID
+     * @param offset offset into the collected hits
+     * @param size maximum number of hits to return
+     * @return the search response, or null if the ID is unknown or expired
+     */
+    public AsyncSearchResponse get(String id, int offset, int size) {
+        AsyncSearch search = activeSearches.get(id);
+        if (search != null) {
+            return search.toResponse(offset, size);
+        }
+        return resultStore.get(id, offset, size);
+    }
+    
+    /**
+     * Cancel a search and discard its results
+     *
+     * @param id the search ID
+     * @return true if the search existed
+     */
+    public boolean cancel(String id) {
+        AsyncSearch search = activeSearches.remove(id);
+        if (search != null) {
+            search.state = State.CANCELLED;
+            if (search.future != null) {
+                search.future.cancel(true);
+            }
+            logger.info("Cancelled async search: id={}", id);
+            return true;
+        }
+        return resultStore.remove(id);
+    }
+    
+    /**
+     * Number of searches that are queued or running
+     *
+     * @return active search count
+     */
+    public int getActiveCount() {
+        return activeSearches.size();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Execute a search page by page, publishing hits as they arrive
+     *
+     * @param search the search to run
+     */
+    private void run(AsyncSearch search) {
+        if (search.state == State.CANCELLED) {
+            return;
+        }
+        search.state = State.RUNNING;
+        
+        try {
+            SearchRequest page = copyOf(search.request);
+            while (true) {
+                int remaining = maxHits - search.hitCount();
+                page.setSize(Math.min(pageSize, remaining));
+                
+                SearchResponse response = searchService.searchLogs(page);
+                List<LogEvent> hits = response.getHits() != null ? response.getHits() : List.of();
+                long bytes = AsyncSearchResultStore.estimateBytes(hits);
+                if (!resultStore.reserve(bytes)) {
+                    search.error = "Stopped after " + search.hitCount() + " hits: async search memory budget exhausted";
+                    logger.warn("Async search stopped at the memory budget: id={}, hits={}", search.id, search.hitCount());
+                    break;
+                }
+                search.reservedBytes += bytes;
+                search.addHits(hits);
+                
+                if (search.state == State.CANCELLED || Thread.currentThread().isInterrupted()) {
+                    logger.debug("Async search stopped after cancellation: id={}", search.id);
+                    return;
+                }
+                if (!response.isHasMore() || response.getNextPageToken() == null
+                        || search.hitCount() >= maxHits) {
+                    break;
+                }
+                page.setSearchAfter(response.getNextPageToken());
+            }
+            
+            search.state = State.COMPLETED;
+            logger.info("Async search completed: id={}, hits={}", search.id, search.hitCount());
+        
+        } catch (Exception e) {
+            if (search.state == State.CANCELLED) {
+                return;
+            }
+            search.error = e.getMessage();
+            search.state = State.FAILED;
+            logger.error("Async search failed: id={}, error={}", search.id, e.getMessage(), e);
+        } finally {
+            // The result store accounts for the hits again once they are handed over
+            resultStore.release(search.reservedBytes);
+            search.reservedBytes = 0;
+        }
+        
+        // Hand the finished search over to the bounded result store
+        search.completionTime = Instant.now();
+        if (activeSearches.remove(search.id, search)) {
+            resultStore.put(search.toResponse(0, 0), search.snapshotHits());
+        }
+    }
+    
+    private static SearchRequest copyOf(SearchRequest request) {
+        SearchRequest copy = new SearchRequest();
+        copy.setTenantId(request.getTenantId());
+        copy.setFrom(request.getFrom());
+        copy.setTo(request.getTo());
+        copy.setAction(request.getAction());
+        copy.setStatus(request.getStatus());
+        copy.setUserId(request.getUserId());
+        copy.setActorIp(request.getActorIp());
+        copy.setQ(request.getQ());
+        copy.setMetadataFilters(request.getMetadataFilters());
+        copy.setSize(request.getSize());
+        copy.setSearchAfter(request.getSearchAfter());
+        return copy;
+    }
+    
+    /**
+     * A queued or running search
+     */
+    private static class AsyncSearch {
+        private final String id;
+        private final SearchRequest request;
+        private final Instant startTime = Instant.now();
+        private final Instant expirationTime;
+        private final List<LogEvent> hits = new ArrayList<>();
+        // Memory reserved in the result store; only touched by the search's own thread
+        private long reservedBytes;
+        private volatile State state = State.QUEUED;
+        private volatile Instant completionTime;
+        private volatile String error;
+        private volatile Future<?> future;
+        
+        AsyncSearch(String id, SearchRequest request, Instant expirationTime) {
+            this.id = id;
+            this.request = request;
+            this.expirationTime = expirationTime;
+        }
+        
+        synchronized void addHits(List<LogEvent> page) {
+            if (page != null) {
+                hits.addAll(page);
+            }
+        }
+        
+        synchronized int hitCount() {
+            return hits.size();
+        }
+        
+        synchronized List<LogEvent> snapshotHits() {
+            return new ArrayList<>(hits);
+        }
+        
+        synchronized AsyncSearchResponse toResponse(int offset, int size) {
+            State current = state;
+            AsyncSearchResponse response = new AsyncSearchResponse(id, current,
+                current == State.QUEUED || current == State.RUNNING);
+            response.setStartTime(startTime);
+            response.setCompletionTime(completionTime);
+            response.setExpirationTime(expirationTime);
+            response.setError(error);
+            
+            int from = Math.min(offset, hits.size());
+            int to = Math.min(from + size, hits.size());
+            response.setHits(new ArrayList<>(hits.subList(from, to)));
+            response.setTotal(hits.size());
+            response.setOffset(from);
+            return response;
+        }
+    }
+}
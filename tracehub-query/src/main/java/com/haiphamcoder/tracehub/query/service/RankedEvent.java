@@ -0,0 +1,44 @@
+package com.haiphamcoder.tracehub.query.service;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+
+import java.util.Comparator;
+
+/**
+ * A hit with the sort values it is merged and paginated by
+ */
+final class RankedEvent {
+    
+    /**
+     * Timestamp descending, then key descending
+     */
+    static final Comparator<RankedEvent> NEWEST_FIRST = Comparator
+        .comparingLong(RankedEvent::getTimestampMillis).reversed()
+        .thenComparing(RankedEvent::getKey, Comparator.reverseOrder());
+    
+    private final LogEvent event;
+    private final long timestampMillis;
+    private final String key;
+    
+    RankedEvent(LogEvent event, long timestampMillis, String key) {
+        this.event = event;
+        this.timestampMillis = timestampMillis;
+        this.key = key;
+    }
+    
+    LogEvent getEvent() {
+        return event;
+    }
+    
+    long getTimestampMillis() {
+        return timestampMillis;
+    }
+    
+    String getKey() {
+        return key;
+    }
+    
+    SearchCursor toCursor() {
+        return new SearchCursor(timestampMillis, key);
+    }
+}
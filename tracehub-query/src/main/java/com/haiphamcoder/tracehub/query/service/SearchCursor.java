@@ -0,0 +1,60 @@
+package com.haiphamcoder.tracehub.query.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a newest-first result list: the timestamp and tiebreak key of the last
+ * hit of a page. Hits are ordered by timestamp descending, then key descending; the key
+ * is the document ID for OpenSearch hits and the segment name and row for archive hits.
+ */
+final class SearchCursor {
+    
+    private final long timestampMillis;
+    private final String key;
+    
+    SearchCursor(long timestampMillis, String key) {
+        this.timestampMillis = timestampMillis;
+        this.key = key;
+    }
+    
+    /**
+     * Decode a page token
+     * 
+     * @param token the token, or null for the first page
+     * @return the cursor, or null for the first page
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static SearchCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = value.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+        return new SearchCursor(Long.parseLong(value.substring(0, separator)), value.substring(separator + 1));
+    }
+    
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((timestampMillis + ":" + key).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Whether a hit comes after this cursor, so it belongs on a later page
+     */
+    boolean precedes(long hitTimestampMillis, String hitKey) {
+        return hitTimestampMillis < timestampMillis
+            || (hitTimestampMillis == timestampMillis && hitKey.compareTo(key) < 0);
+    }
+    
+    long getTimestampMillis() {
+        return timestampMillis;
+    }
+    
+    String getKey() {
+        return key;
+    }
+}
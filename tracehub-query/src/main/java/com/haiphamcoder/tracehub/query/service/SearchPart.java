@@ -0,0 +1,28 @@
+package com.haiphamcoder.tracehub.query.service;
+
+import java.util.List;
+
+/**
+ * Hits from one tier (OpenSearch or the archive), newest first, with the number of
+ * matches in that tier ignoring pagination
+ */
+final class SearchPart {
+    
+    static final SearchPart EMPTY = new SearchPart(List.of(), 0);
+    
+    private final List<RankedEvent> events;
+    private final long total;
+    
+    SearchPart(List<RankedEvent> events, long total) {
+        this.events = events;
+        this.total = total;
+    }
+    
+    List<RankedEvent> getEvents() {
+        return events;
+    }
+    
+    long getTotal() {
+        return total;
+    }
+}
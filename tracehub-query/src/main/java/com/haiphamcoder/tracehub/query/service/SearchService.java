@@ -1,125 +1,165 @@
 package com.haiphamcoder.tracehub.query.service;
 
-import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
 import com.haiphamcoder.tracehub.common.dto.LogEvent;
 import com.haiphamcoder.tracehub.common.dto.SearchRequest;
 import com.haiphamcoder.tracehub.common.dto.SearchResponse;
-import org.opensearch.client.opensearch.OpenSearchClient;
-import org.opensearch.client.opensearch.core.search.Hit;
+import com.haiphamcoder.tracehub.common.store.LogHit;
+import com.haiphamcoder.tracehub.common.store.LogHits;
+import com.haiphamcoder.tracehub.common.store.LogQuery;
+import com.haiphamcoder.tracehub.common.store.LogStore;
+import com.haiphamcoder.tracehub.common.util.FieldTokenizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Service for searching log events from OpenSearch
+ * Service for searching log events.
+ * Hits are returned newest first. The hot tier (the log store) is always searched; when archive
+ * search is enabled and the requested range starts before hot retention, the archive tier is
+ * searched as well and the two result lists are merged by timestamp into one page.
  */
 @Service
 public class SearchService {
     
     private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+    private static final int DEFAULT_SIZE = 100;
     
-    private final OpenSearchClient openSearchClient;
+    private final LogStore logStore;
+    private final ArchiveSearchService archiveSearchService;
+    private final FieldTokenizer tokenizer;
     
-    public SearchService(OpenSearchClient openSearchClient) {
-        this.openSearchClient = openSearchClient;
+    @Value("${tracehub.query.archive.hot-retention:30d}")
+    private Duration hotRetention;
+    
+    public SearchService(ObjectProvider<LogStore> logStore, ObjectProvider<ArchiveSearchService> archiveSearchService,
+                         @Value("${tracehub.tokenization.keystore:}") String keystore,
+                         @Value("${tracehub.tokenization.keystore-password:}") String keystorePassword)
+            throws IOException, GeneralSecurityException {
+        this.logStore = logStore.getIfAvailable();
+        this.archiveSearchService = archiveSearchService.getIfAvailable();
+        // Same keystore as the processor, so filter values tokenize to the indexed tokens
+        this.tokenizer = FieldTokenizer.load(keystore, keystorePassword.toCharArray());
     }
     
     /**
      * Search for log events
-     * 
+     *
      * @param request the search request
      * @return search response with hits and pagination
+     * @throws IOException if a tier cannot be searched
      */
-    public SearchResponse searchLogs(SearchRequest request) {
-        // TODO: Implement actual OpenSearch search when client is available
-        if (openSearchClient == null) {
-            logger.warn("OpenSearch client not available - returning empty results");
-            return new SearchResponse(List.of(), 0, null, false);
-        }
+    public SearchResponse searchLogs(SearchRequest request) throws IOException {
+        int size = request.getSize() != null ? request.getSize() : DEFAULT_SIZE;
+        SearchCursor after = SearchCursor.decode(request.getSearchAfter());
         
-        // TODO: Implement actual OpenSearch search
-        // For now, return stub results
-        logger.debug("OpenSearch search not implemented yet - returning stub results");
-        
-        List<LogEvent> hits = new ArrayList<>();
-        long total = 0;
-        String nextPageToken = null;
-        boolean hasMore = false;
+        // One extra hit per tier tells whether there is a next page
+        SearchPart hot = searchHot(request, after, size + 1);
+        SearchPart archived = SearchPart.EMPTY;
+        if (archiveSearchService != null && request.getFrom().isBefore(Instant.now().minus(hotRetention))) {
+            String tenantId = request.getTenantId();
+            archived = archiveSearchService.search(request,
+                tokenizer.tokenize(tenantId, "userId", request.getUserId()),
+                tokenizer.tokenize(tenantId, "actorIp", request.getActorIp()),
+                after, size + 1);
+        }
         
-        return new SearchResponse(hits, total, nextPageToken, hasMore);
+        List<RankedEvent> merged = merge(hot.getEvents(), archived.getEvents(), size + 1);
+        boolean hasMore = merged.size() > size;
+        List<LogEvent> hits = new ArrayList<>(Math.min(size, merged.size()));
+        for (int i = 0; i < merged.size() && i < size; i++) {
+            hits.add(merged.get(i).getEvent());
+        }
+        String nextPageToken = hasMore ? merged.get(size - 1).toCursor().encode() : null;
+        return new SearchResponse(hits, hot.getTotal() + archived.getTotal(), nextPageToken, hasMore);
     }
     
     /**
-     * Build OpenSearch query from search request
-     * 
-     * @param request the search request
-     * @return query builder
+     * Search the log store, newest first
      */
-    private org.opensearch.client.opensearch._types.query_dsl.Query buildQuery(SearchRequest request) {
-        // TODO: Implement proper query building
-        // For now, return a simple match all query
-        return org.opensearch.client.opensearch._types.query_dsl.Query.of(q -> q
-            .matchAll(m -> m)
-        );
+    private SearchPart searchHot(SearchRequest request, SearchCursor after, int limit) throws IOException {
+        if (logStore == null) {
+            logger.warn("Log store not available - skipping hot tier");
+            return SearchPart.EMPTY;
+        }
+        
+        LogQuery query = toLogQuery(request);
+        query.setLimit(limit);
+        if (after != null) {
+            query.setAfter(after.getTimestampMillis(), after.getKey());
+        }
+        LogHits result = logStore.search(query);
+        List<RankedEvent> events = new ArrayList<>(result.getHits().size());
+        for (LogHit hit : result.getHits()) {
+            events.add(new RankedEvent(hit.getEvent(), hit.getTimestampMillis(), hit.getDocumentId()));
+        }
+        return new SearchPart(events, result.getTotal());
     }
     
     /**
-     * Get index pattern for date range
-     * 
-     * @param from start date
-     * @param to end date
-     * @return index pattern
+     * Count matching events per value of a field, in the log store only
+     *
+     * @param request the search filters; size and searchAfter are ignored
+     * @param field the field to group by
+     * @param size maximum number of values
+     * @return event count per value, most frequent first
+     * @throws IOException if the store cannot be searched
      */
-    private String getIndexPattern(java.time.Instant from, java.time.Instant to) {
-        // TODO: Implement proper index pattern based on date range
-        // For now, use wildcard pattern
-        return TracehubConstants.INDEX_ALIAS;
+    public Map<String, Long> aggregate(SearchRequest request, String field, int size) throws IOException {
+        if (logStore == null) {
+            logger.warn("Log store not available - skipping aggregation");
+            return Map.of();
+        }
+        return logStore.aggregate(toLogQuery(request), field, size);
     }
     
     /**
-     * Build next page token from search results
-     * 
-     * @param hits the search hits
-     * @param size the requested size
-     * @return next page token or null
+     * Store query for a search request.
+     * For tenants with a tokenization key, userId and actorIp are stored as tokens,
+     * so the filter values are tokenized the same way before matching.
+     *
+     * @param request the search request
+     * @return the store query
      */
-    private String buildNextPageToken(List<Hit<Map<String, Object>>> hits, int size) {
-        if (hits.size() < size) {
-            return null;
-        }
-        
-        // TODO: Implement proper search_after token encoding
-        // For now, return a simple token
-        Hit<Map<String, Object>> lastHit = hits.get(hits.size() - 1);
-        return Base64.getEncoder().encodeToString(lastHit.id().getBytes());
+    LogQuery toLogQuery(SearchRequest request) {
+        String tenantId = request.getTenantId();
+        LogQuery query = new LogQuery();
+        query.setTenantId(tenantId);
+        query.setFrom(request.getFrom());
+        query.setTo(request.getTo());
+        query.setAction(request.getAction());
+        query.setStatus(request.getStatus());
+        query.setUserId(tokenizer.tokenize(tenantId, "userId", request.getUserId()));
+        query.setActorIp(tokenizer.tokenize(tenantId, "actorIp", request.getActorIp()));
+        query.setText(request.getQ());
+        query.setMetadataFilters(request.getMetadataFilters());
+        return query;
     }
     
     /**
-     * Convert Map to LogEvent
-     * 
-     * @param source the source map
-     * @return LogEvent
+     * Merge two newest-first lists into one, keeping at most limit hits
      */
-    private LogEvent convertFromMap(Map<String, Object> source) {
-        // TODO: Implement proper conversion from OpenSearch document to LogEvent
-        // For now, return a stub event
-        return new LogEvent(
-            java.time.Instant.now(),
-            (String) source.get("tenantId"),
-            (String) source.get("userId"),
-            (String) source.get("action"),
-            (String) source.get("status"),
-            (String) source.get("actorIp"),
-            (String) source.get("message")
-        );
+    private static List<RankedEvent> merge(List<RankedEvent> first, List<RankedEvent> second, int limit) {
+        List<RankedEvent> merged = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j >= second.size()
+                    || (i < first.size() && RankedEvent.NEWEST_FIRST.compare(first.get(i), second.get(j)) <= 0)) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
     }
 }
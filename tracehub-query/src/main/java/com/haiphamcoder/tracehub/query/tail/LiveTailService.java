@@ -0,0 +1,215 @@
+package com.haiphamcoder.tracehub.query.tail;
+
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.redaction.RedactionPolicy;
+import com.haiphamcoder.tracehub.common.util.FieldTokenizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live tail of the event stream over Server-Sent Events.
+ * One Kafka consumer per query instance reads {@code audit-logs} from the latest offset, in a
+ * consumer group of its own, and fans each event out to the matching subscribers through
+ * {@link TailIndex}. Subscribers are written by a small shared sender pool; see
+ * {@link TailSubscriber} for buffering, lag reporting and the send timeout.
+ * <p>
+ * Events are tailed as ingested, before the processor's enrichment. They are redacted once,
+ * before fan-out, with the processor's per-tenant policy ({@code tracehub.processor.redaction.*},
+ * which must match the processor's). userId and actorIp of tokenized tenants are tokenized as
+ * in search results, and a userId filter may be given in clear or as a token.
+ */
+@Service
+@ConditionalOnProperty(name = "tracehub.query.tail.enabled", havingValue = "true")
+public class LiveTailService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LiveTailService.class);
+    
+    private final TailIndex index = new TailIndex();
+    private final Set<TailSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final FieldTokenizer tokenizer;
+    private final RedactionPolicy redactionPolicy;
+    private final ThreadPoolExecutor sender;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter deliveredEvents;
+    private final Counter droppedEvents;
+    private final Counter slowClosed;
+    private final int maxSubscribers;
+    
+    @Value("${tracehub.query.tail.buffer-size:1000}")
+    private int bufferSize;
+    
+    @Value("${tracehub.query.tail.max-batch:200}")
+    private int maxBatch;
+    
+    @Value("${tracehub.query.tail.timeout:30m}")
+    private Duration timeout;
+    
+    public LiveTailService(MeterRegistry meterRegistry, Environment environment,
+                           @Value("${tracehub.query.tail.max-subscribers:10000}") int maxSubscribers,
+                           @Value("${tracehub.query.tail.sender-threads:4}") int senderThreads,
+                           @Value("${tracehub.query.tail.heartbeat-interval:15s}") Duration heartbeatInterval,
+                           @Value("${tracehub.query.tail.send-timeout:5s}") Duration sendTimeout,
+                           @Value("${tracehub.tokenization.keystore:}") String keystore,
+                           @Value("${tracehub.tokenization.keystore-password:}") String keystorePassword,
+                           @Value("${tracehub.processor.redaction.enabled:true}") boolean redactionEnabled,
+                           @Value("${tracehub.processor.redaction.default-types:EMAIL,PHONE,CARD,TOKEN}") String redactionTypes,
+                           @Value("${tracehub.processor.redaction.token-prefixes:}") List<String> tokenPrefixes)
+            throws IOException, GeneralSecurityException {
+        this.tokenizer = FieldTokenizer.load(keystore, keystorePassword.toCharArray());
+        Map<String, String> tenantTypes = Binder.get(environment)
+            .bind("tracehub.processor.redaction.tenant-types", Bindable.mapOf(String.class, String.class))
+            .orElse(Map.of());
+        this.redactionPolicy = redactionEnabled ? RedactionPolicy.of(redactionTypes, tenantTypes, tokenPrefixes) : null;
+        
+        this.maxSubscribers = maxSubscribers;
+        // At most one queued task per subscriber; a rejected drain is rescheduled by the next event
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(
+            senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(maxSubscribers),
+            runnable -> {
+                Thread thread = new Thread(runnable, "live-tail-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-tail-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(() -> subscribers.forEach(TailSubscriber::heartbeat),
+            heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        long sendTimeoutNanos = sendTimeout.toNanos();
+        long watchdogMillis = Math.max(100, sendTimeout.toMillis() / 4);
+        heartbeats.scheduleWithFixedDelay(() -> expireSlowSends(sendTimeoutNanos),
+            watchdogMillis, watchdogMillis, TimeUnit.MILLISECONDS);
+        
+        this.deliveredEvents = Counter.builder("tracehub.query.tail.events")
+            .tag("result", "delivered")
+            .description("Events sent to or dropped for live tail subscribers")
+            .register(meterRegistry);
+        this.droppedEvents = Counter.builder("tracehub.query.tail.events")
+            .tag("result", "dropped")
+            .description("Events sent to or dropped for live tail subscribers")
+            .register(meterRegistry);
+        this.slowClosed = Counter.builder("tracehub.query.tail.slow")
+            .description("Live tails closed because a send blocked longer than the send timeout")
+            .register(meterRegistry);
+        Gauge.builder("tracehub.query.tail.subscribers", subscribers, Set::size)
+            .description("Open live tail connections")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Open a live tail
+     *
+     * @param filter the tail filter
+     * @return the emitter to return from the request
+     * @throws RejectedExecutionException if max-subscribers tails are already open
+     */
+    public SseEmitter subscribe(TailFilter filter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RejectedExecutionException("Too many live tails");
+        }
+        TailFilter indexed = new TailFilter(filter.tenantId(), filter.action(), filter.status(),
+            tokenizer.tokenize(filter.tenantId(), "userId", filter.userId()));
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        TailSubscriber subscriber = new TailSubscriber(indexed, emitter, bufferSize, maxBatch, sender,
+            deliveredEvents, droppedEvents, this::unsubscribe);
+        
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        index.add(subscriber);
+        logger.info("Live tail opened: tenantId={}, action={}, status={}, userId={}",
+                    filter.tenantId(), filter.action(), filter.status(), filter.userId() != null);
+        return emitter;
+    }
+    
+    /**
+     * Fan an event from Kafka out to the matching tails
+     *
+     * @param event the log event
+     */
+    @KafkaListener(
+        id = "live-tail",
+        topics = TracehubConstants.AUDIT_LOGS_TOPIC,
+        groupId = "${tracehub.query.tail.group-id}",
+        properties = "auto.offset.reset=latest"
+    )
+    public void onLogEvent(@Payload LogEvent event) {
+        String tenantId = event.getTenantId();
+        if (!index.hasSubscribers(tenantId)) {
+            return;
+        }
+        if (redactionPolicy != null) {
+            redactionPolicy.redact(event);
+        }
+        if (tokenizer.isTokenized(tenantId)) {
+            event.setUserId(tokenizer.tokenize(tenantId, "userId", event.getUserId()));
+            event.setActorIp(tokenizer.tokenize(tenantId, "actorIp", event.getActorIp()));
+        }
+        index.forEachMatch(event, subscriber -> subscriber.offer(event));
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    private void expireSlowSends(long sendTimeoutNanos) {
+        long now = System.nanoTime();
+        for (TailSubscriber subscriber : subscribers) {
+            if (subscriber.expireSlowSend(now, sendTimeoutNanos)) {
+                slowClosed.increment();
+                logger.info("Live tail closed, client not reading: tenantId={}", subscriber.getFilter().tenantId());
+            }
+        }
+    }
+    
+    private void unsubscribe(TailSubscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            index.remove(subscriber);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.getEmitter().complete();
+        });
+        sender.shutdownNow();
+    }
+}
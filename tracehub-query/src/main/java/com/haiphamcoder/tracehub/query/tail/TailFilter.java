@@ -0,0 +1,12 @@
+package com.haiphamcoder.tracehub.query.tail;
+
+/**
+ * Filter of a live tail: the tenant, and optionally exact values of action, status and userId
+ *
+ * @param tenantId the tenant, required
+ * @param action the action, or null for any
+ * @param status the status, or null for any
+ * @param userId the userId (tokenized for tokenized tenants), or null for any
+ */
+public record TailFilter(String tenantId, String action, String status, String userId) {
+}
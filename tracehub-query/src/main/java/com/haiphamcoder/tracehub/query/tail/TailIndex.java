@@ -0,0 +1,190 @@
+package com.haiphamcoder.tracehub.query.tail;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Index of live tail subscribers by tenant and filter values.
+ * Within a tenant, subscribers are grouped by the shape of their filter (which of action,
+ * status and userId they set) and then by the filter values. Matching an event costs one
+ * hash lookup per shape in use, at most eight, independent of the number of subscribers,
+ * and only touches subscribers that match.
+ * Reads are lock-free; writes are serialized and publish copy-on-write arrays.
+ */
+public class TailIndex {
+    
+    private static final int ACTION = 1;
+    private static final int STATUS = 2;
+    private static final int USER_ID = 4;
+    private static final int SHAPES = 8;
+    
+    private static final TailSubscriber[] NO_SUBSCRIBERS = new TailSubscriber[0];
+    
+    private final ConcurrentHashMap<String, TenantTails> tenants = new ConcurrentHashMap<>();
+    private int size;
+    
+    /**
+     * Check whether a log event matches a tail filter.
+     * This is the reference semantics the index implements.
+     *
+     * @param filter the filter
+     * @param event the log event
+     * @return true if the event is sent to the tail
+     */
+    public static boolean matches(TailFilter filter, LogEvent event) {
+        return filter.tenantId().equals(event.getTenantId())
+            && (filter.action() == null || filter.action().equals(event.getAction()))
+            && (filter.status() == null || filter.status().equals(event.getStatus()))
+            && (filter.userId() == null || filter.userId().equals(event.getUserId()));
+    }
+    
+    /**
+     * Add a subscriber to the index
+     *
+     * @param subscriber the subscriber
+     */
+    public synchronized void add(TailSubscriber subscriber) {
+        TailFilter filter = subscriber.getFilter();
+        TenantTails tails = tenants.computeIfAbsent(filter.tenantId(), tenantId -> new TenantTails());
+        Key key = new Key(filter.action(), filter.status(), filter.userId());
+        tails.subscribers.merge(key, new TailSubscriber[] {subscriber}, (existing, added) -> append(existing, added[0]));
+        if (tails.shapeCounts[shapeOf(filter)]++ == 0) {
+            tails.publishShapes();
+        }
+        size++;
+    }
+    
+    /**
+     * Remove a subscriber from the index
+     *
+     * @param subscriber the subscriber to remove
+     */
+    public synchronized void remove(TailSubscriber subscriber) {
+        TailFilter filter = subscriber.getFilter();
+        TenantTails tails = tenants.get(filter.tenantId());
+        if (tails == null) {
+            return;
+        }
+        Key key = new Key(filter.action(), filter.status(), filter.userId());
+        TailSubscriber[] existing = tails.subscribers.get(key);
+        if (existing == null) {
+            return;
+        }
+        TailSubscriber[] updated = without(existing, subscriber);
+        if (updated == existing) {
+            return;
+        }
+        if (updated.length == 0) {
+            tails.subscribers.remove(key);
+        } else {
+            tails.subscribers.put(key, updated);
+        }
+        if (--tails.shapeCounts[shapeOf(filter)] == 0) {
+            tails.publishShapes();
+        }
+        if (tails.subscribers.isEmpty()) {
+            tenants.remove(filter.tenantId());
+        }
+        size--;
+    }
+    
+    /**
+     * Whether any subscriber tails a tenant
+     *
+     * @param tenantId the tenant
+     * @return true if at least one subscriber has this tenant
+     */
+    public boolean hasSubscribers(String tenantId) {
+        return tenantId != null && tenants.containsKey(tenantId);
+    }
+    
+    /**
+     * Invoke the callback for every subscriber the event matches
+     *
+     * @param event the log event
+     * @param callback called once per matching subscriber
+     */
+    public void forEachMatch(LogEvent event, Consumer<TailSubscriber> callback) {
+        TenantTails tails = event.getTenantId() != null ? tenants.get(event.getTenantId()) : null;
+        if (tails == null) {
+            return;
+        }
+        String action = event.getAction();
+        String status = event.getStatus();
+        String userId = event.getUserId();
+        for (int shape : tails.shapes) {
+            // A filter on a field the event does not have can never match
+            if (((shape & ACTION) != 0 && action == null)
+                    || ((shape & STATUS) != 0 && status == null)
+                    || ((shape & USER_ID) != 0 && userId == null)) {
+                continue;
+            }
+            Key key = new Key((shape & ACTION) != 0 ? action : null,
+                (shape & STATUS) != 0 ? status : null,
+                (shape & USER_ID) != 0 ? userId : null);
+            TailSubscriber[] subscribers = tails.subscribers.get(key);
+            if (subscribers != null) {
+                for (TailSubscriber subscriber : subscribers) {
+                    callback.accept(subscriber);
+                }
+            }
+        }
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    private static int shapeOf(TailFilter filter) {
+        return (filter.action() != null ? ACTION : 0)
+            | (filter.status() != null ? STATUS : 0)
+            | (filter.userId() != null ? USER_ID : 0);
+    }
+    
+    private static TailSubscriber[] append(TailSubscriber[] subscribers, TailSubscriber subscriber) {
+        TailSubscriber[] updated = Arrays.copyOf(subscribers, subscribers.length + 1);
+        updated[subscribers.length] = subscriber;
+        return updated;
+    }
+    
+    private static TailSubscriber[] without(TailSubscriber[] subscribers, TailSubscriber subscriber) {
+        for (int i = 0; i < subscribers.length; i++) {
+            if (subscribers[i] == subscriber) {
+                TailSubscriber[] updated = new TailSubscriber[subscribers.length - 1];
+                System.arraycopy(subscribers, 0, updated, 0, i);
+                System.arraycopy(subscribers, i + 1, updated, i, subscribers.length - i - 1);
+                return updated;
+            }
+        }
+        return subscribers;
+    }
+    
+    /**
+     * Filter values; a field the filter does not set is null
+     */
+    private record Key(String action, String status, String userId) {
+    }
+    
+    /**
+     * Subscribers of one tenant, with the filter shapes in use
+     */
+    private static class TenantTails {
+        private final ConcurrentHashMap<Key, TailSubscriber[]> subscribers = new ConcurrentHashMap<>();
+        private final int[] shapeCounts = new int[SHAPES];
+        private volatile int[] shapes = new int[0];
+        
+        void publishShapes() {
+            int[] inUse = new int[SHAPES];
+            int count = 0;
+            for (int shape = 0; shape < SHAPES; shape++) {
+                if (shapeCounts[shape] > 0) {
+                    inUse[count++] = shape;
+                }
+            }
+            shapes = Arrays.copyOf(inUse, count);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.haiphamcoder.tracehub.query.tail;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * One live tail connection.
+ * <ul>
+ *   <li>The Kafka consumer thread only puts matching events in a bounded buffer and never
+ *       waits on the client. When the buffer is full the oldest event is dropped, so a slow
+ *       client stays close to real time.</li>
+ *   <li>Buffered events are written by a shared sender pool, at most one task per
+ *       subscriber at a time, as one {@code events} SSE event holding a JSON array.</li>
+ *   <li>Dropped events are reported before the next batch as a {@code lag} event with
+ *       the number of events lost.</li>
+ *   <li>A send that blocks longer than the send timeout (the client stopped reading and the
+ *       socket buffer is full) gets the subscriber closed by {@link #expireSlowSend}. The
+ *       sending thread is interrupted and returned to the pool, so one stalled client cannot
+ *       hold up the other tails.</li>
+ * </ul>
+ */
+public final class TailSubscriber {
+    
+    private final TailFilter filter;
+    private final SseEmitter emitter;
+    private final ArrayBlockingQueue<LogEvent> buffer;
+    private final int maxBatch;
+    private final Executor sender;
+    private final Counter deliveredEvents;
+    private final Counter droppedEvents;
+    private final Consumer<TailSubscriber> onClose;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    
+    private volatile boolean heartbeatDue;
+    private volatile boolean closed;
+    private volatile boolean expired;
+    
+    // Thread blocked in the current send and when the send started; guarded by this
+    private Thread sendingThread;
+    private long sendStartedNanos;
+    
+    TailSubscriber(TailFilter filter, SseEmitter emitter, int bufferSize, int maxBatch, Executor sender,
+                   Counter deliveredEvents, Counter droppedEvents, Consumer<TailSubscriber> onClose) {
+        this.filter = filter;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.maxBatch = maxBatch;
+        this.sender = sender;
+        this.deliveredEvents = deliveredEvents;
+        this.droppedEvents = droppedEvents;
+        this.onClose = onClose;
+    }
+    
+    public TailFilter getFilter() {
+        return filter;
+    }
+    
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+    
+    /**
+     * Buffer an event for sending, dropping the oldest buffered event if full.
+     * Called by the single consumer thread only.
+     *
+     * @param event the matching event
+     */
+    void offer(LogEvent event) {
+        if (closed) {
+            return;
+        }
+        while (!buffer.offer(event)) {
+            if (buffer.poll() != null) {
+                dropped.incrementAndGet();
+                droppedEvents.increment();
+            }
+        }
+        schedule();
+    }
+    
+    /**
+     * Send a comment if nothing else is sent before the next drain, so dead clients are
+     * detected and proxies keep the connection open
+     */
+    void heartbeat() {
+        heartbeatDue = true;
+        schedule();
+    }
+    
+    boolean isClosed() {
+        return closed;
+    }
+    
+    /**
+     * Close the subscriber if its current send has been blocked longer than the timeout.
+     * Called by the watchdog thread.
+     *
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @param timeoutNanos the send timeout
+     * @return true if the subscriber was closed
+     */
+    boolean expireSlowSend(long nowNanos, long timeoutNanos) {
+        synchronized (this) {
+            if (sendingThread == null || nowNanos - sendStartedNanos < timeoutNanos || expired) {
+                return false;
+            }
+            expired = true;
+            // Unblocks the socket write, which then fails; the emitter is completed by drain
+            sendingThread.interrupt();
+        }
+        close();
+        return true;
+    }
+    
+    /**
+     * Stop sending and release the subscriber; the emitter is completed by its owner
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        buffer.clear();
+        onClose.accept(this);
+    }
+    
+    private void schedule() {
+        if (!closed && scheduled.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+    }
+    
+    private void drain() {
+        synchronized (this) {
+            sendingThread = Thread.currentThread();
+            sendStartedNanos = System.nanoTime();
+        }
+        try {
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                emitter.send(SseEmitter.event().name("lag").data(Map.of("dropped", lost)));
+            }
+            List<LogEvent> batch = new ArrayList<>(Math.min(buffer.size(), maxBatch));
+            buffer.drainTo(batch, maxBatch);
+            if (!batch.isEmpty()) {
+                emitter.send(SseEmitter.event().name("events").data(batch));
+                deliveredEvents.increment(batch.size());
+            } else if (heartbeatDue && lost == 0) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            heartbeatDue = false;
+        } catch (IOException | IllegalStateException e) {
+            // Client gone or emitter already completed
+            close();
+        } finally {
+            synchronized (this) {
+                sendingThread = null;
+            }
+            // Clear an interrupt from expireSlowSend that arrived after the send completed
+            Thread.interrupted();
+            scheduled.set(false);
+        }
+        if (expired) {
+            completeQuietly();
+            return;
+        }
+        // Events offered while this drain was running did not schedule another one
+        if (!buffer.isEmpty() || dropped.get() > 0) {
+            schedule();
+        }
+    }
+    
+    private void completeQuietly() {
+        try {
+            emitter.complete();
+        } catch (RuntimeException e) {
+            // Already completed
+        }
+    }
+}
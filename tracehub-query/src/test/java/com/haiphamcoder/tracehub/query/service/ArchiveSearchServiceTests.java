@@ -0,0 +1,124 @@
+package com.haiphamcoder.tracehub.query.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.haiphamcoder.tracehub.common.archive.ArchiveSegment;
+import com.haiphamcoder.tracehub.common.archive.ArchiveSegmentWriter;
+import com.haiphamcoder.tracehub.common.archive.LocalArchiveStorage;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.dto.MetadataFilter;
+import com.haiphamcoder.tracehub.common.dto.SearchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class ArchiveSearchServiceTests {
+
+	private static final Instant DAY = Instant.parse("2024-01-15T00:00:00Z");
+
+	@Test
+	void pagesNewestFirstAcrossSegmentsWithoutGapsOrDuplicates(@TempDir Path dir) throws Exception {
+		LocalArchiveStorage storage = new LocalArchiveStorage(dir.resolve("archive"));
+		// Two segments of one day, interleaved in time and sharing timestamps
+		for (int segment = 0; segment < 2; segment++) {
+			List<LogEvent> events = new ArrayList<>();
+			for (int i = 0; i < 500; i++) {
+				String tenant = i % 5 == 0 ? "other" : "acme";
+				events.add(new LogEvent(DAY.plusSeconds(i / 2 * 2 + segment), tenant, "user-" + i, "LOGIN",
+						i % 3 == 0 ? "FAILURE" : "SUCCESS", "10.0.0.1", "login attempt " + i));
+			}
+			Path file = dir.resolve("segment-" + segment);
+			ArchiveSegmentWriter.write(events, file);
+			storage.put(ArchiveSegment.name("logs-tracehub-2024.01.15", segment), file);
+		}
+
+		ArchiveSearchService service = new ArchiveSearchService(storage, new SimpleMeterRegistry(), 2);
+		try {
+			SearchRequest request = new SearchRequest();
+			request.setTenantId("acme");
+			request.setStatus("FAILURE");
+			request.setFrom(DAY);
+			request.setTo(DAY.plusSeconds(3600));
+
+			Set<String> seen = new HashSet<>();
+			long previous = Long.MAX_VALUE;
+			SearchCursor after = null;
+			long total = -1;
+			while (true) {
+				SearchPart part = service.search(request, null, null, after, 25);
+				if (total < 0) {
+					total = part.getTotal();
+				}
+				for (RankedEvent hit : part.getEvents()) {
+					assertTrue(hit.getTimestampMillis() <= previous);
+					assertTrue(seen.add(hit.getKey()));
+					assertEquals("acme", hit.getEvent().getTenantId());
+					assertEquals("FAILURE", hit.getEvent().getStatus());
+					previous = hit.getTimestampMillis();
+				}
+				if (part.getEvents().size() < 25) {
+					break;
+				}
+				after = SearchCursor.decode(part.getEvents().get(24).toCursor().encode());
+			}
+			// i % 3 == 0 and i % 5 != 0, in each of the two segments
+			assertEquals(2 * 133, seen.size());
+			assertEquals(seen.size(), total);
+
+			request.setFrom(DAY.plusSeconds(86_400));
+			request.setTo(DAY.plusSeconds(2 * 86_400));
+			assertTrue(service.search(request, null, null, null, 25).getEvents().isEmpty());
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	void filtersOnMetadataValuesAndRanges(@TempDir Path dir) throws Exception {
+		LocalArchiveStorage storage = new LocalArchiveStorage(dir.resolve("archive"));
+		List<LogEvent> events = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			LogEvent event = new LogEvent(DAY.plusSeconds(i), "acme", "user-" + i, "PAYMENT", "SUCCESS",
+					"10.0.0.1", "payment " + i);
+			if (i % 10 != 0) {
+				event.setMetadata(Map.of("amount", i, "geo", Map.of("country", i % 2 == 0 ? "VN" : "US")));
+			}
+			events.add(event);
+		}
+		Path file = dir.resolve("segment");
+		ArchiveSegmentWriter.write(events, file);
+		storage.put(ArchiveSegment.name("logs-tracehub-2024.01.15", 0), file);
+
+		ArchiveSearchService service = new ArchiveSearchService(storage, new SimpleMeterRegistry(), 1);
+		try {
+			SearchRequest request = new SearchRequest();
+			request.setTenantId("acme");
+			request.setFrom(DAY);
+			request.setTo(DAY.plusSeconds(3600));
+			// Numbers compare numerically, so 9 is below 50; nested keys are reached by path
+			request.setMetadataFilters(List.of(
+					new MetadataFilter("amount", null, "9", "50"),
+					new MetadataFilter("geo.country", "VN", null, null)));
+
+			SearchPart part = service.search(request, null, null, null, 100);
+			Set<String> users = new HashSet<>();
+			part.getEvents().forEach(hit -> users.add(hit.getEvent().getUserId()));
+			// Even amounts in 9..50 with metadata (not multiples of 10)
+			assertEquals(Set.of("user-12", "user-14", "user-16", "user-18", "user-22", "user-24", "user-26",
+					"user-28", "user-32", "user-34", "user-36", "user-38", "user-42", "user-44", "user-46",
+					"user-48"), users);
+			assertEquals(users.size(), part.getTotal());
+		} finally {
+			service.shutdown();
+		}
+	}
+}
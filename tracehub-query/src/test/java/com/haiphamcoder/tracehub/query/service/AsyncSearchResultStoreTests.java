@@ -0,0 +1,219 @@
+package com.haiphamcoder.tracehub.query.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haiphamcoder.tracehub.common.dto.AsyncSearchResponse;
+import com.haiphamcoder.tracehub.common.dto.AsyncSearchResponse.State;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class AsyncSearchResultStoreTests {
+
+	private static final Instant LATER = Instant.now().plusSeconds(3600);
+
+	@TempDir
+	Path spillDir;
+
+	@Test
+	void spillsTheOldestResultOverTheMemoryBudgetAndPagesItFromDisk() throws IOException {
+		List<LogEvent> hits = events("a", 3);
+		AsyncSearchResultStore store = store(AsyncSearchResultStore.estimateBytes(hits), 1 << 20);
+
+		store.put(summary("a", LATER), hits);
+		store.put(summary("b", LATER), events("b", 3));
+
+		assertEquals(AsyncSearchResultStore.estimateBytes(hits), store.getMemoryBytes());
+		assertEquals(1, spillFiles().size());
+		assertEquals(Files.size(spillFiles().get(0)), store.getDiskBytes());
+		AsyncSearchResponse page = store.get("a", 1, 5);
+		assertEquals(List.of("a-1", "a-2"), messages(page));
+		assertEquals(3, page.getTotal());
+		assertEquals(1, page.getOffset());
+		assertEquals(State.COMPLETED, page.getState());
+		assertEquals(List.of("b-0"), messages(store.get("b", 0, 1)));
+	}
+
+	@Test
+	void readsPagesOfASpilledResultFromTheirIndexedBlock() throws IOException {
+		AsyncSearchResultStore store = store(0, 1 << 24);
+		store.put(summary("a", LATER), events("a", 2500));
+
+		assertEquals(List.of("a-0", "a-1"), messages(store.get("a", 0, 2)));
+		assertEquals(List.of("a-1023", "a-1024", "a-1025"), messages(store.get("a", 1023, 3)));
+		assertEquals(List.of("a-2048"), messages(store.get("a", 2048, 1)));
+		assertEquals(List.of("a-2498", "a-2499"), messages(store.get("a", 2498, 10)));
+		assertEquals(List.of(), messages(store.get("a", 2500, 10)));
+	}
+
+	@Test
+	void reservationsForRunningSearchesSpillCompletedResults() throws IOException {
+		List<LogEvent> hits = events("a", 3);
+		long bytes = AsyncSearchResultStore.estimateBytes(hits);
+		AsyncSearchResultStore store = store(2 * bytes, 1 << 20);
+		store.put(summary("a", LATER), hits);
+
+		assertTrue(store.reserve(bytes));
+		assertEquals(bytes, store.getMemoryBytes());
+		assertTrue(store.reserve(bytes));
+
+		assertEquals(0, store.getMemoryBytes());
+		assertEquals(2 * bytes, store.getReservedBytes());
+		assertEquals(1, spillFiles().size());
+		assertEquals(List.of("a-0"), messages(store.get("a", 0, 1)));
+		// Running searches are never spilled, so they cannot go over the budget
+		assertFalse(store.reserve(1));
+
+		store.release(2 * bytes);
+		assertEquals(0, store.getReservedBytes());
+		assertTrue(store.reserve(1));
+	}
+
+	@Test
+	void evictsTheOldestSpilledResultOverTheDiskCap() throws IOException {
+		AsyncSearchResultStore store = store(0, 1 << 20);
+		store.put(summary("a", LATER), events("a", 3));
+		long fileBytes = store.getDiskBytes();
+		store = store(0, fileBytes * 2);
+
+		store.put(summary("a", LATER), events("a", 3));
+		store.put(summary("b", LATER), events("b", 3));
+		store.put(summary("c", LATER), events("c", 3));
+
+		assertNull(store.get("a", 0, 10));
+		assertEquals(3, store.get("b", 0, 10).getTotal());
+		assertEquals(3, store.get("c", 0, 10).getTotal());
+		assertEquals(2, spillFiles().size());
+		assertEquals(fileBytes * 2, store.getDiskBytes());
+	}
+
+	@Test
+	void dropsAResultLargerThanTheDiskCap() throws IOException {
+		AsyncSearchResultStore store = store(0, 10);
+
+		store.put(summary("a", LATER), events("a", 3));
+
+		assertNull(store.get("a", 0, 10));
+		assertEquals(0, store.getDiskBytes());
+		assertEquals(List.of(), spillFiles());
+	}
+
+	@Test
+	void evictsExpiredResultsFromMemoryAndDisk() throws IOException {
+		List<LogEvent> hits = events("live", 1);
+		AsyncSearchResultStore store = store(AsyncSearchResultStore.estimateBytes(hits), 1 << 20);
+		Instant past = Instant.now().minusSeconds(1);
+		store.put(summary("spilled", past), events("spilled", 1));
+		store.put(summary("memory", past), events("memory", 1));
+		store.put(summary("live", LATER), hits);
+		assertEquals(2, spillFiles().size());
+
+		store.evictExpired();
+
+		assertNull(store.get("spilled", 0, 10));
+		assertNull(store.get("memory", 0, 10));
+		assertEquals(List.of("live-0"), messages(store.get("live", 0, 10)));
+		assertEquals(0, store.getDiskBytes());
+		assertEquals(List.of(), spillFiles());
+	}
+
+	@Test
+	void removeDeletesTheSpillFile() throws IOException {
+		AsyncSearchResultStore store = store(0, 1 << 20);
+		store.put(summary("a", LATER), events("a", 2));
+
+		assertTrue(store.remove("a"));
+
+		assertFalse(store.remove("a"));
+		assertEquals(0, store.getDiskBytes());
+		assertEquals(List.of(), spillFiles());
+	}
+
+	@Test
+	void servesOtherResultsWhileASpillIsWritten() throws Exception {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ObjectMapper objectMapper = new ObjectMapper() {
+			@Override
+			public String writeValueAsString(Object value) throws JsonProcessingException {
+				writing.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.writeValueAsString(value);
+			}
+		};
+		objectMapper.findAndRegisterModules();
+		List<LogEvent> hits = events("b", 1);
+		AsyncSearchResultStore store = new AsyncSearchResultStore(objectMapper,
+				AsyncSearchResultStore.estimateBytes(hits), 1 << 20, spillDir.toString());
+		store.init();
+		store.put(summary("a", LATER), events("a", 1));
+
+		CompletableFuture<Void> spill = CompletableFuture.runAsync(() -> store.put(summary("b", LATER), hits));
+		assertTrue(writing.await(10, TimeUnit.SECONDS));
+		try {
+			// Neither blocked by the write nor missing while it is in progress
+			assertEquals(List.of("a-0"), messages(store.get("a", 0, 10)));
+			assertEquals(List.of("b-0"), messages(store.get("b", 0, 10)));
+		} finally {
+			release.countDown();
+		}
+		spill.get(10, TimeUnit.SECONDS);
+
+		assertEquals(List.of("a-0"), messages(store.get("a", 0, 10)));
+		assertEquals(1, spillFiles().size());
+	}
+
+	private AsyncSearchResultStore store(long maxMemoryBytes, long maxDiskBytes) throws IOException {
+		AsyncSearchResultStore store = new AsyncSearchResultStore(new ObjectMapper().findAndRegisterModules(),
+				maxMemoryBytes, maxDiskBytes, spillDir.toString());
+		store.init();
+		return store;
+	}
+
+	private List<Path> spillFiles() throws IOException {
+		try (Stream<Path> files = Files.list(spillDir)) {
+			return files.toList();
+		}
+	}
+
+	private static AsyncSearchResponse summary(String id, Instant expirationTime) {
+		AsyncSearchResponse summary = new AsyncSearchResponse(id, State.COMPLETED, false);
+		summary.setExpirationTime(expirationTime);
+		return summary;
+	}
+
+	private static List<LogEvent> events(String prefix, int count) {
+		return IntStream.range(0, count).mapToObj(i -> {
+			LogEvent event = new LogEvent();
+			event.setTenantId("t1");
+			event.setTimestamp(Instant.parse("2026-01-01T12:00:00Z"));
+			event.setMessage(prefix + "-" + i);
+			return event;
+		}).toList();
+	}
+
+	private static List<String> messages(AsyncSearchResponse response) {
+		return response.getHits().stream().map(LogEvent::getMessage).toList();
+	}
+
+}
@@ -0,0 +1,198 @@
+package com.haiphamcoder.tracehub.query.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haiphamcoder.tracehub.common.dto.AsyncSearchResponse;
+import com.haiphamcoder.tracehub.common.dto.AsyncSearchResponse.State;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.dto.MetadataFilter;
+import com.haiphamcoder.tracehub.common.dto.SearchRequest;
+import com.haiphamcoder.tracehub.common.dto.SearchResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class AsyncSearchServiceTests {
+
+	@TempDir
+	Path spillDir;
+
+	private final SearchService searchService = mock(SearchService.class);
+	private AsyncSearchResultStore resultStore;
+	private AsyncSearchService asyncSearchService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		start(1 << 20);
+	}
+
+	private void start(long maxMemoryBytes) throws IOException {
+		resultStore = new AsyncSearchResultStore(new ObjectMapper().findAndRegisterModules(),
+				maxMemoryBytes, 1 << 20, spillDir.toString());
+		resultStore.init();
+		asyncSearchService = new AsyncSearchService(searchService, resultStore, 1, 4);
+		ReflectionTestUtils.setField(asyncSearchService, "maxHits", 1000);
+		ReflectionTestUtils.setField(asyncSearchService, "pageSize", 100);
+		ReflectionTestUtils.setField(asyncSearchService, "keepAlive", Duration.ofMinutes(5));
+	}
+
+	@AfterEach
+	void tearDown() {
+		asyncSearchService.shutdown();
+	}
+
+	@Test
+	void pagesKeepTheMetadataFilters() throws Exception {
+		when(searchService.searchLogs(any()))
+				.thenReturn(new SearchResponse(List.of(event("m1")), 2, "page-2", true))
+				.thenReturn(new SearchResponse(List.of(event("m2")), 2, null, false));
+		SearchRequest request = request();
+		request.setMetadataFilters(List.of(new MetadataFilter("country", "VN", null, null)));
+
+		AsyncSearchResponse submitted = asyncSearchService.submit(request);
+		AsyncSearchResponse done = awaitState(submitted.getId(), State.COMPLETED);
+
+		assertEquals(2, done.getTotal());
+		ArgumentCaptor<SearchRequest> pages = ArgumentCaptor.forClass(SearchRequest.class);
+		verify(searchService, times(2)).searchLogs(pages.capture());
+		for (SearchRequest page : pages.getAllValues()) {
+			assertNotNull(page.getMetadataFilters());
+			assertEquals("country", page.getMetadataFilters().get(0).getKey());
+			assertEquals("VN", page.getMetadataFilters().get(0).getValue());
+		}
+		assertEquals("page-2", pages.getAllValues().get(1).getSearchAfter());
+	}
+
+	@Test
+	void pollingReturnsPartialHitsWhileTheSearchRuns() throws Exception {
+		CountDownLatch secondPage = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(searchService.searchLogs(any()))
+				.thenReturn(new SearchResponse(List.of(event("m1"), event("m2")), 3, "page-2", true))
+				.thenAnswer(invocation -> {
+					secondPage.countDown();
+					release.await();
+					return new SearchResponse(List.of(event("m3")), 3, null, false);
+				});
+
+		AsyncSearchResponse submitted = asyncSearchService.submit(request());
+		assertTrue(secondPage.await(10, TimeUnit.SECONDS));
+
+		AsyncSearchResponse running = asyncSearchService.get(submitted.getId(), 1, 10);
+		assertEquals(State.RUNNING, running.getState());
+		assertTrue(running.isPartial());
+		assertEquals(2, running.getTotal());
+		assertEquals(1, running.getOffset());
+		assertEquals("m2", running.getHits().get(0).getMessage());
+
+		release.countDown();
+		AsyncSearchResponse done = awaitState(submitted.getId(), State.COMPLETED);
+		assertFalse(done.isPartial());
+		assertEquals(3, done.getTotal());
+		assertNotNull(done.getCompletionTime());
+	}
+
+	@Test
+	void stopsWhenTheNextPageDoesNotFitTheMemoryBudget() throws Exception {
+		List<LogEvent> page = List.of(event("m1"), event("m2"));
+		asyncSearchService.shutdown();
+		start(AsyncSearchResultStore.estimateBytes(page));
+		when(searchService.searchLogs(any())).thenReturn(new SearchResponse(page, 4, "page-2", true));
+
+		AsyncSearchResponse submitted = asyncSearchService.submit(request());
+		AsyncSearchResponse done = awaitState(submitted.getId(), State.COMPLETED);
+
+		assertEquals(2, done.getTotal());
+		assertNotNull(done.getError());
+		verify(searchService, times(2)).searchLogs(any());
+		assertEquals(0, resultStore.getReservedBytes());
+	}
+
+	@Test
+	void cancelStopsARunningSearchAndDiscardsItsHits() throws Exception {
+		CountDownLatch firstPage = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		when(searchService.searchLogs(any())).thenAnswer(invocation -> {
+			firstPage.countDown();
+			try {
+				new CountDownLatch(1).await();
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+				throw e;
+			}
+			return null;
+		});
+
+		AsyncSearchResponse submitted = asyncSearchService.submit(request());
+		assertTrue(firstPage.await(10, TimeUnit.SECONDS));
+
+		assertTrue(asyncSearchService.cancel(submitted.getId()));
+		assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+		assertNull(asyncSearchService.get(submitted.getId(), 0, 10));
+		assertFalse(asyncSearchService.cancel(submitted.getId()));
+		assertEquals(0, asyncSearchService.getActiveCount());
+	}
+
+	@Test
+	void cancelRemovesACompletedResult() throws Exception {
+		when(searchService.searchLogs(any())).thenReturn(new SearchResponse(List.of(event("m1")), 1, null, false));
+
+		AsyncSearchResponse submitted = asyncSearchService.submit(request());
+		awaitState(submitted.getId(), State.COMPLETED);
+
+		assertTrue(asyncSearchService.cancel(submitted.getId()));
+		assertNull(asyncSearchService.get(submitted.getId(), 0, 10));
+	}
+
+	private AsyncSearchResponse awaitState(String id, State state) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (System.nanoTime() < deadline) {
+			AsyncSearchResponse response = asyncSearchService.get(id, 0, 100);
+			if (response != null && response.getState() == state) {
+				return response;
+			}
+			Thread.sleep(10);
+		}
+		fail("Search " + id + " did not reach " + state);
+		return null;
+	}
+
+	private static SearchRequest request() {
+		SearchRequest request = new SearchRequest();
+		request.setTenantId("t1");
+		request.setFrom(Instant.parse("2026-01-01T00:00:00Z"));
+		request.setTo(Instant.parse("2026-01-02T00:00:00Z"));
+		return request;
+	}
+
+	private static LogEvent event(String message) {
+		LogEvent event = new LogEvent();
+		event.setTenantId("t1");
+		event.setTimestamp(Instant.parse("2026-01-01T12:00:00Z"));
+		event.setMessage(message);
+		return event;
+	}
+
+}
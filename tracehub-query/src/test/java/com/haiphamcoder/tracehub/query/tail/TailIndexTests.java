@@ -0,0 +1,83 @@
+package com.haiphamcoder.tracehub.query.tail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class TailIndexTests {
+
+	private static final String[] TENANTS = {"t1", "t2", "t3"};
+	private static final String[] ACTIONS = {"LOGIN", "LOGOUT", "DELETE"};
+	private static final String[] STATUSES = {"SUCCESS", "FAILURE"};
+	private static final String[] USERS = {"u1", "u2", "u3", "u4"};
+
+	@Test
+	void indexMatchesLinearScan() {
+		Random random = new Random(11);
+		List<TailSubscriber> subscribers = new ArrayList<>();
+		TailIndex index = new TailIndex();
+		for (int i = 0; i < 500; i++) {
+			TailFilter filter = new TailFilter(pick(random, TENANTS), maybe(random, ACTIONS),
+					maybe(random, STATUSES), maybe(random, USERS));
+			TailSubscriber subscriber = subscriber(filter);
+			subscribers.add(subscriber);
+			index.add(subscriber);
+		}
+		for (int i = 0; i < 100; i++) {
+			index.remove(subscribers.remove(random.nextInt(subscribers.size())));
+		}
+		assertEquals(400, index.size());
+
+		for (int i = 0; i < 2_000; i++) {
+			LogEvent event = new LogEvent();
+			event.setTenantId(pick(random, TENANTS));
+			event.setAction(maybe(random, ACTIONS));
+			event.setStatus(pick(random, STATUSES));
+			event.setUserId(pick(random, USERS));
+
+			Set<TailSubscriber> expected = new HashSet<>();
+			for (TailSubscriber subscriber : subscribers) {
+				if (TailIndex.matches(subscriber.getFilter(), event)) {
+					expected.add(subscriber);
+				}
+			}
+
+			List<TailSubscriber> actual = new ArrayList<>();
+			index.forEachMatch(event, actual::add);
+
+			assertEquals(expected.size(), actual.size());
+			assertEquals(expected, new HashSet<>(actual));
+		}
+	}
+
+	@Test
+	void forgetsTenantWithoutSubscribers() {
+		TailIndex index = new TailIndex();
+		TailSubscriber subscriber = subscriber(new TailFilter("t1", "LOGIN", null, null));
+		index.add(subscriber);
+		index.remove(subscriber);
+
+		assertFalse(index.hasSubscribers("t1"));
+		assertEquals(0, index.size());
+	}
+
+	private static TailSubscriber subscriber(TailFilter filter) {
+		return new TailSubscriber(filter, null, 1, 1, Runnable::run, null, null, closed -> { });
+	}
+
+	private static String pick(Random random, String[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+	private static String maybe(Random random, String[] values) {
+		return random.nextBoolean() ? null : pick(random, values);
+	}
+}
@@ -0,0 +1,144 @@
+package com.haiphamcoder.tracehub.query.tail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class TailSubscriberTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final Counter delivered = meterRegistry.counter("delivered");
+	private final Counter dropped = meterRegistry.counter("dropped");
+	private final Queue<Runnable> sender = new ArrayDeque<>();
+
+	@Test
+	void dropsOldestEventsAndReportsLagBeforeNextBatch() {
+		RecordingEmitter emitter = new RecordingEmitter();
+		TailSubscriber subscriber = new TailSubscriber(new TailFilter("t1", null, null, null), emitter,
+				3, 10, sender::add, delivered, dropped, closed -> { });
+
+		// The client is slow: five events arrive before the first drain runs
+		for (int i = 1; i <= 5; i++) {
+			subscriber.offer(event("m" + i));
+		}
+		assertEquals(1, sender.size());
+		sender.poll().run();
+
+		assertEquals(List.of("lag", "events"), emitter.names);
+		assertEquals(Map.of("dropped", 2L), emitter.data.get(0));
+		assertEquals(List.of("m3", "m4", "m5"), messages(emitter.data.get(1)));
+		assertEquals(3, delivered.count());
+		assertEquals(2, dropped.count());
+		assertTrue(sender.isEmpty());
+	}
+
+	@Test
+	void closesWhenClientIsGone() {
+		RecordingEmitter emitter = new RecordingEmitter();
+		emitter.failing = true;
+		List<TailSubscriber> released = new ArrayList<>();
+		TailSubscriber subscriber = new TailSubscriber(new TailFilter("t1", null, null, null), emitter,
+				3, 10, sender::add, delivered, dropped, released::add);
+
+		subscriber.offer(event("m1"));
+		sender.poll().run();
+		subscriber.offer(event("m2"));
+
+		assertTrue(subscriber.isClosed());
+		assertEquals(List.of(subscriber), released);
+		assertTrue(sender.isEmpty());
+	}
+
+	@Test
+	void closesAndReleasesTheSenderWhenASendBlocksPastTheTimeout() throws Exception {
+		RecordingEmitter emitter = new RecordingEmitter();
+		emitter.blocking = new CountDownLatch(1);
+		List<TailSubscriber> released = new ArrayList<>();
+		TailSubscriber subscriber = new TailSubscriber(new TailFilter("t1", null, null, null), emitter,
+				3, 10, sender::add, delivered, dropped, released::add);
+
+		subscriber.offer(event("m1"));
+		Thread senderThread = new Thread(sender.poll());
+		senderThread.start();
+		assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+
+		long timeout = TimeUnit.SECONDS.toNanos(5);
+		assertFalse(subscriber.expireSlowSend(System.nanoTime(), timeout));
+		assertTrue(subscriber.expireSlowSend(System.nanoTime() + timeout, timeout));
+		senderThread.join(5000);
+
+		assertFalse(senderThread.isAlive());
+		assertTrue(subscriber.isClosed());
+		assertEquals(List.of(subscriber), released);
+		assertTrue(emitter.completed);
+		assertEquals(0, delivered.count());
+	}
+
+	private static LogEvent event(String message) {
+		LogEvent event = new LogEvent();
+		event.setTenantId("t1");
+		event.setMessage(message);
+		return event;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String> messages(Object batch) {
+		return ((List<LogEvent>) batch).stream().map(LogEvent::getMessage).toList();
+	}
+
+	private static class RecordingEmitter extends SseEmitter {
+		private final List<String> names = new ArrayList<>();
+		private final List<Object> data = new ArrayList<>();
+		private final CountDownLatch sending = new CountDownLatch(1);
+		private boolean failing;
+		private CountDownLatch blocking;
+		private volatile boolean completed;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (failing) {
+				throw new IOException("Broken pipe");
+			}
+			if (blocking != null) {
+				// A client that stopped reading: the socket write blocks until interrupted
+				sending.countDown();
+				try {
+					blocking.await();
+				} catch (InterruptedException e) {
+					throw new IOException("Write interrupted", e);
+				}
+			}
+			String name = null;
+			Object payload = null;
+			for (var part : builder.build()) {
+				if (!(part.getData() instanceof String text)) {
+					payload = part.getData();
+				} else if (text.startsWith("event:")) {
+					name = text.substring("event:".length(), text.indexOf('\n'));
+				}
+			}
+			names.add(name);
+			data.add(payload);
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+	}
+}
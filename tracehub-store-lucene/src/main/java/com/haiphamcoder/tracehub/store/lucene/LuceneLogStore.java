@@ -0,0 +1,607 @@
+package com.haiphamcoder.tracehub.store.lucene;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haiphamcoder.tracehub.common.constants.TracehubConstants;
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.dto.MetadataFilter;
+import com.haiphamcoder.tracehub.common.store.LogDocument;
+import com.haiphamcoder.tracehub.common.store.LogHit;
+import com.haiphamcoder.tracehub.common.store.LogHits;
+import com.haiphamcoder.tracehub.common.store.LogQuery;
+import com.haiphamcoder.tracehub.common.store.LogStore;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TermRangeQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LogStore} on an embedded Lucene index, for single-node deployments without a cluster.
+ * <ul>
+ *   <li>Each daily partition is its own index directory under the root, so a search only
+ *       opens the days its time range covers, and a day can be dropped by deleting its
+ *       directory.</li>
+ *   <li>Searches use near-real-time readers, reopened every {@code refreshInterval};
+ *       writes are committed (made durable) every {@code commitInterval}. A shorter refresh
+ *       makes events visible sooner, a longer commit trades durability for throughput.</li>
+ *   <li>Timestamp, document ID and the keyword fields have doc values, so sorting and
+ *       aggregations read columns instead of stored documents.</li>
+ *   <li>Scalar metadata values are indexed as keywords under {@code metadata.<key>}, like
+ *       OpenSearch's flattened field, so metadata filters compare them as strings.</li>
+ * </ul>
+ * Only one process may write to a root. A read-only store (the query service next to a
+ * processor) sees committed writes only, and picks up new days on refresh.
+ */
+public class LuceneLogStore implements LogStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LuceneLogStore.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {};
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+    private static final String PARTITION_PREFIX = TracehubConstants.INDEX_PREFIX + "-";
+    
+    private static final String ID = "_id";
+    private static final String TIMESTAMP = "@timestamp";
+    private static final String TENANT_ID = "tenantId";
+    private static final String USER_ID = "userId";
+    private static final String ACTION = "action";
+    private static final String STATUS = "status";
+    private static final String ACTOR_IP = "actorIp";
+    private static final String MESSAGE = "message";
+    private static final String METADATA = "metadata";
+    
+    private static final Sort NEWEST_FIRST = new Sort(
+        new SortField(TIMESTAMP, SortField.Type.LONG, true),
+        new SortField(ID, SortField.Type.STRING, true));
+    
+    private final Path root;
+    private final boolean readOnly;
+    private final double ramBufferMb;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    
+    /**
+     * Open a store, with every existing daily partition under the root
+     *
+     * @param root directory holding one subdirectory per day
+     * @param readOnly whether this process only searches
+     * @param refreshInterval how often searches see new writes
+     * @param commitInterval how often writes are made durable; ignored when read-only
+     * @param ramBufferMb indexing buffer per partition before a segment is flushed
+     * @throws IOException if an existing partition cannot be opened
+     */
+    public LuceneLogStore(Path root, boolean readOnly, Duration refreshInterval, Duration commitInterval,
+                          double ramBufferMb) throws IOException {
+        this.root = root;
+        this.readOnly = readOnly;
+        this.ramBufferMb = ramBufferMb;
+        Files.createDirectories(root);
+        openExistingPartitions();
+        
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lucene-store-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh,
+            refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (!readOnly) {
+            scheduler.scheduleWithFixedDelay(this::commit,
+                commitInterval.toMillis(), commitInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        logger.info("Lucene log store opened: root={}, readOnly={}, partitions={}, refreshInterval={}, commitInterval={}",
+            root, readOnly, partitions.size(), refreshInterval, commitInterval);
+    }
+    
+    /**
+     * Add or replace documents by ID in their daily partitions.
+     * Rejected documents are reported per error type; the rest of the batch is written.
+     */
+    @Override
+    public Map<String, Integer> write(List<LogDocument> documents) throws IOException {
+        if (readOnly) {
+            throw new IOException("Lucene log store at " + root + " is read-only");
+        }
+        Map<String, Integer> failures = new HashMap<>();
+        for (LogDocument document : documents) {
+            Partition partition;
+            try {
+                partition = partition(document.getPartition());
+            } catch (IllegalArgumentException e) {
+                failures.merge("invalid_partition", 1, Integer::sum);
+                continue;
+            }
+            try {
+                partition.writer.updateDocument(new Term(ID, document.getDocumentId()), toDocument(document));
+            } catch (IllegalArgumentException e) {
+                failures.merge("illegal_argument", 1, Integer::sum);
+            }
+        }
+        return failures;
+    }
+    
+    @Override
+    public LogHits search(LogQuery query) throws IOException {
+        Query filter = buildQuery(query);
+        Query page = query.getAfterTimestampMillis() == null ? filter
+            : new BooleanQuery.Builder()
+                .add(filter, Occur.FILTER)
+                .add(after(query.getAfterTimestampMillis(), query.getAfterDocumentId()), Occur.FILTER)
+                .build();
+        LogHits hits = withSearcher(query, searcher -> {
+            long total = searcher.count(filter);
+            TopFieldDocs top = searcher.search(page, Math.max(1, query.getLimit()), NEWEST_FIRST);
+            StoredFields storedFields = searcher.getIndexReader().storedFields();
+            List<LogHit> result = new ArrayList<>(top.scoreDocs.length);
+            for (ScoreDoc scoreDoc : top.scoreDocs) {
+                Document document = storedFields.document(scoreDoc.doc);
+                LogEvent event = toEvent(document);
+                result.add(new LogHit(event, event.getTimestamp().toEpochMilli(), document.get(ID)));
+            }
+            return new LogHits(result, total);
+        });
+        return hits != null ? hits : new LogHits(List.of(), 0);
+    }
+    
+    @Override
+    public Map<String, Long> aggregate(LogQuery query, String field, int size) throws IOException {
+        if (!AGGREGATABLE_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("Cannot aggregate by " + field);
+        }
+        Map<String, Long> counts = withSearcher(query, searcher -> searcher.search(buildQuery(query),
+            new CollectorManager<TermCountCollector, Map<String, Long>>() {
+                @Override
+                public TermCountCollector newCollector() {
+                    return new TermCountCollector(field);
+                }
+                
+                @Override
+                public Map<String, Long> reduce(Collection<TermCountCollector> collectors) throws IOException {
+                    Map<String, Long> merged = new HashMap<>();
+                    for (TermCountCollector collector : collectors) {
+                        collector.flush();
+                        collector.counts.forEach((value, count) -> merged.merge(value, count, Long::sum));
+                    }
+                    return merged;
+                }
+            }));
+        
+        Map<String, Long> top = new LinkedHashMap<>();
+        if (counts != null) {
+            counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(size)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        }
+        return top;
+    }
+    
+    /**
+     * Commit pending writes and close every partition
+     */
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdownNow();
+        IOException failure = null;
+        for (Partition partition : partitions.values()) {
+            try {
+                partition.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        partitions.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+    
+    /**
+     * Run a search over the partitions whose day overlaps the query's time range
+     *
+     * @return the result, or null if no partition overlaps
+     */
+    private <T> T withSearcher(LogQuery query, SearcherFunction<T> function) throws IOException {
+        List<Partition> selected = new ArrayList<>();
+        for (Partition partition : partitions.values()) {
+            if (partition.overlaps(query.getFrom(), query.getTo())) {
+                selected.add(partition);
+            }
+        }
+        if (selected.isEmpty()) {
+            return null;
+        }
+        
+        List<IndexSearcher> acquired = new ArrayList<>(selected.size());
+        try {
+            for (Partition partition : selected) {
+                acquired.add(partition.searcherManager.acquire());
+            }
+            IndexReader[] readers = new IndexReader[acquired.size()];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = acquired.get(i).getIndexReader();
+            }
+            try (MultiReader reader = new MultiReader(readers, false)) {
+                return function.apply(new IndexSearcher(reader));
+            }
+        } finally {
+            for (int i = 0; i < acquired.size(); i++) {
+                selected.get(i).searcherManager.release(acquired.get(i));
+            }
+        }
+    }
+    
+    /**
+     * Filters of a query as a Lucene query. The text is analyzed like the message
+     * field and every term must match.
+     */
+    private Query buildQuery(LogQuery query) throws IOException {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        int clauses = 0;
+        clauses += addTerm(builder, TENANT_ID, query.getTenantId());
+        clauses += addTerm(builder, ACTION, query.getAction());
+        clauses += addTerm(builder, STATUS, query.getStatus());
+        clauses += addTerm(builder, USER_ID, query.getUserId());
+        clauses += addTerm(builder, ACTOR_IP, query.getActorIp());
+        if (query.getFrom() != null || query.getTo() != null) {
+            long from = query.getFrom() != null ? query.getFrom().toEpochMilli() : Long.MIN_VALUE;
+            long to = query.getTo() != null ? query.getTo().toEpochMilli() : Long.MAX_VALUE;
+            builder.add(LongPoint.newRangeQuery(TIMESTAMP, from, to), Occur.FILTER);
+            clauses++;
+        }
+        for (MetadataFilter filter : query.getMetadataFilters()) {
+            String field = METADATA + "." + filter.getKey();
+            clauses += addTerm(builder, field, filter.getValue());
+            if (filter.getGte() != null || filter.getLte() != null) {
+                builder.add(TermRangeQuery.newStringRange(field, filter.getGte(), filter.getLte(), true, true), Occur.FILTER);
+                clauses++;
+            }
+        }
+        if (query.getText() != null && !query.getText().isBlank()) {
+            try (TokenStream tokens = analyzer.tokenStream(MESSAGE, query.getText())) {
+                CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+                tokens.reset();
+                while (tokens.incrementToken()) {
+                    builder.add(new TermQuery(new Term(MESSAGE, term.toString())), Occur.FILTER);
+                    clauses++;
+                }
+                tokens.end();
+            }
+        }
+        return clauses > 0 ? builder.build() : new MatchAllDocsQuery();
+    }
+    
+    private static int addTerm(BooleanQuery.Builder builder, String field, String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        builder.add(new TermQuery(new Term(field, value)), Occur.FILTER);
+        return 1;
+    }
+    
+    /**
+     * Hits after a cursor in newest-first order: older, or as old with a smaller ID
+     */
+    private static Query after(long timestampMillis, String documentId) {
+        Query sameTimestamp = new BooleanQuery.Builder()
+            .add(LongPoint.newExactQuery(TIMESTAMP, timestampMillis), Occur.FILTER)
+            .add(new TermRangeQuery(ID, null, new BytesRef(documentId), false, false), Occur.FILTER)
+            .build();
+        return new BooleanQuery.Builder()
+            .add(LongPoint.newRangeQuery(TIMESTAMP, Long.MIN_VALUE, timestampMillis - 1), Occur.SHOULD)
+            .add(sameTimestamp, Occur.SHOULD)
+            .setMinimumNumberShouldMatch(1)
+            .build();
+    }
+    
+    private Document toDocument(LogDocument logDocument) throws IOException {
+        LogEvent event = logDocument.getEvent();
+        Document document = new Document();
+        document.add(new StringField(ID, logDocument.getDocumentId(), Field.Store.YES));
+        document.add(new SortedDocValuesField(ID, new BytesRef(logDocument.getDocumentId())));
+        long timestamp = event.getTimestamp().toEpochMilli();
+        document.add(new LongPoint(TIMESTAMP, timestamp));
+        document.add(new NumericDocValuesField(TIMESTAMP, timestamp));
+        document.add(new StoredField(TIMESTAMP, timestamp));
+        addKeyword(document, TENANT_ID, event.getTenantId(), true);
+        addKeyword(document, USER_ID, event.getUserId(), true);
+        addKeyword(document, ACTION, event.getAction(), true);
+        addKeyword(document, STATUS, event.getStatus(), true);
+        addKeyword(document, ACTOR_IP, event.getActorIp(), false);
+        if (event.getMessage() != null) {
+            document.add(new TextField(MESSAGE, event.getMessage(), Field.Store.YES));
+        }
+        if (event.getMetadata() != null && !event.getMetadata().isEmpty()) {
+            document.add(new StoredField(METADATA, MAPPER.writeValueAsBytes(event.getMetadata())));
+            addMetadataKeywords(document, METADATA, event.getMetadata());
+        }
+        return document;
+    }
+    
+    /**
+     * Index scalar metadata values by their dotted path, without storing them
+     */
+    private static void addMetadataKeywords(Document document, String prefix, Map<?, ?> values) {
+        for (Map.Entry<?, ?> entry : values.entrySet()) {
+            String field = prefix + "." + entry.getKey();
+            Object value = entry.getValue();
+            if (value instanceof Map<?, ?> nested) {
+                addMetadataKeywords(document, field, nested);
+            } else if (value != null && !(value instanceof List)) {
+                document.add(new StringField(field, value.toString(), Field.Store.NO));
+            }
+        }
+    }
+    
+    private static void addKeyword(Document document, String field, String value, boolean docValues) {
+        if (value == null) {
+            return;
+        }
+        document.add(new StringField(field, value, Field.Store.YES));
+        if (docValues) {
+            document.add(new SortedDocValuesField(field, new BytesRef(value)));
+        }
+    }
+    
+    private static LogEvent toEvent(Document document) throws IOException {
+        LogEvent event = new LogEvent(
+            Instant.ofEpochMilli(document.getField(TIMESTAMP).numericValue().longValue()),
+            document.get(TENANT_ID),
+            document.get(USER_ID),
+            document.get(ACTION),
+            document.get(STATUS),
+            document.get(ACTOR_IP),
+            document.get(MESSAGE)
+        );
+        BytesRef metadata = document.getBinaryValue(METADATA);
+        if (metadata != null) {
+            event.setMetadata(MAPPER.readValue(metadata.bytes, metadata.offset, metadata.length, METADATA_TYPE));
+        }
+        return event;
+    }
+    
+    /**
+     * The partition of a day, opened on first use
+     */
+    private Partition partition(String name) {
+        LocalDate day = parseDay(name);
+        if (day == null) {
+            throw new IllegalArgumentException("Not a daily partition: " + name);
+        }
+        return partitions.computeIfAbsent(name, key -> {
+            try {
+                return new Partition(root.resolve(key), day, false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open partition " + key, e);
+            }
+        });
+    }
+    
+    private void openExistingPartitions() throws IOException {
+        try (DirectoryStream<Path> directories = Files.newDirectoryStream(root, PARTITION_PREFIX + "*")) {
+            for (Path directory : directories) {
+                String name = directory.getFileName().toString();
+                LocalDate day = parseDay(name);
+                if (day == null || partitions.containsKey(name)) {
+                    continue;
+                }
+                if (readOnly) {
+                    try (Directory probe = FSDirectory.open(directory)) {
+                        // The writer has not committed this day yet
+                        if (!DirectoryReader.indexExists(probe)) {
+                            continue;
+                        }
+                    }
+                }
+                partitions.put(name, new Partition(directory, day, readOnly));
+            }
+        }
+    }
+    
+    /**
+     * Reopen every partition's reader on its latest writes (or commits, when read-only),
+     * waiting for a refresh already in progress. A partition that fails is retried on the
+     * next refresh without holding back the others.
+     */
+    void refresh() {
+        if (readOnly) {
+            try {
+                openExistingPartitions();
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to open new Lucene partitions under {}", root, e);
+            }
+        }
+        for (Partition partition : partitions.values()) {
+            try {
+                partition.searcherManager.maybeRefreshBlocking();
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to refresh Lucene partition {}", partition.day, e);
+            }
+        }
+    }
+    
+    private void commit() {
+        for (Partition partition : partitions.values()) {
+            try {
+                if (partition.writer.hasUncommittedChanges()) {
+                    partition.writer.commit();
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to commit Lucene partition {}", partition.day, e);
+            }
+        }
+    }
+    
+    private static LocalDate parseDay(String name) {
+        if (!name.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(name.substring(PARTITION_PREFIX.length()), DATE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    @FunctionalInterface
+    private interface SearcherFunction<T> {
+        T apply(IndexSearcher searcher) throws IOException;
+    }
+    
+    /**
+     * One day's index, with a writer unless the store is read-only
+     */
+    private final class Partition implements Closeable {
+        
+        private final LocalDate day;
+        private final Directory directory;
+        private final IndexWriter writer;
+        private final SearcherManager searcherManager;
+        
+        Partition(Path path, LocalDate day, boolean readOnly) throws IOException {
+            this.day = day;
+            this.directory = FSDirectory.open(path);
+            if (readOnly) {
+                this.writer = null;
+                this.searcherManager = new SearcherManager(directory, null);
+            } else {
+                IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                    .setRAMBufferSizeMB(ramBufferMb);
+                this.writer = new IndexWriter(directory, config);
+                this.searcherManager = new SearcherManager(writer, null);
+            }
+        }
+        
+        /**
+         * Whether the day overlaps a time range; null bounds are open
+         */
+        boolean overlaps(Instant from, Instant to) {
+            Instant dayStart = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+            Instant dayEnd = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            return (to == null || !dayStart.isAfter(to)) && (from == null || dayEnd.isAfter(from));
+        }
+        
+        @Override
+        public void close() throws IOException {
+            try {
+                searcherManager.close();
+                if (writer != null) {
+                    // Commits pending writes
+                    writer.close();
+                }
+            } finally {
+                directory.close();
+            }
+        }
+    }
+    
+    /**
+     * Counts matching documents per value of a keyword field, by ordinal within each
+     * segment, resolving ordinals to values once per segment
+     */
+    private static final class TermCountCollector extends SimpleCollector {
+        
+        private final String field;
+        private final Map<String, Long> counts = new HashMap<>();
+        private SortedDocValues values;
+        private long[] ordinalCounts;
+        
+        TermCountCollector(String field) {
+            this.field = field;
+        }
+        
+        @Override
+        protected void doSetNextReader(LeafReaderContext context) throws IOException {
+            flush();
+            values = DocValues.getSorted(context.reader(), field);
+            ordinalCounts = new long[values.getValueCount()];
+        }
+        
+        @Override
+        public void collect(int doc) throws IOException {
+            if (values.advanceExact(doc)) {
+                ordinalCounts[values.ordValue()]++;
+            }
+        }
+        
+        @Override
+        public ScoreMode scoreMode() {
+            return ScoreMode.COMPLETE_NO_SCORES;
+        }
+        
+        void flush() throws IOException {
+            if (values == null) {
+                return;
+            }
+            for (int ordinal = 0; ordinal < ordinalCounts.length; ordinal++) {
+                if (ordinalCounts[ordinal] > 0) {
+                    counts.merge(values.lookupOrd(ordinal).utf8ToString(), ordinalCounts[ordinal], Long::sum);
+                }
+            }
+            values = null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.haiphamcoder.tracehub.store.lucene;
+
+import com.haiphamcoder.tracehub.common.store.LogStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for the embedded Lucene log store, selected with
+ * {@code tracehub.store.type=lucene} when this module is on the classpath
+ */
+@AutoConfiguration
+@ConditionalOnProperty(name = "tracehub.store.type", havingValue = "lucene")
+public class LuceneStoreConfig {
+    
+    @Value("${tracehub.store.lucene.path:${java.io.tmpdir}/tracehub-lucene}")
+    private String path;
+    
+    @Value("${tracehub.store.lucene.read-only:false}")
+    private boolean readOnly;
+    
+    @Value("${tracehub.store.lucene.refresh-interval:1s}")
+    private Duration refreshInterval;
+    
+    @Value("${tracehub.store.lucene.commit-interval:30s}")
+    private Duration commitInterval;
+    
+    @Value("${tracehub.store.lucene.ram-buffer-mb:64}")
+    private double ramBufferMb;
+    
+    @Bean
+    public LogStore logStore() throws IOException {
+        return new LuceneLogStore(Path.of(path), readOnly, refreshInterval, commitInterval, ramBufferMb);
+    }
+}
@@ -0,0 +1,83 @@
+package com.haiphamcoder.tracehub.store.lucene;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.haiphamcoder.tracehub.common.dto.LogEvent;
+import com.haiphamcoder.tracehub.common.store.LogDocument;
+import com.haiphamcoder.tracehub.common.store.LogHit;
+import com.haiphamcoder.tracehub.common.store.LogHits;
+import com.haiphamcoder.tracehub.common.store.LogQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class LuceneLogStoreTests {
+
+	private static final Instant DAY = Instant.parse("2024-01-15T00:00:00Z");
+
+	@Test
+	void pagesNewestFirstAcrossDailyPartitions(@TempDir Path dir) throws Exception {
+		try (LuceneLogStore store = new LuceneLogStore(dir, false, Duration.ofMillis(10), Duration.ofHours(1), 16)) {
+			List<LogDocument> documents = new ArrayList<>();
+			for (int i = 0; i < 300; i++) {
+				// Pairs of events share a timestamp; the last ones fall on the next day
+				Instant timestamp = DAY.plusSeconds(i / 2 * 600L);
+				LogEvent event = new LogEvent(timestamp, i % 4 == 0 ? "other" : "acme", "user-" + (i % 3), "LOGIN",
+						i % 2 == 0 ? "FAILURE" : "SUCCESS", "10.0.0.1", "login attempt number " + i);
+				event.setMetadata(Map.of("attempt", i));
+				documents.add(new LogDocument("logs-tracehub-" + (timestamp.isBefore(DAY.plus(Duration.ofDays(1))) ? "2024.01.15" : "2024.01.16"),
+						String.format("doc-%04d", i), event));
+			}
+			assertTrue(store.write(documents).isEmpty());
+			// Redelivered documents replace their earlier copy
+			assertTrue(store.write(documents.subList(0, 10)).isEmpty());
+			store.refresh();
+
+			LogQuery query = new LogQuery();
+			query.setTenantId("acme");
+			query.setFrom(DAY);
+			query.setTo(DAY.plus(Duration.ofDays(2)));
+			query.setLimit(20);
+
+			Set<String> seen = new HashSet<>();
+			long previous = Long.MAX_VALUE;
+			while (true) {
+				LogHits page = store.search(query);
+				assertEquals(225, page.getTotal());
+				for (LogHit hit : page.getHits()) {
+					assertTrue(hit.getTimestampMillis() <= previous);
+					assertTrue(seen.add(hit.getDocumentId()));
+					assertEquals("acme", hit.getEvent().getTenantId());
+					assertTrue(hit.getEvent().getMetadata().containsKey("attempt"));
+					previous = hit.getTimestampMillis();
+				}
+				if (page.getHits().size() < 20) {
+					break;
+				}
+				LogHit last = page.getHits().get(19);
+				query.setAfter(last.getTimestampMillis(), last.getDocumentId());
+			}
+			assertEquals(225, seen.size());
+
+			LogQuery text = new LogQuery();
+			text.setTenantId("acme");
+			text.setText("Attempt 7");
+			assertEquals(1, store.search(text).getTotal());
+
+			LogQuery all = new LogQuery();
+			all.setTenantId("acme");
+			Map<String, Long> byStatus = store.aggregate(all, "status", 10);
+			assertEquals(Map.of("SUCCESS", 150L, "FAILURE", 75L), byStatus);
+			assertEquals(List.of("SUCCESS", "FAILURE"), new ArrayList<>(byStatus.keySet()));
+		}
+	}
+}